@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core;
+
+/**
+ * Represents an error reading from or writing to the data connection, such as the connection being
+ * closed or reset by the client (or by an injected fault) during a transfer.
+ */
+public class DataConnectionException extends MockFtpServerException {
+
+    /**
+     * @param cause - the cause exception
+     */
+    public DataConnectionException(Throwable cause) {
+        super(cause);
+    }
+
+    /**
+     * @param message - the exception message
+     * @param cause - the cause exception
+     */
+    public DataConnectionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
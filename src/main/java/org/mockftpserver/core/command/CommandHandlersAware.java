@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.command;
+
+import java.util.Map;
+
+/**
+ * Interface for CommandHandlers that need to know which commands are supported by the server, and by which
+ * CommandHandlers, such as the FEAT command. The server sets the Map of its registered CommandHandlers, keyed
+ * by (normalized) command name, when the CommandHandler is registered.
+ *
+ * @see FeatureUtil
+ */
+public interface CommandHandlersAware {
+
+    /**
+     * Set the CommandHandlers registered with the server. The Map is a read-only view, which reflects any
+     * CommandHandlers that are registered later.
+     *
+     * @param commandHandlers - the Map of command name to CommandHandler
+     */
+    public void setCommandHandlers(Map commandHandlers);
+
+}
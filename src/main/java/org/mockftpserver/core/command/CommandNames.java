@@ -31,12 +31,19 @@ public final class CommandNames {
     public static final String DELE = "DELE";
     public static final String EPRT = "EPRT";
     public static final String EPSV = "EPSV";
+    public static final String FEAT = "FEAT";
+    public static final String HASH = "HASH";
     public static final String HELP = "HELP";
     public static final String LIST = "LIST";
+    public static final String MDTM = "MDTM";
+    public static final String MFMT = "MFMT";
     public static final String MKD = "MKD";
+    public static final String MLSD = "MLSD";
+    public static final String MLST = "MLST";
     public static final String MODE = "MODE";
     public static final String NLST = "NLST";
     public static final String NOOP = "NOOP";
+    public static final String OPTS = "OPTS";
     public static final String PASS = "PASS";
     public static final String PASV = "PASV";
     public static final String PORT = "PORT";
@@ -59,7 +66,12 @@ public final class CommandNames {
     public static final String TYPE = "TYPE";
     public static final String USER = "USER";
 
+    public static final String XCRC = "XCRC";
+    public static final String XMD5 = "XMD5";
     public static final String XPWD = "XPWD";
+    public static final String XSHA1 = "XSHA1";
+    public static final String XSHA256 = "XSHA256";
+    public static final String XSHA512 = "XSHA512";
 
     // Special commands - not "real" FTP commands
     public static final String CONNECT = "CONNECT";
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.command;
+
+/**
+ * Interface for CommandHandlers that implement an extension (RFC 2389) of their command, such as "MODE Z" or
+ * "REST STREAM". The FEAT command advertises such an extension only if the CommandHandler registered for the
+ * command implements this interface, since a plain handler for the same command does not support it.
+ *
+ * @see FeatureUtil
+ */
+public interface FeatureSupport {
+
+    /**
+     * @return the feature line to advertise in reply to the FEAT command, without the leading space, for
+     *         instance "MODE Z"; or null to advertise no feature
+     */
+    public String getFeature();
+
+}
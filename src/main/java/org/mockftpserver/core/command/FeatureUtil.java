@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.command;
+
+import org.mockftpserver.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contains common utility methods to determine the extensions to advertise in reply to the FEAT
+ * command (RFC 2389).
+ */
+public final class FeatureUtil {
+
+    /**
+     * The UTF8 feature (RFC 2640), advertised if the OPTS command is supported
+     */
+    public static final String UTF8 = "UTF8";
+
+    // Pairs of (command name, feature line), in the order that the features are listed. A null feature line
+    // marks an extension that is advertised only if the CommandHandler for the command implements FeatureSupport
+    private static final String[][] FEATURES = {
+            {CommandNames.EPRT, "EPRT"},
+            {CommandNames.EPSV, "EPSV"},
+            {CommandNames.HASH, "HASH"},
+            {CommandNames.MDTM, "MDTM"},
+            {CommandNames.MFMT, "MFMT"},
+            {CommandNames.MLST, "MLST type*;size*;modify*;perm*;unique*;"},
+            {CommandNames.MODE, null},
+            {CommandNames.REST, null},
+            {CommandNames.SIZE, "SIZE"},
+            {CommandNames.OPTS, UTF8},
+            {CommandNames.XCRC, "XCRC"},
+            {CommandNames.XMD5, "XMD5"},
+            {CommandNames.XSHA1, "XSHA1"},
+            {CommandNames.XSHA256, "XSHA256"},
+            {CommandNames.XSHA512, "XSHA512"},
+    };
+
+    /**
+     * Return the features (extensions) corresponding to the specified registered CommandHandlers, one feature
+     * line (without the leading space) per feature. A CommandHandler that implements {@link FeatureSupport}
+     * determines its own feature line; extensions such as "MODE Z" and "REST STREAM" are advertised only by
+     * such CommandHandlers.
+     *
+     * @param commandHandlers - the Map of command name to registered CommandHandler
+     * @return the List of feature lines; may be empty
+     * @throws org.mockftpserver.core.util.AssertFailedException - if commandHandlers is null
+     */
+    public static List getFeatures(Map commandHandlers) {
+        Assert.notNull(commandHandlers, "commandHandlers");
+        List features = new ArrayList();
+        for (int i = 0; i < FEATURES.length; i++) {
+            Object commandHandler = commandHandlers.get(FEATURES[i][0]);
+            String feature = (commandHandler instanceof FeatureSupport)
+                    ? ((FeatureSupport) commandHandler).getFeature()
+                    : (commandHandler != null) ? FEATURES[i][1] : null;
+            if (feature != null) {
+                features.add(feature);
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Format the feature lines as the body of a multi-line FEAT reply: each feature line is preceded by
+     * a single space and followed by the end-of-line characters
+     *
+     * @param features  - the feature lines
+     * @param endOfLine - the end-of-line character(s)
+     * @return the formatted feature lines
+     */
+    public static String formatFeatures(Collection features, String endOfLine) {
+        StringBuffer buffer = new StringBuffer(endOfLine);
+        for (Iterator iter = features.iterator(); iter.hasNext();) {
+            buffer.append(' ').append(iter.next()).append(endOfLine);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Private constructor. This class should not be instantiated.
+     */
+    private FeatureUtil() {
+    }
+
+}
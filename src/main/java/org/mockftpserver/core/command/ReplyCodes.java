@@ -26,14 +26,21 @@ public final class ReplyCodes {
     public static final int ACCT_OK = 230;
     public static final int ALLO_OK = 200;
     public static final int CDUP_OK = 200;
+    public static final int CHECKSUM_OK = 250;
     public static final int CWD_OK = 250;
     public static final int DELE_OK = 250;
     public static final int EPRT_OK = 200;
     public static final int EPSV_OK = 229;
+    public static final int FEAT_OK = 211;
+    public static final int HASH_OK = 213;
     public static final int HELP_OK = 214;
+    public static final int MDTM_OK = 213;
+    public static final int MFMT_OK = 213;
     public static final int MKD_OK = 257;
+    public static final int MLST_OK = 250;
     public static final int MODE_OK = 200;
     public static final int NOOP_OK = 200;
+    public static final int OPTS_OK = 200;
     public static final int PASS_OK = 230;
     public static final int PASS_NEED_ACCOUNT = 332;
     public static final int PASS_LOG_IN_FAILED = 530;
@@ -61,6 +68,7 @@ public final class ReplyCodes {
 
     public static final int TRANSFER_DATA_INITIAL_OK = 150;
     public static final int TRANSFER_DATA_FINAL_OK = 226;
+    public static final int TRANSFER_ABORTED = 426;
 
     public static final int CONNECT_OK = 220;
 
@@ -69,10 +77,12 @@ public final class ReplyCodes {
     public static final int COMMAND_SYNTAX_ERROR = 501;
     public static final int COMMAND_NOT_SUPPORTED = 502;
     public static final int ILLEGAL_STATE = 503;       // Bad sequence
+    public static final int PARAMETER_NOT_SUPPORTED = 504;
     public static final int NOT_LOGGED_IN = 530;
     public static final int READ_FILE_ERROR = 550;
     public static final int WRITE_FILE_ERROR = 553;
     public static final int FILENAME_NOT_VALID = 553;
+    public static final int RESTART_MARKER_NOT_VALID = 554;
 
     /**
      * Private constructor. This class should not be instantiated.
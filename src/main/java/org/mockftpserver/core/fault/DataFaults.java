@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault;
+
+import org.mockftpserver.core.util.Assert;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * Tracks the number of bytes transferred on a data connection, and injects the faults of a FaultRule
+ * when the transfer reaches the configured byte counts
+ */
+class DataFaults {
+
+    private final Socket socket;
+    private final FaultRule faultRule;
+    private long numBytesTransferred;
+    private boolean stalled;
+
+    DataFaults(Socket socket, FaultRule faultRule) {
+        Assert.notNull(socket, "socket");
+        Assert.notNull(faultRule, "faultRule");
+        this.socket = socket;
+        this.faultRule = faultRule;
+    }
+
+    /**
+     * Inject any faults due before transferring more bytes, and return how many of the requested bytes can be
+     * transferred before the next fault is due
+     *
+     * @param numBytesRequested - the number of bytes requested to be transferred; must be positive
+     * @return the number of bytes to transfer, between 1 and numBytesRequested; or -1 if the transfer is truncated
+     * @throws IOException - if the connection is reset or the thread is interrupted
+     */
+    int beforeTransfer(int numBytesRequested) throws IOException {
+        if (numBytesTransferred == 0 && faultRule.getFirstByteDelayMillis() > 0) {
+            FaultInjector.pause(faultRule.getFirstByteDelayMillis());
+        }
+        long stallAfterBytes = faultRule.getStallAfterBytes();
+        if (!stalled && stallAfterBytes != FaultRule.NONE && numBytesTransferred >= stallAfterBytes) {
+            stalled = true;
+            FaultInjector.pause(faultRule.getStallMillis());
+        }
+        if (faultRule.getResetAfterBytes() != FaultRule.NONE && numBytesTransferred >= faultRule.getResetAfterBytes()) {
+            reset();
+        }
+        if (faultRule.getTruncateAfterBytes() != FaultRule.NONE && numBytesTransferred >= faultRule.getTruncateAfterBytes()) {
+            return -1;
+        }
+        long numBytes = numBytesRequested;
+        numBytes = limit(numBytes, stalled ? FaultRule.NONE : stallAfterBytes);
+        numBytes = limit(numBytes, faultRule.getResetAfterBytes());
+        numBytes = limit(numBytes, faultRule.getTruncateAfterBytes());
+        return (int) numBytes;
+    }
+
+    void afterTransfer(int numBytes) {
+        numBytesTransferred += numBytes;
+    }
+
+    private long limit(long numBytes, long faultAfterBytes) {
+        return (faultAfterBytes == FaultRule.NONE || faultAfterBytes <= numBytesTransferred)
+                ? numBytes : Math.min(numBytes, faultAfterBytes - numBytesTransferred);
+    }
+
+    private void reset() throws IOException {
+        socket.setSoLinger(true, 0);
+        socket.close();
+        throw new SocketException("Connection reset (injected fault after " + numBytesTransferred + " bytes)");
+    }
+
+}
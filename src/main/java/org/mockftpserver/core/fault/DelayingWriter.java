@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.mockftpserver.core.util.Assert;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Writer that can delay the text written up to a flush, without blocking the writing thread. The text is
+ * buffered until <code>flush()</code> is called, and then either written through immediately or, if a delay has
+ * been requested by calling {@link #delayNextFlush(long)}, held and written later. A shared timer releases the
+ * held text when its delay has passed, and hands the write to a pool of writer threads, so that the timer is
+ * never blocked by a slow connection.
+ *
+ * <p>Text is always written in order: text flushed without a delay while earlier text is still being held is
+ * itself held, and written immediately after it. Closing the writer writes any held text immediately.
+ *
+ * <p>This class is thread-safe.
+ */
+public class DelayingWriter extends Writer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DelayingWriter.class);
+
+    private final Writer out;
+    private final ScheduledExecutorService timer;
+    private final Executor writerPool;
+    private final StringBuilder buffer = new StringBuilder();
+    private final LinkedList heldTexts = new LinkedList();
+    private long nextDelayNanos;
+    private long lastReleaseTime;
+    private boolean releaseScheduled;
+    private IOException failure;
+
+    /**
+     * Construct a new instance
+     *
+     * @param out        - the Writer to which the text is written
+     * @param timer      - the timer used to release delayed text
+     * @param writerPool - the Executor used to write delayed text
+     */
+    public DelayingWriter(Writer out, ScheduledExecutorService timer, Executor writerPool) {
+        Assert.notNull(out, "out");
+        Assert.notNull(timer, "timer");
+        Assert.notNull(writerPool, "writerPool");
+        this.out = out;
+        this.timer = timer;
+        this.writerPool = writerPool;
+    }
+
+    /**
+     * Delay the text written up to the next flush by the specified time. The delay is measured from that flush.
+     *
+     * @param delayMillis - the delay in milliseconds
+     */
+    public synchronized void delayNextFlush(long delayMillis) {
+        nextDelayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    }
+
+    public synchronized void write(char[] chars, int offset, int length) throws IOException {
+        checkFailure();
+        buffer.append(chars, offset, length);
+    }
+
+    public synchronized void flush() throws IOException {
+        checkFailure();
+        String text = buffer.toString();
+        buffer.setLength(0);
+        long delayNanos = nextDelayNanos;
+        nextDelayNanos = 0;
+
+        if (delayNanos == 0 && heldTexts.isEmpty()) {
+            out.write(text);
+            out.flush();
+            return;
+        }
+        long releaseTime = System.nanoTime() + delayNanos;
+        if (!heldTexts.isEmpty() && lastReleaseTime - releaseTime > 0) {
+            releaseTime = lastReleaseTime;
+        }
+        heldTexts.add(new HeldText(text, releaseTime));
+        lastReleaseTime = releaseTime;
+        if (!releaseScheduled) {
+            scheduleRelease();
+        }
+    }
+
+    /**
+     * Write any held text immediately, and close the underlying Writer
+     */
+    public synchronized void close() throws IOException {
+        nextDelayNanos = 0;
+        try {
+            flush();
+            writeHeldTexts(true);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private void scheduleRelease() {
+        HeldText next = (HeldText) heldTexts.getFirst();
+        releaseScheduled = true;
+        final Runnable release = new Runnable() {
+            public void run() {
+                release();
+            }
+        };
+        timer.schedule(new Runnable() {
+            public void run() {
+                writerPool.execute(release);
+            }
+        }, next.releaseTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void release() {
+        releaseScheduled = false;
+        if (heldTexts.isEmpty()) {
+            return;
+        }
+        try {
+            writeHeldTexts(false);
+        }
+        catch (IOException e) {
+            LOG.error("Error writing delayed text", e);
+            failure = e;
+            heldTexts.clear();
+        }
+        if (!heldTexts.isEmpty()) {
+            scheduleRelease();
+        }
+    }
+
+    private void writeHeldTexts(boolean all) throws IOException {
+        while (!heldTexts.isEmpty() && (all || ((HeldText) heldTexts.getFirst()).releaseTime - System.nanoTime() <= 0)) {
+            out.write(((HeldText) heldTexts.removeFirst()).text);
+        }
+        out.flush();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static class HeldText {
+        private final String text;
+        private final long releaseTime;
+
+        private HeldText(String text, long releaseTime) {
+            this.text = text;
+            this.releaseTime = releaseTime;
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+
+/**
+ * An InputStream for a data connection that injects the data connection faults of a {@link FaultRule}:
+ * a delay before the first byte, a single stall, a connection reset or a silent truncation (end of stream),
+ * each after a number of bytes.
+ */
+public class FaultInjectingInputStream extends FilterInputStream {
+
+    private final DataFaults faults;
+    private final byte[] singleByte = new byte[1];
+
+    /**
+     * Construct a new instance
+     *
+     * @param in        - the InputStream of the data connection
+     * @param socket    - the Socket of the data connection, which is reset if the rule requires
+     * @param faultRule - the FaultRule
+     */
+    public FaultInjectingInputStream(InputStream in, Socket socket, FaultRule faultRule) {
+        super(in);
+        this.faults = new DataFaults(socket, faultRule);
+    }
+
+    public int read() throws IOException {
+        int numBytes = read(singleByte, 0, 1);
+        return (numBytes == -1) ? -1 : (singleByte[0] & 0xFF);
+    }
+
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int numBytesAllowed = faults.beforeTransfer(length);
+        if (numBytesAllowed < 0) {
+            return -1;      // truncated
+        }
+        int numBytes = in.read(bytes, offset, numBytesAllowed);
+        if (numBytes > 0) {
+            faults.afterTransfer(numBytes);
+        }
+        return numBytes;
+    }
+
+    public long skip(long n) throws IOException {
+        return (n <= 0) ? 0 : Math.max(0, read(new byte[(int) Math.min(n, 8192)]));
+    }
+
+    public boolean markSupported() {
+        return false;
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault;
+
+import org.mockftpserver.core.util.Assert;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * An OutputStream for a data connection that injects the data connection faults of a {@link FaultRule}:
+ * a delay before the first byte, a single stall, a connection reset or a silent truncation, each after
+ * a number of bytes.
+ */
+public class FaultInjectingOutputStream extends FilterOutputStream {
+
+    private final DataFaults faults;
+
+    /**
+     * Construct a new instance
+     *
+     * @param out       - the OutputStream of the data connection
+     * @param socket    - the Socket of the data connection, which is reset if the rule requires
+     * @param faultRule - the FaultRule
+     */
+    public FaultInjectingOutputStream(OutputStream out, Socket socket, FaultRule faultRule) {
+        super(out);
+        this.faults = new DataFaults(socket, faultRule);
+    }
+
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        Assert.notNull(bytes, "bytes");
+        while (length > 0) {
+            int numBytes = faults.beforeTransfer(length);
+            if (numBytes < 0) {
+                return;     // truncated: discard the rest
+            }
+            out.write(bytes, offset, numBytes);
+            faults.afterTransfer(numBytes);
+            offset += numBytes;
+            length -= numBytes;
+        }
+    }
+
+}
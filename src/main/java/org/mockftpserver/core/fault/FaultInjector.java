@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.util.Assert;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Injects latency and faults into the control and data connections of sessions, to test the timeout and
+ * retry handling of FTP clients. Each command received by a session is checked against the configured
+ * {@link FaultRule}s, in order, and the first rule that matches applies to the replies and data transfers
+ * for that command.
+ *
+ * <p>Delayed replies are held in memory and released by a single timer thread shared by all sessions, rather than
+ * by sleeping session threads. The timer only schedules the replies; they are written to the control connections
+ * by a shared pool of writer threads, so a client that is slow to read its replies does not delay the replies of
+ * other sessions. Delays and stalls within a data transfer pause the thread performing that transfer.
+ *
+ * <p>Rules can be added or removed at any time, including while sessions are running. This class is thread-safe.
+ *
+ * @see FaultRule
+ */
+public class FaultInjector {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+            daemonThreadFactory("MockFtpServer-FaultInjector"));
+    private static final ExecutorService WRITER_POOL = Executors.newCachedThreadPool(
+            daemonThreadFactory("MockFtpServer-FaultInjector-Writer"));
+
+    // Replaced as a whole by setRules(), so that selectRule() always sees either the old or the new rules
+    private volatile List rules = new CopyOnWriteArrayList();
+
+    /**
+     * Return the first FaultRule that applies to the specified command, sent by the specified user
+     *
+     * @param command  - the Command
+     * @param username - the name of the user for the session; may be null
+     * @return the FaultRule, or null if no rule applies
+     */
+    public FaultRule selectRule(Command command, String username) {
+        for (int i = 0; i < rules.size(); i++) {
+            FaultRule rule = (FaultRule) rules.get(i);
+            if (rule.matches(command, username)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a FaultRule, after any existing rules
+     *
+     * @param rule - the FaultRule; must not be null
+     */
+    public synchronized void addRule(FaultRule rule) {
+        Assert.notNull(rule, "rule");
+        rules.add(rule);
+    }
+
+    /**
+     * Remove the FaultRule. Do nothing if it has not been added.
+     *
+     * @param rule - the FaultRule
+     */
+    public synchronized void removeRule(FaultRule rule) {
+        rules.remove(rule);
+    }
+
+    /**
+     * Replace all of the FaultRules
+     *
+     * @param rules - the List of FaultRule objects; must not be null
+     */
+    public synchronized void setRules(List rules) {
+        Assert.notNull(rules, "rules");
+        this.rules = new CopyOnWriteArrayList(rules);
+    }
+
+    /**
+     * @return a copy of the List of FaultRule objects
+     */
+    public List getRules() {
+        return new ArrayList(rules);
+    }
+
+    /**
+     * @return the timer shared by all sessions to release delayed replies
+     */
+    public ScheduledExecutorService getTimer() {
+        return TIMER;
+    }
+
+    /**
+     * @return the pool of threads shared by all sessions to write delayed replies
+     */
+    public ExecutorService getWriterPool() {
+        return WRITER_POOL;
+    }
+
+    /**
+     * Pause the current thread within a data transfer
+     *
+     * @param millis - the number of milliseconds to pause
+     * @throws InterruptedIOException - if the thread is interrupted
+     */
+    static void pause(long millis) throws InterruptedIOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during an injected data transfer delay");
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String name) {
+        return new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.util.Assert;
+import org.mockftpserver.core.util.PatternUtil;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * A rule for the {@link FaultInjector}, which selects the commands to which it applies and the faults to inject
+ * while handling them.
+ *
+ * <p>The selection criteria are all optional; a null value matches anything:
+ * <ul>
+ * <li><code>commandName</code> - the command name, compared ignoring case (e.g. "RETR")</li>
+ * <li><code>pathPattern</code> - a pattern, optionally containing wildcards ('*' or '?'), that must match
+ * the first parameter of the command, as sent by the client (e.g. "*.zip")</li>
+ * <li><code>username</code> - the name of the user for the session, as sent with the USER command (only
+ * recorded by the FakeFtpServer)</li>
+ * <li><code>probability</code> - the probability (between 0.0 and 1.0) that the rule applies to a command
+ * that matches the other criteria; defaults to 1.0</li>
+ * </ul>
+ *
+ * <p>The faults are all optional; a value of zero (for delays) or {@link #NONE} (for byte counts) disables them:
+ * <ul>
+ * <li><code>replyDelayMillis</code> - delay each reply sent for the command</li>
+ * <li><code>firstByteDelayMillis</code> - delay the first byte sent or received on the data connection</li>
+ * <li><code>stallAfterBytes</code> and <code>stallMillis</code> - pause the data transfer once, after the
+ * specified number of bytes</li>
+ * <li><code>resetAfterBytes</code> - reset (abort) the data connection after the specified number of bytes</li>
+ * <li><code>truncateAfterBytes</code> - silently end the data transfer after the specified number of bytes;
+ * further data sent is discarded, and further data received is ignored</li>
+ * </ul>
+ *
+ * <p>An instance is intended to be configured before it is added to a FaultInjector, and not modified afterwards.
+ */
+public class FaultRule {
+
+    public static final long NONE = -1;
+
+    private String commandName;
+    private String pathPattern;
+    private Pattern pathRegex;
+    private String username;
+    private double probability = 1.0;
+    private long replyDelayMillis;
+    private long firstByteDelayMillis;
+    private long stallAfterBytes = NONE;
+    private long stallMillis;
+    private long resetAfterBytes = NONE;
+    private long truncateAfterBytes = NONE;
+
+    /**
+     * Return true if this rule applies to the specified command, sent by the specified user. If the probability
+     * is less than 1.0, this is decided randomly for each command that matches the other criteria.
+     *
+     * @param command  - the Command
+     * @param username - the name of the user for the session; may be null
+     * @return true if this rule applies
+     */
+    public boolean matches(Command command, String username) {
+        Assert.notNull(command, "command");
+        if (commandName != null && !commandName.equalsIgnoreCase(command.getName())) {
+            return false;
+        }
+        if (pathRegex != null) {
+            String path = command.getParameter(0);
+            if (path == null || !pathRegex.matcher(path).matches()) {
+                return false;
+            }
+        }
+        if (this.username != null && !this.username.equals(username)) {
+            return false;
+        }
+        return probability >= 1.0 || ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    /**
+     * @return true if this rule injects any faults into the data connection
+     */
+    public boolean hasDataFaults() {
+        return firstByteDelayMillis > 0
+                || (stallAfterBytes != NONE && stallMillis > 0)
+                || resetAfterBytes != NONE
+                || truncateAfterBytes != NONE;
+    }
+
+    public String getCommandName() {
+        return commandName;
+    }
+
+    public void setCommandName(String commandName) {
+        this.commandName = commandName;
+    }
+
+    public String getPathPattern() {
+        return pathPattern;
+    }
+
+    public void setPathPattern(String pathPattern) {
+        this.pathPattern = pathPattern;
+        this.pathRegex = (pathPattern == null) ? null
+                : Pattern.compile(PatternUtil.convertStringWithWildcardsToRegex(pathPattern));
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    public void setProbability(double probability) {
+        Assert.isTrue(probability >= 0.0 && probability <= 1.0, "probability must be between 0.0 and 1.0");
+        this.probability = probability;
+    }
+
+    public long getReplyDelayMillis() {
+        return replyDelayMillis;
+    }
+
+    public void setReplyDelayMillis(long replyDelayMillis) {
+        Assert.isTrue(replyDelayMillis >= 0, "replyDelayMillis must not be negative");
+        this.replyDelayMillis = replyDelayMillis;
+    }
+
+    public long getFirstByteDelayMillis() {
+        return firstByteDelayMillis;
+    }
+
+    public void setFirstByteDelayMillis(long firstByteDelayMillis) {
+        Assert.isTrue(firstByteDelayMillis >= 0, "firstByteDelayMillis must not be negative");
+        this.firstByteDelayMillis = firstByteDelayMillis;
+    }
+
+    public long getStallAfterBytes() {
+        return stallAfterBytes;
+    }
+
+    public void setStallAfterBytes(long stallAfterBytes) {
+        assertValidByteCount(stallAfterBytes, "stallAfterBytes");
+        this.stallAfterBytes = stallAfterBytes;
+    }
+
+    public long getStallMillis() {
+        return stallMillis;
+    }
+
+    public void setStallMillis(long stallMillis) {
+        Assert.isTrue(stallMillis >= 0, "stallMillis must not be negative");
+        this.stallMillis = stallMillis;
+    }
+
+    public long getResetAfterBytes() {
+        return resetAfterBytes;
+    }
+
+    public void setResetAfterBytes(long resetAfterBytes) {
+        assertValidByteCount(resetAfterBytes, "resetAfterBytes");
+        this.resetAfterBytes = resetAfterBytes;
+    }
+
+    public long getTruncateAfterBytes() {
+        return truncateAfterBytes;
+    }
+
+    public void setTruncateAfterBytes(long truncateAfterBytes) {
+        assertValidByteCount(truncateAfterBytes, "truncateAfterBytes");
+        this.truncateAfterBytes = truncateAfterBytes;
+    }
+
+    private static void assertValidByteCount(long numBytes, String name) {
+        Assert.isTrue(numBytes >= 0 || numBytes == NONE, name + " must not be negative, or else NONE");
+    }
+
+    /**
+     * @return the String representation of this object
+     */
+    public String toString() {
+        return "FaultRule[commandName=" + commandName + "; pathPattern=" + pathPattern + "; username=" + username
+                + "; probability=" + probability + "; replyDelayMillis=" + replyDelayMillis
+                + "; firstByteDelayMillis=" + firstByteDelayMillis + "; stallAfterBytes=" + stallAfterBytes
+                + "; stallMillis=" + stallMillis + "; resetAfterBytes=" + resetAfterBytes
+                + "; truncateAfterBytes=" + truncateAfterBytes + "]";
+    }
+
+}
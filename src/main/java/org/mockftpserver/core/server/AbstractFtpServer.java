@@ -20,6 +20,9 @@ import org.slf4j.LoggerFactory;
 import org.mockftpserver.core.MockFtpServerException;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.CommandHandlersAware;
+import org.mockftpserver.core.fault.FaultInjector;
+import org.mockftpserver.core.session.BandwidthLimiter;
 import org.mockftpserver.core.session.DefaultSession;
 import org.mockftpserver.core.session.Session;
 import org.mockftpserver.core.socket.DefaultServerSocketFactory;
@@ -28,10 +31,15 @@ import org.mockftpserver.core.util.Assert;
 
 import java.io.IOException;
 import java.net.*;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * This is the abstract superclass for "mock" implementations of an FTP Server,
@@ -65,6 +73,23 @@ import java.util.ResourceBundle;
  * completely replace the ResourceBundle file by calling the calling the
  * {@link #setReplyTextBaseName(String)} method.
  *
+ * <p><b>Data Transfers</b></p>
+ * Each session performs the data transfers of commands such as RETR, STOR and LIST in a separate task, on a thread
+ * pool shared by all sessions, while it keeps reading the control connection. That allows it to handle ABOR and
+ * STAT commands sent during a transfer. See {@link DefaultSession}.
+ *
+ * <p><b>Bandwidth Limits</b></p>
+ * You can limit the rate of data transfers by setting the <code>maxBytesPerSecond</code> property, which limits
+ * the combined rate of all sessions, and the <code>sessionMaxBytesPerSecond</code> property, which limits
+ * the rate of each session. Both can be changed while the server is running. See also
+ * {@link DefaultSession#setMaxBytesPerSecond(long)}.
+ *
+ * <p><b>Fault Injection</b></p>
+ * You can inject latency and faults, such as delayed replies, stalled or reset data connections and truncated
+ * transfers, by adding {@link org.mockftpserver.core.fault.FaultRule}s to the {@link FaultInjector} returned by
+ * {@link #getFaultInjector()}, or by calling {@link #setFaultRules(java.util.List)}. Rules can be changed while
+ * the server is running, and apply to all sessions.
+ *
  * @author Chris Mair
  * @see org.mockftpserver.fake.FakeFtpServer
  * @see org.mockftpserver.stub.StubFtpServer
@@ -92,6 +117,11 @@ public abstract class AbstractFtpServer implements Runnable {
     private Map commandHandlers;
     private Thread serverThread;
     private int serverControlPort = DEFAULT_SERVER_CONTROL_PORT;
+    private int dataBufferSize = DefaultSession.DEFAULT_DATA_BUFFER_SIZE;
+    private final BandwidthLimiter bandwidthLimiter = new BandwidthLimiter();
+    private volatile long sessionMaxBytesPerSecond;
+    private final FaultInjector faultInjector = new FaultInjector();
+    private volatile ExecutorService transferExecutor;
     private final Object startLock = new Object();
 
     // Map of Session -> SessionInfo
@@ -142,6 +172,14 @@ public abstract class AbstractFtpServer implements Runnable {
                 LOG.info("Actual server port is " + this.serverControlPort);
             }
 
+            transferExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "MockFtpServer-DataTransfer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
             // Notify to allow the start() method to finish and return
             synchronized (startLock) {
                 startLock.notify();
@@ -184,6 +222,9 @@ public abstract class AbstractFtpServer implements Runnable {
                     serverSocket.close();
                 }
                 closeSessions();
+                if (transferExecutor != null) {
+                    transferExecutor.shutdownNow();
+                }
             }
             catch (IOException e) {
                 LOG.error("Error cleaning up server", e);
@@ -255,7 +296,8 @@ public abstract class AbstractFtpServer implements Runnable {
      * Set the CommandHandler for the specified command name. If the CommandHandler implements
      * the {@link org.mockftpserver.core.command.ReplyTextBundleAware} interface and its <code>replyTextBundle</code> attribute
      * is null, then set its <code>replyTextBundle</code> to the <code>replyTextBundle</code> of
-     * this StubFtpServer.
+     * this StubFtpServer. If the CommandHandler implements the {@link CommandHandlersAware} interface, then
+     * set its <code>commandHandlers</code> to a read-only view of the CommandHandlers registered with this server.
      *
      * @param commandName    - the command name to which the CommandHandler will be associated
      * @param commandHandler - the CommandHandler
@@ -266,6 +308,9 @@ public abstract class AbstractFtpServer implements Runnable {
         Assert.notNull(commandName, "commandName");
         Assert.notNull(commandHandler, "commandHandler");
         commandHandlers.put(Command.normalizeName(commandName), commandHandler);
+        if (commandHandler instanceof CommandHandlersAware) {
+            ((CommandHandlersAware) commandHandler).setCommandHandlers(Collections.unmodifiableMap(commandHandlers));
+        }
         initializeCommandHandler(commandHandler);
     }
 
@@ -306,6 +351,70 @@ public abstract class AbstractFtpServer implements Runnable {
         return serverControlPort;
     }
 
+    /**
+     * Set the size of the buffer used by each session to copy data to or from the data connection.
+     * The default value is 64 KB.
+     *
+     * @param dataBufferSize - the buffer size, in bytes; must be positive
+     */
+    public void setDataBufferSize(int dataBufferSize) {
+        Assert.isTrue(dataBufferSize > 0, "dataBufferSize must be positive");
+        this.dataBufferSize = dataBufferSize;
+    }
+
+    /**
+     * @return the size of the buffer used by each session to copy data to or from the data connection
+     */
+    public int getDataBufferSize() {
+        return dataBufferSize;
+    }
+
+    /**
+     * Set the maximum combined rate of the data transfers of all sessions. This can be changed at any time,
+     * and applies to existing sessions as well as new ones. The default value of zero means unlimited.
+     *
+     * @param maxBytesPerSecond - the maximum rate, in bytes per second; must not be negative
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        bandwidthLimiter.setBytesPerSecond(maxBytesPerSecond);
+    }
+
+    public long getMaxBytesPerSecond() {
+        return bandwidthLimiter.getBytesPerSecond();
+    }
+
+    /**
+     * Set the maximum rate of the data transfers of each session. This applies to sessions created after
+     * it is set; use {@link DefaultSession#setMaxBytesPerSecond(long)} to change the rate of an existing
+     * session. The default value of zero means unlimited.
+     *
+     * @param sessionMaxBytesPerSecond - the maximum rate, in bytes per second; must not be negative
+     */
+    public void setSessionMaxBytesPerSecond(long sessionMaxBytesPerSecond) {
+        Assert.isTrue(sessionMaxBytesPerSecond >= 0, "sessionMaxBytesPerSecond must not be negative");
+        this.sessionMaxBytesPerSecond = sessionMaxBytesPerSecond;
+    }
+
+    public long getSessionMaxBytesPerSecond() {
+        return sessionMaxBytesPerSecond;
+    }
+
+    /**
+     * @return the FaultInjector shared by all sessions
+     */
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    /**
+     * Replace the FaultRules used to inject latency and faults into the sessions
+     *
+     * @param faultRules - the List of FaultRule objects; must not be null
+     */
+    public void setFaultRules(List faultRules) {
+        faultInjector.setRules(faultRules);
+    }
+
     /**
      * Return true if this server is fully shutdown -- i.e., there is no active (alive) threads and
      * all sockets are closed. This method is intended for testing only.
@@ -343,7 +452,13 @@ public abstract class AbstractFtpServer implements Runnable {
      * @return a Session
      */
     protected Session createSession(Socket clientSocket) {
-        return new DefaultSession(clientSocket, commandHandlers);
+        DefaultSession session = new DefaultSession(clientSocket, commandHandlers);
+        session.setDataBufferSize(dataBufferSize);
+        session.setServerBandwidthLimiter(bandwidthLimiter);
+        session.setMaxBytesPerSecond(sessionMaxBytesPerSecond);
+        session.setFaultInjector(faultInjector);
+        session.setTransferExecutor(transferExecutor);
+        return session;
     }
 
     private void cleanupClosedSessions() {
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.session;
+
+import org.mockftpserver.core.util.Assert;
+
+/**
+ * Limits the rate at which data is transferred, using a token bucket. The bucket holds up to one tenth of
+ * a second's worth of bytes (the burst size), and is refilled continuously at the configured rate.
+ *
+ * <p>Callers reserve bytes in chunks, by calling {@link #reserve(long)} before (or after) transferring each chunk,
+ * and then wait for the returned delay. A reservation can take more bytes than the bucket holds, leaving it in
+ * debt, so each transfer waits once per chunk rather than once per byte. Since reservations made by concurrent
+ * transfers add to the same debt, an instance can be shared to limit their combined rate; for example, by all of
+ * the sessions of a server, or of a user account.
+ *
+ * <p>The rate can be changed at any time, and applies to subsequent reservations. A rate of zero (the default)
+ * means that transfers are not limited.
+ *
+ * <p>This class is thread-safe.
+ */
+public class BandwidthLimiter {
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final int BURSTS_PER_SECOND = 10;
+
+    private volatile long bytesPerSecond;
+    private double availableBytes;
+    private long lastRefillTime;
+
+    /**
+     * Construct a new instance that does not limit transfers
+     */
+    public BandwidthLimiter() {
+        this(0);
+    }
+
+    /**
+     * Construct a new instance with the specified rate
+     *
+     * @param bytesPerSecond - the maximum transfer rate, in bytes per second; zero means unlimited
+     */
+    public BandwidthLimiter(long bytesPerSecond) {
+        setBytesPerSecond(bytesPerSecond);
+    }
+
+    /**
+     * @return the maximum transfer rate, in bytes per second; zero means unlimited
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Set the maximum transfer rate. This also resets the bucket, discarding any outstanding debt.
+     *
+     * @param bytesPerSecond - the maximum transfer rate, in bytes per second; zero means unlimited; must not be negative
+     */
+    public synchronized void setBytesPerSecond(long bytesPerSecond) {
+        Assert.isTrue(bytesPerSecond >= 0, "bytesPerSecond must not be negative");
+        this.bytesPerSecond = bytesPerSecond;
+        this.availableBytes = getBurstSize();
+        this.lastRefillTime = currentTimeNanos();
+    }
+
+    /**
+     * @return true if this instance limits the transfer rate
+     */
+    public boolean isLimited() {
+        return bytesPerSecond > 0;
+    }
+
+    /**
+     * @return the number of bytes that can be transferred in a single burst: one tenth of the rate, and at
+     *         least one byte; or Long.MAX_VALUE if this instance does not limit the transfer rate
+     */
+    public long getBurstSize() {
+        long rate = bytesPerSecond;
+        return (rate > 0) ? Math.max(1, rate / BURSTS_PER_SECOND) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Reserve the specified number of bytes, and return how long the caller must wait before (or after)
+     * transferring them to keep within the rate.
+     *
+     * @param numBytes - the number of bytes to be transferred
+     * @return the time to wait, in nanoseconds; zero if the bytes can be transferred immediately
+     */
+    public long reserve(long numBytes) {
+        if (!isLimited()) {
+            return 0;
+        }
+        synchronized (this) {
+            long rate = bytesPerSecond;
+            if (rate <= 0) {
+                return 0;
+            }
+            long now = currentTimeNanos();
+            double refill = (double) (now - lastRefillTime) * rate / NANOS_PER_SECOND;
+            availableBytes = Math.min(getBurstSize(), availableBytes + refill) - numBytes;
+            lastRefillTime = now;
+            return (availableBytes >= 0) ? 0 : (long) Math.ceil(-availableBytes * NANOS_PER_SECOND / rate);
+        }
+    }
+
+    /**
+     * @return the current time, in nanoseconds, as measured by System.nanoTime(); non-private for testing
+     */
+    long currentTimeNanos() {
+        return System.nanoTime();
+    }
+
+    /**
+     * @return the String representation of this object
+     */
+    public String toString() {
+        return "BandwidthLimiter[bytesPerSecond=" + bytesPerSecond + "]";
+    }
+
+}
@@ -17,22 +17,32 @@ package org.mockftpserver.core.session;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.mockftpserver.core.DataConnectionException;
 import org.mockftpserver.core.MockFtpServerException;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.CommandHandler;
 import org.mockftpserver.core.command.CommandNames;
-import org.mockftpserver.core.socket.DefaultServerSocketFactory;
-import org.mockftpserver.core.socket.DefaultSocketFactory;
+import org.mockftpserver.core.fault.DelayingWriter;
+import org.mockftpserver.core.fault.FaultInjectingInputStream;
+import org.mockftpserver.core.fault.FaultInjectingOutputStream;
+import org.mockftpserver.core.fault.FaultInjector;
+import org.mockftpserver.core.fault.FaultRule;
+import org.mockftpserver.core.socket.ChannelServerSocketFactory;
+import org.mockftpserver.core.socket.ChannelSocketFactory;
 import org.mockftpserver.core.socket.ServerSocketFactory;
 import org.mockftpserver.core.socket.SocketFactory;
 import org.mockftpserver.core.util.Assert;
 import org.mockftpserver.core.util.AssertFailedException;
+import org.mockftpserver.core.util.BufferPool;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
@@ -40,16 +50,40 @@ import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Default implementation of the {@link Session} interface.
  *
+ * <p>Data transfers can be limited by up to three {@link BandwidthLimiter}s: one for this session (see
+ * {@link #setMaxBytesPerSecond(long)}), one shared by all sessions of the server and one shared by all sessions of
+ * the logged in user (see {@link SessionState#getUserBandwidthLimiter()}). When any of them limits the transfer
+ * rate, data is transferred in chunks of at most that limiter's burst size, and the session waits once after each
+ * chunk for as long as the most restrictive limiter requires.
+ *
+ * <p>If a {@link FaultInjector} is set, each command received is checked against its rules, and the
+ * {@link FaultRule} selected (if any) injects latency and faults into the replies and data transfers
+ * for that command.
+ *
+ * <p>If a transfer ExecutorService is set, the data transfer commands (RETR, STOR, STOU, APPE, LIST and NLST)
+ * are handled by a separate task, while the session keeps reading the control connection. ABOR and STAT commands
+ * received during the transfer are handled immediately, so that ABOR can abort the transfer (see
+ * {@link #abortDataTransfer()}) and STAT can report its progress (see {@link #getBytesTransferred()}). Any other
+ * command waits until the transfer is finished.
+ *
  * @author Chris Mair
  */
 public class DefaultSession implements Session {
@@ -57,9 +91,20 @@ public class DefaultSession implements Session {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultSession.class);
     private static final String END_OF_LINE = "\r\n";
     protected static final int DEFAULT_CLIENT_DATA_PORT = 21;
+    public static final int DEFAULT_DATA_BUFFER_SIZE = 64 * 1024;
+
+    // Commands whose data transfer is performed by a separate task, if a transfer ExecutorService is set
+    private static final Set DATA_TRANSFER_COMMANDS = new HashSet(Arrays.asList(new String[]{
+            CommandNames.RETR, CommandNames.STOR, CommandNames.STOU, CommandNames.APPE,
+            CommandNames.LIST, CommandNames.NLST, CommandNames.MLSD}));
+
+    // Commands that are handled immediately, even while a data transfer is in progress
+    private static final Set CONCURRENT_COMMANDS = new HashSet(Arrays.asList(new String[]{
+            CommandNames.ABOR, CommandNames.STAT}));
 
-    protected SocketFactory socketFactory = new DefaultSocketFactory();
-    protected ServerSocketFactory serverSocketFactory = new DefaultServerSocketFactory();
+    // Data connection sockets are backed by channels, to allow sending file contents using FileChannel.transferTo()
+    protected SocketFactory socketFactory = new ChannelSocketFactory();
+    protected ServerSocketFactory serverSocketFactory = new ChannelServerSocketFactory();
 
     BufferedReader controlConnectionReader; // non-private for testing
     private Writer controlConnectionWriter;
@@ -70,9 +115,21 @@ public class DefaultSession implements Session {
     private OutputStream dataOutputStream;
     private Map commandHandlers;
     private int clientDataPort = DEFAULT_CLIENT_DATA_PORT;
+    private int dataBufferSize = DEFAULT_DATA_BUFFER_SIZE;
+    private BufferPool bufferPool = BufferPool.getSharedInstance();
     private InetAddress clientHost;
     private InetAddress serverHost;
-    private Map attributes = new HashMap();
+    private final SessionState state = new SessionState();
+    private final BandwidthLimiter bandwidthLimiter = new BandwidthLimiter();
+    private BandwidthLimiter serverBandwidthLimiter = new BandwidthLimiter();
+    private FaultInjector faultInjector;
+    private final ThreadLocal faultRule = new ThreadLocal();
+    private ExecutorService transferExecutor;
+    private volatile Future dataTransfer;
+    private volatile CountDownLatch dataTransferFinished;
+    private volatile boolean dataTransferStarted;
+    private volatile boolean dataTransferAborted;
+    private volatile long bytesTransferred;
     private volatile boolean terminate = false;
 
     /**
@@ -142,6 +199,10 @@ public class DefaultSession implements Session {
             }
         }
         LOG.debug("Sending Reply [" + buffer.toString() + "]");
+        FaultRule rule = (FaultRule) faultRule.get();
+        if (rule != null && rule.getReplyDelayMillis() > 0 && controlConnectionWriter instanceof DelayingWriter) {
+            ((DelayingWriter) controlConnectionWriter).delayNextFlush(rule.getReplyDelayMillis());
+        }
         writeLineToControlConnection(buffer.toString());
     }
 
@@ -149,6 +210,9 @@ public class DefaultSession implements Session {
      * @see org.mockftpserver.core.session.Session#openDataConnection()
      */
     public void openDataConnection() {
+        if (dataTransferAborted) {
+            throw new DataConnectionException("The data transfer was aborted", null);
+        }
         try {
             if (passiveModeDataSocket != null) {
                 LOG.debug("Waiting for (passive mode) client connection from client host [" + clientHost
@@ -160,7 +224,7 @@ public class DefaultSession implements Session {
                             + passiveModeDataSocket.getLocalPort());
                 }
                 catch (SocketTimeoutException e) {
-                    throw new MockFtpServerException(e);
+                    throw new DataConnectionException(e);
                 }
             } else {
                 Assert.notNull(clientHost, "clientHost");
@@ -170,9 +234,16 @@ public class DefaultSession implements Session {
             }
             dataOutputStream = dataSocket.getOutputStream();
             dataInputStream = dataSocket.getInputStream();
+            bytesTransferred = 0;
+            FaultRule rule = (FaultRule) faultRule.get();
+            if (rule != null && rule.hasDataFaults()) {
+                dataOutputStream = new FaultInjectingOutputStream(dataOutputStream, dataSocket, rule);
+                dataInputStream = new FaultInjectingInputStream(dataInputStream, dataSocket, rule);
+            }
         }
         catch (IOException e) {
-            throw new MockFtpServerException(e);
+            // Including when an ABOR closes the passive mode socket while waiting for the client to connect
+            throw new DataConnectionException(e);
         }
     }
 
@@ -197,11 +268,14 @@ public class DefaultSession implements Session {
      */
     public void closeDataConnection() {
         try {
-            LOG.debug("Flushing and closing client data socket");
-            dataOutputStream.flush();
-            dataOutputStream.close();
-            dataInputStream.close();
-            dataSocket.close();
+            // The data socket is null if opening the first data connection failed
+            if (dataSocket != null) {
+                LOG.debug("Flushing and closing client data socket");
+                dataOutputStream.flush();
+                dataOutputStream.close();
+                dataInputStream.close();
+                dataSocket.close();
+            }
 
             if (passiveModeDataSocket != null) {
                 passiveModeDataSocket.close();
@@ -217,7 +291,7 @@ public class DefaultSession implements Session {
      *
      * @param line - the line to write
      */
-    private void writeLineToControlConnection(String line) {
+    private synchronized void writeLineToControlConnection(String line) {
         try {
             controlConnectionWriter.write(line + END_OF_LINE);
             controlConnectionWriter.flush();
@@ -246,10 +320,16 @@ public class DefaultSession implements Session {
     public void sendData(byte[] data, int numBytes) {
         Assert.notNull(data, "data");
         try {
-            dataOutputStream.write(data, 0, numBytes);
+            int offset = 0;
+            while (offset < numBytes) {
+                int chunkSize = Math.min(getChunkSize(numBytes - offset), numBytes - offset);
+                dataOutputStream.write(data, offset, chunkSize);
+                chunkTransferred(chunkSize);
+                offset += chunkSize;
+            }
         }
         catch (IOException e) {
-            throw new MockFtpServerException(e);
+            throw new DataConnectionException(e);
         }
     }
 
@@ -264,19 +344,24 @@ public class DefaultSession implements Session {
      * @see org.mockftpserver.core.session.Session#readData()
      */
     public byte[] readData(int numBytes) {
+        if (numBytes <= 0) {
+            return new byte[0];
+        }
         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-        byte[] data = new byte[1024];
+        int bufferSize = Math.min(dataBufferSize, numBytes);
+        byte[] data = bufferPool.acquire(bufferSize);
         int totalBytesReadSoFar = 0;
         boolean reading = true;
 
         try {
             while (reading) {
                 int numBytesLeft = numBytes - totalBytesReadSoFar;
-                int numBytesToReadThisTime = Math.min(data.length, numBytesLeft);
+                int numBytesToReadThisTime = Math.min(getChunkSize(bufferSize), numBytesLeft);
                 int numBytesRead = dataInputStream.read(data, 0, numBytesToReadThisTime);
                 reading = numBytesRead != -1;
                 if (reading) {
                     bytes.write(data, 0, numBytesRead);
+                    chunkTransferred(numBytesRead);
                     totalBytesReadSoFar += numBytesRead;
                     reading = totalBytesReadSoFar < numBytes;
                 }
@@ -284,8 +369,126 @@ public class DefaultSession implements Session {
             return bytes.toByteArray();
         }
         catch (IOException e) {
-            throw new MockFtpServerException(e);
+            throw new DataConnectionException(e);
+        }
+        finally {
+            bufferPool.release(data);
+        }
+    }
+
+    /**
+     * Send the remaining contents of the InputStream on the data connection. If the InputStream is a
+     * {@link FileInputStream}, its contents are sent using {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+     * which lets the operating system copy the file contents directly to the data socket (when it is backed by a
+     * channel), rather than copying them through a buffer within the JVM.
+     *
+     * @see org.mockftpserver.core.session.Session#sendData(java.io.InputStream)
+     */
+    public long sendData(InputStream input) {
+        Assert.notNull(input, "input");
+        try {
+            if (input instanceof FileInputStream && !(dataOutputStream instanceof FaultInjectingOutputStream)) {
+                return transferFrom(((FileInputStream) input).getChannel());
+            }
+            return copy(input, dataOutputStream);
+        }
+        catch (IOException e) {
+            throw new DataConnectionException(e);
+        }
+    }
+
+    /**
+     * @see org.mockftpserver.core.session.Session#readData(java.io.OutputStream)
+     */
+    public long readData(OutputStream output) {
+        Assert.notNull(output, "output");
+        try {
+            return copy(dataInputStream, output);
+        }
+        catch (IOException e) {
+            throw new DataConnectionException(e);
+        }
+    }
+
+    private long transferFrom(FileChannel fileChannel) throws IOException {
+        WritableByteChannel target = dataSocket.getChannel();
+        if (target == null) {
+            dataOutputStream.flush();
+            target = Channels.newChannel(dataOutputStream);
         }
+        long startPosition = fileChannel.position();
+        long position = startPosition;
+        long size = fileChannel.size();
+        while (position < size) {
+            long numBytes = fileChannel.transferTo(position, Math.min(size - position, getChunkSize(Long.MAX_VALUE)), target);
+            if (numBytes <= 0) {
+                break;
+            }
+            chunkTransferred(numBytes);
+            position += numBytes;
+        }
+        fileChannel.position(position);
+        return position - startPosition;
+    }
+
+    /**
+     * Set the size of the buffer used to copy data to or from the data connection. The default is
+     * {@link #DEFAULT_DATA_BUFFER_SIZE}.
+     *
+     * @param dataBufferSize - the buffer size, in bytes; must be positive
+     */
+    public void setDataBufferSize(int dataBufferSize) {
+        Assert.isTrue(dataBufferSize > 0, "dataBufferSize must be positive");
+        this.dataBufferSize = dataBufferSize;
+    }
+
+    public int getDataBufferSize() {
+        return dataBufferSize;
+    }
+
+    /**
+     * Set the pool of buffers used to copy data to or from the data connection. The default is the
+     * shared {@link BufferPool#getSharedInstance() BufferPool}.
+     *
+     * @param bufferPool - the BufferPool; must not be null
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        Assert.notNull(bufferPool, "bufferPool");
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Set the maximum rate of data transfers for this session. This can be changed at any time, including
+     * during a transfer.
+     *
+     * @param maxBytesPerSecond - the maximum rate, in bytes per second; zero means unlimited
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        bandwidthLimiter.setBytesPerSecond(maxBytesPerSecond);
+    }
+
+    public long getMaxBytesPerSecond() {
+        return bandwidthLimiter.getBytesPerSecond();
+    }
+
+    /**
+     * Set the FaultInjector used to select the faults to inject for each command. This must be set before
+     * the session is started.
+     *
+     * @param faultInjector - the FaultInjector; may be null
+     */
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    /**
+     * Set the BandwidthLimiter shared by all of the sessions of the server
+     *
+     * @param serverBandwidthLimiter - the BandwidthLimiter; must not be null
+     */
+    public void setServerBandwidthLimiter(BandwidthLimiter serverBandwidthLimiter) {
+        Assert.notNull(serverBandwidthLimiter, "serverBandwidthLimiter");
+        this.serverBandwidthLimiter = serverBandwidthLimiter;
     }
 
     /**
@@ -389,11 +592,14 @@ public class DefaultSession implements Session {
             OutputStream outputStream = controlSocket.getOutputStream();
             controlConnectionReader = new BufferedReader(new InputStreamReader(inputStream));
             controlConnectionWriter = new PrintWriter(outputStream, true);
+            if (faultInjector != null) {
+                controlConnectionWriter = new DelayingWriter(controlConnectionWriter, faultInjector.getTimer(), faultInjector.getWriterPool());
+            }
 
             LOG.debug("Starting the session...");
 
             CommandHandler connectCommandHandler = (CommandHandler) commandHandlers.get(CommandNames.CONNECT);
-            connectCommandHandler.handleCommand(new Command(CommandNames.CONNECT, new String[0]), this);
+            handleCommand(new Command(CommandNames.CONNECT, new String[0]), connectCommandHandler);
 
             while (!terminate) {
                 readAndProcessCommand();
@@ -405,6 +611,7 @@ public class DefaultSession implements Session {
         }
         finally {
             LOG.debug("Cleaning up the session");
+            abortDataTransfer();
             try {
                 controlConnectionReader.close();
                 controlConnectionWriter.close();
@@ -433,8 +640,148 @@ public class DefaultSession implements Session {
             }
 
             Assert.notNull(commandHandler, "CommandHandler for command [" + normalizedCommandName + "]");
+            if (!CONCURRENT_COMMANDS.contains(normalizedCommandName)) {
+                waitForDataTransfer();
+            }
+            if (transferExecutor != null && DATA_TRANSFER_COMMANDS.contains(normalizedCommandName)) {
+                startDataTransfer(command, commandHandler);
+            }
+            else {
+                handleCommand(command, commandHandler);
+            }
+        }
+    }
+
+    /**
+     * Handle the command, applying the FaultRule (if any) selected for it to its replies and data transfer
+     *
+     * @param command        - the Command
+     * @param commandHandler - the CommandHandler for the command
+     * @throws Exception - if an error occurs
+     */
+    private void handleCommand(Command command, CommandHandler commandHandler) throws Exception {
+        FaultRule rule = (faultInjector != null) ? faultInjector.selectRule(command, state.getUsername()) : null;
+        if (rule != null) {
+            LOG.debug("Injecting faults for command [" + command.getName() + "]: " + rule);
+        }
+        faultRule.set(rule);
+        try {
             commandHandler.handleCommand(command, this);
         }
+        finally {
+            faultRule.remove();
+        }
+    }
+
+    /**
+     * Handle the data transfer command in a separate task. If it fails, other than because it was aborted,
+     * then close the session, just as if it had failed on the session thread.
+     *
+     * @param command        - the Command
+     * @param commandHandler - the CommandHandler for the command
+     */
+    private void startDataTransfer(final Command command, final CommandHandler commandHandler) {
+        final CountDownLatch finished = new CountDownLatch(1);
+        dataTransferFinished = finished;
+        dataTransferStarted = false;
+        dataTransferAborted = false;
+        bytesTransferred = 0;
+        dataTransfer = transferExecutor.submit(new Runnable() {
+            public void run() {
+                dataTransferStarted = true;
+                try {
+                    handleCommand(command, commandHandler);
+                }
+                catch (Throwable t) {
+                    if (dataTransferAborted) {
+                        LOG.debug("Data transfer aborted: " + t);
+                    }
+                    else {
+                        LOG.error("Error performing data transfer for command [" + command.getName() + "]", t);
+                        close();
+                    }
+                }
+                finally {
+                    finished.countDown();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait until the data transfer in progress, if any, is finished
+     */
+    private void waitForDataTransfer() {
+        if (dataTransfer != null) {
+            try {
+                // Wait for the command itself, rather than the Future, which is done as soon as it is cancelled.
+                // A failure of the command is handled by the transfer task.
+                dataTransferFinished.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MockFtpServerException(e);
+            }
+            dataTransfer = null;
+            dataTransferAborted = false;
+        }
+    }
+
+    /**
+     * Abort the data transfer in progress, if any: close the data connection and cancel the transfer task, which
+     * interrupts it if it is running, so that it fails promptly, and wait until the command performing it is
+     * finished and has sent its reply. A transfer task that has not started yet is not cancelled, so that its
+     * command still replies; it fails when it opens the data connection.
+     *
+     * @return true if a data transfer was in progress and has been aborted
+     * @see org.mockftpserver.core.session.Session#abortDataTransfer()
+     */
+    public boolean abortDataTransfer() {
+        Future transfer = dataTransfer;
+        if (transfer == null || transfer.isDone()) {
+            return false;
+        }
+        LOG.debug("Aborting the data transfer");
+        dataTransferAborted = true;
+        closeQuietly(dataSocket);
+        closeQuietly(passiveModeDataSocket);
+        if (dataTransferStarted) {
+            // Unlike interrupting the thread, this cannot interrupt a pool thread that has gone on to another task
+            transfer.cancel(true);
+        }
+        waitForDataTransfer();
+        return true;
+    }
+
+    /**
+     * @return the number of bytes transferred so far by the data transfer in progress; or -1 if no data
+     *         transfer is in progress
+     * @see org.mockftpserver.core.session.Session#getBytesTransferred()
+     */
+    public long getBytesTransferred() {
+        Future transfer = dataTransfer;
+        return (transfer != null && !transfer.isDone()) ? bytesTransferred : -1;
+    }
+
+    /**
+     * Set the ExecutorService used to perform data transfers while the session keeps reading the control
+     * connection. If null (the default), data transfers are performed by the session thread.
+     *
+     * @param transferExecutor - the ExecutorService; may be null
+     */
+    public void setTransferExecutor(ExecutorService transferExecutor) {
+        this.transferExecutor = transferExecutor;
+    }
+
+    private void closeQuietly(Closeable socket) {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        }
+        catch (IOException e) {
+            LOG.debug("Error closing socket: " + e);
+        }
     }
 
     /**
@@ -446,6 +793,76 @@ public class DefaultSession implements Session {
         Assert.isTrue(replyCode > 0, "The number [" + replyCode + "] is not a valid reply code");
     }
 
+    /**
+     * Copy all of the data from the InputStream to the OutputStream, through a pooled buffer of (at least)
+     * dataBufferSize bytes
+     *
+     * @param input  - the InputStream
+     * @param output - the OutputStream
+     * @return the number of bytes copied
+     * @throws IOException - if an error occurs reading or writing
+     */
+    private long copy(InputStream input, OutputStream output) throws IOException {
+        byte[] buffer = bufferPool.acquire(dataBufferSize);
+        try {
+            long total = 0;
+            int numBytes;
+            while ((numBytes = input.read(buffer, 0, getChunkSize(dataBufferSize))) != -1) {
+                output.write(buffer, 0, numBytes);
+                chunkTransferred(numBytes);
+                total += numBytes;
+            }
+            return total;
+        }
+        finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Return the maximum number of bytes to transfer before the next call to chunkTransferred(): the smallest burst size
+     * of the bandwidth limiters that currently apply, or maxChunkSize if that is smaller
+     *
+     * @param maxChunkSize - the maximum chunk size
+     * @return the chunk size, in bytes
+     */
+    private int getChunkSize(int maxChunkSize) {
+        return (int) getChunkSize((long) maxChunkSize);
+    }
+
+    private long getChunkSize(long maxChunkSize) {
+        long chunkSize = Math.min(maxChunkSize, bandwidthLimiter.getBurstSize());
+        chunkSize = Math.min(chunkSize, serverBandwidthLimiter.getBurstSize());
+        BandwidthLimiter userBandwidthLimiter = state.getUserBandwidthLimiter();
+        return (userBandwidthLimiter == null) ? chunkSize : Math.min(chunkSize, userBandwidthLimiter.getBurstSize());
+    }
+
+    /**
+     * Add the specified number of bytes to the count of bytes transferred. Then reserve them from each of the
+     * bandwidth limiters, and wait for as long as the most restrictive of them requires; this does not wait
+     * if none of them limits the transfer rate.
+     *
+     * @param numBytes - the number of bytes transferred
+     * @throws InterruptedIOException - if the thread is interrupted while waiting
+     */
+    private void chunkTransferred(long numBytes) throws InterruptedIOException {
+        bytesTransferred += numBytes;
+        long delay = Math.max(bandwidthLimiter.reserve(numBytes), serverBandwidthLimiter.reserve(numBytes));
+        BandwidthLimiter userBandwidthLimiter = state.getUserBandwidthLimiter();
+        if (userBandwidthLimiter != null) {
+            delay = Math.max(delay, userBandwidthLimiter.reserve(numBytes));
+        }
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while throttling the data transfer");
+            }
+        }
+    }
+
     /**
      * Return the attribute value for the specified name. Return null if no attribute value
      * exists for that name or if the attribute value is null.
@@ -455,8 +872,7 @@ public class DefaultSession implements Session {
      * @see org.mockftpserver.core.session.Session#getAttribute(java.lang.String)
      */
     public Object getAttribute(String name) {
-        Assert.notNull(name, "name");
-        return attributes.get(name);
+        return state.getAttribute(name);
     }
 
     /**
@@ -467,8 +883,7 @@ public class DefaultSession implements Session {
      * @see org.mockftpserver.core.session.Session#setAttribute(java.lang.String, java.lang.Object)
      */
     public void setAttribute(String name, Object value) {
-        Assert.notNull(name, "name");
-        attributes.put(name, value);
+        state.setAttribute(name, value);
     }
 
     /**
@@ -479,7 +894,7 @@ public class DefaultSession implements Session {
      * @see org.mockftpserver.core.session.Session#getAttributeNames()
      */
     public Set getAttributeNames() {
-        return attributes.keySet();
+        return state.getAttributeNames();
     }
 
     /**
@@ -491,8 +906,15 @@ public class DefaultSession implements Session {
      * @see org.mockftpserver.core.session.Session#removeAttribute(java.lang.String)
      */
     public void removeAttribute(String name) {
-        Assert.notNull(name, "name");
-        attributes.remove(name);
+        state.removeAttribute(name);
+    }
+
+    /**
+     * @return the SessionState for this session
+     * @see org.mockftpserver.core.session.Session#getState()
+     */
+    public SessionState getState() {
+        return state;
     }
 
 }
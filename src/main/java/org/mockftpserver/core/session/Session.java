@@ -15,6 +15,11 @@
  */
 package org.mockftpserver.core.session;
 
+import org.mockftpserver.core.DataConnectionException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.util.Set;
 
@@ -78,6 +83,80 @@ public interface Session extends Runnable {
      */
     public byte[] readData(int numBytes);
 
+    /**
+     * Write all of the data read from the specified InputStream using the data connection. The data is
+     * copied in chunks, so it is never held in memory all at once. The default implementation sends each chunk
+     * with {@link #sendData(byte[], int)}.
+     *
+     * @param input - the InputStream from which to read the data to send; it is read to the end but not closed
+     * @return the number of bytes sent
+     * @throws DataConnectionException - if an error occurs reading the InputStream
+     */
+    public default long sendData(InputStream input) {
+        byte[] buffer = new byte[8192];
+        long numBytesSent = 0;
+        try {
+            int numBytes;
+            while ((numBytes = input.read(buffer)) != -1) {
+                sendData(buffer, numBytes);
+                numBytesSent += numBytes;
+            }
+        }
+        catch (IOException e) {
+            throw new DataConnectionException(e);
+        }
+        return numBytesSent;
+    }
+
+    /**
+     * Read data from the client across the data connection, until the client closes the connection, and write
+     * it to the specified OutputStream. The data is copied in chunks, so it is never held in memory all at once.
+     *
+     * The default implementation reads the data in chunks with {@link #readData(int)}, until it returns fewer bytes
+     * than requested.
+     *
+     * @param output - the OutputStream to which to write the data; it is not closed
+     * @return the number of bytes read
+     * @throws DataConnectionException - if an error occurs writing to the OutputStream
+     */
+    public default long readData(OutputStream output) {
+        final int chunkSize = 8192;
+        long numBytesRead = 0;
+        try {
+            byte[] data;
+            do {
+                data = readData(chunkSize);
+                output.write(data);
+                numBytesRead += data.length;
+            }
+            while (data.length == chunkSize);
+        }
+        catch (IOException e) {
+            throw new DataConnectionException(e);
+        }
+        return numBytesRead;
+    }
+
+    /**
+     * Abort the data transfer in progress, if any, and wait until the command performing it is finished
+     * and has sent its reply. The default implementation does not support aborting, and returns false.
+     *
+     * @return true if a data transfer was in progress and has been aborted
+     */
+    public default boolean abortDataTransfer() {
+        return false;
+    }
+
+    /**
+     * Return the number of bytes transferred so far by the data transfer in progress. The default
+     * implementation does not track data transfers, and returns -1.
+     *
+     * @return the number of bytes; or -1 if no data transfer is in progress
+     */
+    public default long getBytesTransferred() {
+        return -1;
+    }
+
     /**
      * Return the InetAddress representing the client host for this session
      * @return the client host
@@ -131,5 +210,16 @@ public interface Session extends Runnable {
      * @return the Set of attribute names
      */
     public Set getAttributeNames();
+
+    /**
+     * Return the state of this session. The standard attributes (see {@link SessionKeys}) can be read and
+     * written through its typed accessors, and it holds the same values as the attribute methods of this session.
+     * The default implementation returns a view that reads and writes the attributes of this session through
+     * the attribute methods, so existing Session implementations need not implement this method.
+     * @return the SessionState
+     */
+    public default SessionState getState() {
+        return new SessionAttributesState(this);
+    }
     
 }
\ No newline at end of file
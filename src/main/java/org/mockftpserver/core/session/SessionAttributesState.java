@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.session;
+
+import org.mockftpserver.core.util.Assert;
+
+import java.util.Set;
+
+/**
+ * A SessionState that holds no values itself, but reads and writes the attributes of a {@link Session}. It is
+ * returned by the default implementation of {@link Session#getState()}, so that Session implementations written
+ * before that method was added (and mock sessions) still work with command handlers that use the typed accessors.
+ */
+class SessionAttributesState extends SessionState {
+
+    private final Session session;
+
+    /**
+     * Construct a new instance
+     *
+     * @param session - the Session whose attributes are read and written
+     */
+    SessionAttributesState(Session session) {
+        Assert.notNull(session, "session");
+        this.session = session;
+    }
+
+    public String getUsername() {
+        return (String) session.getAttribute(SessionKeys.USERNAME);
+    }
+
+    public void setUsername(String username) {
+        setAttribute(SessionKeys.USERNAME, username);
+    }
+
+    public Object getUserAccount() {
+        return session.getAttribute(SessionKeys.USER_ACCOUNT);
+    }
+
+    public void setUserAccount(Object userAccount) {
+        setAttribute(SessionKeys.USER_ACCOUNT, userAccount);
+    }
+
+    public String getCurrentDirectory() {
+        return (String) session.getAttribute(SessionKeys.CURRENT_DIRECTORY);
+    }
+
+    public void setCurrentDirectory(String currentDirectory) {
+        setAttribute(SessionKeys.CURRENT_DIRECTORY, currentDirectory);
+    }
+
+    public String getRenameFrom() {
+        return (String) session.getAttribute(SessionKeys.RENAME_FROM);
+    }
+
+    public void setRenameFrom(String renameFrom) {
+        setAttribute(SessionKeys.RENAME_FROM, renameFrom);
+    }
+
+    public String getAccountName() {
+        return (String) session.getAttribute(SessionKeys.ACCOUNT_NAME);
+    }
+
+    public void setAccountName(String accountName) {
+        setAttribute(SessionKeys.ACCOUNT_NAME, accountName);
+    }
+
+    public Boolean getAsciiType() {
+        return (Boolean) session.getAttribute(SessionKeys.ASCII_TYPE);
+    }
+
+    public void setAsciiType(Boolean asciiType) {
+        setAttribute(SessionKeys.ASCII_TYPE, asciiType);
+    }
+
+    public Long getRestartMarker() {
+        return (Long) session.getAttribute(SessionKeys.RESTART_MARKER);
+    }
+
+    public void setRestartMarker(Long restartMarker) {
+        setAttribute(SessionKeys.RESTART_MARKER, restartMarker);
+    }
+
+    public Integer getDeflateLevel() {
+        return (Integer) session.getAttribute(SessionKeys.DEFLATE_LEVEL);
+    }
+
+    public void setDeflateLevel(Integer deflateLevel) {
+        setAttribute(SessionKeys.DEFLATE_LEVEL, deflateLevel);
+    }
+
+    public BandwidthLimiter getUserBandwidthLimiter() {
+        return (BandwidthLimiter) session.getAttribute(SessionKeys.USER_BANDWIDTH_LIMITER);
+    }
+
+    public void setUserBandwidthLimiter(BandwidthLimiter userBandwidthLimiter) {
+        setAttribute(SessionKeys.USER_BANDWIDTH_LIMITER, userBandwidthLimiter);
+    }
+
+    public String getHashAlgorithm() {
+        return (String) session.getAttribute(SessionKeys.HASH_ALGORITHM);
+    }
+
+    public void setHashAlgorithm(String hashAlgorithm) {
+        setAttribute(SessionKeys.HASH_ALGORITHM, hashAlgorithm);
+    }
+
+    public Boolean getUtf8() {
+        return (Boolean) session.getAttribute(SessionKeys.UTF8);
+    }
+
+    public void setUtf8(Boolean utf8) {
+        setAttribute(SessionKeys.UTF8, utf8);
+    }
+
+    public String getMlstFacts() {
+        return (String) session.getAttribute(SessionKeys.MLST_FACTS);
+    }
+
+    public void setMlstFacts(String mlstFacts) {
+        setAttribute(SessionKeys.MLST_FACTS, mlstFacts);
+    }
+
+    public Object getAttribute(String name) {
+        Assert.notNull(name, "name");
+        return session.getAttribute(name);
+    }
+
+    public void setAttribute(String name, Object value) {
+        Assert.notNull(name, "name");
+        if (value == null) {
+            session.removeAttribute(name);
+        }
+        else {
+            session.setAttribute(name, value);
+        }
+    }
+
+    public Set getAttributeNames() {
+        return session.getAttributeNames();
+    }
+
+    public String toString() {
+        return "SessionAttributesState[session=" + session + "]";
+    }
+
+}
@@ -26,5 +26,11 @@ public class SessionKeys {
     public static final String RENAME_FROM = "renameFrom";
     public static final String ACCOUNT_NAME = "accountName";
     public static final String ASCII_TYPE = "asciiType";
+    public static final String RESTART_MARKER = "restartMarker";
+    public static final String DEFLATE_LEVEL = "deflateLevel";
+    public static final String USER_BANDWIDTH_LIMITER = "userBandwidthLimiter";
+    public static final String HASH_ALGORITHM = "hashAlgorithm";
+    public static final String UTF8 = "utf8";
+    public static final String MLST_FACTS = "mlstFacts";
 
 }
\ No newline at end of file
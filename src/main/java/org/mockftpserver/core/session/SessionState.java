@@ -0,0 +1,320 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.session;
+
+import org.mockftpserver.core.util.Assert;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the state (attributes) of a session. The standard attributes, named by the constants in
+ * {@link SessionKeys}, are held in dedicated fields, with typed accessors. Any other (custom) attributes are
+ * held in a map. The generic attribute methods give access to both: for example,
+ * <code>getAttribute(SessionKeys.CURRENT_DIRECTORY)</code> returns the same value as <code>getCurrentDirectory()</code>.
+ *
+ * <p>The value stored for a standard attribute must be of the type of its field (for instance, a String for
+ * <code>CURRENT_DIRECTORY</code>). Storing a null value is the same as removing the attribute.
+ *
+ * <p>This class is thread-safe, so the session state can be read by data transfer or monitoring threads
+ * while the session is handling commands.
+ */
+public class SessionState {
+
+    private volatile String username;
+    private volatile Object userAccount;
+    private volatile String currentDirectory;
+    private volatile String renameFrom;
+    private volatile String accountName;
+    private volatile Boolean asciiType;
+    private volatile Long restartMarker;
+    private volatile Integer deflateLevel;
+    private volatile BandwidthLimiter userBandwidthLimiter;
+    private volatile String hashAlgorithm;
+    private volatile Boolean utf8;
+    private volatile String mlstFacts;
+    private final ConcurrentMap attributes = new ConcurrentHashMap();
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Object getUserAccount() {
+        return userAccount;
+    }
+
+    public void setUserAccount(Object userAccount) {
+        this.userAccount = userAccount;
+    }
+
+    public String getCurrentDirectory() {
+        return currentDirectory;
+    }
+
+    public void setCurrentDirectory(String currentDirectory) {
+        this.currentDirectory = currentDirectory;
+    }
+
+    public String getRenameFrom() {
+        return renameFrom;
+    }
+
+    public void setRenameFrom(String renameFrom) {
+        this.renameFrom = renameFrom;
+    }
+
+    public String getAccountName() {
+        return accountName;
+    }
+
+    public void setAccountName(String accountName) {
+        this.accountName = accountName;
+    }
+
+    public Boolean getAsciiType() {
+        return asciiType;
+    }
+
+    public void setAsciiType(Boolean asciiType) {
+        this.asciiType = asciiType;
+    }
+
+    /**
+     * @return the restart marker (byte offset) set by the REST command for the next data transfer; may be null
+     */
+    public Long getRestartMarker() {
+        return restartMarker;
+    }
+
+    public void setRestartMarker(Long restartMarker) {
+        this.restartMarker = restartMarker;
+    }
+
+    /**
+     * @return the compression level used for data transfers in deflate mode (MODE Z); null if data is
+     *         transferred uncompressed (stream mode)
+     */
+    public Integer getDeflateLevel() {
+        return deflateLevel;
+    }
+
+    public void setDeflateLevel(Integer deflateLevel) {
+        this.deflateLevel = deflateLevel;
+    }
+
+    /**
+     * @return the BandwidthLimiter shared by the sessions of the logged in user, which limits the data transfers
+     *         of this session in addition to its own and the server's limits; may be null
+     */
+    public BandwidthLimiter getUserBandwidthLimiter() {
+        return userBandwidthLimiter;
+    }
+
+    public void setUserBandwidthLimiter(BandwidthLimiter userBandwidthLimiter) {
+        this.userBandwidthLimiter = userBandwidthLimiter;
+    }
+
+    /**
+     * @return the digest algorithm used by the HASH command; null to use the default algorithm
+     */
+    public String getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    public void setHashAlgorithm(String hashAlgorithm) {
+        this.hashAlgorithm = hashAlgorithm;
+    }
+
+    /**
+     * @return Boolean.TRUE if the client has enabled UTF-8 pathnames (OPTS UTF8 ON), Boolean.FALSE if it
+     *         has disabled them (OPTS UTF8 OFF); null if the client has not selected the option
+     */
+    public Boolean getUtf8() {
+        return utf8;
+    }
+
+    public void setUtf8(Boolean utf8) {
+        this.utf8 = utf8;
+    }
+
+    /**
+     * @return the facts selected for MLSD and MLST listings (OPTS MLST), each fact name followed by ";", for
+     *         instance "type;size;"; null to list all of the supported facts
+     */
+    public String getMlstFacts() {
+        return mlstFacts;
+    }
+
+    public void setMlstFacts(String mlstFacts) {
+        this.mlstFacts = mlstFacts;
+    }
+
+    /**
+     * Return the attribute value for the specified name. Return null if no attribute value
+     * exists for that name.
+     *
+     * @param name - the attribute name; may not be null
+     * @return the value of the attribute stored under name; may be null
+     * @throws org.mockftpserver.core.util.AssertFailedException - if name is null
+     */
+    public Object getAttribute(String name) {
+        Assert.notNull(name, "name");
+        switch (name) {
+            case SessionKeys.USERNAME:
+                return username;
+            case SessionKeys.USER_ACCOUNT:
+                return userAccount;
+            case SessionKeys.CURRENT_DIRECTORY:
+                return currentDirectory;
+            case SessionKeys.RENAME_FROM:
+                return renameFrom;
+            case SessionKeys.ACCOUNT_NAME:
+                return accountName;
+            case SessionKeys.ASCII_TYPE:
+                return asciiType;
+            case SessionKeys.RESTART_MARKER:
+                return restartMarker;
+            case SessionKeys.DEFLATE_LEVEL:
+                return deflateLevel;
+            case SessionKeys.USER_BANDWIDTH_LIMITER:
+                return userBandwidthLimiter;
+            case SessionKeys.HASH_ALGORITHM:
+                return hashAlgorithm;
+            case SessionKeys.UTF8:
+                return utf8;
+            case SessionKeys.MLST_FACTS:
+                return mlstFacts;
+            default:
+                return attributes.get(name);
+        }
+    }
+
+    /**
+     * Store the value under the specified attribute name.
+     *
+     * @param name  - the attribute name; may not be null
+     * @param value - the attribute value; may be null
+     * @throws org.mockftpserver.core.util.AssertFailedException - if name is null
+     * @throws ClassCastException - if name is a standard attribute name and value is not of the required type
+     */
+    public void setAttribute(String name, Object value) {
+        Assert.notNull(name, "name");
+        switch (name) {
+            case SessionKeys.USERNAME:
+                username = (String) value;
+                break;
+            case SessionKeys.USER_ACCOUNT:
+                userAccount = value;
+                break;
+            case SessionKeys.CURRENT_DIRECTORY:
+                currentDirectory = (String) value;
+                break;
+            case SessionKeys.RENAME_FROM:
+                renameFrom = (String) value;
+                break;
+            case SessionKeys.ACCOUNT_NAME:
+                accountName = (String) value;
+                break;
+            case SessionKeys.ASCII_TYPE:
+                asciiType = (Boolean) value;
+                break;
+            case SessionKeys.RESTART_MARKER:
+                restartMarker = (Long) value;
+                break;
+            case SessionKeys.DEFLATE_LEVEL:
+                deflateLevel = (Integer) value;
+                break;
+            case SessionKeys.USER_BANDWIDTH_LIMITER:
+                userBandwidthLimiter = (BandwidthLimiter) value;
+                break;
+            case SessionKeys.HASH_ALGORITHM:
+                hashAlgorithm = (String) value;
+                break;
+            case SessionKeys.UTF8:
+                utf8 = (Boolean) value;
+                break;
+            case SessionKeys.MLST_FACTS:
+                mlstFacts = (String) value;
+                break;
+            default:
+                if (value == null) {
+                    attributes.remove(name);
+                }
+                else {
+                    attributes.put(name, value);
+                }
+        }
+    }
+
+    /**
+     * Remove the attribute value for the specified name. Do nothing if no attribute
+     * value is stored for the specified name.
+     *
+     * @param name - the attribute name; may not be null
+     * @throws org.mockftpserver.core.util.AssertFailedException - if name is null
+     */
+    public void removeAttribute(String name) {
+        setAttribute(name, null);
+    }
+
+    /**
+     * Return the Set of names of the attributes that currently have a value. The returned Set is a snapshot,
+     * and is not updated by subsequent changes to the attributes.
+     *
+     * @return the Set of attribute names
+     */
+    public Set getAttributeNames() {
+        Set names = new HashSet(attributes.keySet());
+        addNameIfSet(names, SessionKeys.USERNAME, username);
+        addNameIfSet(names, SessionKeys.USER_ACCOUNT, userAccount);
+        addNameIfSet(names, SessionKeys.CURRENT_DIRECTORY, currentDirectory);
+        addNameIfSet(names, SessionKeys.RENAME_FROM, renameFrom);
+        addNameIfSet(names, SessionKeys.ACCOUNT_NAME, accountName);
+        addNameIfSet(names, SessionKeys.ASCII_TYPE, asciiType);
+        addNameIfSet(names, SessionKeys.RESTART_MARKER, restartMarker);
+        addNameIfSet(names, SessionKeys.DEFLATE_LEVEL, deflateLevel);
+        addNameIfSet(names, SessionKeys.USER_BANDWIDTH_LIMITER, userBandwidthLimiter);
+        addNameIfSet(names, SessionKeys.HASH_ALGORITHM, hashAlgorithm);
+        addNameIfSet(names, SessionKeys.UTF8, utf8);
+        addNameIfSet(names, SessionKeys.MLST_FACTS, mlstFacts);
+        return names;
+    }
+
+    private static void addNameIfSet(Set names, String name, Object value) {
+        if (value != null) {
+            names.add(name);
+        }
+    }
+
+    /**
+     * @return the String representation of this object
+     */
+    public String toString() {
+        return "SessionState[username=" + username + "; currentDirectory=" + currentDirectory
+                + "; renameFrom=" + renameFrom + "; accountName=" + accountName + "; asciiType=" + asciiType
+                + "; restartMarker=" + restartMarker + "; deflateLevel=" + deflateLevel
+                + "; userBandwidthLimiter=" + userBandwidthLimiter + "; hashAlgorithm=" + hashAlgorithm
+                + "; utf8=" + utf8 + "; mlstFacts=" + mlstFacts
+                + "; attributes=" + attributes + "]";
+    }
+
+}
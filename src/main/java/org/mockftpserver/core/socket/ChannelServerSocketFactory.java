@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.socket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+
+/**
+ * Implementation of the {@link ServerSocketFactory} that creates {@link ServerSocket} instances backed by a
+ * (blocking) {@link ServerSocketChannel}. The Sockets accepted by such a ServerSocket are themselves
+ * backed by a {@link java.nio.channels.SocketChannel}, so that file contents can be written directly to
+ * them using {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+ *
+ * <p>Used for (passive mode) data connections. The Socket streams of a channel-backed socket do not support
+ * <code>available()</code>, so it is not suitable for control connections.
+ */
+public class ChannelServerSocketFactory implements ServerSocketFactory {
+
+    /**
+     * Create a new channel-backed ServerSocket for the specified port.
+     * @param port - the port; 0 to use any free port
+     * @return a new ServerSocket
+     * @throws IOException - if an error occurs
+     *
+     * @see org.mockftpserver.core.socket.ServerSocketFactory#createServerSocket(int)
+     */
+    public ServerSocket createServerSocket(int port) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.socket().bind(new InetSocketAddress(port));
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel.socket();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.socket;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Implementation of the {@link SocketFactory} that creates {@link Socket} instances backed by a
+ * (blocking) {@link SocketChannel}. File contents can then be written directly to the socket using
+ * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+ *
+ * <p>Used for (active mode) data connections. The Socket streams of a channel-backed socket do not support
+ * <code>available()</code>, so it is not suitable for control connections.
+ */
+public class ChannelSocketFactory implements SocketFactory {
+
+    /**
+     * Create a new channel-backed Socket instance connected to the specified host and port.
+     * @param host - the IP address of the host endpoint to which the socket is connect
+     * @param port - the port number of the enpoint to which the socket is connected
+     * @return a new Socket
+     * @throws IOException - if an error occurs
+     *
+     * @see org.mockftpserver.core.socket.SocketFactory#createSocket(java.net.InetAddress, int)
+     */
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of reusable byte array buffers, used for copying data to and from data connections and
+ * file contents, so that each transfer does not allocate (and later garbage collect) buffers of its own.
+ *
+ * <p>Buffers are pooled in size classes: each power of two from {@link #MIN_BUFFER_SIZE} up to
+ * {@link #MAX_BUFFER_SIZE}. {@link #acquire(int)} returns a buffer from the smallest size class that is at
+ * least the requested size, so the buffer may be larger than requested. Requests for more than
+ * MAX_BUFFER_SIZE bytes are not pooled. The number of idle buffers held for each size class is bounded, so
+ * that the pool holds at most about <code>maxBytesPerSizeClass</code> bytes for each size class.
+ *
+ * <p>The buffers are plain (heap) byte arrays, since they are passed to the InputStream and OutputStream
+ * methods. A buffer must not be used after it has been released. This class is thread-safe.
+ */
+public class BufferPool {
+
+    public static final int MIN_BUFFER_SIZE = 4 * 1024;
+    public static final int MAX_BUFFER_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MAX_BYTES_PER_SIZE_CLASS = 4 * 1024 * 1024;
+
+    private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int NUMBER_OF_SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SIZE_SHIFT + 1;
+
+    private static final BufferPool SHARED_INSTANCE = new BufferPool();
+
+    private final ConcurrentLinkedQueue[] idleBuffers = new ConcurrentLinkedQueue[NUMBER_OF_SIZE_CLASSES];
+    private final AtomicInteger[] idleCounts = new AtomicInteger[NUMBER_OF_SIZE_CLASSES];
+    private final int maxBytesPerSizeClass;
+
+    /**
+     * Construct a new instance that holds at most {@link #DEFAULT_MAX_BYTES_PER_SIZE_CLASS} bytes of idle
+     * buffers for each size class
+     */
+    public BufferPool() {
+        this(DEFAULT_MAX_BYTES_PER_SIZE_CLASS);
+    }
+
+    /**
+     * Construct a new instance that holds at most the specified number of bytes of idle buffers for each
+     * size class. At least one idle buffer is held for each size class.
+     *
+     * @param maxBytesPerSizeClass - the maximum number of bytes of idle buffers for each size class; must not be negative
+     */
+    public BufferPool(int maxBytesPerSizeClass) {
+        Assert.isTrue(maxBytesPerSizeClass >= 0, "maxBytesPerSizeClass must not be negative");
+        this.maxBytesPerSizeClass = maxBytesPerSizeClass;
+        for (int i = 0; i < NUMBER_OF_SIZE_CLASSES; i++) {
+            idleBuffers[i] = new ConcurrentLinkedQueue();
+            idleCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * @return the BufferPool shared by all sessions and command handlers
+     */
+    public static BufferPool getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * Return a buffer of at least the specified size, reusing an idle buffer if one is available. Release
+     * the buffer by calling {@link #release(byte[])} once it is no longer used.
+     *
+     * @param minSize - the minimum size of the buffer, in bytes; must be positive
+     * @return the buffer; its contents are undefined
+     * @throws AssertFailedException - if minSize is not positive
+     */
+    public byte[] acquire(int minSize) {
+        Assert.isTrue(minSize > 0, "minSize must be positive");
+        if (minSize > MAX_BUFFER_SIZE) {
+            return new byte[minSize];
+        }
+        int sizeClass = sizeClassOf(minSize);
+        byte[] buffer = (byte[]) idleBuffers[sizeClass].poll();
+        if (buffer == null) {
+            return new byte[MIN_BUFFER_SIZE << sizeClass];
+        }
+        idleCounts[sizeClass].decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Return the buffer to the pool, for reuse by a later call to {@link #acquire(int)}. The buffer is
+     * discarded if it was not pooled, or if the pool already holds enough idle buffers of its size.
+     *
+     * @param buffer - the buffer, as returned by acquire(); may be null
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length < MIN_BUFFER_SIZE || buffer.length > MAX_BUFFER_SIZE
+                || Integer.bitCount(buffer.length) != 1) {
+            return;
+        }
+        int sizeClass = sizeClassOf(buffer.length);
+        int maxIdleBuffers = Math.max(1, maxBytesPerSizeClass / buffer.length);
+        if (idleCounts[sizeClass].incrementAndGet() > maxIdleBuffers) {
+            idleCounts[sizeClass].decrementAndGet();
+            return;
+        }
+        idleBuffers[sizeClass].offer(buffer);
+    }
+
+    /**
+     * @return the number of idle buffers currently held in the pool
+     */
+    public int getIdleBufferCount() {
+        int count = 0;
+        for (int i = 0; i < NUMBER_OF_SIZE_CLASSES; i++) {
+            count += idleCounts[i].get();
+        }
+        return count;
+    }
+
+    /**
+     * Return the index of the smallest size class holding buffers of at least the specified size
+     */
+    private static int sizeClassOf(int size) {
+        if (size <= MIN_BUFFER_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT;
+    }
+
+    /**
+     * @return the String representation of this object
+     */
+    public String toString() {
+        return "BufferPool[maxBytesPerSizeClass=" + maxBytesPerSizeClass + "; idleBuffers=" + getIdleBufferCount() + "]";
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * OutputStream that writes to another OutputStream, converting each CRLF (\r\n) into LF (\n). A CR that
+ * is not followed by LF is written unchanged. This is the conversion applied to file contents received in
+ * ASCII mode, and is the inverse of {@link LfToCrLfInputStream}.
+ *
+ * <p>A CR at the end of the bytes written so far is held back until the next byte (or {@link #close()})
+ * shows whether it is part of a CRLF. The write buffer is taken from the shared {@link BufferPool} when
+ * first needed, and returned to it by {@link #close()}.
+ */
+public class CrLfToLfOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private boolean pendingCr;
+
+    /**
+     * Construct a new instance that writes to the specified OutputStream
+     *
+     * @param out - the OutputStream to write to
+     * @throws AssertFailedException - if the OutputStream is null
+     */
+    public CrLfToLfOutputStream(OutputStream out) {
+        Assert.notNull(out, "out");
+        this.out = out;
+    }
+
+    public void write(int b) throws IOException {
+        if (pendingCr) {
+            pendingCr = false;
+            if (b != '\n') {
+                out.write('\r');
+            }
+        }
+        if (b == '\r') {
+            pendingCr = true;
+        }
+        else {
+            out.write(b);
+        }
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (buffer == null) {
+            buffer = BufferPool.getSharedInstance().acquire(BUFFER_SIZE);
+        }
+        int numBytes = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = bytes[i];
+            if (pendingCr) {
+                pendingCr = false;
+                if (b != '\n') {
+                    buffer[numBytes++] = '\r';
+                }
+            }
+            if (b == '\r') {
+                pendingCr = true;
+            }
+            else {
+                buffer[numBytes++] = b;
+            }
+            // Each byte adds at most two bytes to the buffer
+            if (numBytes >= buffer.length - 1) {
+                out.write(buffer, 0, numBytes);
+                numBytes = 0;
+            }
+        }
+        if (numBytes > 0) {
+            out.write(buffer, 0, numBytes);
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Write any CR still held back, close the underlying OutputStream, and return the buffer to the
+     * shared {@link BufferPool}
+     */
+    public void close() throws IOException {
+        try {
+            if (pendingCr) {
+                pendingCr = false;
+                out.write('\r');
+            }
+            out.close();
+        }
+        finally {
+            BufferPool.getSharedInstance().release(buffer);
+            buffer = null;
+        }
+    }
+
+}
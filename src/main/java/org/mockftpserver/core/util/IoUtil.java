@@ -26,8 +26,10 @@ import java.io.InputStream;
  */
 public class IoUtil {
 
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
     /**
-     * Read the contents of the InputStream and return as a byte[].
+     * Read the contents of the InputStream and return as a byte[]. Close the InputStream when done.
      *
      * @param input - the InputStream to read
      * @return the contents of the InputStream as a byte[]
@@ -37,17 +39,16 @@ public class IoUtil {
     public static byte[] readBytes(InputStream input) throws IOException {
         Assert.notNull(input, "input");
         ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        byte[] buffer = BufferPool.getSharedInstance().acquire(READ_BUFFER_SIZE);
 
         try {
-            while (true) {
-                int b = input.read();
-                if (b == -1) {
-                    break;
-                }
-                outBytes.write(b);
+            int numBytes;
+            while ((numBytes = input.read(buffer)) != -1) {
+                outBytes.write(buffer, 0, numBytes);
             }
         }
         finally {
+            BufferPool.getSharedInstance().release(buffer);
             input.close();
         }
         return outBytes.toByteArray();
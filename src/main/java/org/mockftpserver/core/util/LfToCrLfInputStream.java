@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream that reads from another InputStream, converting each LF (\n) that is NOT preceded by a
+ * CR (\r) into CRLF (\r\n). This is the conversion applied to file contents sent in ASCII mode. The
+ * conversion is done while reading, so the contents are never held in memory all at once.
+ *
+ * <p>The read buffer is taken from the shared {@link BufferPool}, and returned to it by {@link #close()}.
+ */
+public class LfToCrLfInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final InputStream in;
+    private byte[] buffer = BufferPool.getSharedInstance().acquire(BUFFER_SIZE);
+    private final byte[] singleByte = new byte[1];
+    private int position;
+    private int count;
+    private byte previousByte;
+    private boolean pendingLf;
+
+    /**
+     * Construct a new instance that reads from the specified InputStream
+     *
+     * @param in - the InputStream to read from
+     * @throws AssertFailedException - if the InputStream is null
+     */
+    public LfToCrLfInputStream(InputStream in) {
+        Assert.notNull(in, "in");
+        this.in = in;
+    }
+
+    public int read() throws IOException {
+        int numBytes = read(singleByte, 0, 1);
+        return (numBytes == -1) ? -1 : singleByte[0] & 0xFF;
+    }
+
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        int numBytes = 0;
+        while (numBytes < length) {
+            if (pendingLf) {
+                bytes[offset + numBytes++] = '\n';
+                pendingLf = false;
+                continue;
+            }
+            // Only block reading more from the underlying stream if nothing has been read yet
+            if (position == count && (numBytes > 0 || !fill())) {
+                break;
+            }
+            byte b = buffer[position++];
+            if (b == '\n' && previousByte != '\r') {
+                bytes[offset + numBytes++] = '\r';
+                pendingLf = true;
+            }
+            else {
+                bytes[offset + numBytes++] = b;
+            }
+            previousByte = b;
+        }
+        return (numBytes == 0) ? -1 : numBytes;
+    }
+
+    public int available() throws IOException {
+        return (count - position) + (pendingLf ? 1 : 0);
+    }
+
+    /**
+     * Close the underlying InputStream, and return the buffer to the shared {@link BufferPool}
+     */
+    public void close() throws IOException {
+        try {
+            in.close();
+        }
+        finally {
+            if (buffer != null) {
+                BufferPool.getSharedInstance().release(buffer);
+                buffer = null;
+                position = count = 0;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+        position = 0;
+        count = Math.max(in.read(buffer, 0, buffer.length), 0);
+        return count > 0;
+    }
+
+}
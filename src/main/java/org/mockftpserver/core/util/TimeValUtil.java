@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.util;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Date;
+
+/**
+ * Contains static utility methods for the "time-val" timestamps of RFC 3659, as used by the MDTM, MFMT
+ * and MLST commands: "YYYYMMDDHHMMSS", optionally followed by "." and fractions of a second, always in UTC.
+ */
+public class TimeValUtil {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("uuuuMMddHHmmss")
+            .withZone(ZoneOffset.UTC)
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final int LENGTH_WITHOUT_FRACTION = 14;
+
+    /**
+     * Format the specified Date as a time-val, without fractions of a second
+     *
+     * @param date - the Date
+     * @return the time-val String, for instance "20260315143000"
+     * @throws AssertFailedException - if the date is null
+     */
+    public static String format(Date date) {
+        Assert.notNull(date, "date");
+        return FORMATTER.format(date.toInstant());
+    }
+
+    /**
+     * Append the time-val for the specified time, without fractions of a second, to the StringBuilder.
+     * This avoids creating an intermediate String when formatting many timestamps, such as for MLSD.
+     *
+     * @param millis  - the time, in milliseconds since the epoch
+     * @param builder - the StringBuilder to append to
+     * @throws AssertFailedException - if the builder is null
+     */
+    public static void formatTo(long millis, StringBuilder builder) {
+        Assert.notNull(builder, "builder");
+        FORMATTER.formatTo(Instant.ofEpochMilli(millis), builder);
+    }
+
+    /**
+     * Parse the specified time-val String. Any fraction of a second is kept to millisecond precision.
+     *
+     * @param timeVal - the time-val String, for instance "20260315143000" or "20260315143000.250"
+     * @return the Date, or null if timeVal is null or is not a valid time-val
+     */
+    public static Date parse(String timeVal) {
+        if (timeVal == null || timeVal.length() < LENGTH_WITHOUT_FRACTION) {
+            return null;
+        }
+        String fraction = timeVal.substring(LENGTH_WITHOUT_FRACTION);
+        if (fraction.length() > 0 && (fraction.length() < 2 || fraction.charAt(0) != '.' || !isDigits(fraction.substring(1)))) {
+            return null;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(timeVal.substring(0, LENGTH_WITHOUT_FRACTION), FORMATTER);
+            long millis = dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+            if (fraction.length() > 0) {
+                millis += Integer.parseInt((fraction.substring(1) + "00").substring(0, 3));
+            }
+            return new Date(millis);
+        }
+        catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isDigits(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Private constructor to prevent instantiation. All members are static.
+     */
+    private TimeValUtil() {
+    }
+
+}
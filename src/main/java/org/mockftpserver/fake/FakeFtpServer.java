@@ -18,6 +18,7 @@ package org.mockftpserver.fake;
 import org.mockftpserver.core.command.*;
 import org.mockftpserver.core.server.AbstractFtpServer;
 import org.mockftpserver.fake.command.*;
+import org.mockftpserver.fake.filesystem.FileEntry;
 import org.mockftpserver.fake.filesystem.FileSystem;
 
 import java.util.HashMap;
@@ -178,12 +179,19 @@ public class FakeFtpServer extends AbstractFtpServer implements ServerConfigurat
         setCommandHandler(CommandNames.DELE, new DeleCommandHandler());
         setCommandHandler(CommandNames.EPRT, new EprtCommandHandler());
         setCommandHandler(CommandNames.EPSV, new EpsvCommandHandler());
+        setCommandHandler(CommandNames.FEAT, new FeatCommandHandler());
+        setCommandHandler(CommandNames.HASH, new HashCommandHandler());
         setCommandHandler(CommandNames.HELP, new HelpCommandHandler());
         setCommandHandler(CommandNames.LIST, new ListCommandHandler());
+        setCommandHandler(CommandNames.MDTM, new MdtmCommandHandler());
+        setCommandHandler(CommandNames.MFMT, new MfmtCommandHandler());
         setCommandHandler(CommandNames.MKD, new MkdCommandHandler());
+        setCommandHandler(CommandNames.MLSD, new MlsdCommandHandler());
+        setCommandHandler(CommandNames.MLST, new MlstCommandHandler());
         setCommandHandler(CommandNames.MODE, new ModeCommandHandler());
         setCommandHandler(CommandNames.NLST, new NlstCommandHandler());
         setCommandHandler(CommandNames.NOOP, new NoopCommandHandler());
+        setCommandHandler(CommandNames.OPTS, new OptsCommandHandler());
         setCommandHandler(CommandNames.PASS, new PassCommandHandler());
         setCommandHandler(CommandNames.PASV, new PasvCommandHandler());
         setCommandHandler(CommandNames.PWD, new PwdCommandHandler());
@@ -205,7 +213,12 @@ public class FakeFtpServer extends AbstractFtpServer implements ServerConfigurat
         setCommandHandler(CommandNames.SYST, new SystCommandHandler());
         setCommandHandler(CommandNames.TYPE, new TypeCommandHandler());
         setCommandHandler(CommandNames.USER, new UserCommandHandler());
+        setCommandHandler(CommandNames.XCRC, new ChecksumCommandHandler(FileEntry.CRC32));
+        setCommandHandler(CommandNames.XMD5, new ChecksumCommandHandler("MD5"));
         setCommandHandler(CommandNames.XPWD, new PwdCommandHandler());
+        setCommandHandler(CommandNames.XSHA1, new ChecksumCommandHandler("SHA-1"));
+        setCommandHandler(CommandNames.XSHA256, new ChecksumCommandHandler("SHA-256"));
+        setCommandHandler(CommandNames.XSHA512, new ChecksumCommandHandler("SHA-512"));
 
         // "Special" Command Handlers
         setCommandHandler(CommandNames.CONNECT, new ConnectCommandHandler());
@@ -17,9 +17,13 @@ package org.mockftpserver.fake;
 
 import org.mockftpserver.core.util.Assert;
 import org.mockftpserver.fake.filesystem.FileSystemEntry;
+import org.mockftpserver.core.session.BandwidthLimiter;
 import org.mockftpserver.fake.filesystem.Permissions;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a single user account on the server, including the username, password, home
@@ -34,6 +38,10 @@ import java.util.List;
  * If null or empty, then the default group name ("users") is used. Otherwise, the first value in the
  * <code>groups</code> List is used. The <code>groups</code> property defaults to an empty List.
  *
+ * <p>Group membership, used by the <code>canRead()</code>, <code>canWrite()</code> and <code>canExecute()</code>
+ * access checks, is determined from the group names in the <code>groups</code> List at the time it is set.
+ * Changes made to the List after calling <code>setGroups()</code> are not reflected in those checks.
+ *
  * <p>The default value for <code>defaultPermissionsForNewFile</code> is read and write permissions for
  * all (user/group/world). The default value for <code>defaultPermissionsForNewDirectory</code> is read,
  * write and execute permissions for all (user/group/world).
@@ -52,23 +60,28 @@ import java.util.List;
  * <p>The <code>accountRequiredForLogin</code> property defaults to false. If it is set to true, then
  * it is expected that the login for this account will require an ACCOUNT (ACCT) command after the
  * PASSWORD (PASS) command is completed.
+ *
+ * <p>The <code>maxBytesPerSecond</code> property limits the combined rate of the data transfers of all sessions
+ * logged in as this user. It can be changed at any time, and defaults to zero, meaning unlimited.
  */
 public class UserAccount {
 
     public static final String DEFAULT_USER = "system";
     public static final String DEFAULT_GROUP = "users";
-    public static final Permissions DEFAULT_PERMISSIONS_FOR_NEW_FILE = new Permissions("rw-rw-rw-");
+    public static final Permissions DEFAULT_PERMISSIONS_FOR_NEW_FILE = Permissions.valueOf("rw-rw-rw-");
     public static final Permissions DEFAULT_PERMISSIONS_FOR_NEW_DIRECTORY = Permissions.ALL;
 
     private String username;
     private String password;
     private String homeDirectory;
     private List groups;
+    private Set groupSet = Collections.EMPTY_SET;
     private boolean passwordRequiredForLogin = true;
     private boolean passwordCheckedDuringValidation = true;
     private boolean accountRequiredForLogin = false;
     private Permissions defaultPermissionsForNewFile = DEFAULT_PERMISSIONS_FOR_NEW_FILE;
     private Permissions defaultPermissionsForNewDirectory = DEFAULT_PERMISSIONS_FOR_NEW_DIRECTORY;
+    private final BandwidthLimiter bandwidthLimiter = new BandwidthLimiter();
 
 
     /**
@@ -120,6 +133,7 @@ public class UserAccount {
 
     public void setGroups(List groups) {
         this.groups = groups;
+        this.groupSet = (groups == null) ? Collections.EMPTY_SET : new HashSet(groups);
     }
 
     public boolean isPasswordRequiredForLogin() {
@@ -162,6 +176,21 @@ public class UserAccount {
         this.defaultPermissionsForNewDirectory = defaultPermissionsForNewDirectory;
     }
 
+    public long getMaxBytesPerSecond() {
+        return bandwidthLimiter.getBytesPerSecond();
+    }
+
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        bandwidthLimiter.setBytesPerSecond(maxBytesPerSecond);
+    }
+
+    /**
+     * @return the BandwidthLimiter shared by all sessions logged in as this user
+     */
+    public BandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
     /**
      * Return the name of the primary group to which this user belongs. If this account has no associated
      * groups set, then this method returns the <code>DEFAULT_GROUP</code>. Otherwise, this method
@@ -219,7 +248,7 @@ public class UserAccount {
         if (equalOrBothNull(username, entry.getOwner())) {
             return permissions.canUserRead();
         }
-        if (groups != null && groups.contains(entry.getGroup())) {
+        if (groupSet.contains(entry.getGroup())) {
             return permissions.canGroupRead();
         }
         return permissions.canWorldRead();
@@ -240,7 +269,7 @@ public class UserAccount {
         if (equalOrBothNull(username, entry.getOwner())) {
             return permissions.canUserWrite();
         }
-        if (groups != null && groups.contains(entry.getGroup())) {
+        if (groupSet.contains(entry.getGroup())) {
             return permissions.canGroupWrite();
         }
         return permissions.canWorldWrite();
@@ -261,7 +290,7 @@ public class UserAccount {
         if (equalOrBothNull(username, entry.getOwner())) {
             return permissions.canUserExecute();
         }
-        if (groups != null && groups.contains(entry.getGroup())) {
+        if (groupSet.contains(entry.getGroup())) {
             return permissions.canGroupExecute();
         }
         return permissions.canWorldExecute();
@@ -23,7 +23,8 @@ import org.mockftpserver.core.session.Session;
  * CommandHandler for the ABOR command. Handler logic:
  * <ol>
  * <li>If the user has not logged in, then reply with 530</li>
- * <li>Otherwise, reply with 226</li>
+ * <li>If a data transfer is in progress, abort it. The command performing the transfer then replies with 426.</li>
+ * <li>Reply with 226</li>
  * </ol>
  *
  * @author Chris Mair
@@ -32,6 +33,7 @@ public class AborCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
+        session.abortDataTransfer();
         sendReply(session, ReplyCodes.ABOR_OK, "abor");
     }
 
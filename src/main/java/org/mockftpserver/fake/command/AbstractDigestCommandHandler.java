@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystemException;
+
+import java.io.IOException;
+
+/**
+ * Abstract superclass for CommandHandlers that reply with a digest (checksum) of the contents of a file,
+ * such as HASH and XCRC. The digest is obtained from {@link FileEntry#getDigest(String)}, so it is cached
+ * until the file contents change.
+ */
+public abstract class AbstractDigestCommandHandler extends AbstractFakeCommandHandler {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Verify that the path designates an existing file, that the current user has read permission for it
+     * and execute permission for its directory, and return the digest of its contents
+     *
+     * @param session   - the Session
+     * @param path      - the ResolvedPath of the file
+     * @param algorithm - the digest algorithm; see {@link FileEntry#getDigest(String)}
+     * @return the digest
+     * @throws FileSystemException - if the file cannot be read
+     */
+    protected byte[] getDigest(Session session, ResolvedPath path, String algorithm) {
+        verifyFileSystemCondition(path.isFile(), path.getPath(), "filesystem.isNotAFile");
+        verifyReadPermission(session, path);
+        verifyExecutePermission(session, path.getParent());
+        try {
+            return ((FileEntry) path.getEntry()).getDigest(algorithm);
+        }
+        catch (IOException e) {
+            throw new FileSystemException(path.getPath(), null, e);
+        }
+    }
+
+    /**
+     * @param bytes - the bytes
+     * @return the bytes as a String of lowercase hexadecimal digits, two for each byte
+     */
+    protected static String toHexString(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+}
@@ -16,27 +16,36 @@
 package org.mockftpserver.fake.command;
 
 import org.mockftpserver.core.CommandSyntaxException;
+import org.mockftpserver.core.DataConnectionException;
 import org.mockftpserver.core.IllegalStateException;
 import org.mockftpserver.core.NotLoggedInException;
 import org.mockftpserver.core.command.AbstractCommandHandler;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 import org.mockftpserver.core.util.Assert;
 import org.mockftpserver.fake.ServerConfiguration;
 import org.mockftpserver.fake.ServerConfigurationAware;
 import org.mockftpserver.fake.UserAccount;
 import org.mockftpserver.fake.filesystem.FileSystem;
-import org.mockftpserver.fake.filesystem.FileSystemEntry;
 import org.mockftpserver.fake.filesystem.FileSystemException;
 import org.mockftpserver.fake.filesystem.InvalidFilenameException;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterOutputStream;
 
 /**
  * Abstract superclass for CommandHandler classes for the "Fake" server.
@@ -46,14 +55,12 @@ import java.util.MissingResourceException;
 public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler implements ServerConfigurationAware {
 
     protected static final String INTERNAL_ERROR_KEY = "internalError";
+    private static final int DEFLATE_BUFFER_SIZE = 64 * 1024;
 
-    private ServerConfiguration serverConfiguration;
+    // The context for the command being handled by the current thread, if any
+    private static final ThreadLocal CURRENT_CONTEXT = new ThreadLocal();
 
-    /**
-     * Reply code sent back when a FileSystemException is caught by the                 {@link #handleCommand(Command, Session)}
-     * This defaults to ReplyCodes.EXISTING_FILE_ERROR (550).
-     */
-    protected int replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
+    private ServerConfiguration serverConfiguration;
 
     public ServerConfiguration getServerConfiguration() {
         return serverConfiguration;
@@ -64,13 +71,34 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
     }
 
     /**
-     * Use template method to centralize and ensure common validation
+     * Use template method to centralize and ensure common validation.
+     *
+     * <p>State that applies to a single invocation (such as the reply code for a FileSystemException) is held
+     * in a context object created for that invocation, rather than in this handler, so that one handler instance
+     * can handle commands for any number of sessions concurrently.
      */
     public void handleCommand(Command command, Session session) {
         Assert.notNull(serverConfiguration, "serverConfiguration");
         Assert.notNull(command, "command");
         Assert.notNull(session, "session");
 
+        CommandContext context = new CommandContext();
+        Object previousContext = CURRENT_CONTEXT.get();
+        CURRENT_CONTEXT.set(context);
+        try {
+            handleCommand(command, session, context);
+        }
+        finally {
+            if (previousContext == null) {
+                CURRENT_CONTEXT.remove();
+            }
+            else {
+                CURRENT_CONTEXT.set(previousContext);
+            }
+        }
+    }
+
+    private void handleCommand(Command command, Session session, CommandContext context) {
         try {
             handle(command, session);
         }
@@ -87,7 +115,25 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
             handleFileSystemException(command, session, e, ReplyCodes.FILENAME_NOT_VALID, e.getPath());
         }
         catch (FileSystemException e) {
-            handleFileSystemException(command, session, e, replyCodeForFileSystemException, e.getPath());
+            handleFileSystemException(command, session, e, context.replyCodeForFileSystemException, e.getPath());
+        }
+        catch (DataConnectionException e) {
+            session.closeDataConnection();
+            handleException(command, session, e, ReplyCodes.TRANSFER_ABORTED);
+        }
+    }
+
+    /**
+     * Set the reply code sent back if a FileSystemException is thrown by the remainder of the command
+     * currently being handled. This defaults to ReplyCodes.READ_FILE_ERROR (550) for each command.
+     * This has no effect if called outside of {@link #handleCommand(Command, Session)}.
+     *
+     * @param replyCode - the reply code
+     */
+    protected void setReplyCodeForFileSystemException(int replyCode) {
+        CommandContext context = (CommandContext) CURRENT_CONTEXT.get();
+        if (context != null) {
+            context.replyCodeForFileSystemException = replyCode;
         }
     }
 
@@ -245,7 +291,109 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
      * @return the UserAccount stored in the specified session; may be null
      */
     protected UserAccount getUserAccount(Session session) {
-        return (UserAccount) session.getAttribute(SessionKeys.USER_ACCOUNT);
+        return (UserAccount) session.getState().getUserAccount();
+    }
+
+    /**
+     * @param session - the Session
+     * @return true if data is transferred in ASCII mode for the session, which is the default if no TYPE
+     *         command has been sent
+     */
+    protected boolean isAsciiMode(Session session) {
+        return session.getState().getAsciiType() != Boolean.FALSE;
+    }
+
+    /**
+     * Return the restart marker set by a preceding REST command, and clear it, since it applies only to
+     * the next data transfer command
+     *
+     * @param session - the Session
+     * @return the restart marker (byte offset); zero if none is set
+     */
+    protected long consumeRestartMarker(Session session) {
+        Long restartMarker = session.getState().getRestartMarker();
+        if (restartMarker == null) {
+            return 0;
+        }
+        session.getState().setRestartMarker(null);
+        return restartMarker.longValue();
+    }
+
+    /**
+     * Send the remaining contents of the InputStream on the data connection, compressing them if the session
+     * is in deflate mode (MODE Z)
+     *
+     * @param session - the Session
+     * @param input   - the InputStream whose contents are sent
+     */
+    protected void sendData(Session session, InputStream input) {
+        Integer deflateLevel = session.getState().getDeflateLevel();
+        if (deflateLevel == null) {
+            session.sendData(input);
+            return;
+        }
+        Deflater deflater = new Deflater(deflateLevel.intValue());
+        try {
+            session.sendData(new DeflaterInputStream(input, deflater, DEFLATE_BUFFER_SIZE));
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Send the bytes on the data connection, compressing them if the session is in deflate mode (MODE Z)
+     *
+     * @param session - the Session
+     * @param data    - the bytes to send
+     */
+    protected void sendData(Session session, byte[] data) {
+        sendData(session, data, data.length);
+    }
+
+    /**
+     * Send the first numBytes bytes of the byte array on the data connection, compressing them if the session
+     * is in deflate mode (MODE Z)
+     *
+     * @param session  - the Session
+     * @param data     - the byte array holding the bytes to send
+     * @param numBytes - the number of bytes to send
+     */
+    protected void sendData(Session session, byte[] data, int numBytes) {
+        if (session.getState().getDeflateLevel() == null) {
+            session.sendData(data, numBytes);
+        }
+        else {
+            sendData(session, new ByteArrayInputStream(data, 0, numBytes));
+        }
+    }
+
+    /**
+     * Read all of the data from the data connection into the OutputStream, decompressing it if the session
+     * is in deflate mode (MODE Z)
+     *
+     * @param session - the Session
+     * @param output  - the OutputStream to write the data to; it is not closed
+     * @return the number of bytes read from the data connection
+     */
+    protected long readData(Session session, OutputStream output) {
+        if (session.getState().getDeflateLevel() == null) {
+            return session.readData(output);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            InflaterOutputStream inflaterOutputStream = new InflaterOutputStream(output, inflater, DEFLATE_BUFFER_SIZE);
+            long numBytes = session.readData(inflaterOutputStream);
+            inflaterOutputStream.finish();
+            return numBytes;
+        }
+        catch (IOException e) {
+            // Invalid compressed data from the client fails the transfer (426), not the session
+            throw new DataConnectionException("Error decompressing the data (MODE Z)", e);
+        }
+        finally {
+            inflater.end();
+        }
     }
 
     /**
@@ -272,9 +420,19 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
      * @throws FileSystemException - if the condition is not true
      */
     protected void verifyExecutePermission(Session session, String path) {
+        verifyExecutePermission(session, new ResolvedPath(getFileSystem(), path));
+    }
+
+    /**
+     * Verify that the current user has execute permission to the specified resolved path
+     *
+     * @param session - the Session
+     * @param path    - the resolved path
+     * @throws FileSystemException - if the condition is not true
+     */
+    protected void verifyExecutePermission(Session session, ResolvedPath path) {
         UserAccount userAccount = getUserAccount(session);
-        FileSystemEntry entry = getFileSystem().getEntry(path);
-        verifyFileSystemCondition(userAccount.canExecute(entry), path, "filesystem.cannotExecute");
+        verifyFileSystemCondition(userAccount.canExecute(path.getEntry()), path.getPath(), "filesystem.cannotExecute");
     }
 
     /**
@@ -285,9 +443,19 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
      * @throws FileSystemException - if the condition is not true
      */
     protected void verifyWritePermission(Session session, String path) {
+        verifyWritePermission(session, new ResolvedPath(getFileSystem(), path));
+    }
+
+    /**
+     * Verify that the current user has write permission to the specified resolved path
+     *
+     * @param session - the Session
+     * @param path    - the resolved path
+     * @throws FileSystemException - if the condition is not true
+     */
+    protected void verifyWritePermission(Session session, ResolvedPath path) {
         UserAccount userAccount = getUserAccount(session);
-        FileSystemEntry entry = getFileSystem().getEntry(path);
-        verifyFileSystemCondition(userAccount.canWrite(entry), path, "filesystem.cannotWrite");
+        verifyFileSystemCondition(userAccount.canWrite(path.getEntry()), path.getPath(), "filesystem.cannotWrite");
     }
 
     /**
@@ -298,9 +466,19 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
      * @throws FileSystemException - if the condition is not true
      */
     protected void verifyReadPermission(Session session, String path) {
+        verifyReadPermission(session, new ResolvedPath(getFileSystem(), path));
+    }
+
+    /**
+     * Verify that the current user has read permission to the specified resolved path
+     *
+     * @param session - the Session
+     * @param path    - the resolved path
+     * @throws FileSystemException - if the condition is not true
+     */
+    protected void verifyReadPermission(Session session, ResolvedPath path) {
         UserAccount userAccount = getUserAccount(session);
-        FileSystemEntry entry = getFileSystem().getEntry(path);
-        verifyFileSystemCondition(userAccount.canRead(entry), path, "filesystem.cannotRead");
+        verifyFileSystemCondition(userAccount.canRead(path.getEntry()), path.getPath(), "filesystem.cannotRead");
     }
 
     /**
@@ -315,7 +493,7 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
      * @return the resulting full, absolute path
      */
     protected String getRealPath(Session session, String path) {
-        String currentDirectory = (String) session.getAttribute(SessionKeys.CURRENT_DIRECTORY);
+        String currentDirectory = session.getState().getCurrentDirectory();
         if (path == null) {
             return currentDirectory;
         }
@@ -325,6 +503,29 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
         return getFileSystem().path(currentDirectory, path);
     }
 
+    /**
+     * Resolve the specified abstract pathname to a full, absolute path (see {@link #getRealPath(Session, String)}),
+     * whose file system entry and parent are then looked up at most once while handling the current command.
+     *
+     * @param session - the Session
+     * @param path    - the abstract pathname; may be null
+     * @return the ResolvedPath for the resulting full, absolute path
+     */
+    protected ResolvedPath resolvePath(Session session, String path) {
+        return new ResolvedPath(getFileSystem(), getRealPath(session, path));
+    }
+
+    /**
+     * Return the Charset used to encode the pathnames sent on the data connection, for instance within directory
+     * listings: UTF-8 if the client has enabled UTF-8 pathnames (OPTS UTF8 ON); otherwise the platform default
+     *
+     * @param session - the Session
+     * @return the Charset for pathnames
+     */
+    protected Charset getPathnameCharset(Session session) {
+        return Boolean.TRUE.equals(session.getState().getUtf8()) ? StandardCharsets.UTF_8 : Charset.defaultCharset();
+    }
+
     /**
      * Return the end-of-line character(s) used when building multi-line responses
      *
@@ -380,7 +581,8 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
 
     /**
      * Log in the specified user for the current session. Send back a reply of 230 with a message indicated
-     * by the replyMessageKey and set the UserAccount and current directory (homeDirectory) in the session.
+     * by the replyMessageKey and set the UserAccount, its BandwidthLimiter and current directory (homeDirectory)
+     * in the session.
      *
      * @param userAccount     - the userAccount for the user to be logged in
      * @param session         - the session
@@ -389,8 +591,9 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
      */
     protected void login(UserAccount userAccount, Session session, int replyCode, String replyMessageKey) {
         sendReply(session, replyCode, replyMessageKey);
-        session.setAttribute(SessionKeys.USER_ACCOUNT, userAccount);
-        session.setAttribute(SessionKeys.CURRENT_DIRECTORY, userAccount.getHomeDirectory());
+        session.getState().setUserAccount(userAccount);
+        session.getState().setUserBandwidthLimiter(userAccount.getBandwidthLimiter());
+        session.getState().setCurrentDirectory(userAccount.getHomeDirectory());
     }
 
     /**
@@ -438,4 +641,11 @@ public abstract class AbstractFakeCommandHandler extends AbstractCommandHandler
         return (notNullOrEmpty(string) ? string : defaultString);
     }
 
+    /**
+     * Holds the state for a single invocation of {@link #handleCommand(Command, Session)}
+     */
+    private static class CommandContext {
+        private int replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
+    }
+
 }
\ No newline at end of file
@@ -18,11 +18,14 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.CrLfToLfOutputStream;
 import org.mockftpserver.fake.filesystem.FileEntry;
 import org.mockftpserver.fake.filesystem.FileSystemException;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Abstract superclass for CommandHandlers that that store a file (STOR, STOU, APPE). Handler logic:
@@ -33,8 +36,15 @@ import java.io.OutputStream;
  * <li>If the current user does not have write access to the named file, if it already exists, or else to its
  * parent directory, then reply with 553 and terminate</li>
  * <li>If the current user does not have execute access to the parent directory, then reply with 553 and terminate</li>
+ * <li>If a restart marker was set by a preceding REST command and it is beyond the end of the file (or the file
+ * does not exist), then reply with 554 and terminate</li>
  * <li>Send an initial reply of 150</li>
- * <li>Read all available bytes from the data connection and store/append to the named file in the server file system</li>
+ * <li>Read all available bytes from the data connection, streaming them into the named file in the server file system
+ * (storing or appending). If a restart marker was set, the data replaces the contents of the file from that offset
+ * onward; the contents before the offset are kept, without being copied. In ASCII mode (the default), each CRLF is converted to LF as the data is stored.
+ * The new contents are published atomically once the transfer is complete. The hash of the algorithm selected for
+ * the session (see {@link HashCommandHandler}) is computed while the contents are written, so that a subsequent HASH
+ * command does not read them again.</li>
  * <li>If file write/store fails, then reply with 553 and terminate</li>
  * <li>Send a final reply with 226</li>
  * </ol>
@@ -45,54 +55,82 @@ public abstract class AbstractStoreFileCommandHandler extends AbstractFakeComman
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        this.replyCodeForFileSystemException = ReplyCodes.WRITE_FILE_ERROR;
+        setReplyCodeForFileSystemException(ReplyCodes.WRITE_FILE_ERROR);
+        long restartMarker = consumeRestartMarker(session);
 
         String filename = getOutputFile(command);
-        String path = getRealPath(session, filename);
-        verifyFileSystemCondition(!getFileSystem().isDirectory(path), path, "filesystem.isDirectory");
-        String parentPath = getFileSystem().getParent(path);
-        verifyFileSystemCondition(getFileSystem().isDirectory(parentPath), parentPath, "filesystem.isNotADirectory");
+        ResolvedPath path = resolvePath(session, filename);
+        verifyFileSystemCondition(!path.isDirectory(), path.getPath(), "filesystem.isDirectory");
+        ResolvedPath parent = path.getParent();
+        verifyFileSystemCondition(parent != null && parent.isDirectory(), path.getParentPath(), "filesystem.isNotADirectory");
 
         // User must have write permission to the file, if an existing file, or else to the directory if a new file
-        String pathMustBeWritable = getFileSystem().exists(path) ? path : parentPath;
+        ResolvedPath pathMustBeWritable = path.exists() ? path : parent;
         verifyWritePermission(session, pathMustBeWritable);
 
         // User must have execute permission to the parent directory
-        verifyExecutePermission(session, parentPath);
+        verifyExecutePermission(session, parent);
+
+        if (restartMarker > 0 && (!path.isFile() || restartMarker > ((FileEntry) path.getEntry()).getSize())) {
+            sendReply(session, ReplyCodes.RESTART_MARKER_NOT_VALID);
+            return;
+        }
 
         sendReply(session, ReplyCodes.TRANSFER_DATA_INITIAL_OK);
 
+        // Look up the file again, since it may have been created or deleted (by another session) since the checks
+        FileEntry file = (FileEntry) getFileSystem().getEntry(path.getPath());
+        boolean newFile = file == null;
+        if (newFile) {
+            file = new FileEntry(path.getPath());
+        }
+        addDigestAlgorithm(file, defaultIfNullOrEmpty(session.getState().getHashAlgorithm(), HashCommandHandler.DEFAULT_ALGORITHM));
+
+        // Stream the data straight into the file. Readers of an existing file keep seeing its previous
+        // contents until the new version is published.
+        OutputStream out = (restartMarker > 0)
+                ? file.createPendingOutputStream(restartMarker)
+                : file.createPendingOutputStream(appendToOutputFile());
+        if (isAsciiMode(session)) {
+            out = new CrLfToLfOutputStream(out);
+        }
         session.openDataConnection();
-        byte[] contents = session.readData();
+        long numBytes = readData(session, out);
         session.closeDataConnection();
 
-        FileEntry file = (FileEntry) getFileSystem().getEntry(path);
-        if (file == null) {
-            file = new FileEntry(path);
-            getFileSystem().add(file);
-        }
         file.setPermissions(getUserAccount(session).getDefaultPermissionsForNewFile());
-
-        if (contents != null && contents.length > 0) {
-            OutputStream out = file.createOutputStream(appendToOutputFile());
+        if (numBytes > 0) {
             try {
-                out.write(contents);
+                out.close();    // publish the new contents
             }
             catch (IOException e) {
                 LOG.error("Error writing to file [" + file.getPath() + "]", e);
                 throw new FileSystemException(file.getPath(), null, e);
             }
-            finally {
-                try {
-                    out.close();
-                } catch (IOException e) {
-                    LOG.error("Error closing OutputStream for file [" + file.getPath() + "]", e);
-                }
-            }
+        }
+
+        // Add a new file only once its contents are complete
+        if (newFile) {
+            getFileSystem().add(file);
         }
         sendReply(session, ReplyCodes.TRANSFER_DATA_FINAL_OK, getMessageKey(), list(filename));
     }
 
+    /**
+     * Add the specified algorithm to those whose digests are computed while new contents are written to the file
+     *
+     * @param file      - the FileEntry
+     * @param algorithm - the digest algorithm name
+     */
+    private void addDigestAlgorithm(FileEntry file, String algorithm) {
+        Set algorithms = file.getDigestAlgorithms();
+        if (!algorithms.contains(algorithm)) {
+            algorithms = new HashSet(algorithms);
+            algorithms.add(algorithm);
+            file.setDigestAlgorithms(algorithms);
+        }
+    }
+
     /**
      * Return the path (absolute or relative) for the output file. The default behavior is to return
      * the required first parameter for the specified Command. Subclasses may override the default behavior.
@@ -36,7 +36,7 @@ public class AcctCommandHandler extends AbstractFakeCommandHandler {
         String accountName = command.getRequiredParameter(0);
         String username = (String) getRequiredSessionAttribute(session, SessionKeys.USERNAME);
 
-        session.setAttribute(SessionKeys.ACCOUNT_NAME, accountName);
+        session.getState().setAccountName(accountName);
         sendReply(session, ReplyCodes.ACCT_OK, "acct", list(username));
     }
 
@@ -36,17 +36,17 @@ public class CdupCommandHandler extends AbstractFakeCommandHandler {
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
         String currentDirectory = (String) getRequiredSessionAttribute(session, SessionKeys.CURRENT_DIRECTORY);
-        String path = getFileSystem().getParent(currentDirectory);
+        ResolvedPath path = new ResolvedPath(getFileSystem(), currentDirectory).getParent();
 
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
-        verifyFileSystemCondition(notNullOrEmpty(path), currentDirectory, "filesystem.parentDirectoryDoesNotExist");
-        verifyFileSystemCondition(getFileSystem().isDirectory(path), path, "filesystem.isNotADirectory");
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
+        verifyFileSystemCondition(path != null && notNullOrEmpty(path.getPath()), currentDirectory, "filesystem.parentDirectoryDoesNotExist");
+        verifyFileSystemCondition(path.isDirectory(), path.getPath(), "filesystem.isNotADirectory");
 
         // User must have execute permission to the parent directory
         verifyExecutePermission(session, path);
 
-        session.setAttribute(SessionKeys.CURRENT_DIRECTORY, path);
-        sendReply(session, ReplyCodes.CDUP_OK, "cdup", list(path));
+        session.getState().setCurrentDirectory(path.getPath());
+        sendReply(session, ReplyCodes.CDUP_OK, "cdup", list(path.getPath()));
     }
 
 }
\ No newline at end of file
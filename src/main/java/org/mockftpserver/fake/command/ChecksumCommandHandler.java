@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.Assert;
+
+import java.util.Locale;
+
+/**
+ * CommandHandler for the XCRC, XMD5, XSHA1, XSHA256 and XSHA512 commands, each of which returns a digest
+ * (checksum) of the contents of a file, using a fixed algorithm. Handler logic:
+ * <ol>
+ *   <li>If the user has not logged in, then reply with 530 and terminate</li>
+ *   <li>If the required pathname parameter is missing, then reply with 501 and terminate</li>
+ *   <li>If the pathname parameter does not specify a valid, existing filename, then reply with 550 and terminate</li>
+ *   <li>
+ *       If the current user does not have read access to the file at the specified path or execute permission
+ *       to its directory, then reply with 550 and terminate
+ *   </li>
+ *   <li>Otherwise, reply with 250, followed by the digest of the whole file, as uppercase hexadecimal digits</li>
+ * </ol>
+ */
+public class ChecksumCommandHandler extends AbstractDigestCommandHandler {
+
+    private final String algorithm;
+
+    /**
+     * Construct a new instance that returns digests computed using the specified algorithm
+     *
+     * @param algorithm - the digest algorithm; see {@link org.mockftpserver.fake.filesystem.FileEntry#getDigest(String)}
+     */
+    public ChecksumCommandHandler(String algorithm) {
+        Assert.notNull(algorithm, "algorithm");
+        this.algorithm = algorithm;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    protected void handle(Command command, Session session) {
+        verifyLoggedIn(session);
+        ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
+        String checksum = toHexString(getDigest(session, path, algorithm)).toUpperCase(Locale.ENGLISH);
+        sendReply(session, ReplyCodes.CHECKSUM_OK, "checksum", list(checksum));
+    }
+
+}
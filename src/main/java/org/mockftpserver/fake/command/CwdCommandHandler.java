@@ -18,7 +18,6 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 
 /**
  * CommandHandler for the CWD command. Handler logic:
@@ -37,17 +36,17 @@ public class CwdCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        String path = getRealPath(session, command.getRequiredParameter(0));
+        ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
 
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
-        verifyFileSystemCondition(getFileSystem().exists(path), path, "filesystem.doesNotExist");
-        verifyFileSystemCondition(getFileSystem().isDirectory(path), path, "filesystem.isNotADirectory");
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
+        verifyFileSystemCondition(path.exists(), path.getPath(), "filesystem.doesNotExist");
+        verifyFileSystemCondition(path.isDirectory(), path.getPath(), "filesystem.isNotADirectory");
 
         // User must have execute permission to the directory
         verifyExecutePermission(session, path);
 
-        session.setAttribute(SessionKeys.CURRENT_DIRECTORY, path);
-        sendReply(session, ReplyCodes.CWD_OK, "cwd", list(path));
+        session.getState().setCurrentDirectory(path.getPath());
+        sendReply(session, ReplyCodes.CWD_OK, "cwd", list(path.getPath()));
     }
 
 }
\ No newline at end of file
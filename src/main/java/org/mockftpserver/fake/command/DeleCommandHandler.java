@@ -36,16 +36,16 @@ public class DeleCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        String path = getRealPath(session, command.getRequiredParameter(0));
+        ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
 
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
-        verifyFileSystemCondition(getFileSystem().isFile(path), path, "filesystem.isNotAFile");
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
+        verifyFileSystemCondition(path.isFile(), path.getPath(), "filesystem.isNotAFile");
 
         // User must have write permission to the parent directory
-        verifyWritePermission(session, getFileSystem().getParent(path));
+        verifyWritePermission(session, path.getParent());
 
-        getFileSystem().delete(path);
-        sendReply(session, ReplyCodes.DELE_OK, "dele", list(path));
+        getFileSystem().delete(path.getPath());
+        sendReply(session, ReplyCodes.DELE_OK, "dele", list(path.getPath()));
     }
 
 }
\ No newline at end of file
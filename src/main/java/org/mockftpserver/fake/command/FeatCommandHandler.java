@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.CommandHandlersAware;
+import org.mockftpserver.core.command.FeatureUtil;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CommandHandler for the FEAT command (RFC 2389). Handler logic:
+ * <ol>
+ * <li>If none of the commands registered with the server correspond to an extension, then reply with 211
+ * and terminate</li>
+ * <li>Otherwise, reply with a multi-line 211 reply, listing one feature (extension) per line</li>
+ * </ol>
+ * The features listed are determined by the commands registered with the server; see
+ * {@link FeatureUtil#getFeatures(java.util.Map)}. The HASH feature lists the supported hash algorithms,
+ * with the algorithm currently selected for the session marked by an asterisk. Likewise, the MLST feature
+ * lists the supported facts, with the facts currently selected for the session marked by an asterisk.
+ *
+ * <p>The user does not have to be logged in, since clients commonly send FEAT before logging in.
+ */
+public class FeatCommandHandler extends AbstractFakeCommandHandler implements CommandHandlersAware {
+
+    private Map commandHandlers = Collections.EMPTY_MAP;
+
+    protected void handle(Command command, Session session) {
+        List features = FeatureUtil.getFeatures(commandHandlers);
+        if (features.isEmpty()) {
+            sendReply(session, ReplyCodes.FEAT_OK, "feat.noFeatures");
+            return;
+        }
+
+        for (int i = 0; i < features.size(); i++) {
+            String feature = (String) features.get(i);
+            if (feature.equals(CommandNames.HASH)) {
+                features.set(i, hashFeature(session));
+            }
+            else if (feature.startsWith(CommandNames.MLST + " ")) {
+                features.set(i, CommandNames.MLST + " " + MachineListingFormatter.featureFacts(session.getState().getMlstFacts()));
+            }
+        }
+        sendReply(session, ReplyCodes.FEAT_OK, "feat", list(FeatureUtil.formatFeatures(features, endOfLine())));
+    }
+
+    private String hashFeature(Session session) {
+        String selected = defaultIfNullOrEmpty(session.getState().getHashAlgorithm(), HashCommandHandler.DEFAULT_ALGORITHM);
+        StringBuffer buffer = new StringBuffer(CommandNames.HASH).append(' ');
+        for (int i = 0; i < HashCommandHandler.ALGORITHMS.size(); i++) {
+            String algorithm = (String) HashCommandHandler.ALGORITHMS.get(i);
+            buffer.append(i > 0 ? ";" : "").append(algorithm).append(algorithm.equals(selected) ? "*" : "");
+        }
+        return buffer.toString();
+    }
+
+    public void setCommandHandlers(Map commandHandlers) {
+        this.commandHandlers = commandHandlers;
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.filesystem.FileEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CommandHandler for the HASH command (see draft-bryan-ftpext-hash). Handler logic:
+ * <ol>
+ *   <li>If the user has not logged in, then reply with 530 and terminate</li>
+ *   <li>If the required pathname parameter is missing, then reply with 501 and terminate</li>
+ *   <li>If the pathname parameter does not specify a valid, existing filename, then reply with 550 and terminate</li>
+ *   <li>
+ *       If the current user does not have read access to the file at the specified path or execute permission
+ *       to its directory, then reply with 550 and terminate
+ *   </li>
+ *   <li>Otherwise, reply with 213, followed by the hash algorithm, the byte range, the hash of the file contents
+ *       (as hexadecimal digits) and the pathname</li>
+ * </ol>
+ * The hash algorithm is the one selected for the session (see {@link org.mockftpserver.core.session.SessionKeys#HASH_ALGORITHM}),
+ * if any, or else {@link #DEFAULT_ALGORITHM}. The hash covers the whole file.
+ */
+public class HashCommandHandler extends AbstractDigestCommandHandler {
+
+    public static final String DEFAULT_ALGORITHM = "SHA-1";
+
+    /**
+     * The names of the supported hash algorithms, as used by the HASH command
+     */
+    public static final List ALGORITHMS = Collections.unmodifiableList(Arrays.asList(new String[]{
+            FileEntry.CRC32, "MD5", "SHA-1", "SHA-256", "SHA-512"}));
+
+    protected void handle(Command command, Session session) {
+        verifyLoggedIn(session);
+        String pathname = command.getRequiredParameter(0);
+        ResolvedPath path = resolvePath(session, pathname);
+        String algorithm = defaultIfNullOrEmpty(session.getState().getHashAlgorithm(), DEFAULT_ALGORITHM);
+
+        String hash = toHexString(getDigest(session, path, algorithm));
+        long size = ((FileEntry) path.getEntry()).getSize();
+        sendReply(session, ReplyCodes.HASH_OK, "hash", Arrays.asList(new Object[]{algorithm, String.valueOf(size), hash, pathname}));
+    }
+
+}
@@ -18,12 +18,10 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.util.StringUtil;
 import org.mockftpserver.fake.filesystem.FileSystemEntry;
 
-import java.util.ArrayList;
+import java.nio.charset.Charset;
 import java.util.Iterator;
-import java.util.List;
 
 /**
  * CommandHandler for the LIST command. Handler logic:
@@ -40,6 +38,8 @@ import java.util.List;
  * for the specified file across the data connection</li>
  * <li>Send a final reply with 226</li>
  * </ol>
+ * The listing is formatted one entry at a time as it is sent (see {@link ListingInputStream}), so it is never
+ * held in memory as a whole. The pathnames are encoded as described for {@link #getPathnameCharset(Session)}.
  *
  * @author Chris Mair
  */
@@ -47,32 +47,37 @@ public class ListCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
+        consumeRestartMarker(session);      // a restart marker does not apply to a listing, so discard it
 
-        String path = getRealPath(session, command.getParameter(0));
+        ResolvedPath path = resolvePath(session, command.getParameter(0));
 
         // User must have read permission to the path
-        if (getFileSystem().exists(path)) {
-            this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
+        if (path.exists()) {
+            setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
             verifyReadPermission(session, path);
         }
 
-        this.replyCodeForFileSystemException = ReplyCodes.SYSTEM_ERROR;
-        List fileEntries = getFileSystem().listFiles(path);
-        Iterator iter = fileEntries.iterator();
-        List lines = new ArrayList();
-        while (iter.hasNext()) {
-            FileSystemEntry entry = (FileSystemEntry) iter.next();
-            lines.add(getFileSystem().formatDirectoryListing(entry));
-        }
-        String result = StringUtil.join(lines, endOfLine());
-        result += result.length() > 0 ? endOfLine() : "";
+        setReplyCodeForFileSystemException(ReplyCodes.SYSTEM_ERROR);
+        Iterator fileEntries = getFileSystem().iterateFiles(path.getPath());
+        final Charset charset = getPathnameCharset(session);
+        ListingInputStream listing = new ListingInputStream(fileEntries) {
+            protected void formatEntry(FileSystemEntry entry) {
+                byte[] bytes = (getFileSystem().formatDirectoryListing(entry) + endOfLine()).getBytes(charset);
+                setLine(bytes, bytes.length);
+            }
+        };
 
         sendReply(session, ReplyCodes.TRANSFER_DATA_INITIAL_OK);
 
         session.openDataConnection();
-        LOG.info("Sending [" + result + "]");
-        session.sendData(result.getBytes(), result.length());
-        session.closeDataConnection();
+        try {
+            sendData(session, listing);
+            LOG.debug("Sent " + listing.getEntryCount() + " entries (" + listing.getByteCount() + " bytes)");
+        }
+        finally {
+            // Also close it if formatting an entry fails part way through, so that the client is not left waiting
+            session.closeDataConnection();
+        }
 
         sendReply(session, ReplyCodes.TRANSFER_DATA_FINAL_OK);
     }
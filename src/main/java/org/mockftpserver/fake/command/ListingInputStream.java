@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.util.Assert;
+import org.mockftpserver.fake.filesystem.FileSystemEntry;
+
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * InputStream that produces a directory listing incrementally, formatting one line for each FileSystemEntry as
+ * the bytes are read. A listing sent this way, with {@link AbstractFakeCommandHandler#sendData(org.mockftpserver.core.session.Session, java.io.InputStream)},
+ * is never held in memory as a whole: only the current line, and the data transfer buffer that is filled from
+ * it, are. The line is read from a buffer and a length, so a subclass can format every line into the same
+ * reusable buffer. Combined with {@link org.mockftpserver.fake.filesystem.FileSystem#iterateFiles(String)}, large
+ * directories are listed with bounded memory.
+ *
+ * <p>Subclasses implement {@link #formatEntry(FileSystemEntry)} to format the line for an entry, including its
+ * end-of-line characters, and pass it to {@link #setLine(byte[], int)}. The lines are formatted as they are needed, so any
+ * {@link org.mockftpserver.fake.filesystem.FileSystemException} thrown by that method is thrown while the
+ * listing is being sent.
+ *
+ * <p>This class is not thread-safe.
+ */
+public abstract class ListingInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Iterator entries;
+    private byte[] line = EMPTY;
+    private int lineLength;
+    private int position;
+    private int entryCount;
+    private long byteCount;
+
+    /**
+     * Construct a new instance
+     *
+     * @param entries - the Iterator over the FileSystemEntry objects to list
+     */
+    protected ListingInputStream(Iterator entries) {
+        Assert.notNull(entries, "entries");
+        this.entries = entries;
+    }
+
+    /**
+     * Format the listing line for the specified entry, and pass it to {@link #setLine(byte[], int)}
+     *
+     * @param entry - the FileSystemEntry
+     */
+    protected abstract void formatEntry(FileSystemEntry entry);
+
+    /**
+     * Set the current line, to be read before the next entry is formatted. The bytes are not copied, so the
+     * buffer must not be modified until the next call to {@link #formatEntry(FileSystemEntry)}.
+     *
+     * @param bytes  - the buffer holding the bytes of the line, including its end-of-line characters
+     * @param length - the number of bytes of the line, from the start of the buffer
+     */
+    protected void setLine(byte[] bytes, int length) {
+        Assert.notNull(bytes, "bytes");
+        this.line = bytes;
+        this.lineLength = length;
+    }
+
+    public int read() {
+        if (!nextLine()) {
+            return -1;
+        }
+        return line[position++] & 0xFF;
+    }
+
+    public int read(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        int numBytesRead = 0;
+        while (numBytesRead < length && nextLine()) {
+            int numBytes = Math.min(length - numBytesRead, lineLength - position);
+            System.arraycopy(line, position, bytes, offset + numBytesRead, numBytes);
+            position += numBytes;
+            numBytesRead += numBytes;
+        }
+        return (numBytesRead > 0) ? numBytesRead : -1;
+    }
+
+    public int available() {
+        return lineLength - position;
+    }
+
+    /**
+     * @return the number of entries formatted so far
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the number of bytes of the lines formatted so far
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Make sure that there are bytes remaining in the current line, formatting the next entry if necessary
+     *
+     * @return true if there are bytes remaining; false if the end of the listing has been reached
+     */
+    private boolean nextLine() {
+        while (position == lineLength) {
+            if (!entries.hasNext()) {
+                return false;
+            }
+            line = EMPTY;
+            lineLength = 0;
+            position = 0;
+            formatEntry((FileSystemEntry) entries.next());
+            entryCount++;
+            byteCount += lineLength;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.util.Assert;
+import org.mockftpserver.core.util.BufferPool;
+import org.mockftpserver.core.util.TimeValUtil;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.AbstractFileSystemEntry;
+import org.mockftpserver.fake.filesystem.FileSystemEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Formats file system entries as the machine-readable listings of the MLSD and MLST commands (RFC 3659).
+ * Each entry is formatted as a list of facts, such as "type=file;size=123;modify=20260315143005;perm=adfrw;",
+ * followed by a single space and the pathname. The supported facts are listed in {@link #FACTS}; the facts
+ * that are included can be selected (see the MLST option of the OPTS command).
+ *
+ * <p>The facts and pathnames are written directly, as bytes, into a buffer that grows as needed and is reused
+ * for every entry, so that formatting a listing does not create intermediate Strings for each entry. Pathnames
+ * are encoded as UTF-8. The buffer is acquired from the shared {@link BufferPool}; call {@link #release()} once
+ * the contents have been used.
+ *
+ * <p>The "perm" fact lists the operations that the user account is permitted, as determined by the permissions
+ * of the entry and of its parent directory. The "unique" fact is the id of the entry (see
+ * {@link AbstractFileSystemEntry#getId()}), in hexadecimal, so it stays the same when the entry is renamed and
+ * is never shared by two entries. It is omitted for other implementations of {@link FileSystemEntry}, which
+ * have no such id.
+ *
+ * <p>This class is not thread-safe; use a separate instance for each listing.
+ */
+public class MachineListingFormatter {
+
+    public static final String TYPE = "type";
+    public static final String SIZE = "size";
+    public static final String MODIFY = "modify";
+    public static final String PERM = "perm";
+    public static final String UNIQUE = "unique";
+
+    /**
+     * The names of the supported facts, in the order that they are listed
+     */
+    public static final List FACTS = Collections.unmodifiableList(Arrays.asList(new String[]{
+            TYPE, SIZE, MODIFY, PERM, UNIQUE}));
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int TIME_VAL_LENGTH = 14;
+
+    // Indexes within FACTS
+    private static final int TYPE_INDEX = 0;
+    private static final int SIZE_INDEX = 1;
+    private static final int MODIFY_INDEX = 2;
+    private static final int PERM_INDEX = 3;
+    private static final int UNIQUE_INDEX = 4;
+
+    private final boolean[] selected = new boolean[FACTS.size()];
+    private final UserAccount userAccount;
+    private final BufferPool bufferPool = BufferPool.getSharedInstance();
+    private final StringBuilder timeVal = new StringBuilder(TIME_VAL_LENGTH);
+    private byte[] buffer;
+    private int length;
+
+    /**
+     * Construct a new instance
+     *
+     * @param facts       - the selected facts, as a list of fact names, each followed by ";" (for instance
+     *                    "type;size;"), as specified by the MLST option of the OPTS command; null to select all
+     *                    of the supported facts. Unsupported facts are ignored.
+     * @param userAccount - the UserAccount of the user that requested the listing
+     * @throws org.mockftpserver.core.util.AssertFailedException - if userAccount is null
+     */
+    public MachineListingFormatter(String facts, UserAccount userAccount) {
+        Assert.notNull(userAccount, "userAccount");
+        this.userAccount = userAccount;
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = (facts == null) || containsFact(facts, (String) FACTS.get(i));
+        }
+    }
+
+    /**
+     * Return the supported facts among the specified facts, in the format used by the MLST option of the
+     * OPTS command and by the MLST feature: each fact name followed by ";", in the order of {@link #FACTS}.
+     *
+     * @param facts - the facts, separated by ";"; fact names are not case-sensitive; null selects all facts
+     * @return the supported facts, for instance "type;size;"; may be empty
+     */
+    public static String selectFacts(String facts) {
+        StringBuffer buffer = new StringBuffer();
+        for (int i = 0; i < FACTS.size(); i++) {
+            String fact = (String) FACTS.get(i);
+            if (facts == null || containsFact(facts, fact)) {
+                buffer.append(fact).append(';');
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Return the facts, as listed for the MLST feature in reply to the FEAT command: each supported fact
+     * name followed by "*" if it is selected, and then by ";"
+     *
+     * @param facts - the selected facts, in the format returned by {@link #selectFacts(String)}; null if
+     *              all facts are selected
+     * @return the facts, for instance "type*;size*;modify;perm;unique;"
+     */
+    public static String featureFacts(String facts) {
+        StringBuffer buffer = new StringBuffer();
+        for (int i = 0; i < FACTS.size(); i++) {
+            String fact = (String) FACTS.get(i);
+            buffer.append(fact).append((facts == null || containsFact(facts, fact)) ? "*;" : ";");
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Append the facts for the entry, followed by a space and the pathname, without any end-of-line characters
+     *
+     * @param entry          - the FileSystemEntry
+     * @param pathname       - the pathname to list for the entry
+     * @param parentWritable - true if the user has write permission to the parent directory of the entry,
+     *                       so that the entry can be deleted or renamed
+     */
+    public void append(FileSystemEntry entry, String pathname, boolean parentWritable) {
+        boolean directory = entry.isDirectory();
+        if (selected[TYPE_INDEX]) {
+            appendFact(TYPE, directory ? "dir" : "file");
+        }
+        if (selected[SIZE_INDEX] && !directory) {
+            appendAscii(SIZE);
+            appendByte('=');
+            appendDecimal(entry.getSize());
+            appendByte(';');
+        }
+        if (selected[MODIFY_INDEX] && entry.getLastModified() != null) {
+            timeVal.setLength(0);
+            TimeValUtil.formatTo(entry.getLastModified().getTime(), timeVal);
+            appendAscii(MODIFY);
+            appendByte('=');
+            appendAscii(timeVal);
+            appendByte(';');
+        }
+        if (selected[PERM_INDEX]) {
+            appendAscii(PERM);
+            appendByte('=');
+            appendPermissions(entry, parentWritable);
+            appendByte(';');
+        }
+        if (selected[UNIQUE_INDEX] && entry instanceof AbstractFileSystemEntry) {
+            appendAscii(UNIQUE);
+            appendByte('=');
+            appendHex(((AbstractFileSystemEntry) entry).getId());
+            appendByte(';');
+        }
+        appendByte(' ');
+        appendUtf8(pathname);
+    }
+
+    /**
+     * Append the end-of-line characters ("\r\n")
+     */
+    public void appendEndOfLine() {
+        appendByte('\r');
+        appendByte('\n');
+    }
+
+    /**
+     * @return the buffer holding the formatted bytes, from index 0 to {@link #getLength()}; may be null if
+     *         nothing has been appended. The buffer may be larger than the formatted contents.
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the number of formatted bytes in the buffer
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the formatted contents as a String
+     */
+    public String getContents() {
+        return (buffer == null) ? "" : new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Discard the formatted contents, keeping the buffer for reuse
+     */
+    public void reset() {
+        length = 0;
+    }
+
+    /**
+     * Discard the formatted contents and return the buffer to the BufferPool
+     */
+    public void release() {
+        bufferPool.release(buffer);
+        buffer = null;
+        length = 0;
+    }
+
+    //-------------------------------------------------------------------------
+    // Internal Helper Methods
+    //-------------------------------------------------------------------------
+
+    private void appendPermissions(FileSystemEntry entry, boolean parentWritable) {
+        boolean canRead = userAccount.canRead(entry);
+        boolean canWrite = userAccount.canWrite(entry);
+        if (entry.isDirectory()) {
+            appendIf(canWrite, 'c');
+            appendIf(parentWritable, 'd');
+            appendIf(userAccount.canExecute(entry), 'e');
+            appendIf(parentWritable, 'f');
+            appendIf(canRead, 'l');
+            appendIf(canWrite, 'm');
+            appendIf(canWrite, 'p');
+        }
+        else {
+            appendIf(canWrite, 'a');
+            appendIf(parentWritable, 'd');
+            appendIf(parentWritable, 'f');
+            appendIf(canRead, 'r');
+            appendIf(canWrite, 'w');
+        }
+    }
+
+    private void appendFact(String name, String value) {
+        appendAscii(name);
+        appendByte('=');
+        appendAscii(value);
+        appendByte(';');
+    }
+
+    private void appendIf(boolean condition, char c) {
+        if (condition) {
+            appendByte(c);
+        }
+    }
+
+    private void appendAscii(CharSequence chars) {
+        ensureCapacity(chars.length());
+        for (int i = 0; i < chars.length(); i++) {
+            buffer[length++] = (byte) chars.charAt(i);
+        }
+    }
+
+    private void appendDecimal(long value) {
+        if (value < 10) {
+            appendByte((char) ('0' + value));
+            return;
+        }
+        appendDecimal(value / 10);
+        appendByte((char) ('0' + (value % 10)));
+    }
+
+    private void appendHex(long value) {
+        ensureCapacity(16);
+        int shift = 60;
+        while (shift > 0 && (value >>> shift) == 0) {
+            shift -= 4;
+        }
+        for (; shift >= 0; shift -= 4) {
+            buffer[length++] = HEX_DIGITS[(int) (value >>> shift) & 0xF];
+        }
+    }
+
+    private void appendUtf8(String string) {
+        // At most three bytes for each char; a surrogate pair (two chars) is encoded as four bytes
+        ensureCapacity(string.length() * 3);
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            }
+            else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c)) {
+                buffer[length++] = (byte) '?';
+            }
+            else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void appendByte(char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void ensureCapacity(int numBytes) {
+        if (buffer == null) {
+            buffer = bufferPool.acquire(Math.max(numBytes, BufferPool.MIN_BUFFER_SIZE));
+        }
+        else if (length + numBytes > buffer.length) {
+            byte[] newBuffer = bufferPool.acquire(Math.max(length + numBytes, buffer.length * 2));
+            System.arraycopy(buffer, 0, newBuffer, 0, length);
+            bufferPool.release(buffer);
+            buffer = newBuffer;
+        }
+    }
+
+    private static boolean containsFact(String facts, String fact) {
+        String[] names = facts.split(";");
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].trim().equalsIgnoreCase(fact)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.TimeValUtil;
+import org.mockftpserver.fake.filesystem.FileSystemEntry;
+
+import java.util.Date;
+
+/**
+ * CommandHandler for the MDTM command (see RFC 3659). Handler logic:
+ * <ol>
+ *   <li>If the user has not logged in, then reply with 530 and terminate</li>
+ *   <li>If the required pathname parameter is missing, then reply with 501 and terminate</li>
+ *   <li>If the pathname parameter does not specify a valid, existing filename, or the file has no last
+ *       modified time, then reply with 550 and terminate</li>
+ *   <li>
+ *       If the current user does not have read access to the file at the specified path or execute permission
+ *       to its directory, then reply with 550 and terminate
+ *   </li>
+ *   <li>Otherwise, reply with 213 and the last modified time of the file, as "YYYYMMDDHHMMSS" (UTC)</li>
+ * </ol>
+ * The file is found with a single lookup of its path, rather than by listing its directory.
+ */
+public class MdtmCommandHandler extends AbstractFakeCommandHandler {
+
+    protected void handle(Command command, Session session) {
+        verifyLoggedIn(session);
+
+        ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
+        verifyFileSystemCondition(path.isFile(), path.getPath(), "filesystem.isNotAFile");
+        verifyReadPermission(session, path);
+        verifyExecutePermission(session, path.getParent());
+
+        FileSystemEntry entry = path.getEntry();
+        Date lastModified = entry.getLastModified();
+        verifyFileSystemCondition(lastModified != null, path.getPath(), "filesystem.lastModifiedNotSet");
+        sendReply(session, ReplyCodes.MDTM_OK, "mdtm", list(TimeValUtil.format(lastModified)));
+    }
+
+}
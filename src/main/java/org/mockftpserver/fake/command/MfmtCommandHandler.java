@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.CommandSyntaxException;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.TimeValUtil;
+
+import java.util.Date;
+
+/**
+ * CommandHandler for the MFMT command (see draft-somers-ftp-mfxx), which sets the last modified time of
+ * a file. The parameter is the new time, as "YYYYMMDDHHMMSS" (UTC), followed by a space and the pathname.
+ * Handler logic:
+ * <ol>
+ *   <li>If the user has not logged in, then reply with 530 and terminate</li>
+ *   <li>If the required parameter is missing, or does not start with a valid time, then reply with 501 and terminate</li>
+ *   <li>If the pathname does not specify a valid, existing filename, then reply with 550 and terminate</li>
+ *   <li>
+ *       If the current user does not have write access to the file at the specified path or execute permission
+ *       to its directory, then reply with 550 and terminate
+ *   </li>
+ *   <li>Otherwise, set the last modified time of the file and reply with 213</li>
+ * </ol>
+ * The file is found with a single lookup of its path, rather than by listing its directory.
+ */
+public class MfmtCommandHandler extends AbstractFakeCommandHandler {
+
+    protected void handle(Command command, Session session) {
+        verifyLoggedIn(session);
+
+        String parameter = command.getRequiredParameter(0);
+        int indexOfSpace = parameter.indexOf(' ');
+        Date lastModified = (indexOfSpace == -1) ? null : TimeValUtil.parse(parameter.substring(0, indexOfSpace));
+        if (lastModified == null) {
+            throw new CommandSyntaxException("Invalid MFMT parameter [" + parameter + "]");
+        }
+        String pathname = parameter.substring(indexOfSpace + 1);
+
+        ResolvedPath path = resolvePath(session, pathname);
+        verifyFileSystemCondition(path.isFile(), path.getPath(), "filesystem.isNotAFile");
+        verifyWritePermission(session, path);
+        verifyExecutePermission(session, path.getParent());
+
+        path.getEntry().setLastModified(lastModified);
+        sendReply(session, ReplyCodes.MFMT_OK, "mfmt", list(TimeValUtil.format(lastModified), pathname));
+    }
+
+}
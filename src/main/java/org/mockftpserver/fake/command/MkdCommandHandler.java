@@ -38,12 +38,12 @@ public class MkdCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        String path = getRealPath(session, command.getRequiredParameter(0));
-        String parent = getFileSystem().getParent(path);
+        ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
+        ResolvedPath parent = path.getParent();
 
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
-        verifyFileSystemCondition(getFileSystem().exists(parent), parent, "filesystem.doesNotExist");
-        verifyFileSystemCondition(!getFileSystem().exists(path), path, "filesystem.alreadyExists");
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
+        verifyFileSystemCondition(parent != null && parent.exists(), path.getParentPath(), "filesystem.doesNotExist");
+        verifyFileSystemCondition(!path.exists(), path.getPath(), "filesystem.alreadyExists");
 
         // User must have write permission to the parent directory
         verifyWritePermission(session, parent);
@@ -51,11 +51,11 @@ public class MkdCommandHandler extends AbstractFakeCommandHandler {
         // User must have execute permission to the parent directory
         verifyExecutePermission(session, parent);
 
-        DirectoryEntry dirEntry = new DirectoryEntry(path);
+        DirectoryEntry dirEntry = new DirectoryEntry(path.getPath());
         getFileSystem().add(dirEntry);
         dirEntry.setPermissions(getUserAccount(session).getDefaultPermissionsForNewDirectory());
 
-        sendReply(session, ReplyCodes.MKD_OK, "mkd", list(path));
+        sendReply(session, ReplyCodes.MKD_OK, "mkd", list(path.getPath()));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.FileSystemEntry;
+
+import java.util.Iterator;
+
+/**
+ * CommandHandler for the MLSD command (RFC 3659). Handler logic:
+ * <ol>
+ * <li>If the user has not logged in, then reply with 530 and terminate</li>
+ * <li>If the optional pathname parameter does not specify an existing directory, then reply with 550 and terminate</li>
+ * <li>If the current user does not have read access to the directory, then reply with 550 and terminate</li>
+ * <li>If an error occurs during processing, then send a reply of 451 and terminate</li>
+ * <li>Send an initial reply of 150</li>
+ * <li>Send a machine-readable listing of the directory (or of the current directory, if the pathname parameter
+ * is missing) across the data connection, one line for each entry</li>
+ * <li>Send a final reply with 226</li>
+ * </ol>
+ * The facts listed for each entry are those selected for the session with the MLST option of the OPTS command
+ * (see {@link org.mockftpserver.core.session.SessionKeys#MLST_FACTS}), or else all of the supported facts. See
+ * {@link MachineListingFormatter}. The listing is formatted one entry at a time as it is sent (see
+ * {@link ListingInputStream}), so it is never held in memory as a whole.
+ */
+public class MlsdCommandHandler extends AbstractFakeCommandHandler {
+
+    protected void handle(Command command, Session session) {
+        verifyLoggedIn(session);
+        consumeRestartMarker(session);      // a restart marker does not apply to a listing, so discard it
+
+        ResolvedPath path = resolvePath(session, command.getParameter(0));
+        verifyFileSystemCondition(path.isDirectory(), path.getPath(), "filesystem.isNotADirectory");
+        verifyReadPermission(session, path);
+
+        setReplyCodeForFileSystemException(ReplyCodes.SYSTEM_ERROR);
+        UserAccount userAccount = getUserAccount(session);
+        final boolean directoryWritable = userAccount.canWrite(path.getEntry());
+        final MachineListingFormatter formatter = new MachineListingFormatter(session.getState().getMlstFacts(), userAccount);
+        try {
+            Iterator fileEntries = getFileSystem().iterateFiles(path.getPath());
+            ListingInputStream listing = new ListingInputStream(fileEntries) {
+                protected void formatEntry(FileSystemEntry entry) {
+                    formatter.reset();
+                    formatter.append(entry, entry.getName(), directoryWritable);
+                    formatter.appendEndOfLine();
+                    setLine(formatter.getBuffer(), formatter.getLength());
+                }
+            };
+
+            sendReply(session, ReplyCodes.TRANSFER_DATA_INITIAL_OK);
+
+            session.openDataConnection();
+            try {
+                sendData(session, listing);
+                LOG.debug("Sent " + listing.getEntryCount() + " entries (" + listing.getByteCount() + " bytes)");
+            }
+            finally {
+                // Also close it if formatting an entry fails part way through, so that the client is not left waiting
+                session.closeDataConnection();
+            }
+        }
+        finally {
+            formatter.release();
+        }
+
+        sendReply(session, ReplyCodes.TRANSFER_DATA_FINAL_OK);
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.UserAccount;
+
+/**
+ * CommandHandler for the MLST command (RFC 3659). Handler logic:
+ * <ol>
+ * <li>If the user has not logged in, then reply with 530 and terminate</li>
+ * <li>If the optional pathname parameter does not specify an existing file or directory, then reply with 550
+ * and terminate</li>
+ * <li>If the current user does not have execute permission to the parent directory, then reply with 550
+ * and terminate</li>
+ * <li>Otherwise, reply with a multi-line 250 reply, containing the machine-readable listing of the file or
+ * directory (or of the current directory, if the pathname parameter is missing)</li>
+ * </ol>
+ * The facts listed are those selected for the session with the MLST option of the OPTS command
+ * (see {@link org.mockftpserver.core.session.SessionKeys#MLST_FACTS}), or else all of the supported facts. See
+ * {@link MachineListingFormatter}.
+ */
+public class MlstCommandHandler extends AbstractFakeCommandHandler {
+
+    protected void handle(Command command, Session session) {
+        verifyLoggedIn(session);
+
+        ResolvedPath path = resolvePath(session, command.getParameter(0));
+        verifyFileSystemCondition(path.exists(), path.getPath(), "filesystem.doesNotExist");
+        ResolvedPath parent = path.getParent();
+        if (parent != null) {
+            verifyExecutePermission(session, parent);
+        }
+
+        UserAccount userAccount = getUserAccount(session);
+        boolean parentWritable = parent != null && userAccount.canWrite(parent.getEntry());
+        MachineListingFormatter formatter = new MachineListingFormatter(session.getState().getMlstFacts(), userAccount);
+        String listing;
+        try {
+            formatter.append(path.getEntry(), path.getPath(), parentWritable);
+            listing = formatter.getContents();
+        }
+        finally {
+            formatter.release();
+        }
+        sendReply(session, ReplyCodes.MLST_OK, "mlst", list(path.getPath(), endOfLine() + " " + listing + endOfLine()));
+    }
+
+}
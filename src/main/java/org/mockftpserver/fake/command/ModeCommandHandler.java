@@ -16,23 +16,63 @@
 package org.mockftpserver.fake.command;
 
 import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.FeatureSupport;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.Assert;
+
+import java.util.zip.Deflater;
 
 /**
  * CommandHandler for the MODE command. Handler logic:
  * <ol>
  * <li>If the user has not logged in, then reply with 530</li>
- * <li>Otherwise, reply with 200</li>
+ * <li>If the mode parameter is "Z" (deflate), then compress the data sent, and decompress the data received,
+ * on the data connection for subsequent data transfers (RETR, STOR, STOU, APPE, LIST and NLST), and reply
+ * with 200</li>
+ * <li>Otherwise, transfer data uncompressed (stream mode), and reply with 200</li>
  * </ol>
  *
+ * <p>In deflate mode, data is compressed using the zlib format, as produced by {@link Deflater}, with the
+ * compression level given by the <code>compressionLevel</code> property. The default is
+ * {@link Deflater#DEFAULT_COMPRESSION}. The FEAT command advertises this as the "MODE Z" feature.
+ *
  * @author Chris Mair
  */
-public class ModeCommandHandler extends AbstractFakeCommandHandler {
+public class ModeCommandHandler extends AbstractFakeCommandHandler implements FeatureSupport {
+
+    public static final String DEFLATE_MODE = "Z";
+
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
+        boolean deflateMode = DEFLATE_MODE.equalsIgnoreCase(command.getParameter(0));
+        session.getState().setDeflateLevel(deflateMode ? Integer.valueOf(compressionLevel) : null);
         sendReply(session, ReplyCodes.MODE_OK, "mode");
     }
 
-}
\ No newline at end of file
+    /**
+     * @return "MODE Z"
+     */
+    public String getFeature() {
+        return "MODE " + DEFLATE_MODE;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Set the compression level for data transfers in deflate mode (MODE Z)
+     *
+     * @param compressionLevel - the compression level, from 0 to 9, or -1 for the default level
+     * @throws org.mockftpserver.core.util.AssertFailedException - if the compression level is not valid
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        Assert.isTrue(compressionLevel >= Deflater.DEFAULT_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION,
+                "compressionLevel must be between -1 and 9");
+        this.compressionLevel = compressionLevel;
+    }
+
+}
@@ -18,9 +18,10 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.util.StringUtil;
+import org.mockftpserver.fake.filesystem.FileSystemEntry;
 
-import java.util.List;
+import java.nio.charset.Charset;
+import java.util.Iterator;
 
 /**
  * CommandHandler for the NLST command. Handler logic:
@@ -37,7 +38,9 @@ import java.util.List;
  * then send an empty response across the data connection</li>
  * <li>Send a final reply with 226</li>
  * </ol>
- * The directory listing sent includes filenames only, separated by end-of-line characters.
+ * The directory listing sent includes filenames only, each followed by end-of-line characters. It is formatted
+ * one entry at a time as it is sent (see {@link ListingInputStream}), so it is never held in memory as a whole.
+ * The filenames are encoded as described for {@link #getPathnameCharset(Session)}.
  *
  * @author Chris Mair
  */
@@ -45,24 +48,36 @@ public class NlstCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        String path = getRealPath(session, command.getParameter(0));
+        consumeRestartMarker(session);      // a restart marker does not apply to a listing, so discard it
+        ResolvedPath path = resolvePath(session, command.getParameter(0));
 
         // User must have read permission to the path
-        if (getFileSystem().exists(path)) {
-            this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
+        if (path.exists()) {
+            setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
             verifyReadPermission(session, path);
         }
 
-        this.replyCodeForFileSystemException = ReplyCodes.SYSTEM_ERROR;
-        List names = getFileSystem().listNames(path);
-        String directoryListing = StringUtil.join(names, endOfLine());
-        directoryListing += directoryListing.length() > 0 ? endOfLine() : "";
+        setReplyCodeForFileSystemException(ReplyCodes.SYSTEM_ERROR);
+        Iterator fileEntries = getFileSystem().iterateFiles(path.getPath());
+        final Charset charset = getPathnameCharset(session);
+        ListingInputStream listing = new ListingInputStream(fileEntries) {
+            protected void formatEntry(FileSystemEntry entry) {
+                byte[] bytes = (entry.getName() + endOfLine()).getBytes(charset);
+                setLine(bytes, bytes.length);
+            }
+        };
 
         sendReply(session, ReplyCodes.TRANSFER_DATA_INITIAL_OK);
 
         session.openDataConnection();
-        session.sendData(directoryListing.getBytes(), directoryListing.length());
-        session.closeDataConnection();
+        try {
+            sendData(session, listing);
+            LOG.debug("Sent " + listing.getEntryCount() + " names (" + listing.getByteCount() + " bytes)");
+        }
+        finally {
+            // Also close it if formatting an entry fails part way through, so that the client is not left waiting
+            session.closeDataConnection();
+        }
 
         sendReply(session, ReplyCodes.TRANSFER_DATA_FINAL_OK);
     }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.FeatureUtil;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+
+/**
+ * CommandHandler for the OPTS command (RFC 2389), which sets per-session options for other commands.
+ * Handler logic:
+ * <ol>
+ * <li>If the required option parameter is missing, then reply with 501 and terminate</li>
+ * <li>If the option is "UTF8 ON" or "UTF8 OFF", then record the selection for the session (see
+ * {@link org.mockftpserver.core.session.SessionKeys#UTF8}) and reply with 200</li>
+ * <li>If the option is "HASH" followed by a hash algorithm, and the algorithm is not supported, then reply with
+ * 504 and terminate</li>
+ * <li>If the option is "HASH" followed by a hash algorithm, then select that algorithm for subsequent HASH commands
+ * within the session (see {@link org.mockftpserver.core.session.SessionKeys#HASH_ALGORITHM}) and reply with 200
+ * along with the algorithm</li>
+ * <li>If the option is "HASH" with no algorithm, then reply with 200 along with the currently selected algorithm</li>
+ * <li>If the option is "MLST" followed by a list of facts, such as "type;size;", then select the supported facts
+ * among them for subsequent MLSD and MLST commands within the session (see
+ * {@link org.mockftpserver.core.session.SessionKeys#MLST_FACTS}) and reply with 200 along with the selected facts.
+ * Unsupported facts are ignored, and an empty list selects no facts.</li>
+ * <li>Otherwise, reply with 501</li>
+ * </ol>
+ * The user does not have to be logged in. Option names and values are not case-sensitive.
+ *
+ * <p>The UTF8 option is recorded only; pathnames are always encoded using the character encoding of the
+ * control connection.
+ */
+public class OptsCommandHandler extends AbstractFakeCommandHandler {
+
+    private static final String ON = "ON";
+    private static final String OFF = "OFF";
+
+    protected void handle(Command command, Session session) {
+        String option = command.getRequiredParameter(0).trim();
+        int index = option.indexOf(' ');
+        String name = (index == -1) ? option : option.substring(0, index);
+        String value = (index == -1) ? "" : option.substring(index + 1).trim();
+
+        if (FeatureUtil.UTF8.equalsIgnoreCase(name) && (ON.equalsIgnoreCase(value) || OFF.equalsIgnoreCase(value))) {
+            session.getState().setUtf8(Boolean.valueOf(ON.equalsIgnoreCase(value)));
+            sendReply(session, ReplyCodes.OPTS_OK, "opts.utf8", list(value.toUpperCase()));
+        }
+        else if (CommandNames.HASH.equalsIgnoreCase(name)) {
+            handleHashOption(session, value);
+        }
+        else if (CommandNames.MLST.equalsIgnoreCase(name)) {
+            String facts = MachineListingFormatter.selectFacts(value);
+            session.getState().setMlstFacts(facts);
+            sendReply(session, ReplyCodes.OPTS_OK, "opts.mlst", list(facts));
+        }
+        else {
+            sendReply(session, ReplyCodes.COMMAND_SYNTAX_ERROR, "opts.unsupportedOption", list(option));
+        }
+    }
+
+    private void handleHashOption(Session session, String algorithm) {
+        if (algorithm.length() == 0) {
+            String selected = defaultIfNullOrEmpty(session.getState().getHashAlgorithm(), HashCommandHandler.DEFAULT_ALGORITHM);
+            sendReply(session, ReplyCodes.OPTS_OK, "opts.hash", list(selected));
+            return;
+        }
+
+        String upperCaseAlgorithm = algorithm.toUpperCase();
+        if (!HashCommandHandler.ALGORITHMS.contains(upperCaseAlgorithm)) {
+            sendReply(session, ReplyCodes.PARAMETER_NOT_SUPPORTED, "opts.hash.unsupportedAlgorithm", list(algorithm));
+            return;
+        }
+        session.getState().setHashAlgorithm(upperCaseAlgorithm);
+        sendReply(session, ReplyCodes.OPTS_OK, "opts.hash", list(upperCaseAlgorithm));
+    }
+
+}
@@ -18,7 +18,6 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 
 /**
  * CommandHandler for the PWD command. Handler logic:
@@ -32,8 +31,8 @@ import org.mockftpserver.core.session.SessionKeys;
 public class PwdCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
-        String currentDirectory = (String) session.getAttribute(SessionKeys.CURRENT_DIRECTORY);
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
+        String currentDirectory = session.getState().getCurrentDirectory();
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
         verifyFileSystemCondition(notNullOrEmpty(currentDirectory), currentDirectory, "filesystem.currentDirectoryNotSet");
         sendReply(session, ReplyCodes.PWD_OK, "pwd", list(currentDirectory));
     }
@@ -18,7 +18,6 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 
 /**
  * CommandHandler for the REIN command. Handler logic:
@@ -32,7 +31,8 @@ import org.mockftpserver.core.session.SessionKeys;
 public class ReinCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
-        session.removeAttribute(SessionKeys.USER_ACCOUNT);
+        session.getState().setUserAccount(null);
+        session.getState().setUserBandwidthLimiter(null);
         sendReply(session, ReplyCodes.REIN_OK, "rein");
     }
 
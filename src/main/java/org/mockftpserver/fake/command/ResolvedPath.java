@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command;
+
+import org.mockftpserver.core.util.Assert;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.FileSystemEntry;
+
+/**
+ * A full, absolute file system path resolved for a single command, together with its file system
+ * entry and parent, which are each looked up (at most) once and then cached. Checks made while
+ * handling one command, such as existence, file type and permissions of the path and its parent
+ * directory, can then share a single lookup of each path.
+ *
+ * <p>Since the cached values are not refreshed, an instance should be used only while handling a
+ * single command. This class is not thread-safe.
+ *
+ * @see AbstractFakeCommandHandler#resolvePath(org.mockftpserver.core.session.Session, String)
+ */
+public class ResolvedPath {
+
+    private final FileSystem fileSystem;
+    private final String path;
+    private FileSystemEntry entry;
+    private boolean entryLookedUp;
+    private ResolvedPath parent;
+    private boolean parentResolved;
+
+    /**
+     * Construct a new instance for the specified full, absolute path
+     *
+     * @param fileSystem - the FileSystem
+     * @param path       - the full, absolute path
+     */
+    public ResolvedPath(FileSystem fileSystem, String path) {
+        Assert.notNull(fileSystem, "fileSystem");
+        Assert.notNull(path, "path");
+        this.fileSystem = fileSystem;
+        this.path = path;
+    }
+
+    /**
+     * @return the full, absolute path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the FileSystemEntry for the path, or null if the path does not exist
+     */
+    public FileSystemEntry getEntry() {
+        if (!entryLookedUp) {
+            entry = fileSystem.getEntry(path);
+            entryLookedUp = true;
+        }
+        return entry;
+    }
+
+    /**
+     * @return true if the path exists
+     */
+    public boolean exists() {
+        return getEntry() != null;
+    }
+
+    /**
+     * @return true if the path designates an existing directory
+     */
+    public boolean isDirectory() {
+        FileSystemEntry fileSystemEntry = getEntry();
+        return fileSystemEntry != null && fileSystemEntry.isDirectory();
+    }
+
+    /**
+     * @return true if the path designates an existing file
+     */
+    public boolean isFile() {
+        FileSystemEntry fileSystemEntry = getEntry();
+        return fileSystemEntry != null && !fileSystemEntry.isDirectory();
+    }
+
+    /**
+     * @return the ResolvedPath for the parent directory of the path, or null if the path has no parent
+     */
+    public ResolvedPath getParent() {
+        if (!parentResolved) {
+            String parentPath = fileSystem.getParent(path);
+            parent = (parentPath != null) ? new ResolvedPath(fileSystem, parentPath) : null;
+            parentResolved = true;
+        }
+        return parent;
+    }
+
+    /**
+     * @return the path of the parent directory, or null if the path has no parent
+     */
+    public String getParentPath() {
+        ResolvedPath parentPath = getParent();
+        return (parentPath != null) ? parentPath.getPath() : null;
+    }
+
+    /**
+     * @return the String representation of this object
+     */
+    public String toString() {
+        return "ResolvedPath[" + path + "]";
+    }
+
+}
@@ -15,7 +15,9 @@
  */
 package org.mockftpserver.fake.command;
 
+import org.mockftpserver.core.CommandSyntaxException;
 import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.FeatureSupport;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
 
@@ -23,16 +25,44 @@ import org.mockftpserver.core.session.Session;
  * CommandHandler for the REST command. Handler logic:
  * <ol>
  * <li>If the user has not logged in, then reply with 530</li>
- * <li>Otherwise, reply with 350</li>
+ * <li>If the required marker parameter is missing or is not a non-negative number, then reply with 501</li>
+ * <li>Otherwise, store the marker (byte offset) in the session and reply with 350</li>
  * </ol>
  *
+ * <p>The marker applies to the next data transfer command: RETR sends the file contents starting at that
+ * offset, and STOR, APPE and STOU write the transferred data starting at that offset of the file. LIST and NLST
+ * ignore it, but clear it. The marker does not affect SIZE. The FEAT command advertises this as the
+ * "REST STREAM" feature.
+ *
  * @author Chris Mair
  */
-public class RestCommandHandler extends AbstractFakeCommandHandler {
+public class RestCommandHandler extends AbstractFakeCommandHandler implements FeatureSupport {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
+        String marker = command.getRequiredParameter(0);
+        session.getState().setRestartMarker(Long.valueOf(parseMarker(marker)));
         sendReply(session, ReplyCodes.REST_OK, "rest");
     }
 
+    /**
+     * @return "REST STREAM"
+     */
+    public String getFeature() {
+        return "REST STREAM";
+    }
+
+    private long parseMarker(String marker) {
+        try {
+            long offset = Long.parseLong(marker);
+            if (offset >= 0) {
+                return offset;
+            }
+        }
+        catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new CommandSyntaxException("Invalid restart marker [" + marker + "]");
+    }
+
 }
\ No newline at end of file
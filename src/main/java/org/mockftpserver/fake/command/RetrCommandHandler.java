@@ -15,16 +15,17 @@
  */
 package org.mockftpserver.fake.command;
 
+import org.mockftpserver.core.MockFtpServerException;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 import org.mockftpserver.core.util.IoUtil;
+import org.mockftpserver.core.util.LfToCrLfInputStream;
 import org.mockftpserver.fake.filesystem.FileEntry;
 import org.mockftpserver.fake.filesystem.FileSystemEntry;
 import org.mockftpserver.fake.filesystem.FileSystemException;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -35,8 +36,13 @@ import java.io.InputStream;
  * <li>If the required pathname parameter is missing, then reply with 501 and terminate</li>
  * <li>If the pathname parameter does not specify a valid, existing filename, then reply with 550 and terminate</li>
  * <li>If the current user does not have read access to the file at the specified path or execute permission to its directory, then reply with 550 and terminate</li>
+ * <li>If a restart marker was set by a preceding REST command, skip that number of bytes of the data to be sent
+ * (after any ASCII conversion), without copying them. If the restart marker is beyond the end of that data, then
+ * reply with 554 and terminate</li>
  * <li>Send an initial reply of 150</li>
- * <li>Send the contents of the named file across the data connection</li>
+ * <li>Send the contents of the named file across the data connection, streaming them so that large files
+ * are never held in memory all at once. In ASCII mode (the default), each LF that is not preceded by a CR is
+ * converted to CRLF while the contents are sent (see {@link FileEntry#createCrLfInputStream()}).</li>
  * <li>If there is an error reading the file, then reply with 550 and terminate</li>
  * <li>Send a final reply with 226</li>
  * </ol>
@@ -47,30 +53,31 @@ public class RetrCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
+        long restartMarker = consumeRestartMarker(session);
 
-        String path = getRealPath(session, command.getRequiredParameter(0));
-        FileSystemEntry entry = getFileSystem().getEntry(path);
-        verifyFileSystemCondition(entry != null, path, "filesystem.doesNotExist");
-        verifyFileSystemCondition(!entry.isDirectory(), path, "filesystem.isNotAFile");
+        ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
+        FileSystemEntry entry = path.getEntry();
+        verifyFileSystemCondition(entry != null, path.getPath(), "filesystem.doesNotExist");
+        verifyFileSystemCondition(!entry.isDirectory(), path.getPath(), "filesystem.isNotAFile");
         FileEntry fileEntry = (FileEntry) entry;
 
         // User must have read permission to the file
         verifyReadPermission(session, path);
 
         // User must have execute permission to the parent directory
-        verifyExecutePermission(session, getFileSystem().getParent(path));
+        verifyExecutePermission(session, path.getParent());
 
-        sendReply(session, ReplyCodes.TRANSFER_DATA_INITIAL_OK);
-        InputStream input = fileEntry.createInputStream();
-        session.openDataConnection();
-        byte[] bytes = null;
+        InputStream input = createInputStream(fileEntry, isAsciiMode(session));
         try {
-            bytes = IoUtil.readBytes(input);
-        }
-        catch (IOException e) {
-            LOG.error("Error reading from file [" + fileEntry.getPath() + "]", e);
-            throw new FileSystemException(fileEntry.getPath(), null, e);
+            // Skip before replying, so that a restart marker beyond the end of the data can be rejected
+            if (skip(input, restartMarker, fileEntry) < restartMarker) {
+                sendReply(session, ReplyCodes.RESTART_MARKER_NOT_VALID);
+                return;
+            }
+            sendReply(session, ReplyCodes.TRANSFER_DATA_INITIAL_OK);
+            session.openDataConnection();
+            sendData(session, input);
         }
         finally {
             try {
@@ -81,10 +88,6 @@ public class RetrCommandHandler extends AbstractFakeCommandHandler {
             }
         }
 
-        if (isAsciiMode(session)) {
-            bytes = convertLfToCrLf(bytes);
-        }
-        session.sendData(bytes, bytes.length);
         session.closeDataConnection();
         sendReply(session, ReplyCodes.TRANSFER_DATA_FINAL_OK);
     }
@@ -96,24 +99,48 @@ public class RetrCommandHandler extends AbstractFakeCommandHandler {
      * @return the result of converting LF to CRLF
      */
     protected byte[] convertLfToCrLf(byte[] bytes) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        char lastChar = ' ';
-        for (int i = 0; i < bytes.length; i++) {
-            char ch = (char) bytes[i];
-            if (ch == '\n' && lastChar != '\r') {
-                out.write('\r');
-                out.write('\n');
-            } else {
-                out.write(bytes[i]);
+        try {
+            return IoUtil.readBytes(new LfToCrLfInputStream(new ByteArrayInputStream(bytes)));
+        }
+        catch (IOException e) {
+            throw new MockFtpServerException(e);
+        }
+    }
+
+    /**
+     * Skip the specified number of bytes of the InputStream, or up to its end, if sooner
+     *
+     * @return the number of bytes skipped
+     */
+    private long skip(InputStream input, long numBytes, FileEntry fileEntry) {
+        try {
+            long remaining = numBytes;
+            while (remaining > 0) {
+                long skipped = input.skip(remaining);
+                if (skipped <= 0) {
+                    if (input.read() == -1) {
+                        break;
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
             }
-            lastChar = ch;
+            return numBytes - remaining;
+        }
+        catch (IOException e) {
+            LOG.error("Error reading from file [" + fileEntry.getPath() + "]", e);
+            throw new FileSystemException(fileEntry.getPath(), null, e);
         }
-        return out.toByteArray();
     }
 
-    private boolean isAsciiMode(Session session) {
-        // Defaults to true
-        return session.getAttribute(SessionKeys.ASCII_TYPE) != Boolean.FALSE;
+    private InputStream createInputStream(FileEntry fileEntry, boolean asciiMode) {
+        try {
+            return asciiMode ? fileEntry.createCrLfInputStream() : fileEntry.createInputStream();
+        }
+        catch (IOException e) {
+            LOG.error("Error reading from file [" + fileEntry.getPath() + "]", e);
+            throw new FileSystemException(fileEntry.getPath(), null, e);
+        }
     }
 
 }
\ No newline at end of file
@@ -36,18 +36,18 @@ public class RmdCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        String path = getRealPath(session, command.getRequiredParameter(0));
+        ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
 
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
-        verifyFileSystemCondition(getFileSystem().exists(path), path, "filesystem.doesNotExist");
-        verifyFileSystemCondition(getFileSystem().isDirectory(path), path, "filesystem.isNotADirectory");
-        verifyFileSystemCondition(getFileSystem().listNames(path).size() == 0, path, "filesystem.directoryIsNotEmpty");
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
+        verifyFileSystemCondition(path.exists(), path.getPath(), "filesystem.doesNotExist");
+        verifyFileSystemCondition(path.isDirectory(), path.getPath(), "filesystem.isNotADirectory");
+        verifyFileSystemCondition(getFileSystem().listNames(path.getPath()).size() == 0, path.getPath(), "filesystem.directoryIsNotEmpty");
 
         // User must have write permission to the parent directory
-        verifyWritePermission(session, getFileSystem().getParent(path));
+        verifyWritePermission(session, path.getParent());
 
-        getFileSystem().delete(path);
-        sendReply(session, ReplyCodes.RMD_OK, "rmd", list(path));
+        getFileSystem().delete(path.getPath());
+        sendReply(session, ReplyCodes.RMD_OK, "rmd", list(path.getPath()));
     }
 
 }
\ No newline at end of file
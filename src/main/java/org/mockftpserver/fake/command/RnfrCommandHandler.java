@@ -18,7 +18,6 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 
 /**
  * CommandHandler for the RNFR command. Handler logic:
@@ -37,15 +36,15 @@ public class RnfrCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        String fromPath = getRealPath(session, command.getRequiredParameter(0));
+        ResolvedPath fromPath = resolvePath(session, command.getRequiredParameter(0));
 
-        this.replyCodeForFileSystemException = ReplyCodes.READ_FILE_ERROR;
-        verifyFileSystemCondition(getFileSystem().exists(fromPath), fromPath, "filesystem.doesNotExist");
+        setReplyCodeForFileSystemException(ReplyCodes.READ_FILE_ERROR);
+        verifyFileSystemCondition(fromPath.exists(), fromPath.getPath(), "filesystem.doesNotExist");
 
         // User must have read permission to the file
         verifyReadPermission(session, fromPath);
 
-        session.setAttribute(SessionKeys.RENAME_FROM, fromPath);
+        session.getState().setRenameFrom(fromPath.getPath());
         sendReply(session, ReplyCodes.RNFR_OK, "rnfr");
     }
 
@@ -39,22 +39,23 @@ public class RntoCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
-        String toPath = getRealPath(session, command.getRequiredParameter(0));
+        ResolvedPath toPath = resolvePath(session, command.getRequiredParameter(0));
         String fromPath = (String) getRequiredSessionAttribute(session, SessionKeys.RENAME_FROM);
 
-        this.replyCodeForFileSystemException = ReplyCodes.WRITE_FILE_ERROR;
-        verifyFileSystemCondition(!getFileSystem().isDirectory(toPath), toPath, "filesystem.isDirectory");
+        setReplyCodeForFileSystemException(ReplyCodes.WRITE_FILE_ERROR);
+        verifyFileSystemCondition(!toPath.isDirectory(), toPath.getPath(), "filesystem.isDirectory");
 
         // User must have write permission to the directory
-        String parentPath = getFileSystem().getParent(toPath);
+        ResolvedPath parent = toPath.getParent();
+        String parentPath = toPath.getParentPath();
         verifyFileSystemCondition(notNullOrEmpty(parentPath), parentPath, "filesystem.doesNotExist");
-        verifyFileSystemCondition(getFileSystem().exists(parentPath), parentPath, "filesystem.doesNotExist");
-        verifyWritePermission(session, parentPath);
+        verifyFileSystemCondition(parent.exists(), parentPath, "filesystem.doesNotExist");
+        verifyWritePermission(session, parent);
 
-        getFileSystem().rename(fromPath, toPath);
+        getFileSystem().rename(fromPath, toPath.getPath());
 
-        session.removeAttribute(SessionKeys.RENAME_FROM);
-        sendReply(session, ReplyCodes.RNTO_OK, "rnto", list(fromPath, toPath));
+        session.getState().setRenameFrom(null);
+        sendReply(session, ReplyCodes.RNTO_OK, "rnto", list(fromPath, toPath.getPath()));
     }
 
 }
\ No newline at end of file
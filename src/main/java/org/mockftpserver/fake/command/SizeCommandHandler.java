@@ -28,13 +28,13 @@ public class SizeCommandHandler extends AbstractFakeCommandHandler {
     protected void handle(final Command command, final Session session) {
         verifyLoggedIn(session);
 
-        final String path = getRealPath(session, command.getRequiredParameter(0));
-        final FileSystemEntry entry = getFileSystem().getEntry(path);
+        final ResolvedPath path = resolvePath(session, command.getRequiredParameter(0));
+        final FileSystemEntry entry = path.getEntry();
 
-        verifyFileSystemCondition(entry != null, path, "filesystem.doesNotExist");
-        verifyFileSystemCondition(!entry.isDirectory(), path, "filesystem.doesNotExist");
+        verifyFileSystemCondition(entry != null, path.getPath(), "filesystem.doesNotExist");
+        verifyFileSystemCondition(!entry.isDirectory(), path.getPath(), "filesystem.doesNotExist");
         verifyReadPermission(session, path);
-        verifyExecutePermission(session, getFileSystem().getParent(path));
+        verifyExecutePermission(session, path.getParent());
 
         final FileEntry fileEntry = (FileEntry) entry;
         final String size = String.valueOf(fileEntry.getSize());
@@ -22,7 +22,8 @@ import org.mockftpserver.core.session.Session;
 /**
  * CommandHandler for the STAT command. Handler logic:
  * <ol>
- * <li>Reply with 211 along with the system status text that has been configured on the
+ * <li>If a data transfer is in progress, reply with 211 along with the number of bytes transferred so far</li>
+ * <li>Otherwise, reply with 211 along with the system status text that has been configured on the
  * {@link org.mockftpserver.fake.FakeFtpServer}.</li>
  * </ol>
  *
@@ -33,6 +34,11 @@ import org.mockftpserver.core.session.Session;
 public class StatCommandHandler extends AbstractFakeCommandHandler {
 
     protected void handle(Command command, Session session) {
+        long bytesTransferred = session.getBytesTransferred();
+        if (bytesTransferred >= 0) {
+            sendReply(session, ReplyCodes.STAT_SYSTEM_OK, "stat.transfer", list(Long.toString(bytesTransferred)));
+            return;
+        }
         String systemStatus = getServerConfiguration().getSystemStatus();
         sendReply(session, ReplyCodes.STAT_SYSTEM_OK, "stat", list(systemStatus));
     }
@@ -18,7 +18,6 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 
 /**
  * CommandHandler for the TYPE command. Handler logic:
@@ -34,8 +33,8 @@ public class TypeCommandHandler extends AbstractFakeCommandHandler {
     protected void handle(Command command, Session session) {
         verifyLoggedIn(session);
         String type = command.getRequiredParameter(0);
-        boolean asciiType = type == "A";
-        session.setAttribute(SessionKeys.ASCII_TYPE, Boolean.valueOf(asciiType));
+        boolean asciiType = "A".equalsIgnoreCase(type);
+        session.getState().setAsciiType(Boolean.valueOf(asciiType));
         sendReply(session, ReplyCodes.TYPE_OK, "type");
     }
 
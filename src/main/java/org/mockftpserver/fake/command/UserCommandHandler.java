@@ -18,7 +18,6 @@ package org.mockftpserver.fake.command;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
-import org.mockftpserver.core.session.SessionKeys;
 import org.mockftpserver.fake.UserAccount;
 
 /**
@@ -50,7 +49,7 @@ public class UserCommandHandler extends AbstractFakeCommandHandler {
                 return;
             }
         }
-        session.setAttribute(SessionKeys.USERNAME, username);
+        session.getState().setUsername(username);
         sendReply(session, ReplyCodes.USER_NEED_PASSWORD_OK, "user.needPassword");
     }
 
@@ -22,12 +22,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
 
 /**
  * Abstract superclass for implementation of the FileSystem interface that manage the files
@@ -44,6 +51,20 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * <p> The <code>systemName</code> property holds the default value returned by this FileSystem for the FTP SYST command.
  *
+ * <p>Adding, deleting and renaming entries are each atomic with respect to one another, so that concurrent
+ * sessions cannot, for instance, add a file to a directory that is being deleted. Each of those operations locks
+ * only the lock "stripes" for the paths it involves (and their parent directories), so unrelated operations
+ * proceed in parallel. Renaming a directory moves all of its descendants, and so locks the whole file system.
+ *
+ * <p>If the <code>contentStore</code> property is set, then the contents of each {@link FileEntry} are shared
+ * through that {@link ContentStore} when the entry is added, so that files with identical contents (or identical
+ * blocks of contents) hold only a single copy in memory. This value defaults to <code>null</code> (no sharing).
+ *
+ * <p>If the <code>compressionThreshold</code> property is greater than zero, then the contents of each
+ * {@link FileEntry} of at least that many bytes are held in memory compressed (deflated) when the entry is added.
+ * The contents are inflated on the fly when read, and the size of the file is still known without inflating them.
+ * Contents that do not compress well are left uncompressed. This value defaults to zero (no compression).
+ *
  * @author Chris Mair
  */
 public abstract class AbstractFakeFileSystem implements FileSystem {
@@ -66,7 +87,27 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
      */
     private DirectoryListingFormatter directoryListingFormatter;
 
-    private Map entries = new ConcurrentHashMap();
+    /**
+     * The optional {@link ContentStore} through which the contents of added files are shared
+     */
+    private ContentStore contentStore;
+
+    /**
+     * The minimum size, in bytes, of the contents of an added file for those contents to be compressed;
+     * zero or less to never compress
+     */
+    private long compressionThreshold;
+
+    private static final int NUM_LOCK_STRIPES = 64;      // must be a power of two
+
+    private ConcurrentMap entries = new ConcurrentHashMap();
+
+    /**
+     * Held for reading by every add/delete/rename, along with the stripe locks for its paths.
+     * Held for writing by operations that modify a whole subtree (i.e. renaming a directory).
+     */
+    private final ReadWriteLock treeLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripeLocks = createStripeLocks();
 
     //-------------------------------------------------------------------------
     // Public API
@@ -88,6 +129,22 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
         this.directoryListingFormatter = directoryListingFormatter;
     }
 
+    public ContentStore getContentStore() {
+        return contentStore;
+    }
+
+    public void setContentStore(ContentStore contentStore) {
+        this.contentStore = contentStore;
+    }
+
+    public long getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(long compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
     /**
      * Add each of the entries in the specified List to this filesystem. Note that this does not affect
      * entries already existing within this filesystem.
@@ -114,22 +171,31 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
             throw new FileSystemException(path, "filesystem.pathAlreadyExists");
         }
 
-        if (!parentDirectoryExists(path)) {
-            String parent = getParent(path);
+        if ((contentStore != null || compressionThreshold > 0) && entry instanceof FileEntry) {
+            ((FileEntry) entry).compactContents(contentStore, compressionThreshold);
+        }
+
+        while (true) {
             if (createParentDirectoriesAutomatically) {
-                add(new DirectoryEntry(parent));
-            } else {
-                throw new FileSystemException(parent, "filesystem.parentDirectoryDoesNotExist");
+                createParentDirectories(path);
             }
-        }
 
-        // Set lastModified, if not already set
-        if (entry.getLastModified() == null) {
-            entry.setLastModified(new Date());
+            String parent = getParent(path);
+            int[] stripes = lockStripes(path, parent);
+            try {
+                if (parentDirectoryExists(path)) {
+                    addEntry(entry);
+                    return;
+                }
+                if (!createParentDirectoriesAutomatically) {
+                    throw new FileSystemException(parent, "filesystem.parentDirectoryDoesNotExist");
+                }
+                // Otherwise, the parent was deleted concurrently, so try again
+            }
+            finally {
+                unlockStripes(stripes);
+            }
         }
-
-        entries.put(getFileSystemEntryKey(path), entry);
-        entry.lockPath();
     }
 
     /**
@@ -147,11 +213,18 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
     public boolean delete(String path) {
         Assert.notNull(path, "path");
 
-        if (getEntry(path) != null && !hasChildren(path)) {
-            removeEntry(path);
-            return true;
+        // Adding a child locks the stripe of its parent, so holding this stripe keeps children from being added
+        int[] stripes = lockStripes(path, null);
+        try {
+            if (getEntry(path) != null && !hasChildren(path)) {
+                removeEntry(path);
+                return true;
+            }
+            return false;
+        }
+        finally {
+            unlockStripes(stripes);
         }
-        return false;
     }
 
     /**
@@ -210,21 +283,44 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
      */
     @Override
     public List listFiles(String path) {
-        if (isFile(path)) {
-            return Collections.singletonList(getEntry(path));
-        }
-
         List entryList = new ArrayList();
-        List children = children(path);
-        Iterator iter = children.iterator();
+        Iterator iter = iterateFiles(path);
         while (iter.hasNext()) {
-            String childPath = (String) iter.next();
-            FileSystemEntry fileSystemEntry = getEntry(childPath);
-            entryList.add(fileSystemEntry);
+            entryList.add(iter.next());
         }
         return entryList;
     }
 
+    /**
+     * Return an Iterator over the FileSystemEntry objects for the files in the specified directory or group of
+     * files, with the same contents as the List returned by {@link #listFiles(String)}. The entries are produced
+     * lazily from the entries of this file system, without copying them, so the Iterator is weakly consistent:
+     * it reflects some, all or none of the changes made to the directory while it is in use.
+     *
+     * @param path - the path specifying a directory or group of files; may contain wildcards (? or *)
+     * @return the Iterator over the FileSystemEntry objects for the specified directory or file
+     * @see org.mockftpserver.fake.filesystem.FileSystem#iterateFiles(java.lang.String)
+     */
+    @Override
+    public Iterator iterateFiles(String path) {
+        if (isFile(path)) {
+            return Collections.singletonList(getEntry(path)).iterator();
+        }
+
+        String lastComponent = getName(path);
+        boolean containsWildcards = PatternUtil.containsWildcards(lastComponent);
+        String dir = containsWildcards ? getParent(path) : path;
+        String pattern = containsWildcards ? PatternUtil.convertStringWithWildcardsToRegex(lastComponent) : null;
+        LOG.debug("path=" + path + " lastComponent=" + lastComponent + " containsWildcards=" + containsWildcards + " dir=" + dir + " pattern=" + pattern);
+
+        if (dir == null || !isDirectory(dir)) {
+            return Collections.EMPTY_LIST.iterator();
+        }
+        String dirKey = getFileSystemEntryKey(dir);
+        String childKeyPrefix = dirKey.endsWith(getSeparator()) ? dirKey : dirKey + getSeparator();
+        return new ChildEntryIterator(childKeyPrefix, containsWildcards ? Pattern.compile(pattern) : null);
+    }
+
     /**
      * Return the List of filenames in the specified directory path or file path. If the path specifies
      * a single file, then return that single filename. The returned filenames do not
@@ -244,11 +340,9 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
         }
 
         List filenames = new ArrayList();
-        List children = children(path);
-        Iterator iter = children.iterator();
+        Iterator iter = iterateFiles(path);
         while (iter.hasNext()) {
-            String childPath = (String) iter.next();
-            FileSystemEntry fileSystemEntry = getEntry(childPath);
+            FileSystemEntry fileSystemEntry = (FileSystemEntry) iter.next();
             filenames.add(fileSystemEntry.getName());
         }
         return filenames;
@@ -268,6 +362,60 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
         Assert.notNull(toPath, "toPath");
         Assert.notNull(fromPath, "fromPath");
 
+        FileSystemEntry entry = getRequiredEntry(fromPath);
+        if (!entry.isDirectory() && renameFile(fromPath, toPath)) {
+            return;
+        }
+
+        // Renaming a directory moves all of its descendants, so lock the whole file system
+        treeLock.writeLock().lock();
+        try {
+            renameWithFileSystemLocked(fromPath, toPath);
+        }
+        finally {
+            treeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rename the file, holding only the locks for the paths involved. Return false, without renaming,
+     * if the rename cannot be done that way, e.g. because the FROM path is now a directory.
+     *
+     * @param fromPath - the source (old) path + filename
+     * @param toPath   - the target (new) path + filename
+     * @return true if the file was renamed
+     */
+    private boolean renameFile(String fromPath, String toPath) {
+        if (createParentDirectoriesAutomatically) {
+            createParentDirectories(toPath);
+        }
+        int[] stripes = lockStripes(fromPath, toPath, getParent(toPath));
+        try {
+            FileSystemEntry entry = getRequiredEntry(fromPath);
+            if (exists(toPath)) {
+                throw new FileSystemException(toPath, "filesystem.alreadyExists");
+            }
+            if (entry.isDirectory() || !parentDirectoryExists(toPath)) {
+                return false;
+            }
+            String normalizedTo = normalize(toPath);
+            LOG.info("renaming from [" + normalize(fromPath) + "] to [" + normalizedTo + "]");
+            addEntry(entry.cloneWithNewPath(normalizedTo));
+            removeEntry(fromPath);
+            return true;
+        }
+        finally {
+            unlockStripes(stripes);
+        }
+    }
+
+    /**
+     * Rename the file or directory, assuming that the caller holds the write lock for the whole file system
+     *
+     * @param fromPath - the source (old) path + filename
+     * @param toPath   - the target (new) path + filename
+     */
+    private void renameWithFileSystemLocked(String fromPath, String toPath) {
         FileSystemEntry entry = getRequiredEntry(fromPath);
 
         if (exists(toPath)) {
@@ -301,7 +449,7 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
             String childToPath = normalizedToPath + normalizedChildPath.substring(normalizedFromPath.length());
             renamePath(child, childToPath);
         }
-        Assert.isTrue(children(normalizedFromPath).isEmpty(), "Must have no children: " + normalizedFromPath);
+        Assert.isTrue(!iterateFiles(normalizedFromPath).hasNext(), "Must have no children: " + normalizedFromPath);
         removeEntry(normalizedFromPath);
     }
 
@@ -397,7 +545,11 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
      */
     @Override
     public FileSystemEntry getEntry(String path) {
-        return (FileSystemEntry) entries.get(getFileSystemEntryKey(path));
+        Assert.notNull(path, "path");
+        // A path that is already in normalized key form, such as one returned by path() or getParent(),
+        // is found without normalizing it again
+        FileSystemEntry entry = (FileSystemEntry) entries.get(path);
+        return (entry != null) ? entry : (FileSystemEntry) entries.get(getFileSystemEntryKey(path));
     }
 
     @Override
@@ -470,6 +622,100 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
         return componentsToPath(normalizedComponents(path));
     }
 
+    /**
+     * Add the entry to the map of entries, assuming that the caller holds the locks for its path
+     * and parent path and has verified that the parent exists
+     *
+     * @param entry - the entry to add
+     * @throws FileSystemException - if an entry already exists for the path
+     */
+    private void addEntry(FileSystemEntry entry) {
+        // Set lastModified, if not already set
+        if (entry.getLastModified() == null) {
+            entry.setLastModified(new Date());
+        }
+
+        // Use the path String of the entry itself as the key, where possible, rather than holding two copies
+        String key = getFileSystemEntryKey(entry.getPath());
+        if (key.equals(entry.getPath())) {
+            key = entry.getPath();
+        }
+        if (entries.putIfAbsent(key, entry) != null) {
+            throw new FileSystemException(entry.getPath(), "filesystem.pathAlreadyExists");
+        }
+        entry.lockPath();
+    }
+
+    /**
+     * Create any missing parent directories of the specified path. A parent directory created
+     * concurrently by another thread is not an error.
+     *
+     * @param path - the path
+     */
+    private void createParentDirectories(String path) {
+        String parent = getParent(path);
+        if (parent != null && !pathExists(parent)) {
+            try {
+                add(new DirectoryEntry(parent));
+            }
+            catch (FileSystemException e) {
+                if (!pathExists(parent)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Acquire the read lock for the file system, and then the stripe locks for the specified paths.
+     * Stripe locks are always acquired in ascending order, so that concurrent callers cannot deadlock.
+     *
+     * @param paths - the paths to lock; null values are ignored
+     * @return the (sorted) indexes of the locked stripes, to pass to {@link #unlockStripes(int[])}
+     */
+    private int[] lockStripes(String... paths) {
+        int[] stripes = new int[paths.length];
+        int count = 0;
+        for (int i = 0; i < paths.length; i++) {
+            if (paths[i] != null) {
+                int hash = getFileSystemEntryKey(paths[i]).hashCode();
+                stripes[count++] = (hash ^ (hash >>> 16)) & (NUM_LOCK_STRIPES - 1);
+            }
+        }
+        stripes = Arrays.copyOf(stripes, count);
+        Arrays.sort(stripes);
+
+        treeLock.readLock().lock();
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                stripeLocks[stripes[i]].lock();
+            }
+        }
+        return stripes;
+    }
+
+    /**
+     * Release the locks acquired by {@link #lockStripes(String...)}
+     *
+     * @param stripes - the stripe indexes returned by lockStripes()
+     */
+    private void unlockStripes(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                stripeLocks[stripes[i]].unlock();
+            }
+        }
+        treeLock.readLock().unlock();
+    }
+
+    private static ReentrantLock[] createStripeLocks() {
+        ReentrantLock[] locks = new ReentrantLock[NUM_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
     /**
      * Throw an InvalidFilenameException if the specified path is not valid.
      *
@@ -640,37 +886,52 @@ public abstract class AbstractFakeFileSystem implements FileSystem {
         return Collections.EMPTY_LIST;
     }
 
+    private void removeEntry(String path) {
+        entries.remove(getFileSystemEntryKey(path));
+    }
+
     /**
-     * Return the List of files or subdirectory paths that are children of the specified path
-     *
-     * @param path - the path
-     * @return the List of the paths for the files and subdirectories that are children
+     * Iterator over the entries that are direct children of a directory, optionally restricted to those whose
+     * names match a pattern. It scans the entries of the file system lazily, looking ahead one entry at a time.
      */
-    private List children(String path) {
-        String lastComponent = getName(path);
-        boolean containsWildcards = PatternUtil.containsWildcards(lastComponent);
-        String dir = containsWildcards ? getParent(path) : path;
-        String pattern = containsWildcards ? PatternUtil.convertStringWithWildcardsToRegex(getName(path)) : null;
-        LOG.debug("path=" + path + " lastComponent=" + lastComponent + " containsWildcards=" + containsWildcards + " dir=" + dir + " pattern=" + pattern);
+    private class ChildEntryIterator implements Iterator {
+        private final Iterator entryIterator = entries.entrySet().iterator();
+        private final String childKeyPrefix;
+        private final Pattern namePattern;
+        private FileSystemEntry nextEntry;
 
-        List descendents = descendants(dir);
-        List children = new ArrayList();
-        String normalizedDir = normalize(dir);
-        Iterator iter = descendents.iterator();
-        while (iter.hasNext()) {
-            String descendentPath = (String) iter.next();
+        /**
+         * @param childKeyPrefix - the entry key of the directory, followed by the separator
+         * @param namePattern    - the Pattern that the names of the children must match; may be null
+         */
+        ChildEntryIterator(String childKeyPrefix, Pattern namePattern) {
+            this.childKeyPrefix = childKeyPrefix;
+            this.namePattern = namePattern;
+        }
 
-            boolean patternEmpty = pattern == null || pattern.length() == 0;
-            if (normalizedDir.equals(getParent(descendentPath)) &&
-                    (patternEmpty || (getName(descendentPath).matches(pattern)))) {
-                children.add(descendentPath);
+        public boolean hasNext() {
+            while (nextEntry == null && entryIterator.hasNext()) {
+                Map.Entry mapEntry = (Map.Entry) entryIterator.next();
+                String key = (String) mapEntry.getKey();
+                if (key.length() > childKeyPrefix.length() && key.startsWith(childKeyPrefix)
+                        && key.indexOf(getSeparatorChar(), childKeyPrefix.length()) == -1) {
+                    FileSystemEntry fileSystemEntry = (FileSystemEntry) mapEntry.getValue();
+                    if (namePattern == null || namePattern.matcher(fileSystemEntry.getName()).matches()) {
+                        nextEntry = fileSystemEntry;
+                    }
+                }
             }
+            return nextEntry != null;
         }
-        return children;
-    }
 
-    private void removeEntry(String path) {
-        entries.remove(getFileSystemEntryKey(path));
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            FileSystemEntry fileSystemEntry = nextEntry;
+            nextEntry = null;
+            return fileSystemEntry;
+        }
     }
 
 }
@@ -18,27 +18,49 @@ package org.mockftpserver.fake.filesystem;
 import org.mockftpserver.core.util.Assert;
 
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The abstract superclass for concrete file system entry classes representing files and directories.
  *
+ * <p>The attributes are held compactly, so that file systems with very many entries fit in a modest heap:
+ * the last modified time as a <code>long</code>, the owner and group as interned (shared) Strings, and the
+ * permissions as a bitmask. The getters return equivalent objects. Note that <code>getLastModified()</code>
+ * therefore returns a new <code>Date</code> each time, so modifying it does not affect this entry.
+ *
+ * <p>Each entry is assigned an id when it is constructed, unique within the JVM. The id is kept by the copy
+ * that <code>cloneWithNewPath()</code> returns, so it identifies the same file or directory after a rename.
+ *
  * @author Chris Mair
  */
 public abstract class AbstractFileSystemEntry implements FileSystemEntry {
 
+    private static final long NO_LAST_MODIFIED = Long.MIN_VALUE;
+    private static final short NO_PERMISSIONS = -1;
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private long id = NEXT_ID.incrementAndGet();
     private String path;
     private boolean pathLocked = false;
 
-    private Date lastModified;
+    private long lastModified = NO_LAST_MODIFIED;
     private String owner;
     private String group;
+    private short permissions = NO_PERMISSIONS;
+
+    /**
+     * @return the id of this entry, which stays the same when the entry is renamed
+     */
+    public long getId() {
+        return id;
+    }
 
     public Date getLastModified() {
-        return lastModified;
+        return (lastModified == NO_LAST_MODIFIED) ? null : new Date(lastModified);
     }
 
     public void setLastModified(Date lastModified) {
-        this.lastModified = lastModified;
+        this.lastModified = (lastModified == null) ? NO_LAST_MODIFIED : lastModified.getTime();
     }
 
     public String getOwner() {
@@ -46,7 +68,7 @@ public abstract class AbstractFileSystemEntry implements FileSystemEntry {
     }
 
     public void setOwner(String owner) {
-        this.owner = owner;
+        this.owner = (owner == null) ? null : owner.intern();
     }
 
     public String getGroup() {
@@ -54,19 +76,17 @@ public abstract class AbstractFileSystemEntry implements FileSystemEntry {
     }
 
     public void setGroup(String group) {
-        this.group = group;
+        this.group = (group == null) ? null : group.intern();
     }
 
     public Permissions getPermissions() {
-        return permissions;
+        return (permissions == NO_PERMISSIONS) ? null : Permissions.fromMask(permissions);
     }
 
     public void setPermissions(Permissions permissions) {
-        this.permissions = permissions;
+        this.permissions = (permissions == null) ? NO_PERMISSIONS : (short) permissions.toMask();
     }
 
-    private Permissions permissions;
-
     /**
      * Construct a new instance without setting its path
      */
@@ -115,7 +135,20 @@ public abstract class AbstractFileSystemEntry implements FileSystemEntry {
     }
 
     public void setPermissionsFromString(String permissionsString) {
-        this.permissions = new Permissions(permissionsString);
+        setPermissions(Permissions.valueOf(permissionsString));
+    }
+
+    /**
+     * Copy the id, lastModified, owner, group and permissions attributes of this entry to the specified entry
+     *
+     * @param entry - the entry to copy the attributes to
+     */
+    protected void copyAttributesTo(AbstractFileSystemEntry entry) {
+        entry.id = id;
+        entry.lastModified = lastModified;
+        entry.owner = owner;
+        entry.group = group;
+        entry.permissions = permissions;
     }
 
     /**
@@ -0,0 +1,525 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * An immutable, versioned snapshot of the contents of a {@link FileEntry}, held as a list of byte[]
+ * segments (chunks). The size is known without reading the segments, and InputStreams read directly
+ * from the segments, so no locking or copying is needed to read a snapshot.
+ *
+ * <p>New snapshots are created using a {@link Builder}. A Builder only ever writes into segments that
+ * it allocated itself, and only beyond the bytes already published in a snapshot, so snapshots can share
+ * segments with each other and with a Builder that is still appending.
+ *
+ * <p>The contents can optionally start with a <em>generated</em> prefix: a declared number of bytes read from
+ * an InputStream supplied on demand, which is never held in memory. Any appended bytes follow the prefix.
+ */
+final class ChunkedContents {
+
+    static final int MIN_SEGMENT_SIZE = 256;
+    static final int MAX_SEGMENT_SIZE = 64 * 1024;
+
+    private static final byte[][] NO_SEGMENTS = new byte[0][];
+    private static final int[] NO_LENGTHS = new int[0];
+
+    static final ChunkedContents EMPTY = new ChunkedContents(null, 0L, NO_SEGMENTS, NO_LENGTHS, 0, 0, 0L, 0L);
+
+    private final Supplier<InputStream> generator;    // null if there is no generated prefix
+    private final long generatedSize;
+    private final byte[][] segments;
+    private final int[] segmentLengths;     // the lengths of all but the last segment; may be shared
+    private final int segmentCount;
+    private final int tailLength;           // the number of bytes used within the last segment
+    private final long size;
+    private final long version;
+
+    private ChunkedContents(Supplier<InputStream> generator, long generatedSize, byte[][] segments,
+                            int[] segmentLengths, int segmentCount, int tailLength, long size, long version) {
+        this.generator = generator;
+        this.generatedSize = generatedSize;
+        this.segments = segments;
+        this.segmentLengths = segmentLengths;
+        this.segmentCount = segmentCount;
+        this.tailLength = tailLength;
+        this.size = size;
+        this.version = version;
+    }
+
+    /**
+     * Return a new instance whose contents are the specified bytes. The byte[] is used as is (not
+     * copied), so the caller must not subsequently modify it.
+     *
+     * @param bytes   - the contents
+     * @param version - the version number of the new instance
+     * @return a new ChunkedContents
+     */
+    static ChunkedContents of(byte[] bytes, long version) {
+        if (bytes.length == 0) {
+            return EMPTY.withVersion(version);
+        }
+        return new ChunkedContents(null, 0L, new byte[][]{bytes}, new int[]{bytes.length}, 1, bytes.length,
+                bytes.length, version);
+    }
+
+    /**
+     * Return a new instance whose contents are the first <code>size</code> bytes read from an InputStream
+     * obtained from the generator each time the contents are read. If that InputStream ends early, the
+     * remaining bytes are zero.
+     *
+     * @param generator - supplies a new InputStream for the contents
+     * @param size      - the number of bytes in the contents
+     * @param version   - the version number of the new instance
+     * @return a new ChunkedContents
+     */
+    static ChunkedContents generated(Supplier<InputStream> generator, long size, long version) {
+        return new ChunkedContents(generator, size, NO_SEGMENTS, NO_LENGTHS, 0, 0, size, version);
+    }
+
+    /**
+     * @return the number of bytes in these contents
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return the version number of these contents
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * @param newVersion - the version number for the returned instance
+     * @return an instance with the same contents as this one, but with the specified version number
+     */
+    ChunkedContents withVersion(long newVersion) {
+        return new ChunkedContents(generator, generatedSize, segments, segmentLengths, segmentCount, tailLength,
+                size, newVersion);
+    }
+
+    /**
+     * Return a new instance containing the contents of this instance followed by the contents of
+     * <code>other</code>. The segments are shared, not copied.
+     *
+     * @param other      - the contents to append; must not have a generated prefix
+     * @param newVersion - the version number for the returned instance
+     * @return a new ChunkedContents
+     */
+    ChunkedContents concat(ChunkedContents other, long newVersion) {
+        if (other.generator != null) {
+            throw new IllegalArgumentException("Cannot append generated contents");
+        }
+        if (other.segmentCount == 0) {
+            return withVersion(newVersion);
+        }
+        int count = segmentCount + other.segmentCount;
+        byte[][] newSegments = Arrays.copyOf(segments, count);
+        System.arraycopy(other.segments, 0, newSegments, segmentCount, other.segmentCount);
+        int[] newLengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            newLengths[i] = (i < segmentCount) ? segmentLength(i) : other.segmentLength(i - segmentCount);
+        }
+        return new ChunkedContents(generator, generatedSize, newSegments, newLengths, count, other.tailLength,
+                size + other.size, newVersion);
+    }
+
+    /**
+     * Return an instance containing only the first <code>newSize</code> bytes of these contents, with the same
+     * version number. The segments (and any generated prefix) are shared, not copied.
+     *
+     * @param newSize - the number of bytes to keep; if not less than the current size, return this instance
+     * @return the truncated contents
+     */
+    ChunkedContents truncate(long newSize) {
+        if (newSize >= size) {
+            return this;
+        }
+        if (newSize <= 0) {
+            return EMPTY.withVersion(version);
+        }
+        if (newSize <= generatedSize) {
+            return generated(generator, newSize, version);
+        }
+        long remaining = newSize - generatedSize;
+        int lastIndex = 0;
+        while (remaining > segmentLength(lastIndex)) {
+            remaining -= segmentLength(lastIndex);
+            lastIndex++;
+        }
+        return new ChunkedContents(generator, generatedSize, segments, segmentLengths, lastIndex + 1, (int) remaining,
+                newSize, version);
+    }
+
+    /**
+     * Return an instance with the same contents and version number as this one, but held in memory in
+     * compressed (deflated) form. Return this instance if the contents have a generated prefix or do not
+     * compress well.
+     *
+     * @param store - the ContentStore through which to share the deflated blocks; may be null
+     * @return the compressed contents, or this instance
+     */
+    ChunkedContents compress(ContentStore store) {
+        if (generator != null || size == 0) {
+            return this;
+        }
+        DeflatedContents deflated;
+        try {
+            deflated = DeflatedContents.deflate(createInputStream(), size, store);
+        }
+        catch (IOException e) {
+            // Not possible when reading from the segments
+            throw new IllegalStateException(e.toString());
+        }
+        return (deflated == null) ? this : generated(deflated, size, version);
+    }
+
+    /**
+     * Return an instance with the same contents and version number as this one, but whose bytes are held in
+     * blocks of {@link ContentStore#BLOCK_SIZE} bytes shared through the specified ContentStore. Any generated
+     * prefix is unchanged.
+     *
+     * @param store - the ContentStore
+     * @return the deduplicated contents
+     */
+    ChunkedContents deduplicate(ContentStore store) {
+        long numBytes = size - generatedSize;
+        int numBlocks = (int) ((numBytes + ContentStore.BLOCK_SIZE - 1) / ContentStore.BLOCK_SIZE);
+        if (numBlocks == 0) {
+            return this;
+        }
+        byte[][] blocks = new byte[numBlocks][];
+        int[] blockLengths = new int[numBlocks];
+        int segmentIndex = 0;
+        int position = 0;
+        for (int i = 0; i < numBlocks; i++) {
+            int blockLength = (int) Math.min(ContentStore.BLOCK_SIZE, numBytes - (long) i * ContentStore.BLOCK_SIZE);
+            byte[] block;
+            if (position == 0 && segmentLength(segmentIndex) == blockLength && segments[segmentIndex].length == blockLength) {
+                // The segment is already exactly this block, so no need to copy it
+                block = segments[segmentIndex++];
+            }
+            else {
+                block = new byte[blockLength];
+                int filled = 0;
+                while (filled < blockLength) {
+                    int count = Math.min(blockLength - filled, segmentLength(segmentIndex) - position);
+                    System.arraycopy(segments[segmentIndex], position, block, filled, count);
+                    filled += count;
+                    position += count;
+                    if (position == segmentLength(segmentIndex)) {
+                        segmentIndex++;
+                        position = 0;
+                    }
+                }
+            }
+            blocks[i] = store.intern(block);
+            blockLengths[i] = blockLength;
+        }
+        return new ChunkedContents(generator, generatedSize, blocks, blockLengths, numBlocks,
+                blockLengths[numBlocks - 1], size, version);
+    }
+
+    /**
+     * @return a new InputStream that reads these contents, without copying them
+     */
+    InputStream createInputStream() {
+        return new SegmentInputStream(this);
+    }
+
+    private int segmentLength(int index) {
+        return (index == segmentCount - 1) ? tailLength : segmentLengths[index];
+    }
+
+    /**
+     * Mutable builder that appends bytes and creates ChunkedContents snapshots of the bytes appended
+     * so far. Creating a snapshot does not copy the segments. A Builder is not thread-safe.
+     */
+    static final class Builder {
+        private final Supplier<InputStream> generator;
+        private final long generatedSize;
+        private byte[][] segments;
+        private int[] segmentLengths;
+        private int segmentCount;
+        private boolean tailOwned;      // true only if this Builder allocated the last segment
+        private long size;
+
+        /**
+         * Construct a new, empty Builder
+         */
+        Builder() {
+            this(EMPTY);
+        }
+
+        /**
+         * Construct a new Builder that appends to the specified contents
+         *
+         * @param base - the initial contents
+         */
+        Builder(ChunkedContents base) {
+            generator = base.generator;
+            generatedSize = base.generatedSize;
+            segments = Arrays.copyOf(base.segments, base.segmentCount);
+            segmentLengths = new int[base.segmentCount];
+            for (int i = 0; i < base.segmentCount; i++) {
+                segmentLengths[i] = base.segmentLength(i);
+            }
+            segmentCount = base.segmentCount;
+            size = base.size;
+        }
+
+        /**
+         * Append the specified bytes
+         *
+         * @param bytes  - the source bytes
+         * @param offset - the offset into bytes
+         * @param length - the number of bytes to append
+         */
+        void append(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                byte[] tail = writableTail(length);
+                int tailLength = segmentLengths[segmentCount - 1];
+                int numBytes = Math.min(length, tail.length - tailLength);
+                System.arraycopy(bytes, offset, tail, tailLength, numBytes);
+                segmentLengths[segmentCount - 1] += numBytes;
+                size += numBytes;
+                offset += numBytes;
+                length -= numBytes;
+            }
+        }
+
+        /**
+         * Append the single specified byte
+         *
+         * @param b - the byte to append (the low-order 8 bits)
+         */
+        void append(int b) {
+            byte[] tail = writableTail(1);
+            tail[segmentLengths[segmentCount - 1]++] = (byte) b;
+            size++;
+        }
+
+        /**
+         * @return the number of bytes in the contents built so far
+         */
+        long size() {
+            return size;
+        }
+
+        /**
+         * @param version - the version number of the returned snapshot
+         * @return an immutable snapshot of the bytes appended so far
+         */
+        ChunkedContents build(long version) {
+            int tailLength = (segmentCount == 0) ? 0 : segmentLengths[segmentCount - 1];
+            return new ChunkedContents(generator, generatedSize, segments, segmentLengths, segmentCount, tailLength,
+                    size, version);
+        }
+
+        /**
+         * Return the last segment, adding a new one first if the last segment is full or was not
+         * allocated by this Builder
+         *
+         * @param numBytesWanted - the number of bytes about to be written; used to size a new segment
+         * @return the segment to write to, starting at the current length of that segment
+         */
+        private byte[] writableTail(int numBytesWanted) {
+            if (!tailOwned || segmentLengths[segmentCount - 1] == segments[segmentCount - 1].length) {
+                // Grow geometrically with the current size, but keep each segment within bounds
+                long wanted = Math.max(size, numBytesWanted);
+                int capacity = (int) Math.min(MAX_SEGMENT_SIZE, Math.max(MIN_SEGMENT_SIZE, wanted));
+                addSegment(new byte[capacity]);
+                tailOwned = true;
+            }
+            return segments[segmentCount - 1];
+        }
+
+        private void addSegment(byte[] segment) {
+            if (segmentCount == segments.length) {
+                // Snapshots keep referencing the old arrays, so always replace rather than modify them
+                int newCapacity = Math.max(8, segmentCount * 2);
+                segments = Arrays.copyOf(segments, newCapacity);
+                segmentLengths = Arrays.copyOf(segmentLengths, newCapacity);
+            }
+            segments[segmentCount] = segment;
+            segmentLengths[segmentCount] = 0;
+            segmentCount++;
+        }
+    }
+
+    /**
+     * InputStream that reads the generated prefix, if any, and then sequentially through the segments
+     * of a ChunkedContents snapshot
+     */
+    private static class SegmentInputStream extends InputStream {
+        private final ChunkedContents contents;
+        private InputStream prefix;         // null once the generated prefix (if any) has been read
+        private int segmentIndex;
+        private int position;
+
+        SegmentInputStream(ChunkedContents contents) {
+            this.contents = contents;
+            if (contents.generator != null) {
+                this.prefix = new GeneratedInputStream(contents.generator.get(), contents.generatedSize);
+            }
+        }
+
+        public int read() throws IOException {
+            if (prefix != null) {
+                int b = prefix.read();
+                if (b != -1) {
+                    return b;
+                }
+                closePrefix();
+            }
+            if (!advanceToAvailableSegment()) {
+                return -1;
+            }
+            return contents.segments[segmentIndex][position++] & 0xFF;
+        }
+
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (offset < 0 || length < 0 || offset + length > bytes.length) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (length == 0) {
+                return 0;
+            }
+            if (prefix != null) {
+                int numBytes = prefix.read(bytes, offset, length);
+                if (numBytes != -1) {
+                    return numBytes;
+                }
+                closePrefix();
+            }
+            int total = 0;
+            while (total < length && advanceToAvailableSegment()) {
+                int numBytes = Math.min(length - total, contents.segmentLength(segmentIndex) - position);
+                System.arraycopy(contents.segments[segmentIndex], position, bytes, offset + total, numBytes);
+                position += numBytes;
+                total += numBytes;
+            }
+            return (total == 0) ? -1 : total;
+        }
+
+        public long skip(long numBytes) throws IOException {
+            long skipped = 0;
+            while (prefix != null && skipped < numBytes) {
+                long skipThisTime = prefix.skip(numBytes - skipped);
+                if (skipThisTime <= 0) {
+                    closePrefix();
+                }
+                skipped += Math.max(skipThisTime, 0);
+            }
+            while (skipped < numBytes && advanceToAvailableSegment()) {
+                int skipThisTime = (int) Math.min(numBytes - skipped, contents.segmentLength(segmentIndex) - position);
+                position += skipThisTime;
+                skipped += skipThisTime;
+            }
+            return skipped;
+        }
+
+        public int available() throws IOException {
+            if (prefix != null) {
+                return prefix.available();
+            }
+            return advanceToAvailableSegment() ? contents.segmentLength(segmentIndex) - position : 0;
+        }
+
+        public void close() throws IOException {
+            if (prefix != null) {
+                closePrefix();
+            }
+        }
+
+        private void closePrefix() throws IOException {
+            InputStream input = prefix;
+            prefix = null;
+            input.close();
+        }
+
+        private boolean advanceToAvailableSegment() {
+            while (segmentIndex < contents.segmentCount && position >= contents.segmentLength(segmentIndex)) {
+                segmentIndex++;
+                position = 0;
+            }
+            return segmentIndex < contents.segmentCount;
+        }
+    }
+
+    /**
+     * InputStream that reads exactly <code>size</code> bytes from a generator InputStream, ignoring any further
+     * bytes and padding with zero bytes if the generator InputStream ends early
+     */
+    private static class GeneratedInputStream extends InputStream {
+        private final InputStream source;
+        private final byte[] singleByte = new byte[1];
+        private long remaining;
+        private boolean sourceEnded;
+
+        GeneratedInputStream(InputStream source, long size) {
+            this.source = source;
+            this.remaining = size;
+        }
+
+        public int read() throws IOException {
+            return (read(singleByte, 0, 1) == -1) ? -1 : singleByte[0] & 0xFF;
+        }
+
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int wanted = (int) Math.min(length, remaining);
+            int numBytes = sourceEnded ? -1 : source.read(bytes, offset, wanted);
+            if (numBytes == -1) {
+                sourceEnded = true;
+                Arrays.fill(bytes, offset, offset + wanted, (byte) 0);
+                numBytes = wanted;
+            }
+            remaining -= numBytes;
+            return numBytes;
+        }
+
+        public long skip(long numBytes) throws IOException {
+            long wanted = Math.min(numBytes, remaining);
+            if (wanted <= 0) {
+                return 0;
+            }
+            long skipped = sourceEnded ? wanted : source.skip(wanted);
+            if (skipped <= 0) {
+                // The source cannot skip; read (and discard) instead
+                return super.skip(wanted);
+            }
+            remaining -= skipped;
+            return skipped;
+        }
+
+        public int available() throws IOException {
+            return (int) Math.min(sourceEnded ? remaining : source.available(), remaining);
+        }
+
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem;
+
+import org.mockftpserver.core.MockFtpServerException;
+import org.mockftpserver.core.util.AssertFailedException;
+import org.mockftpserver.core.util.BufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * Computes the digests (checksums) of file contents for one or more algorithms, incrementally, as the
+ * contents are written. The supported algorithms are {@link FileEntry#CRC32} and the algorithms supported
+ * by {@link MessageDigest}, such as "MD5", "SHA-1", "SHA-256" and "SHA-512". This class is not thread-safe.
+ */
+final class ContentDigester {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final String[] algorithms;
+    private final Object[] digests;     // a MessageDigest or Checksum for each algorithm
+
+    /**
+     * Construct a new instance that computes the digests for the specified algorithms
+     *
+     * @param algorithms - the algorithm names
+     * @throws AssertFailedException - if an algorithm is not supported
+     */
+    ContentDigester(String[] algorithms) {
+        this.algorithms = algorithms.clone();
+        this.digests = new Object[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            digests[i] = newDigest(algorithms[i]);
+        }
+    }
+
+    void update(int b) {
+        for (int i = 0; i < digests.length; i++) {
+            if (digests[i] instanceof MessageDigest) {
+                ((MessageDigest) digests[i]).update((byte) b);
+            }
+            else {
+                ((Checksum) digests[i]).update(b);
+            }
+        }
+    }
+
+    void update(byte[] bytes, int offset, int length) {
+        for (int i = 0; i < digests.length; i++) {
+            if (digests[i] instanceof MessageDigest) {
+                ((MessageDigest) digests[i]).update(bytes, offset, length);
+            }
+            else {
+                ((Checksum) digests[i]).update(bytes, offset, length);
+            }
+        }
+    }
+
+    /**
+     * Return the digest of the bytes written so far for the specified algorithm, without resetting it
+     *
+     * @param algorithm - the algorithm name
+     * @return the digest, or null if this instance does not compute the digest for that algorithm
+     */
+    byte[] digest(String algorithm) {
+        for (int i = 0; i < algorithms.length; i++) {
+            if (algorithms[i].equals(algorithm)) {
+                return currentDigest(digests[i]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the digests of the bytes written so far, as a Map of algorithm name to digest
+     */
+    Map digests() {
+        Map map = new HashMap();
+        for (int i = 0; i < algorithms.length; i++) {
+            map.put(algorithms[i], currentDigest(digests[i]));
+        }
+        return map;
+    }
+
+    /**
+     * Read the contents of the InputStream and return their digest for the specified algorithm. Close the
+     * InputStream when done.
+     *
+     * @param input     - the InputStream for the contents
+     * @param algorithm - the algorithm name
+     * @return the digest
+     * @throws IOException - if an error occurs reading from input
+     */
+    static byte[] digest(InputStream input, String algorithm) throws IOException {
+        ContentDigester digester = new ContentDigester(new String[]{algorithm});
+        byte[] buffer = BufferPool.getSharedInstance().acquire(READ_BUFFER_SIZE);
+        try {
+            int numBytes;
+            while ((numBytes = input.read(buffer)) != -1) {
+                digester.update(buffer, 0, numBytes);
+            }
+        }
+        finally {
+            BufferPool.getSharedInstance().release(buffer);
+            input.close();
+        }
+        return digester.digest(algorithm);
+    }
+
+    /**
+     * Verify that the specified algorithm is supported
+     *
+     * @param algorithm - the algorithm name
+     * @throws AssertFailedException - if the algorithm is not supported
+     */
+    static void checkAlgorithm(String algorithm) {
+        newDigest(algorithm);
+    }
+
+    private static Object newDigest(String algorithm) {
+        if (FileEntry.CRC32.equals(algorithm)) {
+            return new CRC32();
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new AssertFailedException("The digest algorithm [" + algorithm + "] is not supported");
+        }
+    }
+
+    private static byte[] currentDigest(Object digest) {
+        if (digest instanceof Checksum) {
+            long value = ((Checksum) digest).getValue();
+            return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+        }
+        try {
+            // Digest a copy, leaving the original to continue accumulating bytes
+            return ((MessageDigest) ((MessageDigest) digest).clone()).digest();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new MockFtpServerException(e);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem;
+
+import org.mockftpserver.core.MockFtpServerException;
+import org.mockftpserver.core.util.Assert;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Content-addressed store of immutable blocks of file contents, keyed by the SHA-256 hash of each block.
+ * File entries whose contents contain identical blocks share a single copy of each block, so (for instance)
+ * the same large sample file added to many directories is held in memory only once.
+ *
+ * <p>To use, set a ContentStore on the file system (see {@link AbstractFakeFileSystem#setContentStore(ContentStore)}).
+ * The contents of each {@link FileEntry} are then deduplicated when the entry is added to the file system.
+ * Contents are immutable, so sharing is copy-on-write: writing to a file replaces its contents without
+ * affecting other files that share the same blocks.
+ *
+ * <p>The store holds its blocks through weak references, so a block is discarded once no file contents
+ * refer to it. A single ContentStore can be shared by several file systems. This class is thread-safe.
+ */
+public class ContentStore {
+
+    /**
+     * The size of each deduplicated block, in bytes. The last block of a file may be smaller.
+     */
+    public static final int BLOCK_SIZE = ChunkedContents.MAX_SEGMENT_SIZE;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final ConcurrentMap blocks = new ConcurrentHashMap();
+    private final ReferenceQueue queue = new ReferenceQueue();
+
+    /**
+     * Return the stored block with the same contents as the specified bytes, storing <code>bytes</code>
+     * itself if there is none. The caller must not subsequently modify the bytes.
+     *
+     * @param bytes - the block contents
+     * @return the shared block with the same contents as bytes
+     */
+    public byte[] intern(byte[] bytes) {
+        Assert.notNull(bytes, "bytes");
+        expungeDiscardedBlocks();
+
+        ByteBuffer key = ByteBuffer.wrap(hash(bytes));
+        BlockReference newReference = new BlockReference(key, bytes, queue);
+        while (true) {
+            BlockReference reference = (BlockReference) blocks.putIfAbsent(key, newReference);
+            if (reference == null) {
+                return bytes;
+            }
+            byte[] block = (byte[]) reference.get();
+            if (block != null) {
+                return block;
+            }
+            // The existing block has been discarded; replace it
+            if (blocks.replace(key, reference, newReference)) {
+                return bytes;
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct blocks currently held
+     */
+    public int getNumberOfBlocks() {
+        expungeDiscardedBlocks();
+        return blocks.size();
+    }
+
+    private void expungeDiscardedBlocks() {
+        BlockReference reference;
+        while ((reference = (BlockReference) queue.poll()) != null) {
+            blocks.remove(reference.key, reference);
+        }
+    }
+
+    private static byte[] hash(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(bytes);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new MockFtpServerException(e);
+        }
+    }
+
+    /**
+     * Weak reference to a block that remembers its key, so the map entry can be removed once the block is discarded
+     */
+    private static class BlockReference extends WeakReference {
+        private final Object key;
+
+        BlockReference(Object key, byte[] block, ReferenceQueue queue) {
+            super(block, queue);
+            this.key = key;
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem;
+
+import org.mockftpserver.core.util.BufferPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * File contents held in memory in compressed (deflated) form. The contents are split into blocks of
+ * {@link #BLOCK_SIZE} bytes, each deflated independently, so that reading the contents inflates only one
+ * block at a time, and skipping (e.g. for a restarted transfer) does not need to inflate the skipped blocks.
+ *
+ * <p>Instances are immutable. Each call to {@link #get()} returns a new InputStream that inflates the contents.
+ */
+final class DeflatedContents implements Supplier<InputStream> {
+
+    static final int BLOCK_SIZE = ChunkedContents.MAX_SEGMENT_SIZE;
+
+    private final byte[][] blocks;
+    private final long size;
+
+    private DeflatedContents(byte[][] blocks, long size) {
+        this.blocks = blocks;
+        this.size = size;
+    }
+
+    /**
+     * Deflate the contents read from the specified InputStream. Return null if the deflated contents would
+     * not be significantly (at least 10%) smaller than the original contents.
+     *
+     * @param input - the InputStream for the contents
+     * @param size  - the number of bytes to read from input
+     * @param store - the ContentStore through which to share the deflated blocks; may be null
+     * @return the DeflatedContents, or null
+     * @throws IOException - if an error occurs reading from input
+     */
+    static DeflatedContents deflate(InputStream input, long size, ContentStore store) throws IOException {
+        int numBlocks = (int) ((size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        byte[][] blocks = new byte[numBlocks][];
+        byte[] buffer = BufferPool.getSharedInstance().acquire(BLOCK_SIZE);
+        long compressedSize = 0;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int i = 0; i < numBlocks; i++) {
+                int blockLength = uncompressedLength(i, numBlocks, size);
+                readFully(input, buffer, blockLength);
+                byte[] block = deflateBlock(deflater, buffer, blockLength);
+                blocks[i] = (store != null) ? store.intern(block) : block;
+                compressedSize += block.length;
+            }
+        }
+        finally {
+            deflater.end();
+            BufferPool.getSharedInstance().release(buffer);
+        }
+        return (compressedSize * 10 <= size * 9) ? new DeflatedContents(blocks, size) : null;
+    }
+
+    /**
+     * @return the total size of the deflated blocks, in bytes
+     */
+    long compressedSize() {
+        long total = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            total += blocks[i].length;
+        }
+        return total;
+    }
+
+    /**
+     * @return a new InputStream that inflates the contents
+     */
+    public InputStream get() {
+        return new InflatingInputStream();
+    }
+
+    private static int uncompressedLength(int blockIndex, int numBlocks, long size) {
+        return (blockIndex < numBlocks - 1) ? BLOCK_SIZE : (int) (size - (long) BLOCK_SIZE * (numBlocks - 1));
+    }
+
+    private static void readFully(InputStream input, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int numBytes = input.read(buffer, total, length - total);
+            if (numBytes == -1) {
+                throw new IOException("Contents ended after " + total + " bytes; expected " + length);
+            }
+            total += numBytes;
+        }
+    }
+
+    private static byte[] deflateBlock(Deflater deflater, byte[] bytes, int length) {
+        deflater.reset();
+        deflater.setInput(bytes, 0, length);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 4 + 16);
+        byte[] buffer = new byte[Math.max(length / 4, 256)];
+        while (!deflater.finished()) {
+            int numBytes = deflater.deflate(buffer);
+            out.write(buffer, 0, numBytes);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * InputStream that inflates the blocks one at a time into a single reusable buffer
+     */
+    private class InflatingInputStream extends InputStream {
+        private final Inflater inflater = new Inflater();
+        private byte[] buffer;
+        private int nextBlockIndex;
+        private int position;
+        private int length;
+
+        public int read() throws IOException {
+            if (!fillBuffer()) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        public int read(byte[] bytes, int offset, int numBytes) throws IOException {
+            if (offset < 0 || numBytes < 0 || offset + numBytes > bytes.length) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (numBytes == 0) {
+                return 0;
+            }
+            if (!fillBuffer()) {
+                return -1;
+            }
+            int count = Math.min(numBytes, length - position);
+            System.arraycopy(buffer, position, bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        public long skip(long numBytes) throws IOException {
+            long skipped = 0;
+            // Skip the rest of the current (already inflated) block
+            long fromBuffer = Math.min(numBytes, length - position);
+            if (fromBuffer > 0) {
+                position += (int) fromBuffer;
+                skipped += fromBuffer;
+            }
+            // Skip whole blocks without inflating them
+            while (nextBlockIndex < blocks.length && numBytes - skipped >= uncompressedLength(nextBlockIndex, blocks.length, size)) {
+                skipped += uncompressedLength(nextBlockIndex, blocks.length, size);
+                nextBlockIndex++;
+            }
+            // Skip part of the next block
+            if (skipped < numBytes && fillBuffer()) {
+                int count = (int) Math.min(numBytes - skipped, length - position);
+                position += count;
+                skipped += count;
+            }
+            return skipped;
+        }
+
+        public int available() {
+            return length - position;
+        }
+
+        public void close() {
+            inflater.end();
+            BufferPool.getSharedInstance().release(buffer);
+            buffer = null;
+            position = length = 0;
+        }
+
+        private boolean fillBuffer() throws IOException {
+            if (position < length) {
+                return true;
+            }
+            if (nextBlockIndex >= blocks.length) {
+                return false;
+            }
+            if (buffer == null) {
+                buffer = BufferPool.getSharedInstance().acquire(BLOCK_SIZE);
+            }
+            int blockLength = uncompressedLength(nextBlockIndex, blocks.length, size);
+            inflater.reset();
+            inflater.setInput(blocks[nextBlockIndex++]);
+            try {
+                int total = 0;
+                while (total < blockLength && !inflater.finished()) {
+                    int numBytes = inflater.inflate(buffer, total, blockLength - total);
+                    if (numBytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Deflated block is incomplete");
+                    }
+                    total += numBytes;
+                }
+            }
+            catch (DataFormatException e) {
+                throw new IOException(e);
+            }
+            position = 0;
+            length = blockLength;
+            return true;
+        }
+    }
+
+}
@@ -71,10 +71,7 @@ public class DirectoryEntry extends AbstractFileSystemEntry {
      */
     public FileSystemEntry cloneWithNewPath(String path) {
         DirectoryEntry clone = new DirectoryEntry(path);
-        clone.setLastModified(getLastModified());
-        clone.setOwner(getOwner());
-        clone.setGroup(getGroup());
-        clone.setPermissions(getPermissions());
+        copyAttributesTo(clone);
         return clone;
     }
 
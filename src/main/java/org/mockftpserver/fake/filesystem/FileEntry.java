@@ -15,19 +15,61 @@
  */
 package org.mockftpserver.fake.filesystem;
 
-import java.io.*;
+import org.mockftpserver.core.util.Assert;
+import org.mockftpserver.core.util.BufferPool;
+import org.mockftpserver.core.util.LfToCrLfInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
 
 /**
- * File system entry representing a file
+ * File system entry representing a file.
+ *
+ * <p>The contents of the file are held as an immutable, versioned snapshot. Reading the contents (including
+ * getSize()) never blocks and always sees one complete version, even while another thread is writing to the
+ * file. Each write publishes a new version atomically.
+ *
+ * <p>If the <code>cacheCrLfContents</code> property is true, then the CRLF form of the contents returned by
+ * {@link #createCrLfInputStream()} (as sent for an ASCII mode download) is kept until the contents next
+ * change, so that repeated ASCII downloads of an unchanged file do not convert it again. The cached form
+ * is held in memory, in addition to the contents themselves.
+ *
+ * <p>{@link #getDigest(String)} returns a digest (checksum) of the contents, which is cached until the
+ * contents change. The digests for the algorithms in the <code>digestAlgorithms</code> property are computed
+ * incrementally while new contents are written through an OutputStream from this entry, so they are available
+ * without reading the contents again. Each algorithm requested from getDigest() is added to that property.
  *
  * @author Chris Mair
  */
 public class FileEntry extends AbstractFileSystemEntry {
 
+    /**
+     * The name of the CRC-32 checksum algorithm, as passed to {@link #getDigest(String)}
+     */
+    public static final String CRC32 = "CRC32";
+
     private static final byte[] EMPTY = new byte[0];
+    private static final String[] NO_ALGORITHMS = new String[0];
+    private static final AtomicReferenceFieldUpdater<FileEntry, ChunkedContents> CONTENTS =
+            AtomicReferenceFieldUpdater.newUpdater(FileEntry.class, ChunkedContents.class, "contents");
 
-    private byte[] bytes = EMPTY;
-    private ByteArrayOutputStream out;
+    private volatile ChunkedContents contents = ChunkedContents.EMPTY;
+    private ImmediateOutputStream currentOutputStream;
+    private volatile boolean cacheCrLfContents;
+    private volatile ChunkedContents crLfContents;     // CRLF form of the contents with the same version, if cached
+    private final Set digestAlgorithms = new CopyOnWriteArraySet();
+    private volatile CachedDigests digests;             // digests of the contents with the same version, if cached
 
     /**
      * Construct a new instance without setting its path
@@ -70,7 +112,7 @@ public class FileEntry extends AbstractFileSystemEntry {
      * @return the file size in bytes
      */
     public long getSize() {
-        return getCurrentBytes().length;
+        return contents.size();
     }
 
     /**
@@ -112,12 +154,160 @@ public class FileEntry extends AbstractFileSystemEntry {
     }
 
     /**
-     * Create and return an InputStream for reading the contents of the file represented by this entry
+     * Set the contents of the file represented by this entry to the first <code>size</code> bytes read from
+     * an InputStream obtained from the generator, each time the contents are read. The contents are never
+     * held in memory.
+     *
+     * @param generator - supplies a new InputStream for the contents each time they are read
+     * @param size      - the size of the contents in bytes
+     * @see GeneratedFileEntry
+     */
+    void setGeneratedContents(Supplier<InputStream> generator, long size) {
+        publish(ChunkedContents.generated(generator, size, 0));
+    }
+
+    /**
+     * Reduce the memory used by the current contents of this file: compress them, if they are at least
+     * <code>compressionThreshold</code> bytes, and share their bytes through the specified ContentStore.
+     * This does not change the contents or their version number. Contents that are still being written
+     * through an OutputStream from {@link #createOutputStream(boolean)} are left alone.
+     *
+     * @param store                - the ContentStore through which to share the contents; may be null
+     * @param compressionThreshold - the minimum size of contents to compress; zero or less to never compress
+     */
+    synchronized void compactContents(ContentStore store, long compressionThreshold) {
+        if (currentOutputStream != null && currentOutputStream.isCurrent()) {
+            return;
+        }
+        while (true) {
+            ChunkedContents current = contents;
+            ChunkedContents compacted = current;
+            if (compressionThreshold > 0 && current.size() >= compressionThreshold) {
+                compacted = compacted.compress(store);
+            }
+            if (store != null) {
+                compacted = compacted.deduplicate(store);
+            }
+            if (compacted == current || CONTENTS.compareAndSet(this, current, compacted)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Return the version number of the current contents of this file. The version is incremented each
+     * time new contents are published.
+     *
+     * @return the version number of the current contents
+     */
+    public long getContentsVersion() {
+        return contents.version();
+    }
+
+    /**
+     * Create and return an InputStream for reading the contents of the file represented by this entry.
+     * The InputStream reads the contents as they were when this method was called; it is not affected
+     * by subsequent writes.
      *
      * @return an InputStream
      */
     public InputStream createInputStream() {
-        return new ByteArrayInputStream(getCurrentBytes());
+        return contents.createInputStream();
+    }
+
+    /**
+     * Create and return an InputStream for reading the contents of the file represented by this entry, with
+     * each LF (\n) that is NOT preceded by a CR (\r) converted into CRLF (\r\n), as sent in ASCII mode.
+     * The contents are converted while they are read, unless the <code>cacheCrLfContents</code> property is
+     * true, in which case the converted contents are cached until the contents change.
+     *
+     * @return an InputStream
+     * @throws IOException - if an error occurs reading the contents to be cached
+     */
+    public InputStream createCrLfInputStream() throws IOException {
+        if (!cacheCrLfContents) {
+            return new LfToCrLfInputStream(createInputStream());
+        }
+        ChunkedContents current = contents;
+        ChunkedContents cached = crLfContents;
+        if (cached == null || cached.version() != current.version()) {
+            cached = convertLfToCrLf(current);
+            crLfContents = cached;
+        }
+        return cached.createInputStream();
+    }
+
+    public boolean isCacheCrLfContents() {
+        return cacheCrLfContents;
+    }
+
+    /**
+     * Set whether to cache the CRLF form of the contents; see {@link #createCrLfInputStream()}
+     *
+     * @param cacheCrLfContents - true to cache the CRLF form of the contents
+     */
+    public void setCacheCrLfContents(boolean cacheCrLfContents) {
+        this.cacheCrLfContents = cacheCrLfContents;
+        if (!cacheCrLfContents) {
+            crLfContents = null;
+        }
+    }
+
+    /**
+     * Return the digest (checksum) of the current contents of this file, computed using the specified algorithm.
+     * The digest is cached until the contents change. If the digest was computed while the contents were written,
+     * the contents are not read again.
+     *
+     * @param algorithm - the algorithm: {@link #CRC32}, or the name of a {@link java.security.MessageDigest}
+     *                  algorithm, such as "MD5", "SHA-1", "SHA-256" or "SHA-512"
+     * @return the digest; CRC32 returns the 4 bytes of the checksum value, most significant byte first
+     * @throws org.mockftpserver.core.util.AssertFailedException - if the algorithm is null or not supported
+     * @throws IOException - if an error occurs reading the contents
+     */
+    public byte[] getDigest(String algorithm) throws IOException {
+        Assert.notNull(algorithm, "algorithm");
+        ContentDigester.checkAlgorithm(algorithm);
+        digestAlgorithms.add(algorithm);
+
+        ChunkedContents current = contents;
+        byte[] digest = getCachedDigest(current.version(), algorithm);
+        if (digest == null) {
+            ImmediateOutputStream outputStream;
+            synchronized (this) {
+                outputStream = currentOutputStream;
+            }
+            if (outputStream != null) {
+                digest = outputStream.digest(current, algorithm);
+            }
+        }
+        if (digest == null) {
+            digest = ContentDigester.digest(current.createInputStream(), algorithm);
+        }
+        cacheDigests(current.version(), Collections.singletonMap(algorithm, digest));
+        return digest.clone();
+    }
+
+    /**
+     * @return the Set of names of the algorithms whose digests are computed while contents are written
+     */
+    public Set getDigestAlgorithms() {
+        return Collections.unmodifiableSet(digestAlgorithms);
+    }
+
+    /**
+     * Set the algorithms whose digests are computed incrementally while new contents are written, so that
+     * {@link #getDigest(String)} does not need to read the contents. See getDigest() for the algorithm names.
+     *
+     * @param digestAlgorithms - the Collection of algorithm names
+     * @throws org.mockftpserver.core.util.AssertFailedException - if an algorithm is not supported
+     */
+    public void setDigestAlgorithms(Collection digestAlgorithms) {
+        Assert.notNull(digestAlgorithms, "digestAlgorithms");
+        for (Iterator iter = digestAlgorithms.iterator(); iter.hasNext();) {
+            ContentDigester.checkAlgorithm((String) iter.next());
+        }
+        this.digestAlgorithms.retainAll(digestAlgorithms);
+        this.digestAlgorithms.addAll(digestAlgorithms);
     }
 
     /**
@@ -128,21 +318,45 @@ public class FileEntry extends AbstractFileSystemEntry {
      * @return an OutputStream
      * @throws FileSystemException - if an error occurs creating or initializing the OutputStream
      */
-    public OutputStream createOutputStream(boolean append) {
-        // If appending and we already have an OutputStream, then continue to use it
-        if (append && out != null) {
-            return out;
+    public synchronized OutputStream createOutputStream(boolean append) {
+        // If appending and we already have a (still current) OutputStream, then continue to use it
+        if (append && currentOutputStream != null && currentOutputStream.isCurrent()) {
+            return currentOutputStream;
         }
 
-        out = new ByteArrayOutputStream();
-        byte[] initialContents = (append) ? bytes : EMPTY;
-        try {
-            out.write(initialContents);
-        }
-        catch (IOException e) {
-            throw new FileSystemException(getPath(), null, e);
-        }
-        return out;
+        ChunkedContents base = append ? contents : publish(ChunkedContents.EMPTY);
+        currentOutputStream = new ImmediateOutputStream(base);
+        return currentOutputStream;
+    }
+
+    /**
+     * Create and return an OutputStream for writing new contents of the file represented by this entry.
+     * Unlike {@link #createOutputStream(boolean)}, nothing written is visible until the OutputStream is
+     * closed; at that point the new contents are published atomically, as a single new version. Until
+     * then, readers continue to see the previous contents.
+     *
+     * @param append - true if the written bytes should be appended to the contents current at the time
+     *               the OutputStream is closed; false if they should replace the contents
+     * @return an OutputStream
+     */
+    public OutputStream createPendingOutputStream(boolean append) {
+        return new PendingOutputStream(append ? Long.MAX_VALUE : 0);
+    }
+
+    /**
+     * Create and return an OutputStream for writing new contents of the file represented by this entry, starting
+     * at the specified position (byte offset), as for a restarted transfer. As for
+     * {@link #createPendingOutputStream(boolean)}, nothing written is visible until the OutputStream is closed.
+     * At that point, the new contents are the first <code>position</code> bytes of the contents current at
+     * that time (or all of them, if fewer) followed by the written bytes. The retained bytes are not copied.
+     *
+     * @param position - the byte offset at which to start writing; must not be negative
+     * @return an OutputStream
+     * @throws org.mockftpserver.core.util.AssertFailedException - if position is negative
+     */
+    public OutputStream createPendingOutputStream(long position) {
+        Assert.isTrue(position >= 0, "position must not be negative");
+        return new PendingOutputStream(position);
     }
 
     /**
@@ -153,11 +367,11 @@ public class FileEntry extends AbstractFileSystemEntry {
      */
     public FileSystemEntry cloneWithNewPath(String path) {
         FileEntry clone = new FileEntry(path);
-        clone.setLastModified(getLastModified());
-        clone.setOwner(getOwner());
-        clone.setGroup(getGroup());
-        clone.setPermissions(getPermissions());
-        clone.setContents(getCurrentBytes());
+        copyAttributesTo(clone);
+        clone.contents = contents;     // immutable, so can be safely shared
+        clone.cacheCrLfContents = cacheCrLfContents;
+        clone.digestAlgorithms.addAll(digestAlgorithms);
+        clone.digests = digests;
         return clone;
     }
 
@@ -166,22 +380,220 @@ public class FileEntry extends AbstractFileSystemEntry {
     //-------------------------------------------------------------------------
 
     /**
-     * @return the current contents of this file entry as a byte[]
+     * Set the contents of the file represented by this entry
+     *
+     * @param contents - the byte[] used as the contents
      */
-    private byte[] getCurrentBytes() {
-        return (out != null) ? out.toByteArray() : bytes;
+    private void setContentsInternal(byte[] contents) {
+        // Any existing OutputStream continues to write to the previous (now detached) contents
+        publish(ChunkedContents.of(contents, 0));
     }
 
     /**
-     * Set the contents of the file represented by this entry
+     * Publish the specified contents as the new current contents, with the next version number
      *
-     * @param contents - the byte[] used as the contents
+     * @param newContents - the new contents; its version number is ignored
+     * @return the published contents
      */
-    private void setContentsInternal(byte[] contents) {
-        this.bytes = contents;
+    private ChunkedContents publish(ChunkedContents newContents) {
+        return publish(newContents, 0);
+    }
+
+    /**
+     * Return the CRLF form of the specified contents, with the same version number
+     */
+    private static ChunkedContents convertLfToCrLf(ChunkedContents source) throws IOException {
+        ChunkedContents.Builder builder = new ChunkedContents.Builder();
+        InputStream input = new LfToCrLfInputStream(source.createInputStream());
+        byte[] buffer = BufferPool.getSharedInstance().acquire(ChunkedContents.MAX_SEGMENT_SIZE);
+        try {
+            int numBytes;
+            while ((numBytes = input.read(buffer)) != -1) {
+                builder.append(buffer, 0, numBytes);
+            }
+        }
+        finally {
+            BufferPool.getSharedInstance().release(buffer);
+            input.close();
+        }
+        return builder.build(source.version());
+    }
+
+    /**
+     * Return the cached digest for the specified algorithm of the contents with the specified version, or null
+     */
+    private byte[] getCachedDigest(long version, String algorithm) {
+        CachedDigests cached = digests;
+        return (cached != null && cached.version == version) ? (byte[]) cached.digests.get(algorithm) : null;
+    }
 
-        // Get rid of any OutputStream
-        this.out = null;
+    /**
+     * Cache the specified digests of the contents with the specified version, in addition to any digests
+     * already cached for that version
+     *
+     * @param version    - the version of the contents
+     * @param newDigests - the Map of algorithm name to digest
+     */
+    private synchronized void cacheDigests(long version, Map newDigests) {
+        CachedDigests cached = digests;
+        if (cached != null && cached.version == version) {
+            Map allDigests = new HashMap(cached.digests);
+            allDigests.putAll(newDigests);
+            newDigests = allDigests;
+        }
+        else if (cached != null && cached.version > version) {
+            return;
+        }
+        digests = new CachedDigests(version, newDigests);
+    }
+
+    /**
+     * @return a new ContentDigester for the digestAlgorithms, or null if there are none
+     */
+    private ContentDigester createDigester() {
+        String[] algorithms = (String[]) digestAlgorithms.toArray(NO_ALGORITHMS);
+        return (algorithms.length > 0) ? new ContentDigester(algorithms) : null;
+    }
+
+    /**
+     * Publish the first <code>position</code> bytes of the current contents followed by the specified contents
+     * as the new current contents, with the next version number
+     *
+     * @param newContents - the new contents; its version number is ignored
+     * @param position    - the number of bytes of the current contents to keep; zero to replace them
+     *                    entirely, or Long.MAX_VALUE to append to them
+     * @return the published contents
+     */
+    private ChunkedContents publish(ChunkedContents newContents, long position) {
+        while (true) {
+            ChunkedContents current = contents;
+            long version = current.version() + 1;
+            ChunkedContents next = (position > 0)
+                    ? current.truncate(position).concat(newContents, version)
+                    : newContents.withVersion(version);
+            if (CONTENTS.compareAndSet(this, current, next)) {
+                crLfContents = null;
+                return next;
+            }
+        }
+    }
+
+    /**
+     * OutputStream whose writes are each published immediately as a new version of the contents. It stops
+     * publishing (becomes detached) once the contents are replaced by anything else.
+     */
+    private class ImmediateOutputStream extends OutputStream {
+        private final ChunkedContents.Builder builder;
+        private final ContentDigester digester;     // null unless computing digests of all of the contents
+        private ChunkedContents published;
+
+        ImmediateOutputStream(ChunkedContents base) {
+            this.builder = new ChunkedContents.Builder(base);
+            this.digester = (base.size() == 0) ? createDigester() : null;
+            this.published = base;
+        }
+
+        public synchronized void write(int b) {
+            builder.append(b);
+            if (digester != null) {
+                digester.update(b);
+            }
+            publishIfCurrent();
+        }
+
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            checkBounds(bytes, offset, length);
+            builder.append(bytes, offset, length);
+            if (digester != null) {
+                digester.update(bytes, offset, length);
+            }
+            publishIfCurrent();
+        }
+
+        synchronized boolean isCurrent() {
+            return contents == published;
+        }
+
+        /**
+         * Return the digest of the specified contents for the specified algorithm, if they are the contents
+         * last published by this OutputStream and it has computed that digest; otherwise return null
+         */
+        synchronized byte[] digest(ChunkedContents current, String algorithm) {
+            return (digester != null && current == published) ? digester.digest(algorithm) : null;
+        }
+
+        private void publishIfCurrent() {
+            if (published != null) {
+                ChunkedContents next = builder.build(published.version() + 1);
+                published = CONTENTS.compareAndSet(FileEntry.this, published, next) ? next : null;
+            }
+        }
+    }
+
+    /**
+     * OutputStream whose written bytes are published as a single new version when it is closed
+     */
+    private class PendingOutputStream extends OutputStream {
+        private final long position;
+        private final ContentDigester digester;     // null unless computing digests of all of the contents
+        private ChunkedContents.Builder builder = new ChunkedContents.Builder();
+
+        PendingOutputStream(long position) {
+            this.position = position;
+            this.digester = (position == 0) ? createDigester() : null;
+        }
+
+        public void write(int b) throws IOException {
+            checkOpen();
+            builder.append(b);
+            if (digester != null) {
+                digester.update(b);
+            }
+        }
+
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            checkBounds(bytes, offset, length);
+            checkOpen();
+            builder.append(bytes, offset, length);
+            if (digester != null) {
+                digester.update(bytes, offset, length);
+            }
+        }
+
+        public void close() {
+            if (builder != null) {
+                ChunkedContents published = publish(builder.build(0), position);
+                builder = null;
+                if (digester != null) {
+                    cacheDigests(published.version(), digester.digests());
+                }
+            }
+        }
+
+        private void checkOpen() throws IOException {
+            if (builder == null) {
+                throw new IOException("OutputStream for [" + getPath() + "] has been closed");
+            }
+        }
+    }
+
+    /**
+     * The digests of one version of the contents
+     */
+    private static class CachedDigests {
+        private final long version;
+        private final Map digests;      // algorithm name -> digest
+
+        CachedDigests(long version, Map digests) {
+            this.version = version;
+            this.digests = digests;
+        }
+    }
+
+    private static void checkBounds(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException();
+        }
     }
 
     /**
@@ -15,6 +15,7 @@
  */
 package org.mockftpserver.fake.filesystem;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -40,6 +41,19 @@ public interface FileSystem {
      */
     public List listFiles(String path);
 
+    /**
+     * Return an Iterator over the FileSystemEntry objects for the files in the specified directory path, in the
+     * same way as {@link #listFiles(String)}. Implementations may produce the entries lazily, without first
+     * collecting them into a List, so that large directories can be listed with bounded memory. This default
+     * implementation iterates over the List returned by <code>listFiles()</code>.
+     *
+     * @param path - the path of the directory whose contents should be returned
+     * @return the Iterator over the FileSystemEntry objects for all files in the specified directory
+     */
+    public default Iterator iterateFiles(String path) {
+        return listFiles(path).iterator();
+    }
+
     /**
      * Return the List of filenames in the specified directory path. The returned filenames do not
      * include a path. If the path does not refer to a valid directory, then an empty List is
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem;
+
+import org.mockftpserver.core.util.Assert;
+
+import java.io.InputStream;
+import java.util.function.Supplier;
+
+/**
+ * File system entry representing a file whose contents are generated on demand rather than held in memory.
+ * The file has a declared size, and each read (e.g. RETR) streams the contents from a generator, so that
+ * transfers of very large files can be tested using constant memory. The generator can be one of:
+ * <ul>
+ * <li>a seeded pseudo-random byte sequence. The same seed always produces the same bytes, so a client
+ * can verify the downloaded contents against <code>new GeneratedFileEntry(path, size, seed).createInputStream()</code></li>
+ * <li>a repeating byte pattern</li>
+ * <li>a <code>Supplier</code> of InputStream, called each time the contents are read. Only the first
+ * <code>size</code> bytes are read; if the InputStream ends early, the remaining bytes are zero.</li>
+ * </ul>
+ *
+ * <p>Otherwise, this behaves like any other {@link FileEntry}: bytes appended to the file follow the generated
+ * contents, and writing new contents (e.g. STOR) replaces them.
+ */
+public class GeneratedFileEntry extends FileEntry {
+
+    /**
+     * Construct a new instance whose contents are a seeded pseudo-random byte sequence
+     *
+     * @param path - the value for path
+     * @param size - the size of the file in bytes
+     * @param seed - the seed for the pseudo-random bytes
+     */
+    public GeneratedFileEntry(String path, long size, final long seed) {
+        this(path, size, new Supplier<InputStream>() {
+            public InputStream get() {
+                return new RandomInputStream(seed);
+            }
+        });
+    }
+
+    /**
+     * Construct a new instance whose contents are the specified pattern of bytes, repeated
+     *
+     * @param path    - the value for path
+     * @param size    - the size of the file in bytes
+     * @param pattern - the bytes to repeat; must not be empty
+     */
+    public GeneratedFileEntry(String path, long size, byte[] pattern) {
+        this(path, size, patternSupplier(pattern));
+    }
+
+    /**
+     * Construct a new instance whose contents are read from an InputStream provided by the generator
+     *
+     * @param path      - the value for path
+     * @param size      - the size of the file in bytes
+     * @param generator - supplies a new InputStream for the contents each time they are read
+     */
+    public GeneratedFileEntry(String path, long size, Supplier<InputStream> generator) {
+        super(path);
+        Assert.notNull(generator, "generator");
+        Assert.isTrue(size >= 0, "size must not be negative");
+        setGeneratedContents(generator, size);
+    }
+
+    private static Supplier<InputStream> patternSupplier(byte[] pattern) {
+        Assert.notNull(pattern, "pattern");
+        Assert.isTrue(pattern.length > 0, "pattern must not be empty");
+        final byte[] bytes = pattern.clone();
+        return new Supplier<InputStream>() {
+            public InputStream get() {
+                return new PatternInputStream(bytes);
+            }
+        };
+    }
+
+    /**
+     * Endless InputStream of pseudo-random bytes. Each byte is a function of the seed and its position
+     * (a SplitMix64 hash), so skipping is immediate.
+     */
+    private static class RandomInputStream extends InputStream {
+        private final long seed;
+        private long position;
+
+        RandomInputStream(long seed) {
+            this.seed = seed;
+        }
+
+        public int read() {
+            return byteAt(position++);
+        }
+
+        public int read(byte[] bytes, int offset, int length) {
+            if (offset < 0 || length < 0 || offset + length > bytes.length) {
+                throw new IndexOutOfBoundsException();
+            }
+            int index = 0;
+            while (index < length) {
+                long value = valueAt(position >>> 3);
+                int shift = (int) (position & 7) * 8;
+                while (shift < 64 && index < length) {
+                    bytes[offset + index++] = (byte) (value >>> shift);
+                    shift += 8;
+                    position++;
+                }
+            }
+            return length;
+        }
+
+        public long skip(long numBytes) {
+            long skipped = Math.max(numBytes, 0);
+            position += skipped;
+            return skipped;
+        }
+
+        private int byteAt(long pos) {
+            return (int) (valueAt(pos >>> 3) >>> ((pos & 7) * 8)) & 0xFF;
+        }
+
+        private long valueAt(long index) {
+            long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    /**
+     * Endless InputStream that repeats a pattern of bytes
+     */
+    private static class PatternInputStream extends InputStream {
+        private final byte[] pattern;
+        private int position;
+
+        PatternInputStream(byte[] pattern) {
+            this.pattern = pattern;
+        }
+
+        public int read() {
+            int b = pattern[position] & 0xFF;
+            position = (position + 1) % pattern.length;
+            return b;
+        }
+
+        public int read(byte[] bytes, int offset, int length) {
+            if (offset < 0 || length < 0 || offset + length > bytes.length) {
+                throw new IndexOutOfBoundsException();
+            }
+            int index = 0;
+            while (index < length) {
+                int numBytes = Math.min(length - index, pattern.length - position);
+                System.arraycopy(pattern, position, bytes, offset + index, numBytes);
+                index += numBytes;
+                position = (position + numBytes) % pattern.length;
+            }
+            return length;
+        }
+
+        public long skip(long numBytes) {
+            long skipped = Math.max(numBytes, 0);
+            position = (int) ((position + skipped) % pattern.length);
+            return skipped;
+        }
+    }
+
+}
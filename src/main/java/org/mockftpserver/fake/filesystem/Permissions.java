@@ -22,18 +22,37 @@ import org.mockftpserver.core.util.Assert;
  * This is conceptually (and somewhat loosely) based on the permissions flags within the Unix
  * file system. An instance of this class is immutable.
  *
+ * <p>The permissions are held as a 9-bit mask. There is a shared instance for each of the 512
+ * possible sets of permissions; use {@link #valueOf(String)} to obtain one rather than constructing
+ * a new instance.
+ *
  * @author Chris Mair
  */
 public class Permissions {
-    public static final Permissions ALL = new Permissions("rwxrwxrwx");
-    public static final Permissions NONE = new Permissions("---------");
-    public static final Permissions DEFAULT = ALL;
 
-    private static final char READ_CHAR = 'r';
-    private static final char WRITE_CHAR = 'w';
-    private static final char EXECUTE_CHAR = 'x';
+    private static final String RWX_CHARS = "rwxrwxrwx";
+    private static final String PATTERN = "(-|r)(-|w)(-|x)(-|r)(-|w)(-|x)(-|r)(-|w)(-|x)";
+
+    // Bits within the mask; the first character of the rwx String is the most significant bit
+    private static final int USER_READ = 0400;
+    private static final int USER_WRITE = 0200;
+    private static final int USER_EXECUTE = 0100;
+    private static final int GROUP_READ = 040;
+    private static final int GROUP_WRITE = 020;
+    private static final int GROUP_EXECUTE = 010;
+    private static final int WORLD_READ = 04;
+    private static final int WORLD_WRITE = 02;
+    private static final int WORLD_EXECUTE = 01;
+
+    // Shared instances, indexed by bitmask
+    private static final Permissions[] INSTANCES_BY_MASK = createInstances();
+
+    public static final Permissions ALL = INSTANCES_BY_MASK[0777];
+    public static final Permissions NONE = INSTANCES_BY_MASK[0];
+    public static final Permissions DEFAULT = ALL;
 
-    private String rwxString;
+    private final int mask;
+    private final String rwxString;
 
     /**
      * Costruct a new instance for the specified read/write/execute specification String
@@ -42,13 +61,29 @@ public class Permissions {
      *                  at index 0,3,6 == '-' or 'r', chars at index 1,4,7 == '-' or 'w' and chars at index 2,5,8 == '-' or 'x'.
      */
     public Permissions(String rwxString) {
-        Assert.isTrue(rwxString.length() == 9, "The permissions string must be exactly 9 characters");
-        final String RWX = "(-|r)(-|w)(-|x)";
-        final String PATTERN = RWX + RWX + RWX;
-        Assert.isTrue(rwxString.matches(PATTERN), "The permissions string must match [" + PATTERN + "]");
+        this.mask = parseMask(rwxString);
         this.rwxString = rwxString;
     }
 
+    private Permissions(int mask) {
+        char[] chars = new char[9];
+        for (int i = 0; i < 9; i++) {
+            chars[i] = ((mask & (1 << (8 - i))) != 0) ? RWX_CHARS.charAt(i) : '-';
+        }
+        this.mask = mask;
+        this.rwxString = new String(chars);
+    }
+
+    /**
+     * Return the shared instance for the specified read/write/execute specification String
+     *
+     * @param rwxString - the read/write/execute specification String; see {@link #Permissions(String)}
+     * @return the Permissions instance
+     */
+    public static Permissions valueOf(String rwxString) {
+        return INSTANCES_BY_MASK[parseMask(rwxString)];
+    }
+
     /**
      * Return the read/write/execute specification String representing the set of permissions. For example:
      * "rwxrwxrwx" or "rw-r-----".
@@ -66,13 +101,33 @@ public class Permissions {
         return rwxString;
     }
 
+    /**
+     * Return the bitmask representing this set of permissions: nine bits, one for each character of the
+     * read/write/execute specification String, with the first character as the most significant bit.
+     *
+     * @return the bitmask, between 0 and 511
+     */
+    int toMask() {
+        return mask;
+    }
+
+    /**
+     * Return the shared instance for the set of permissions represented by the specified bitmask
+     *
+     * @param mask - the bitmask, as returned by {@link #toMask()}
+     * @return the Permissions instance
+     */
+    static Permissions fromMask(int mask) {
+        return INSTANCES_BY_MASK[mask];
+    }
+
     /**
      * @see java.lang.Object#equals(java.lang.Object)
      */
     public boolean equals(Object object) {
         return (object != null)
                 && (object.getClass() == this.getClass())
-                && (object.hashCode() == hashCode());
+                && (((Permissions) object).mask == mask);
     }
 
     /**
@@ -88,63 +143,63 @@ public class Permissions {
      * @return true if and only if the user has read permission
      */
     public boolean canUserRead() {
-        return rwxString.charAt(0) == READ_CHAR;
+        return (mask & USER_READ) != 0;
     }
 
     /**
      * @return true if and only if the user has write permission
      */
     public boolean canUserWrite() {
-        return rwxString.charAt(1) == WRITE_CHAR;
+        return (mask & USER_WRITE) != 0;
     }
 
     /**
      * @return true if and only if the user has execute permission
      */
     public boolean canUserExecute() {
-        return rwxString.charAt(2) == EXECUTE_CHAR;
+        return (mask & USER_EXECUTE) != 0;
     }
 
     /**
      * @return true if and only if the group has read permission
      */
     public boolean canGroupRead() {
-        return rwxString.charAt(3) == READ_CHAR;
+        return (mask & GROUP_READ) != 0;
     }
 
     /**
      * @return true if and only if the group has write permission
      */
     public boolean canGroupWrite() {
-        return rwxString.charAt(4) == WRITE_CHAR;
+        return (mask & GROUP_WRITE) != 0;
     }
 
     /**
      * @return true if and only if the group has execute permission
      */
     public boolean canGroupExecute() {
-        return rwxString.charAt(5) == EXECUTE_CHAR;
+        return (mask & GROUP_EXECUTE) != 0;
     }
 
     /**
      * @return true if and only if the world has read permission
      */
     public boolean canWorldRead() {
-        return rwxString.charAt(6) == READ_CHAR;
+        return (mask & WORLD_READ) != 0;
     }
 
     /**
      * @return true if and only if the world has write permission
      */
     public boolean canWorldWrite() {
-        return rwxString.charAt(7) == WRITE_CHAR;
+        return (mask & WORLD_WRITE) != 0;
     }
 
     /**
      * @return true if and only if the world has execute permission
      */
     public boolean canWorldExecute() {
-        return rwxString.charAt(8) == EXECUTE_CHAR;
+        return (mask & WORLD_EXECUTE) != 0;
     }
 
     /**
@@ -153,4 +208,27 @@ public class Permissions {
     public String toString() {
         return "Permissions[" + rwxString + "]";
     }
-}
\ No newline at end of file
+
+    private static int parseMask(String rwxString) {
+        Assert.isTrue(rwxString.length() == 9, "The permissions string must be exactly 9 characters");
+        int mask = 0;
+        for (int i = 0; i < 9; i++) {
+            char c = rwxString.charAt(i);
+            if (c == RWX_CHARS.charAt(i)) {
+                mask |= 1 << (8 - i);
+            }
+            else if (c != '-') {
+                Assert.isTrue(false, "The permissions string must match [" + PATTERN + "]");
+            }
+        }
+        return mask;
+    }
+
+    private static Permissions[] createInstances() {
+        Permissions[] instances = new Permissions[512];
+        for (int mask = 0; mask < instances.length; mask++) {
+            instances[mask] = new Permissions(mask);
+        }
+        return instances;
+    }
+}
@@ -59,7 +59,7 @@ public class UnixDirectoryListingFormatter implements DirectoryListingFormatter
         String groupStr = StringUtil.padRight(stringOrNone(fileSystemEntry.getGroup()), GROUP_WIDTH);
         String sizeStr = StringUtil.padLeft(Long.toString(fileSystemEntry.getSize()), SIZE_WIDTH);
         String listing = "" + dirOrFile + permissionsStr + "  " + linkCountStr + " " + ownerStr + " " + groupStr + " " + sizeStr + " " + dateStr + " " + fileSystemEntry.getName();
-        LOG.info("listing=[" + listing + "]");
+        LOG.debug("listing=[" + listing + "]");
         return listing;
     }
 
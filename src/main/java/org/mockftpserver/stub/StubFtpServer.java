@@ -108,11 +108,17 @@ public class StubFtpServer extends AbstractFtpServer {
         setCommandHandler(CommandNames.DELE, new DeleCommandHandler());
         setCommandHandler(CommandNames.EPRT, new EprtCommandHandler());
         setCommandHandler(CommandNames.EPSV, new EpsvCommandHandler());
+        setCommandHandler(CommandNames.FEAT, new FeatCommandHandler());
         setCommandHandler(CommandNames.HELP, new HelpCommandHandler());
         setCommandHandler(CommandNames.LIST, new ListCommandHandler());
+        setCommandHandler(CommandNames.MDTM, new MdtmCommandHandler());
+        setCommandHandler(CommandNames.MFMT, new MfmtCommandHandler());
         setCommandHandler(CommandNames.MKD, new MkdCommandHandler());
+        setCommandHandler(CommandNames.MLSD, new MlsdCommandHandler());
+        setCommandHandler(CommandNames.MLST, new MlstCommandHandler());
         setCommandHandler(CommandNames.MODE, new ModeCommandHandler());
         setCommandHandler(CommandNames.NOOP, new NoopCommandHandler());
+        setCommandHandler(CommandNames.OPTS, new OptsCommandHandler());
         setCommandHandler(CommandNames.NLST, new NlstCommandHandler());
         setCommandHandler(CommandNames.PASS, new PassCommandHandler());
         setCommandHandler(CommandNames.PASV, new PasvCommandHandler());
@@ -22,7 +22,7 @@ import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.session.Session;
 
 /**
- * CommandHandler for the ABOR command. Return a reply code of 226.
+ * CommandHandler for the ABOR command. Abort the data transfer in progress, if any, and return a reply code of 226.
  *
  * <p>Each invocation record stored by this CommandHandler contains no data elements.
  *
@@ -38,6 +38,7 @@ public class AborCommandHandler extends AbstractStubCommandHandler implements Co
     }
 
     public void handleCommand(Command command, Session session, InvocationRecord invocationRecord) {
+        session.abortDataTransfer();
         sendReply(session);
     }
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.CommandHandlersAware;
+import org.mockftpserver.core.command.FeatureUtil;
+import org.mockftpserver.core.command.InvocationRecord;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CommandHandler for the FEAT (Feature) command (RFC 2389). Send back a multi-line reply with a reply code
+ * of 211, listing one feature (extension) per line. By default, the features listed are determined by the
+ * CommandHandlers registered with the server (see {@link FeatureUtil#getFeatures(java.util.Map)}), so extensions
+ * such as "MODE Z" and "REST STREAM", which the stub MODE and REST CommandHandlers do not implement, are not
+ * listed. You can customize the features by setting the <code>features</code> property.
+ * <p>
+ * Each invocation record stored by this CommandHandler contains no data elements.
+ */
+public class FeatCommandHandler extends AbstractStubCommandHandler implements CommandHandler, CommandHandlersAware {
+
+    private static final String END_OF_LINE = "\r\n";
+
+    private Map commandHandlers = Collections.EMPTY_MAP;
+    private List features;
+
+    /**
+     * Constructor. Initialize the replyCode and replyMessageKey.
+     */
+    public FeatCommandHandler() {
+        setReplyCode(ReplyCodes.FEAT_OK);
+        setReplyMessageKey("feat");
+    }
+
+    public void handleCommand(Command command, Session session, InvocationRecord invocationRecord) {
+        List featureLines = (features != null) ? features : FeatureUtil.getFeatures(commandHandlers);
+        sendReply(session, FeatureUtil.formatFeatures(featureLines, END_OF_LINE));
+    }
+
+    public void setCommandHandlers(Map commandHandlers) {
+        this.commandHandlers = commandHandlers;
+    }
+
+    /**
+     * Set the features to send back in the reply, one feature line (without the leading space) per element,
+     * for example "SIZE" or "REST STREAM"
+     *
+     * @param features - the features
+     */
+    public void setFeatures(Collection features) {
+        Assert.notNull(features, "features");
+        this.features = new ArrayList(features);
+    }
+
+}
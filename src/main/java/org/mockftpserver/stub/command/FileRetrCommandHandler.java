@@ -23,8 +23,12 @@ import org.mockftpserver.core.session.Session;
 import org.mockftpserver.core.util.Assert;
 import org.mockftpserver.core.util.AssertFailedException;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
 
 /**
  * CommandHandler for the RETR command. Returns the contents of the specified file on the
@@ -33,7 +37,8 @@ import java.io.InputStream;
  *
  * <p>The <code>file</code> property specifies the pathname for the file whose contents should
  * be returned from this command. The file path is relative to the CLASSPATH (using the
- * ClassLoader for this class).
+ * ClassLoader for this class). If the file is a file within the file system (rather than, say, an entry
+ * within a JAR), then its contents are sent using {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
  *
  * <p>An exception is thrown if the <code>file</code> property has not been set or if the specified
  * file does not exist or cannot be read.
@@ -48,7 +53,6 @@ import java.io.InputStream;
 public class FileRetrCommandHandler extends AbstractStubDataCommandHandler implements CommandHandler {
 
     public static final String PATHNAME_KEY = "pathname";
-    static final int BUFFER_SIZE = 512;     // package-private for testing
 
     private String file;
 
@@ -80,14 +84,16 @@ public class FileRetrCommandHandler extends AbstractStubDataCommandHandler imple
      * @see org.mockftpserver.stub.command.AbstractStubDataCommandHandler#processData(org.mockftpserver.core.command.Command, org.mockftpserver.core.session.Session, org.mockftpserver.core.command.InvocationRecord)
      */
     protected void processData(Command command, Session session, InvocationRecord invocationRecord) {
-        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(file);
-        Assert.notNull(inputStream, "InputStream for [" + file + "]");
-        byte[] buffer = new byte[BUFFER_SIZE];
+        URL url = getClass().getClassLoader().getResource(file);
+        Assert.notNull(url, "InputStream for [" + file + "]");
         try {
-            int numBytes;
-            while ((numBytes = inputStream.read(buffer)) != -1) {
-                LOG.trace("Sending " + numBytes + " bytes...");
-                session.sendData(buffer, numBytes);
+            InputStream inputStream = openStream(url);
+            try {
+                long numBytes = session.sendData(inputStream);
+                LOG.trace("Sent " + numBytes + " bytes");
+            }
+            finally {
+                inputStream.close();
             }
         }
         catch (IOException e) {
@@ -95,6 +101,22 @@ public class FileRetrCommandHandler extends AbstractStubDataCommandHandler imple
         }
     }
 
+    /**
+     * Open the resource at the URL; use a FileInputStream if it is a file within the file system, so that
+     * the Session can send its contents without copying them through the JVM
+     */
+    private InputStream openStream(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new FileInputStream(new File(url.toURI()));
+            }
+            catch (URISyntaxException e) {
+                LOG.debug("Unable to convert [" + url + "] to a File; reading it as a stream", e);
+            }
+        }
+        return url.openStream();
+    }
+
     /**
      * Set the path of the file whose contents should be returned when this command is
      * invoked. The path is relative to the CLASSPATH.
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.InvocationRecord;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.TimeValUtil;
+
+import java.util.Date;
+
+/**
+ * CommandHandler for the MDTM (File Modification Time) command. Send back a reply code of 213, along with
+ * the last modified time, as "YYYYMMDDHHMMSS" (UTC). By default, return the current time. You can customize
+ * the returned time by setting the <code>lastModified</code> property.
+ * <p>
+ * Each invocation record stored by this CommandHandler includes the following data element key/values:
+ * <ul>
+ * <li>{@link #PATHNAME_KEY} ("pathname") - the pathname of the file submitted on the invocation (the first command parameter)
+ * </ul>
+ */
+public class MdtmCommandHandler extends AbstractStubCommandHandler implements CommandHandler {
+
+    public static final String PATHNAME_KEY = "pathname";
+
+    private Date lastModified;
+
+    /**
+     * Constructor. Initialize the replyCode and replyMessageKey.
+     */
+    public MdtmCommandHandler() {
+        setReplyCode(ReplyCodes.MDTM_OK);
+        setReplyMessageKey("mdtm");
+    }
+
+    public void handleCommand(Command command, Session session, InvocationRecord invocationRecord) {
+        invocationRecord.set(PATHNAME_KEY, command.getRequiredParameter(0));
+        Date time = (lastModified == null) ? new Date() : lastModified;
+        sendReply(session, TimeValUtil.format(time));
+    }
+
+    /**
+     * Set the last modified time to be returned by this command
+     *
+     * @param lastModified - the last modified time; null to return the current time
+     */
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import org.mockftpserver.core.CommandSyntaxException;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.InvocationRecord;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.TimeValUtil;
+
+import java.util.Date;
+
+/**
+ * CommandHandler for the MFMT (Modify File Modification Time) command. The parameter is the new time, as
+ * "YYYYMMDDHHMMSS" (UTC), followed by a space and the pathname. Send back a reply code of 213, along with the
+ * time and pathname. If the parameter does not start with a valid time, send back a reply code of 501.
+ * <p>
+ * Each invocation record stored by this CommandHandler includes the following data element key/values:
+ * <ul>
+ * <li>{@link #PATHNAME_KEY} ("pathname") - the pathname of the file submitted on the invocation</li>
+ * <li>{@link #LAST_MODIFIED_KEY} ("lastModified") - the new last modified time submitted on the invocation, as a Date</li>
+ * </ul>
+ */
+public class MfmtCommandHandler extends AbstractStubCommandHandler implements CommandHandler {
+
+    public static final String PATHNAME_KEY = "pathname";
+    public static final String LAST_MODIFIED_KEY = "lastModified";
+
+    /**
+     * Constructor. Initialize the replyCode and replyMessageKey.
+     */
+    public MfmtCommandHandler() {
+        setReplyCode(ReplyCodes.MFMT_OK);
+        setReplyMessageKey("mfmt");
+    }
+
+    public void handleCommand(Command command, Session session, InvocationRecord invocationRecord) {
+        String parameter = command.getRequiredParameter(0);
+        int indexOfSpace = parameter.indexOf(' ');
+        Date lastModified = (indexOfSpace == -1) ? null : TimeValUtil.parse(parameter.substring(0, indexOfSpace));
+        if (lastModified == null) {
+            throw new CommandSyntaxException("Invalid MFMT parameter [" + parameter + "]");
+        }
+        String pathname = parameter.substring(indexOfSpace + 1);
+        invocationRecord.set(PATHNAME_KEY, pathname);
+        invocationRecord.set(LAST_MODIFIED_KEY, lastModified);
+        sendReply(session, replyCode, replyMessageKey, replyText,
+                new Object[]{TimeValUtil.format(lastModified), pathname});
+    }
+
+}
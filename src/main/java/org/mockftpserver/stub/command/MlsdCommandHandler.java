@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.InvocationRecord;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CommandHandler for the MLSD (machine-readable directory listing) command (RFC 3659). Return the configured
+ * directory listing on the data connection, along with two replies on the control connection: a reply code
+ * of 150 and another of 226. By default, return an empty directory listing. You can customize the returned
+ * directory listing by setting the <code>directoryListing</code> property, for instance to
+ * "type=file;size=123;modify=20260315143005; file.txt\r\n". The directory listing is sent as UTF-8.
+ * <p>
+ * Each invocation record stored by this CommandHandler includes the following data element key/values:
+ * <ul>
+ * <li>{@link #PATHNAME_KEY} ("pathname") - the pathname of the directory submitted on the invocation
+ * (the first command parameter); this parameter is optional, so the value may be null.
+ * </ul>
+ */
+public class MlsdCommandHandler extends AbstractStubDataCommandHandler implements CommandHandler {
+
+    public static final String PATHNAME_KEY = "pathname";
+
+    private byte[] directoryListing = new byte[0];
+
+    protected void beforeProcessData(Command command, Session session, InvocationRecord invocationRecord) throws Exception {
+        invocationRecord.set(PATHNAME_KEY, command.getOptionalString(0));
+    }
+
+    protected void processData(Command command, Session session, InvocationRecord invocationRecord) {
+        session.sendData(directoryListing, directoryListing.length);
+    }
+
+    /**
+     * Set the contents of the directoryListing to send back on the data connection for this command
+     *
+     * @param directoryListing - the directoryListing to set
+     * @throws org.mockftpserver.core.util.AssertFailedException - if directoryListing is null
+     */
+    public void setDirectoryListing(String directoryListing) {
+        Assert.notNull(directoryListing, "directoryListing");
+        this.directoryListing = directoryListing.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.InvocationRecord;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.core.util.Assert;
+
+/**
+ * CommandHandler for the MLST (machine-readable listing of a single file or directory) command (RFC 3659).
+ * Send back a multi-line reply with a reply code of 250, listing the configured facts followed by the pathname.
+ * By default, the facts are "type=file;". You can customize the facts by setting the <code>facts</code> property,
+ * for instance to "type=file;size=123;modify=20260315143005;".
+ * <p>
+ * Each invocation record stored by this CommandHandler includes the following data element key/values:
+ * <ul>
+ * <li>{@link #PATHNAME_KEY} ("pathname") - the pathname of the file or directory submitted on the invocation
+ * (the first command parameter); this parameter is optional, so the value may be null.
+ * </ul>
+ */
+public class MlstCommandHandler extends AbstractStubCommandHandler implements CommandHandler {
+
+    public static final String PATHNAME_KEY = "pathname";
+
+    private static final String END_OF_LINE = "\r\n";
+    private static final String CURRENT_DIRECTORY = ".";
+
+    private String facts = "type=file;";
+
+    /**
+     * Constructor. Initialize the replyCode and replyMessageKey.
+     */
+    public MlstCommandHandler() {
+        setReplyCode(ReplyCodes.MLST_OK);
+        setReplyMessageKey("mlst");
+    }
+
+    public void handleCommand(Command command, Session session, InvocationRecord invocationRecord) {
+        String pathname = command.getOptionalString(0);
+        invocationRecord.set(PATHNAME_KEY, pathname);
+        String listedPathname = (pathname != null) ? pathname : CURRENT_DIRECTORY;
+        sendReply(session, replyCode, replyMessageKey, replyText,
+                new Object[]{listedPathname, END_OF_LINE + " " + facts + " " + listedPathname + END_OF_LINE});
+    }
+
+    /**
+     * Set the facts to send back in the reply, each fact followed by ";"
+     *
+     * @param facts - the facts
+     * @throws org.mockftpserver.core.util.AssertFailedException - if facts is null
+     */
+    public void setFacts(String facts) {
+        Assert.notNull(facts, "facts");
+        this.facts = facts;
+    }
+
+}
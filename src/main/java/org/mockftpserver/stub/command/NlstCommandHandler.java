@@ -51,7 +51,8 @@ public class NlstCommandHandler extends AbstractStubDataCommandHandler implement
      * @see org.mockftpserver.stub.command.AbstractStubDataCommandHandler#processData(org.mockftpserver.core.command.Command, org.mockftpserver.core.session.Session, org.mockftpserver.core.command.InvocationRecord)
      */
     protected void processData(Command command, Session session, InvocationRecord invocationRecord) {
-        session.sendData(directoryListing.getBytes(), directoryListing.length());
+        byte[] bytes = directoryListing.getBytes();
+        session.sendData(bytes, bytes.length);
     }
 
     /**
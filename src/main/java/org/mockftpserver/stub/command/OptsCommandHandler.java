@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.InvocationRecord;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.session.Session;
+
+/**
+ * CommandHandler for the OPTS (Options) command (RFC 2389). Send back a reply code of 200.
+ * <p>
+ * Each invocation record stored by this CommandHandler includes the following data element key/values:
+ * <ul>
+ * <li>{@link #OPTION_KEY} ("option") - the option (command name, optionally followed by the option values)
+ * submitted on the invocation (the first command parameter)</li>
+ * </ul>
+ */
+public class OptsCommandHandler extends AbstractStubCommandHandler implements CommandHandler {
+
+    public static final String OPTION_KEY = "option";
+
+    /**
+     * Constructor. Initialize the replyCode and replyMessageKey.
+     */
+    public OptsCommandHandler() {
+        setReplyCode(ReplyCodes.OPTS_OK);
+        setReplyMessageKey("opts");
+    }
+
+    public void handleCommand(Command command, Session session, InvocationRecord invocationRecord) {
+        invocationRecord.set(OPTION_KEY, command.getRequiredParameter(0));
+        sendReply(session);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+import java.util.concurrent.CountDownLatch
+
+/**
+ * Tests for DelayingWriter
+ */
+class DelayingWriterTest extends AbstractGroovyTestCase {
+
+    private StringWriter out = new StringWriter()
+    private FaultInjector faultInjector = new FaultInjector()
+    private DelayingWriter writer = new DelayingWriter(out, faultInjector.timer, faultInjector.writerPool)
+
+    @Test
+    void testNoDelay_WrittenOnFlush() {
+        writer.write('abc')
+        assert out.toString() == ''
+        writer.flush()
+        assert out.toString() == 'abc'
+    }
+
+    @Test
+    void testDelay_HeldWithoutBlocking_AndWrittenInOrder() {
+        writer.delayNextFlush(200)
+        writer.write('first;')
+        long start = System.currentTimeMillis()
+        writer.flush()
+        writer.write('second;')
+        writer.flush()
+        assert System.currentTimeMillis() - start < 150
+        assert out.toString() == ''
+
+        waitUntil { out.toString() == 'first;second;' }
+        assert System.currentTimeMillis() - start >= 190
+    }
+
+    @Test
+    void testDelays_AreNotShortenedByLaterShorterDelays() {
+        writer.delayNextFlush(200)
+        writer.write('first;')
+        writer.flush()
+        writer.delayNextFlush(10)
+        writer.write('second;')
+        writer.flush()
+
+        Thread.sleep(100)
+        assert out.toString() == ''
+        waitUntil { out.toString() == 'first;second;' }
+    }
+
+    @Test
+    void testClose_WritesHeldText() {
+        writer.delayNextFlush(10000)
+        writer.write('held')
+        writer.flush()
+        writer.close()
+        assert out.toString() == 'held'
+    }
+
+    @Test
+    void testDelay_SlowConnectionDoesNotDelayOtherWriters() {
+        def blocked = new CountDownLatch(1)
+        def blockingOut = new StringWriter() {
+            void write(String text) {
+                blocked.await()
+                super.write(text)
+            }
+        }
+        def blockingWriter = new DelayingWriter(blockingOut, faultInjector.timer, faultInjector.writerPool)
+        try {
+            blockingWriter.delayNextFlush(10)
+            blockingWriter.write('blocked')
+            blockingWriter.flush()
+            Thread.sleep(50)
+
+            writer.delayNextFlush(10)
+            writer.write('other')
+            writer.flush()
+            waitUntil { out.toString() == 'other' }
+        }
+        finally {
+            blocked.countDown()
+        }
+        waitUntil { blockingOut.toString() == 'blocked' }
+    }
+
+    private void waitUntil(Closure condition) {
+        long end = System.currentTimeMillis() + 5000
+        while (!condition() && System.currentTimeMillis() < end) {
+            Thread.sleep(10)
+        }
+        assert condition()
+    }
+
+}
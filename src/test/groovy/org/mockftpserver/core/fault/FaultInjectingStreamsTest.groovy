@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for FaultInjectingOutputStream and FaultInjectingInputStream
+ */
+class FaultInjectingStreamsTest extends AbstractGroovyTestCase {
+
+    private static final byte[] DATA = ('0123456789' * 10).bytes
+
+    private Socket socket = new Socket()
+    private ByteArrayOutputStream out = new ByteArrayOutputStream()
+
+    @Test
+    void testOutputStream_NoFaults() {
+        def stream = new FaultInjectingOutputStream(out, socket, new FaultRule())
+        stream.write(DATA)
+        stream.write(65)
+        assert out.toByteArray() == (DATA.toList() + [65 as byte]) as byte[]
+    }
+
+    @Test
+    void testOutputStream_FirstByteDelayAndStall() {
+        def rule = new FaultRule(firstByteDelayMillis: 100, stallAfterBytes: 50, stallMillis: 100)
+        def stream = new FaultInjectingOutputStream(out, socket, rule)
+        long start = System.currentTimeMillis()
+        stream.write(DATA)
+        assert System.currentTimeMillis() - start >= 190
+        assert out.toByteArray() == DATA
+    }
+
+    @Test
+    void testOutputStream_Truncate() {
+        def stream = new FaultInjectingOutputStream(out, socket, new FaultRule(truncateAfterBytes: 25))
+        stream.write(DATA, 0, 20)
+        stream.write(DATA, 20, 80)
+        stream.write(1)
+        assert out.toByteArray() == DATA[0..24] as byte[]
+    }
+
+    @Test
+    void testOutputStream_Reset() {
+        def stream = new FaultInjectingOutputStream(out, socket, new FaultRule(resetAfterBytes: 30))
+        shouldFail(SocketException) { stream.write(DATA) }
+        assert out.toByteArray() == DATA[0..29] as byte[]
+        assert socket.closed
+    }
+
+    @Test
+    void testInputStream_NoFaults() {
+        def stream = new FaultInjectingInputStream(new ByteArrayInputStream(DATA), socket, new FaultRule())
+        assert stream.bytes == DATA
+    }
+
+    @Test
+    void testInputStream_SingleBytes() {
+        def stream = new FaultInjectingInputStream(new ByteArrayInputStream(DATA), socket, new FaultRule(truncateAfterBytes: 3))
+        assert stream.read() == (DATA[0] & 0xFF)
+        assert stream.read() == (DATA[1] & 0xFF)
+        assert stream.read() == (DATA[2] & 0xFF)
+        assert stream.read() == -1
+    }
+
+    @Test
+    void testInputStream_Truncate() {
+        def stream = new FaultInjectingInputStream(new ByteArrayInputStream(DATA), socket, new FaultRule(truncateAfterBytes: 42))
+        assert stream.bytes == DATA[0..41] as byte[]
+        assert stream.read() == -1
+    }
+
+    @Test
+    void testInputStream_StallThenReset() {
+        def rule = new FaultRule(stallAfterBytes: 10, stallMillis: 100, resetAfterBytes: 60)
+        def stream = new FaultInjectingInputStream(new ByteArrayInputStream(DATA), socket, rule)
+        def buffer = new byte[100]
+        long start = System.currentTimeMillis()
+        assert stream.read(buffer) == 10
+        int total = 10
+        shouldFail(SocketException) {
+            while (true) {
+                total += stream.read(buffer)
+            }
+        }
+        assert total == 60
+        assert System.currentTimeMillis() - start >= 90
+        assert socket.closed
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.fault
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for FaultRule and FaultInjector
+ */
+class FaultRuleTest extends AbstractGroovyTestCase {
+
+    private static final Command RETR_ZIP = new Command('RETR', ['dir/file.zip'])
+    private static final Command RETR_TXT = new Command('RETR', ['file.txt'])
+    private static final Command PWD = new Command('PWD', [])
+
+    @Test
+    void testMatches_NoCriteria() {
+        def rule = new FaultRule()
+        assert rule.matches(RETR_ZIP, null)
+        assert rule.matches(PWD, 'joe')
+        assert !rule.hasDataFaults()
+    }
+
+    @Test
+    void testMatches_CommandName() {
+        def rule = new FaultRule(commandName: 'retr')
+        assert rule.matches(RETR_ZIP, null)
+        assert !rule.matches(PWD, null)
+    }
+
+    @Test
+    void testMatches_PathPattern() {
+        def rule = new FaultRule(pathPattern: '*.zip')
+        assert rule.matches(RETR_ZIP, null)
+        assert !rule.matches(RETR_TXT, null)
+        assert !rule.matches(PWD, null)
+
+        rule.pathPattern = 'file.???'
+        assert rule.matches(RETR_TXT, null)
+    }
+
+    @Test
+    void testMatches_Username() {
+        def rule = new FaultRule(username: 'joe')
+        assert rule.matches(PWD, 'joe')
+        assert !rule.matches(PWD, 'bob')
+        assert !rule.matches(PWD, null)
+    }
+
+    @Test
+    void testMatches_Probability() {
+        assert !new FaultRule(probability: 0.0).matches(PWD, null)
+        assert new FaultRule(probability: 1.0).matches(PWD, null)
+
+        def rule = new FaultRule(probability: 0.5)
+        def numMatches = (1..1000).count { rule.matches(PWD, null) }
+        assert numMatches > 350 && numMatches < 650
+    }
+
+    @Test
+    void testHasDataFaults() {
+        assert new FaultRule(firstByteDelayMillis: 10).hasDataFaults()
+        assert new FaultRule(stallAfterBytes: 100, stallMillis: 10).hasDataFaults()
+        assert !new FaultRule(stallAfterBytes: 100).hasDataFaults()
+        assert new FaultRule(resetAfterBytes: 0).hasDataFaults()
+        assert new FaultRule(truncateAfterBytes: 100).hasDataFaults()
+        assert !new FaultRule(replyDelayMillis: 100).hasDataFaults()
+    }
+
+    @Test
+    void testSetters_InvalidValues() {
+        def rule = new FaultRule()
+        shouldFail(AssertFailedException) { rule.probability = 1.5 }
+        shouldFail(AssertFailedException) { rule.replyDelayMillis = -1 }
+        shouldFail(AssertFailedException) { rule.resetAfterBytes = -2 }
+        rule.resetAfterBytes = FaultRule.NONE
+    }
+
+    @Test
+    void testFaultInjector_SelectRule() {
+        def injector = new FaultInjector()
+        assert injector.selectRule(RETR_ZIP, null) == null
+
+        def zipRule = new FaultRule(pathPattern: '*.zip')
+        def retrRule = new FaultRule(commandName: 'RETR')
+        injector.addRule(zipRule)
+        injector.addRule(retrRule)
+        assert injector.selectRule(RETR_ZIP, null).is(zipRule)
+        assert injector.selectRule(RETR_TXT, null).is(retrRule)
+        assert injector.selectRule(PWD, null) == null
+
+        injector.removeRule(zipRule)
+        assert injector.rules == [retrRule]
+        injector.rules = []
+        assert injector.selectRule(RETR_ZIP, null) == null
+        assert injector.timer.is(new FaultInjector().timer)
+        assert injector.writerPool.is(new FaultInjector().writerPool)
+    }
+
+    @Test
+    void testFaultInjector_SetRules_SelectRuleNeverSeesNoRules() {
+        def injector = new FaultInjector()
+        def rule = new FaultRule(commandName: 'RETR')
+        injector.rules = [rule]
+        def done = false
+        def thread = Thread.start {
+            while (!done) {
+                injector.rules = [rule]
+            }
+        }
+        try {
+            10000.times { assert injector.selectRule(RETR_TXT, null).is(rule) }
+        }
+        finally {
+            done = true
+            thread.join()
+        }
+    }
+
+}
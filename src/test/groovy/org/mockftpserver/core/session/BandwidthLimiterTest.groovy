@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.session
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for BandwidthLimiter
+ */
+class BandwidthLimiterTest extends AbstractGroovyTestCase {
+
+    private static final long SECOND = 1000000000L
+
+    private ManualClockBandwidthLimiter limiter = new ManualClockBandwidthLimiter()
+
+    @Test
+    void testUnlimited() {
+        assert !limiter.limited
+        assert limiter.bytesPerSecond == 0
+        assert limiter.burstSize == Long.MAX_VALUE
+        assert limiter.reserve(Long.MAX_VALUE) == 0
+    }
+
+    @Test
+    void testReserve_WithinBurst() {
+        limiter.bytesPerSecond = 1000
+        assert limiter.limited
+        assert limiter.burstSize == 100
+        assert limiter.reserve(60) == 0
+        assert limiter.reserve(40) == 0
+        assert limiter.reserve(10) == SECOND / 100
+    }
+
+    @Test
+    void testReserve_DebtAccumulates() {
+        limiter.bytesPerSecond = 1000
+        assert limiter.reserve(600) == SECOND / 2
+        assert limiter.reserve(500) == SECOND
+    }
+
+    @Test
+    void testReserve_Refill() {
+        limiter.bytesPerSecond = 1000
+        assert limiter.reserve(1100) == SECOND
+        limiter.now += SECOND
+        assert limiter.reserve(0) == 0
+
+        // The bucket holds no more than the burst size, however long it is idle
+        limiter.now += 10 * SECOND
+        assert limiter.reserve(200) == SECOND / 10
+    }
+
+    @Test
+    void testSetBytesPerSecond_ResetsDebt() {
+        limiter.bytesPerSecond = 1000
+        assert limiter.reserve(10100) == 10 * SECOND
+        limiter.bytesPerSecond = 2000
+        assert limiter.reserve(200) == 0
+        limiter.bytesPerSecond = 0
+        assert limiter.reserve(1000000) == 0
+    }
+
+    @Test
+    void testSmallRate_BurstSizeIsAtLeastOneByte() {
+        limiter.bytesPerSecond = 5
+        assert limiter.burstSize == 1
+    }
+
+    @Test
+    void testSetBytesPerSecond_Negative() {
+        shouldFail(AssertFailedException) { limiter.bytesPerSecond = -1 }
+    }
+
+    private static class ManualClockBandwidthLimiter extends BandwidthLimiter {
+        long now
+
+        long currentTimeNanos() {
+            return now
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.session
+
+/**
+ * Test-only Session that implements only the abstract methods of the Session interface, as a Session
+ * implementation written for an earlier version of the interface would, so that the default methods are used.
+ * The attributes are held in a Map.
+ */
+class MinimalSession implements Session {
+
+    Map attributes = [:]
+    ByteArrayOutputStream sentBytes = new ByteArrayOutputStream()
+    InputStream dataToRead = new ByteArrayInputStream(new byte[0])
+
+    void close() { throw new UnsupportedOperationException() }
+
+    boolean isClosed() { false }
+
+    void sendReply(int replyCode, String replyText) { throw new UnsupportedOperationException() }
+
+    void openDataConnection() { throw new UnsupportedOperationException() }
+
+    void closeDataConnection() { throw new UnsupportedOperationException() }
+
+    int switchToPassiveMode() { throw new UnsupportedOperationException() }
+
+    void sendData(byte[] data, int numBytes) { sentBytes.write(data, 0, numBytes) }
+
+    byte[] readData() { throw new UnsupportedOperationException() }
+
+    byte[] readData(int numBytes) {
+        def bytes = new byte[numBytes]
+        int length = Math.max(dataToRead.read(bytes), 0)
+        Arrays.copyOf(bytes, length)
+    }
+
+    InetAddress getClientHost() { throw new UnsupportedOperationException() }
+
+    InetAddress getServerHost() { throw new UnsupportedOperationException() }
+
+    void setClientDataHost(InetAddress clientHost) { throw new UnsupportedOperationException() }
+
+    void setClientDataPort(int clientDataPort) { throw new UnsupportedOperationException() }
+
+    Object getAttribute(String name) { attributes[name] }
+
+    void setAttribute(String name, Object value) { attributes[name] = value }
+
+    void removeAttribute(String name) { attributes.remove(name) }
+
+    Set getAttributeNames() { attributes.keySet() }
+
+    void run() { }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.session
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for SessionState
+ */
+class SessionStateTest extends AbstractGroovyTestCase {
+
+    private SessionState state = new SessionState()
+
+    @Test
+    void testStandardAttributes_SharedWithTypedAccessors() {
+        state.setAttribute(SessionKeys.CURRENT_DIRECTORY, '/dir')
+        assert state.currentDirectory == '/dir'
+
+        state.username = 'joe'
+        state.renameFrom = '/from'
+        state.accountName = 'acct'
+        state.asciiType = Boolean.FALSE
+        state.userAccount = 'account'
+        state.restartMarker = 123L
+        def bandwidthLimiter = new BandwidthLimiter(1000)
+        state.userBandwidthLimiter = bandwidthLimiter
+        state.hashAlgorithm = 'MD5'
+        state.utf8 = Boolean.TRUE
+        state.mlstFacts = 'type;size;'
+        assert state.getAttribute(SessionKeys.USERNAME) == 'joe'
+        assert state.getAttribute(SessionKeys.RENAME_FROM) == '/from'
+        assert state.getAttribute(SessionKeys.ACCOUNT_NAME) == 'acct'
+        assert state.getAttribute(SessionKeys.ASCII_TYPE) == Boolean.FALSE
+        assert state.getAttribute(SessionKeys.USER_ACCOUNT) == 'account'
+        assert state.getAttribute(SessionKeys.RESTART_MARKER) == 123L
+        assert state.getAttribute(SessionKeys.USER_BANDWIDTH_LIMITER).is(bandwidthLimiter)
+        assert state.getAttribute(SessionKeys.HASH_ALGORITHM) == 'MD5'
+        assert state.getAttribute(SessionKeys.UTF8) == Boolean.TRUE
+        assert state.getAttribute(SessionKeys.MLST_FACTS) == 'type;size;'
+
+        state.removeAttribute(SessionKeys.RENAME_FROM)
+        assert state.renameFrom == null
+    }
+
+    @Test
+    void testStandardAttribute_WrongType() {
+        shouldFail(ClassCastException) { state.setAttribute(SessionKeys.CURRENT_DIRECTORY, 123) }
+    }
+
+    @Test
+    void testCustomAttributes() {
+        state.setAttribute('abc', 123)
+        assert state.getAttribute('abc') == 123
+        state.setAttribute('abc', null)
+        assert state.getAttribute('abc') == null
+        state.removeAttribute('noSuchName')
+    }
+
+    @Test
+    void testGetAttributeNames() {
+        assert state.attributeNames.isEmpty()
+        state.setAttribute('abc', 123)
+        state.currentDirectory = '/dir'
+        assert state.attributeNames == ['abc', SessionKeys.CURRENT_DIRECTORY] as Set
+
+        def names = state.attributeNames
+        state.username = 'joe'
+        assert names.size() == 2
+    }
+
+    @Test
+    void testNullName() {
+        shouldFail(AssertFailedException) { state.getAttribute(null) }
+        shouldFail(AssertFailedException) { state.setAttribute(null, 'abc') }
+        shouldFail(AssertFailedException) { state.removeAttribute(null) }
+    }
+
+}
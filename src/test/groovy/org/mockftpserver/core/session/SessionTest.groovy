@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.session
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for the default methods of the Session interface, used by Session implementations that do not
+ * implement them
+ */
+class SessionTest extends AbstractGroovyTestCase {
+
+    private MinimalSession session = new MinimalSession()
+
+    @Test
+    void testGetState_ReadsAndWritesTheSessionAttributes() {
+        session.setAttribute(SessionKeys.CURRENT_DIRECTORY, '/dir')
+        def state = session.state
+        assert state.currentDirectory == '/dir'
+        assert state.getAttribute(SessionKeys.CURRENT_DIRECTORY) == '/dir'
+
+        state.username = 'joe'
+        state.restartMarker = 123L
+        state.utf8 = Boolean.TRUE
+        assert session.getAttribute(SessionKeys.USERNAME) == 'joe'
+        assert session.getAttribute(SessionKeys.RESTART_MARKER) == 123L
+        assert session.state.utf8 == Boolean.TRUE
+
+        state.restartMarker = null
+        state.removeAttribute(SessionKeys.USERNAME)
+        state.setAttribute('custom', 'abc')
+        assert session.attributes == [(SessionKeys.CURRENT_DIRECTORY): '/dir', (SessionKeys.UTF8): Boolean.TRUE, custom: 'abc']
+        assert state.attributeNames == [SessionKeys.CURRENT_DIRECTORY, SessionKeys.UTF8, 'custom'] as Set
+    }
+
+    @Test
+    void testSendData_InputStream_SendsChunks() {
+        def data = new byte[20000]
+        new Random(1).nextBytes(data)
+        assert session.sendData(new ByteArrayInputStream(data)) == data.length
+        assert session.sentBytes.toByteArray() == data
+    }
+
+    @Test
+    void testReadData_OutputStream_ReadsUntilTheEnd() {
+        def data = new byte[20000]
+        new Random(2).nextBytes(data)
+        session.dataToRead = new ByteArrayInputStream(data)
+        def output = new ByteArrayOutputStream()
+        assert session.readData(output) == data.length
+        assert output.toByteArray() == data
+    }
+
+    @Test
+    void testReadData_OutputStream_NoData() {
+        def output = new ByteArrayOutputStream()
+        assert session.readData(output) == 0
+        assert output.size() == 0
+    }
+
+    @Test
+    void testAbortDataTransferAndGetBytesTransferred_NotSupported() {
+        assert !session.abortDataTransfer()
+        assert session.bytesTransferred == -1
+    }
+
+    @Test
+    void testGetState_NullName() {
+        shouldFail(AssertFailedException) { session.state.getAttribute(null) }
+        shouldFail(AssertFailedException) { session.state.setAttribute(null, 'abc') }
+    }
+
+}
@@ -22,9 +22,13 @@ package org.mockftpserver.core.session
  */
 class StubSession implements Session {
 
-    Map attributes = [:]
+    SessionState state = new SessionState()
     private List sentReplies = []
     List sentData = []
+    List sentDataBytes = []     // the bytes sent from each InputStream
+    Exception sendDataException     // if set, thrown by sendData(InputStream)
+    long bytesTransferred = -1      // returned by getBytesTransferred()
+    boolean dataTransferAborted
     //byte[] dataToRead
     Object dataToRead
     boolean closed
@@ -53,14 +57,14 @@ class StubSession implements Session {
      * @see org.mockftpserver.core.session.Session#getAttribute(java.lang.String)
      */
     public Object getAttribute(String name) {
-        return attributes[name]
+        return state.getAttribute(name)
     }
 
     /**
      * @see org.mockftpserver.core.session.Session#getAttributeNames()
      */
     public Set getAttributeNames() {
-        return attributes.keySet()
+        return state.getAttributeNames()
     }
 
     /**
@@ -100,11 +104,21 @@ class StubSession implements Session {
         return dataToRead
     }
 
+    /**
+     * @see org.mockftpserver.core.session.Session#readData(java.io.OutputStream)
+     */
+    public long readData(OutputStream output) {
+        assert dataConnectionOpen, "The data connection must be OPEN"
+        byte[] bytes = dataToRead ?: new byte[0]
+        output.write(bytes)
+        return bytes.length
+    }
+
     /**
      * @see org.mockftpserver.core.session.Session#removeAttribute(java.lang.String)
      */
     public void removeAttribute(String name) {
-        attributes.remove(name)
+        state.removeAttribute(name)
     }
 
     /**
@@ -115,6 +129,20 @@ class StubSession implements Session {
         sentData << new String(data, 0, numBytes)
     }
 
+    /**
+     * @see org.mockftpserver.core.session.Session#sendData(java.io.InputStream)
+     */
+    public long sendData(InputStream input) {
+        assert dataConnectionOpen, "The data connection must be OPEN"
+        if (sendDataException) {
+            throw sendDataException
+        }
+        byte[] bytes = input.bytes
+        sentData << new String(bytes)
+        sentDataBytes << bytes
+        return bytes.length
+    }
+
     /**
      * @see org.mockftpserver.core.session.Session#sendReply(int, java.lang.String)
      */
@@ -126,7 +154,7 @@ class StubSession implements Session {
      * @see org.mockftpserver.core.session.Session#setAttribute(java.lang.String, java.lang.Object)
      */
     public void setAttribute(String name, Object value) {
-        attributes[name] = value
+        state.setAttribute(name, value)
     }
 
     /**
@@ -137,6 +165,21 @@ class StubSession implements Session {
         return switchToPassiveModeReturnValue
     }
 
+    /**
+     * @see org.mockftpserver.core.session.Session#abortDataTransfer()
+     */
+    public boolean abortDataTransfer() {
+        dataTransferAborted = bytesTransferred >= 0
+        return dataTransferAborted
+    }
+
+    /**
+     * @see org.mockftpserver.core.session.Session#getBytesTransferred()
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred
+    }
+
     /**
      * @see java.lang.Runnable#run()
      */
@@ -166,7 +209,7 @@ class StubSession implements Session {
      * @return the String representation of this object, including property names and values of interest
      */
     String toString() {
-        "StubSession[sentReplies=$sentReplies  sentData=$sentData  attributes=$attributes  closed=$closed  " +
+        "StubSession[sentReplies=$sentReplies  sentData=$sentData  state=$state  closed=$closed  " +
                 "clientDataHost=$clientDataHost  clientDataPort=$clientDataPort]"
     }
 
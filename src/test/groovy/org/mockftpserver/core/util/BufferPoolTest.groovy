@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.util
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for BufferPool
+ */
+class BufferPoolTest extends AbstractGroovyTestCase {
+
+    private BufferPool bufferPool = new BufferPool()
+
+    @Test
+    void testAcquire_RoundsUpToSizeClass() {
+        assert bufferPool.acquire(1).length == BufferPool.MIN_BUFFER_SIZE
+        assert bufferPool.acquire(BufferPool.MIN_BUFFER_SIZE).length == BufferPool.MIN_BUFFER_SIZE
+        assert bufferPool.acquire(BufferPool.MIN_BUFFER_SIZE + 1).length == BufferPool.MIN_BUFFER_SIZE * 2
+        assert bufferPool.acquire(64 * 1024).length == 64 * 1024
+        assert bufferPool.acquire(BufferPool.MAX_BUFFER_SIZE).length == BufferPool.MAX_BUFFER_SIZE
+    }
+
+    @Test
+    void testAcquire_LargerThanMaxBufferSize_NotPooled() {
+        def buffer = bufferPool.acquire(BufferPool.MAX_BUFFER_SIZE + 1)
+        assert buffer.length == BufferPool.MAX_BUFFER_SIZE + 1
+        bufferPool.release(buffer)
+        assert bufferPool.idleBufferCount == 0
+    }
+
+    @Test
+    void testRelease_BufferIsReused() {
+        def buffer = bufferPool.acquire(10000)
+        bufferPool.release(buffer)
+        assert bufferPool.idleBufferCount == 1
+        assert bufferPool.acquire(9000).is(buffer)
+        assert bufferPool.idleBufferCount == 0
+        assert !bufferPool.acquire(9000).is(buffer)
+    }
+
+    @Test
+    void testRelease_OnlyReusedForSameSizeClass() {
+        def buffer = bufferPool.acquire(10000)
+        bufferPool.release(buffer)
+        assert !bufferPool.acquire(100).is(buffer)
+        assert !bufferPool.acquire(20000).is(buffer)
+    }
+
+    @Test
+    void testRelease_NotPooledBuffers() {
+        bufferPool.release(null)
+        bufferPool.release(new byte[100])
+        bufferPool.release(new byte[5000])
+        assert bufferPool.idleBufferCount == 0
+    }
+
+    @Test
+    void testRelease_IdleBuffersAreBounded() {
+        bufferPool = new BufferPool(BufferPool.MIN_BUFFER_SIZE * 2)
+        def buffers = (1..3).collect { bufferPool.acquire(1) }
+        buffers.each { bufferPool.release(it) }
+        assert bufferPool.idleBufferCount == 2
+
+        // Always keep at least one idle buffer of each size class
+        bufferPool.release(bufferPool.acquire(BufferPool.MAX_BUFFER_SIZE))
+        assert bufferPool.idleBufferCount == 3
+    }
+
+    @Test
+    void testAcquire_InvalidSize() {
+        shouldFail(AssertFailedException) { bufferPool.acquire(0) }
+    }
+
+    @Test
+    void testConstructor_NegativeMaxBytes() {
+        shouldFail(AssertFailedException) { new BufferPool(-1) }
+    }
+
+    @Test
+    void testGetSharedInstance() {
+        assert BufferPool.getSharedInstance().is(BufferPool.getSharedInstance())
+    }
+
+}
@@ -32,6 +32,14 @@ class IoUtilTest extends AbstractGroovyTestCase {
         assert IoUtil.readBytes(input) == BYTES
     }
 
+    @Test
+    void testReadBytes_LargerThanBuffer() {
+        final byte[] BYTES = new byte[20000]
+        new Random(1).nextBytes(BYTES)
+        def input = new ByteArrayInputStream(BYTES)
+        assert IoUtil.readBytes(input) == BYTES
+    }
+
     @Test
     void testReadBytes_Null() {
         shouldFailWithMessageContaining("input") { IoUtil.readBytes(null) }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.util
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for LfToCrLfInputStream and CrLfToLfOutputStream
+ */
+class LineEndingStreamsTest extends AbstractGroovyTestCase {
+
+    @Test
+    void testLfToCrLfInputStream() {
+        assert toCrLf('abc') == 'abc'
+        assert toCrLf('abc\r\ndef') == 'abc\r\ndef'
+        assert toCrLf('abc\ndef') == 'abc\r\ndef'
+        assert toCrLf('abc\ndef\nghi') == 'abc\r\ndef\r\nghi'
+        assert toCrLf('\n') == '\r\n'
+        assert toCrLf('\n\n') == '\r\n\r\n'
+        assert toCrLf('\r\nabc\n') == '\r\nabc\r\n'
+        assert toCrLf('') == ''
+    }
+
+    @Test
+    void testLfToCrLfInputStream_SmallReads() {
+        def input = new LfToCrLfInputStream(new ByteArrayInputStream('a\nb\r\n'.bytes))
+        def buffer = new byte[1]
+        def out = new ByteArrayOutputStream()
+        int numBytes
+        while ((numBytes = input.read(buffer, 0, 1)) != -1) {
+            assert numBytes == 1
+            out.write(buffer, 0, numBytes)
+        }
+        assert out.toString() == 'a\r\nb\r\n'
+        assert input.read() == -1
+    }
+
+    @Test
+    void testLfToCrLfInputStream_CrLfSplitAcrossUnderlyingReads() {
+        def text = ('x' * (8 * 1024 - 1)) + '\r\n' + 'y\n'
+        def input = new LfToCrLfInputStream(new OneChunkAtATimeInputStream(text.bytes, 8 * 1024))
+        assert input.text == ('x' * (8 * 1024 - 1)) + '\r\ny\r\n'
+    }
+
+    @Test
+    void testLfToCrLfInputStream_ReadAfterClose() {
+        def input = new LfToCrLfInputStream(new ByteArrayInputStream('abc'.bytes))
+        input.close()
+        input.close()
+        shouldFail(IOException) { input.read() }
+    }
+
+    @Test
+    void testCrLfToLfOutputStream() {
+        assert toLf('abc') == 'abc'
+        assert toLf('abc\r\ndef') == 'abc\ndef'
+        assert toLf('abc\ndef') == 'abc\ndef'
+        assert toLf('a\rb') == 'a\rb'
+        assert toLf('\r\n\r\n') == '\n\n'
+        assert toLf('abc\r') == 'abc\r'
+        assert toLf('\r\r\n') == '\r\n'
+    }
+
+    @Test
+    void testCrLfToLfOutputStream_CrLfSplitAcrossWrites() {
+        def bytes = new ByteArrayOutputStream()
+        def out = new CrLfToLfOutputStream(bytes)
+        out.write('abc\r'.bytes)
+        assert bytes.toString() == 'abc'
+        out.write('\ndef\r'.bytes)
+        out.write((int) '\r')
+        out.write((int) 'x')
+        out.close()
+        assert bytes.toString() == 'abc\ndef\r\rx'
+    }
+
+    @Test
+    void testCrLfToLfOutputStream_LargeWrite() {
+        def text = 'abc\r\n' * 5000
+        assert toLf(text) == 'abc\n' * 5000
+    }
+
+    @Test
+    void testConstructor_Null() {
+        shouldFailWithMessageContaining('in') { new LfToCrLfInputStream(null) }
+        shouldFailWithMessageContaining('out') { new CrLfToLfOutputStream(null) }
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    private String toCrLf(String text) {
+        return new String(IoUtil.readBytes(new LfToCrLfInputStream(new ByteArrayInputStream(text.bytes))))
+    }
+
+    private String toLf(String text) {
+        def bytes = new ByteArrayOutputStream()
+        def out = new CrLfToLfOutputStream(bytes)
+        out.write(text.bytes)
+        out.close()
+        return bytes.toString()
+    }
+
+    /**
+     * InputStream that returns at most chunkSize bytes from each read
+     */
+    private static class OneChunkAtATimeInputStream extends ByteArrayInputStream {
+        private final int chunkSize
+
+        OneChunkAtATimeInputStream(byte[] bytes, int chunkSize) {
+            super(bytes)
+            this.chunkSize = chunkSize
+        }
+
+        int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunkSize))
+        }
+    }
+
+}
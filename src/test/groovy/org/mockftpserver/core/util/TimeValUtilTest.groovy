@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.core.util
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for TimeValUtil
+ */
+class TimeValUtilTest extends AbstractGroovyTestCase {
+
+    private static final long MILLIS = 1773585005000L       // 2026-03-15 14:30:05 UTC
+
+    @Test
+    void testFormat() {
+        assert TimeValUtil.format(new Date(MILLIS)) == '20260315143005'
+        assert TimeValUtil.format(new Date(MILLIS + 999)) == '20260315143005'
+        assert TimeValUtil.format(new Date(0)) == '19700101000000'
+    }
+
+    @Test
+    void testFormat_Null() {
+        shouldFailWithMessageContaining('date') { TimeValUtil.format(null) }
+    }
+
+    @Test
+    void testFormatTo() {
+        def builder = new StringBuilder('modify=')
+        TimeValUtil.formatTo(MILLIS + 999, builder)
+        assert builder.toString() == 'modify=20260315143005'
+    }
+
+    @Test
+    void testFormatTo_Null() {
+        shouldFailWithMessageContaining('builder') { TimeValUtil.formatTo(MILLIS, null) }
+    }
+
+    @Test
+    void testParse() {
+        assert TimeValUtil.parse('20260315143005') == new Date(MILLIS)
+        assert TimeValUtil.parse('20260315143005.250') == new Date(MILLIS + 250)
+        assert TimeValUtil.parse('20260315143005.5') == new Date(MILLIS + 500)
+        assert TimeValUtil.parse('20260315143005.123456') == new Date(MILLIS + 123)
+    }
+
+    @Test
+    void testParse_Invalid() {
+        assert TimeValUtil.parse(null) == null
+        assert TimeValUtil.parse('') == null
+        assert TimeValUtil.parse('2026031514300') == null
+        assert TimeValUtil.parse('20261315143005') == null
+        assert TimeValUtil.parse('20260230000000') == null
+        assert TimeValUtil.parse('2026031514300x') == null
+        assert TimeValUtil.parse('20260315143005.') == null
+        assert TimeValUtil.parse('20260315143005x1') == null
+        assert TimeValUtil.parse('20260315143005.1a') == null
+    }
+
+}
@@ -19,6 +19,8 @@ package org.mockftpserver.fake
 import org.junit.jupiter.api.Test
 import org.mockftpserver.core.command.Command
 import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.CommandHandlersAware
 import org.mockftpserver.core.command.ReplyTextBundleAware
 import org.mockftpserver.core.server.AbstractFtpServer
 import org.mockftpserver.core.server.AbstractFtpServerTestCase
@@ -61,6 +63,17 @@ class FakeFtpServerTest extends AbstractFtpServerTestCase {
         assert ftpServer.replyTextBundle == cmdHandler.replyTextBundle
     }
 
+    @Test
+    void testSetCommandHandler_CommandHandlersAware() {
+        def cmdHandler = new TestCommandHandlerCommandHandlersAware()
+        ftpServer.setCommandHandler("ZZZ", cmdHandler)
+        assert cmdHandler.commandHandlers['ZZZ'].is(cmdHandler)
+        assert cmdHandler.commandHandlers.containsKey(CommandNames.FEAT)
+
+        ftpServer.setCommandHandler("yyy", commandHandler)
+        assert cmdHandler.commandHandlers['YYY'].is(commandHandler)
+    }
+
     @Test
     void testUserAccounts() {
         def userAccount = new UserAccount(username: 'abc')
@@ -135,4 +148,11 @@ class TestCommandHandlerReplyTextBundleAware implements CommandHandler, ReplyTex
     public void handleCommand(Command command, Session session) {
     }
 
+}
+class TestCommandHandlerCommandHandlersAware implements CommandHandler, CommandHandlersAware {
+    Map commandHandlers
+
+    public void handleCommand(Command command, Session session) {
+    }
+
 }
\ No newline at end of file
@@ -58,6 +58,16 @@ class UserAccountTest extends AbstractGroovyTestCase {
         assert userAccount.primaryGroup == UserAccount.DEFAULT_GROUP
     }
 
+    @Test
+    void testMaxBytesPerSecond() {
+        assert userAccount.maxBytesPerSecond == 0
+        assert !userAccount.bandwidthLimiter.limited
+
+        userAccount.maxBytesPerSecond = 1000
+        assert userAccount.bandwidthLimiter.bytesPerSecond == 1000
+        assert userAccount.bandwidthLimiter.is(userAccount.bandwidthLimiter)
+    }
+
     @Test
     void testIsValidPassword() {
         userAccount.username = USERNAME
@@ -130,6 +140,17 @@ class UserAccountTest extends AbstractGroovyTestCase {
         doTestCanRead(null, null, 'rwxrwx-wx', false)
     }
 
+    @Test
+    void testCanRead_SecondaryGroup() {
+        userAccount.username = USERNAME
+        userAccount.groups = ['abc', GROUP]
+        doTestCanRead(null, GROUP, '---r-----', true)
+        doTestCanRead(null, GROUP, 'rwx-wxrwx', false)
+
+        userAccount.groups = null
+        doTestCanRead(null, GROUP, '---r-----', false)
+    }
+
     @Test
     void testCanWrite() {
         // No file permissions - writable by all
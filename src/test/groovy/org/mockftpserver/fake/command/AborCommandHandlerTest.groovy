@@ -32,6 +32,15 @@ class AborCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
     void testHandleCommand() {
         handleCommand([])
         assertSessionReply(ReplyCodes.ABOR_OK, 'abor')
+        assert !session.dataTransferAborted
+    }
+
+    @Test
+    void testHandleCommand_DataTransferInProgress() {
+        session.bytesTransferred = 1000
+        handleCommand([])
+        assert session.dataTransferAborted
+        assertSessionReply(ReplyCodes.ABOR_OK, 'abor')
     }
 
     //-------------------------------------------------------------------------
@@ -34,6 +34,9 @@ import org.mockftpserver.fake.filesystem.UnixFakeFileSystem
 import org.mockftpserver.test.AbstractGroovyTestCase
 import org.mockftpserver.test.StubResourceBundle
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
 /**
  * Tests for AbstractFakeCommandHandler
  *
@@ -80,8 +83,30 @@ class AbstractFakeCommandHandlerClassTest extends AbstractGroovyTestCase {
     @Test
     void testHandleCommand_FileSystemException() {
         assertHandleCommandReplyCode(new FileSystemException(PATH, ''), ReplyCodes.READ_FILE_ERROR, PATH)
-        commandHandler.replyCodeForFileSystemException = ReplyCodes.WRITE_FILE_ERROR
+        commandHandler.replyCode = ReplyCodes.WRITE_FILE_ERROR
         assertHandleCommandReplyCode(new FileSystemException(PATH, ''), ReplyCodes.WRITE_FILE_ERROR, PATH)
+
+        // The reply code applies only to the command during which it was set
+        commandHandler.replyCode = null
+        assertHandleCommandReplyCode(new FileSystemException(PATH, ''), ReplyCodes.READ_FILE_ERROR, PATH)
+    }
+
+    @Test
+    void testHandleCommand_FileSystemException_ConcurrentSessions() {
+        def handler = new ConcurrentTestFakeCommandHandler()
+        handler.serverConfiguration = serverConfiguration
+        handler.replyTextBundle = replyTextBundle
+        def session1 = new StubSession()
+        def session2 = new StubSession()
+
+        // Both commands set their reply codes before either one throws its FileSystemException
+        def thread1 = Thread.start { handler.handleCommand(new Command("C1", [ReplyCodes.WRITE_FILE_ERROR as String]), session1) }
+        def thread2 = Thread.start { handler.handleCommand(new Command("C1", [ReplyCodes.SYSTEM_ERROR as String]), session2) }
+        thread1.join()
+        thread2.join()
+
+        assert session1.sentReplies[0][0] == ReplyCodes.WRITE_FILE_ERROR
+        assert session2.sentReplies[0][0] == ReplyCodes.SYSTEM_ERROR
     }
 
     @Test
@@ -205,11 +230,29 @@ class AbstractFakeCommandHandlerClassTest extends AbstractGroovyTestCase {
 class TestFakeCommandHandler extends AbstractFakeCommandHandler {
     boolean handled = false
     Exception exception
+    Integer replyCode
 
     protected void handle(Command command, Session session) {
+        if (replyCode) {
+            setReplyCodeForFileSystemException(replyCode)
+        }
         if (exception) {
             throw exception
         }
         this.handled = true
     }
+}
+
+/**
+ * Subclass of AbstractFakeCommandHandler whose commands wait for each other after setting the reply code
+ */
+class ConcurrentTestFakeCommandHandler extends AbstractFakeCommandHandler {
+    private final CountDownLatch bothStarted = new CountDownLatch(2)
+
+    protected void handle(Command command, Session session) {
+        setReplyCodeForFileSystemException(command.getParameter(0) as int)
+        bothStarted.countDown()
+        bothStarted.await(5, TimeUnit.SECONDS)
+        throw new FileSystemException("path", "")
+    }
 }
\ No newline at end of file
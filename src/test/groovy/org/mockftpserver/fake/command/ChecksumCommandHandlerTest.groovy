@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.fake.filesystem.FileEntry
+import org.mockftpserver.fake.filesystem.Permissions
+
+import java.security.MessageDigest
+import java.util.zip.CRC32
+
+/**
+ * Tests for ChecksumCommandHandler
+ */
+class ChecksumCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+    private static final String DIR = '/usr'
+    private static final String FILE = p(DIR, 'abc.txt')
+    private static final String CONTENTS = 'abc-def-ghi'
+
+    @Test
+    void testHandleCommand_Md5() {
+        handleCommand([FILE])
+        def md5 = MessageDigest.getInstance('MD5').digest(CONTENTS.bytes).encodeHex().toString().toUpperCase()
+        assertSessionReply(ReplyCodes.CHECKSUM_OK, ['checksum', md5])
+    }
+
+    @Test
+    void testHandleCommand_Crc32() {
+        commandHandler = new ChecksumCommandHandler(FileEntry.CRC32)
+        commandHandler.serverConfiguration = serverConfiguration
+        commandHandler.replyTextBundle = replyTextBundle
+        def crc = new CRC32()
+        crc.update(CONTENTS.bytes)
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.CHECKSUM_OK, ['checksum', String.format('%08X', crc.value)])
+    }
+
+    @Test
+    void testHandleCommand_DigestIsCachedUntilContentsChange() {
+        handleCommand([FILE])
+        def fileEntry = (FileEntry) fileSystem.getEntry(FILE)
+        assert fileEntry.digestAlgorithms == ['MD5'] as Set
+
+        fileEntry.setContents('xyz')
+        handleCommand([FILE])
+        def md5 = MessageDigest.getInstance('MD5').digest('xyz'.bytes).encodeHex().toString().toUpperCase()
+        assertSessionReply(1, ReplyCodes.CHECKSUM_OK, ['checksum', md5])
+    }
+
+    @Test
+    void testHandleCommand_PathDoesNotExist() {
+        def path = '/path/DoesNotExist.txt'
+        handleCommand([path])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotAFile', path])
+    }
+
+    @Test
+    void testHandleCommand_NoExecuteAccessToDirectory() {
+        fileSystem.getEntry(DIR).permissions = Permissions.NONE
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.cannotExecute', DIR])
+    }
+
+    @Test
+    void testHandleCommand_MissingPathParameter() {
+        testHandleCommand_MissingRequiredParameter([])
+    }
+
+    @Test
+    void testConstructor_NullAlgorithm() {
+        shouldFail(AssertFailedException) { new ChecksumCommandHandler(null) }
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new ChecksumCommandHandler('MD5')
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.XMD5, [FILE])
+    }
+
+    @BeforeEach
+    void setUp() {
+        createDirectory(DIR)
+        createFile(FILE, CONTENTS)
+    }
+}
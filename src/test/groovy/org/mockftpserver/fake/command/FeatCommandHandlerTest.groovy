@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+
+/**
+ * Tests for FeatCommandHandler
+ */
+class FeatCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+
+    boolean testNotLoggedIn = false
+
+    private Map commandHandlers = [
+            (CommandNames.USER): new UserCommandHandler(),
+            (CommandNames.SIZE): new SizeCommandHandler(),
+            (CommandNames.REST): new RestCommandHandler(),
+            (CommandNames.MODE): new ModeCommandHandler(),
+            (CommandNames.OPTS): new OptsCommandHandler()]
+
+    @Test
+    void testHandleCommand() {
+        handleCommand([])
+        assertSessionReply(ReplyCodes.FEAT_OK, 'Extensions supported:\r\n MODE Z\r\n REST STREAM\r\n SIZE\r\n UTF8\r\nEnd')
+    }
+
+    @Test
+    void testHandleCommand_CommandRegisteredLater() {
+        commandHandlers[CommandNames.EPSV] = new EpsvCommandHandler()
+        handleCommand([])
+        assertSessionReply(ReplyCodes.FEAT_OK, 'Extensions supported:\r\n EPSV\r\n MODE Z\r\n')
+    }
+
+    @Test
+    void testHandleCommand_Hash_MarksSelectedAlgorithm() {
+        commandHandlers[CommandNames.HASH] = new HashCommandHandler()
+        handleCommand([])
+        assertSessionReply(0, ReplyCodes.FEAT_OK, ' HASH CRC32;MD5;SHA-1*;SHA-256;SHA-512\r\n')
+
+        session.state.hashAlgorithm = 'SHA-256'
+        handleCommand([])
+        assertSessionReply(1, ReplyCodes.FEAT_OK, ' HASH CRC32;MD5;SHA-1;SHA-256*;SHA-512\r\n')
+    }
+
+    @Test
+    void testHandleCommand_Mlst_MarksSelectedFacts() {
+        commandHandlers[CommandNames.MLST] = new MlstCommandHandler()
+        handleCommand([])
+        assertSessionReply(0, ReplyCodes.FEAT_OK, ' MLST type*;size*;modify*;perm*;unique*;\r\n')
+
+        session.state.mlstFacts = 'type;modify;'
+        handleCommand([])
+        assertSessionReply(1, ReplyCodes.FEAT_OK, ' MLST type*;size;modify*;perm;unique;\r\n')
+    }
+
+    @Test
+    void testHandleCommand_HandlersWithoutFeatureSupport_ExtensionsNotAdvertised() {
+        def plainHandler = [handleCommand: { command, session -> }] as CommandHandler
+        commandHandlers[CommandNames.MODE] = plainHandler
+        commandHandlers[CommandNames.REST] = plainHandler
+        handleCommand([])
+        assertSessionReply(ReplyCodes.FEAT_OK, 'Extensions supported:\r\n SIZE\r\n UTF8\r\nEnd')
+    }
+
+    @Test
+    void testHandleCommand_NoFeatures() {
+        commandHandlers.clear()
+        handleCommand([])
+        assertSessionReply(ReplyCodes.FEAT_OK, 'feat.noFeatures')
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new FeatCommandHandler()
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.FEAT, [])
+    }
+
+    @BeforeEach
+    void setUp() {
+        commandHandler.commandHandlers = Collections.unmodifiableMap(commandHandlers)
+        replyTextBundle.put('feat', 'Extensions supported:{0}End')
+    }
+
+}
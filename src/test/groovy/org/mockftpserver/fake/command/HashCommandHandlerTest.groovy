@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.fake.filesystem.Permissions
+
+import java.security.MessageDigest
+
+/**
+ * Tests for HashCommandHandler
+ */
+class HashCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+    private static final String DIR = '/usr'
+    private static final String NAME = 'abc.txt'
+    private static final String FILE = p(DIR, NAME)
+    private static final String CONTENTS = 'abc-def-ghi'
+
+    @Test
+    void testHandleCommand_DefaultAlgorithm() {
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.HASH_OK, 'SHA-1 0-11 ' + hex('SHA-1') + ' ' + FILE)
+    }
+
+    @Test
+    void testHandleCommand_SelectedAlgorithm() {
+        session.state.hashAlgorithm = 'SHA-256'
+        handleCommand([NAME])
+        assertSessionReply(ReplyCodes.HASH_OK, 'SHA-256 0-11 ' + hex('SHA-256') + ' ' + NAME)
+    }
+
+    @Test
+    void testHandleCommand_Crc32() {
+        session.state.hashAlgorithm = 'CRC32'
+        def crc = new java.util.zip.CRC32()
+        crc.update(CONTENTS.bytes)
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.HASH_OK, 'CRC32 0-11 ' + String.format('%08x', crc.value) + ' ' + FILE)
+    }
+
+    @Test
+    void testHandleCommand_PathDoesNotExist() {
+        def path = '/path/DoesNotExist.txt'
+        handleCommand([path])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotAFile', path])
+    }
+
+    @Test
+    void testHandleCommand_IsADirectory() {
+        handleCommand([DIR])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotAFile', DIR])
+    }
+
+    @Test
+    void testHandleCommand_NoReadAccessToFile() {
+        fileSystem.getEntry(FILE).permissions = Permissions.NONE
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.cannotRead', FILE])
+    }
+
+    @Test
+    void testHandleCommand_MissingPathParameter() {
+        testHandleCommand_MissingRequiredParameter([])
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new HashCommandHandler()
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.HASH, [FILE])
+    }
+
+    @BeforeEach
+    void setUp() {
+        createDirectory(DIR)
+        createFile(FILE, CONTENTS)
+        setCurrentDirectory(DIR)
+        replyTextBundle.put('hash', '{0} 0-{1} {2} {3}')
+    }
+
+    private static String hex(String algorithm) {
+        return MessageDigest.getInstance(algorithm).digest(CONTENTS.bytes).encodeHex().toString()
+    }
+}
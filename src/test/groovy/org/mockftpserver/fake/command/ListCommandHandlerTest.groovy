@@ -29,6 +29,8 @@ import org.mockftpserver.fake.filesystem.FileSystemEntry
 import org.mockftpserver.fake.filesystem.FileSystemException
 import org.mockftpserver.fake.filesystem.Permissions
 
+import java.util.zip.InflaterInputStream
+
 /**
  * Tests for ListCommandHandler
  *
@@ -48,6 +50,50 @@ class ListCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
         assertSessionDataWithEndOfLine(listingFor(entry))
     }
 
+    @Test
+    void testHandleCommand_ClearsRestartMarker() {
+        final entry = new FileEntry(path: p(DIR, NAME), lastModified: LAST_MODIFIED, contents: "abc")
+        fileSystem.add(entry)
+        session.state.restartMarker = 2L
+        handleCommandAndVerifySendDataReplies([DIR])
+        assertSessionDataWithEndOfLine(listingFor(entry))
+        assert session.state.restartMarker == null
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode() {
+        final entry = new FileEntry(path: p(DIR, NAME), lastModified: LAST_MODIFIED, contents: "abc")
+        fileSystem.add(entry)
+        session.state.deflateLevel = 1
+        handleCommandAndVerifySendDataReplies([DIR])
+        def listing = new InflaterInputStream(new ByteArrayInputStream(session.sentDataBytes[0])).text
+        assert listing == listingFor(entry) + endOfLine()
+    }
+
+    @Test
+    void testHandleCommand_Utf8Names() {
+        final entry = new FileEntry(path: p(DIR, 'caf\u00e9.txt'), lastModified: LAST_MODIFIED, contents: "abc")
+        fileSystem.add(entry)
+        session.state.utf8 = true
+        handleCommandAndVerifySendDataReplies([DIR])
+        assert session.sentDataBytes[0] == (listingFor(entry) + endOfLine()).getBytes('UTF-8')
+    }
+
+    @Test
+    void testHandleCommand_ManyEntries_DeflateMode() {
+        def expectedLines = [] as Set
+        1000.times { index ->
+            def entry = new FileEntry(path: p(DIR, "file$index"), lastModified: LAST_MODIFIED, contents: "abc")
+            fileSystem.add(entry)
+            expectedLines << listingFor(entry)
+        }
+        session.state.deflateLevel = 6
+        handleCommandAndVerifySendDataReplies([DIR])
+        def listing = new InflaterInputStream(new ByteArrayInputStream(session.sentDataBytes[0])).text
+        assert listing.tokenize(endOfLine()) as Set == expectedLines
+        assert listing.endsWith(endOfLine())
+    }
+
     @Test
     void testHandleCommand_FilesAndDirectories() {
         def DATA3 = "".padRight(1000, 'x')
@@ -107,12 +153,30 @@ class ListCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
     }
 
     @Test
-    void testHandleCommand_ListFilesThrowsException() {
-        fileSystem.listFilesMethodException = new FileSystemException("bad", ERROR_MESSAGE_KEY)
+    void testHandleCommand_IterateFilesThrowsException() {
+        fileSystem.iterateFilesMethodException = new FileSystemException("bad", ERROR_MESSAGE_KEY)
         handleCommand([DIR])
         assertSessionReply(0, ReplyCodes.SYSTEM_ERROR, ERROR_MESSAGE_KEY)
     }
 
+    @Test
+    void testHandleCommand_FormatterThrowsExceptionPartWayThroughListing() {
+        fileSystem.add(new FileEntry(path: p(DIR, 'abc.txt')))
+        fileSystem.add(new FileEntry(path: p(DIR, 'def.txt')))
+        int count = 0
+        fileSystem.directoryListingFormatter = [format: { entry ->
+            if (++count == 2) {
+                throw new FileSystemException("bad", ERROR_MESSAGE_KEY)
+            }
+            entry.name
+        }] as DirectoryListingFormatter
+
+        handleCommand([DIR])
+        assertSessionReply(0, ReplyCodes.TRANSFER_DATA_INITIAL_OK)
+        assertSessionReply(1, ReplyCodes.SYSTEM_ERROR, ERROR_MESSAGE_KEY)
+        assert !session.dataConnectionOpen
+    }
+
     //-------------------------------------------------------------------------
     // Helper Methods
     //-------------------------------------------------------------------------
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.fake.filesystem.FileEntry
+import org.mockftpserver.fake.filesystem.FileSystemEntry
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+import java.nio.charset.StandardCharsets
+
+/**
+ * Tests for ListingInputStream
+ */
+class ListingInputStreamTest extends AbstractGroovyTestCase {
+
+    private static final List NAMES = ['abc.txt', 'caf\u00e9.txt', 'def.log']
+    private static final String LISTING = 'abc.txt\r\ncaf\u00e9.txt\r\ndef.log\r\n'
+
+    @Test
+    void testReadAll() {
+        def input = listingInputStream(NAMES)
+        def bytes = input.bytes
+        assert new String(bytes, StandardCharsets.UTF_8) == LISTING
+        assert input.entryCount == 3
+        assert input.byteCount == bytes.length
+        assert bytes.length == LISTING.length() + 1      // the accented character is two bytes in UTF-8
+    }
+
+    @Test
+    void testRead_SmallBuffer() {
+        def input = listingInputStream(NAMES)
+        def output = new ByteArrayOutputStream()
+        byte[] buffer = new byte[4]
+        int numBytes
+        while ((numBytes = input.read(buffer, 0, buffer.length)) != -1) {
+            assert numBytes > 0
+            output.write(buffer, 0, numBytes)
+        }
+        assert new String(output.toByteArray(), StandardCharsets.UTF_8) == LISTING
+    }
+
+    @Test
+    void testRead_BufferSpansLines() {
+        def input = listingInputStream(NAMES)
+        byte[] buffer = new byte[100]
+        assert input.read(buffer, 10, 90) == LISTING.getBytes(StandardCharsets.UTF_8).length
+        assert input.read(buffer, 0, 100) == -1
+        assert input.read(buffer, 0, 0) == 0
+    }
+
+    @Test
+    void testRead_InvalidOffsetOrLength() {
+        def input = listingInputStream(NAMES)
+        byte[] buffer = new byte[10]
+        shouldFail(IndexOutOfBoundsException) { input.read(buffer, -1, 5) }
+        shouldFail(IndexOutOfBoundsException) { input.read(buffer, 0, -1) }
+        shouldFail(IndexOutOfBoundsException) { input.read(buffer, 6, 5) }
+        shouldFail(IndexOutOfBoundsException) { input.read(buffer, 11, 0) }
+        assert input.entryCount == 0
+    }
+
+    @Test
+    void testRead_SingleBytes() {
+        def input = listingInputStream(['ab'])
+        assert input.read() == 'a' as char
+        assert input.available() == 3
+        assert input.read() == 'b' as char
+        assert input.read() == '\r' as char
+        assert input.read() == '\n' as char
+        assert input.read() == -1
+    }
+
+    @Test
+    void testFormatsEntriesAsTheyAreRead() {
+        def input = listingInputStream(NAMES)
+        assert input.entryCount == 0
+        input.read()
+        assert input.entryCount == 1
+        assert input.byteCount == 9
+    }
+
+    @Test
+    void testSetLine_SharedBuffer() {
+        byte[] buffer = new byte[100]
+        def entries = NAMES.collect { name -> new FileEntry('/dir/' + name) }
+        def input = new ListingInputStream(entries.iterator()) {
+            protected void formatEntry(FileSystemEntry entry) {
+                byte[] bytes = (entry.name + '\r\n').getBytes(StandardCharsets.UTF_8)
+                System.arraycopy(bytes, 0, buffer, 0, bytes.length)
+                setLine(buffer, bytes.length)
+            }
+        }
+        assert new String(input.bytes, StandardCharsets.UTF_8) == LISTING
+        assert input.byteCount == LISTING.getBytes(StandardCharsets.UTF_8).length
+    }
+
+    @Test
+    void testSetLine_NotCalled() {
+        def entries = NAMES.collect { name -> new FileEntry('/dir/' + name) }
+        def input = new ListingInputStream(entries.iterator()) {
+            protected void formatEntry(FileSystemEntry entry) {
+            }
+        }
+        assert input.read() == -1
+        assert input.entryCount == 3
+        assert input.byteCount == 0
+    }
+
+    @Test
+    void testSetLine_NullBytes() {
+        def input = new TestListingInputStream([].iterator())
+        shouldFail(AssertFailedException) { input.setLine(null, 0) }
+    }
+
+    @Test
+    void testNoEntries() {
+        def input = listingInputStream([])
+        assert input.read() == -1
+        assert input.bytes.length == 0
+        assert input.entryCount == 0
+    }
+
+    @Test
+    void testConstructor_NullEntries() {
+        shouldFail(AssertFailedException) { new TestListingInputStream(null) }
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    private ListingInputStream listingInputStream(List names) {
+        def entries = names.collect { name -> new FileEntry('/dir/' + name) }
+        return new TestListingInputStream(entries.iterator())
+    }
+
+    private static class TestListingInputStream extends ListingInputStream {
+        TestListingInputStream(Iterator entries) {
+            super(entries)
+        }
+
+        protected void formatEntry(FileSystemEntry entry) {
+            byte[] bytes = (entry.name + '\r\n').getBytes(StandardCharsets.UTF_8)
+            setLine(bytes, bytes.length)
+        }
+    }
+
+}
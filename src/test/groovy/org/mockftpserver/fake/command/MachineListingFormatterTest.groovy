@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.fake.UserAccount
+import org.mockftpserver.fake.filesystem.AbstractFileSystemEntry
+import org.mockftpserver.fake.filesystem.DirectoryEntry
+import org.mockftpserver.fake.filesystem.FileEntry
+import org.mockftpserver.fake.filesystem.FileSystemEntry
+import org.mockftpserver.fake.filesystem.Permissions
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+import java.nio.charset.StandardCharsets
+
+/**
+ * Tests for MachineListingFormatter
+ */
+class MachineListingFormatterTest extends AbstractGroovyTestCase {
+
+    private static final long MILLIS = 1773585005000L       // 2026-03-15 14:30:05 UTC
+    private static final String FILE = '/dir/abc.txt'
+    private static final String DIR = '/dir/sub'
+
+    private UserAccount userAccount = new UserAccount(username: 'joe')
+    private FileEntry file = new FileEntry(path: FILE, contents: 'abc', lastModified: new Date(MILLIS), owner: 'joe')
+    private DirectoryEntry directory = new DirectoryEntry(path: DIR, lastModified: new Date(MILLIS), owner: 'joe')
+    private MachineListingFormatter formatter = new MachineListingFormatter(null, userAccount)
+
+    @Test
+    void testAppend_File() {
+        formatter.append(file, 'abc.txt', true)
+        assert formatter.contents == "type=file;size=3;modify=20260315143005;perm=adfrw;unique=${unique(file)}; abc.txt"
+    }
+
+    @Test
+    void testAppend_Directory() {
+        formatter.append(directory, DIR, true)
+        assert formatter.contents == "type=dir;modify=20260315143005;perm=cdeflmp;unique=${unique(directory)}; $DIR"
+    }
+
+    @Test
+    void testAppend_Permissions() {
+        file.permissions = Permissions.valueOf('r--rw-rw-')
+        formatter.append(file, 'abc.txt', false)
+        assert formatter.contents.contains(';perm=r;')
+
+        formatter.reset()
+        directory.permissions = Permissions.valueOf('r-xrwxrwx')
+        formatter.append(directory, 'sub', false)
+        assert formatter.contents.contains(';perm=el;')
+
+        formatter.reset()
+        file.owner = 'other'
+        formatter.append(file, 'abc.txt', true)
+        assert formatter.contents.contains(';perm=adfrw;')
+    }
+
+    @Test
+    void testAppend_SelectedFacts() {
+        formatter = new MachineListingFormatter('SIZE;Type;other;', userAccount)
+        formatter.append(file, 'abc.txt', true)
+        formatter.appendEndOfLine()
+        formatter.append(directory, 'sub', true)
+        assert formatter.contents == 'type=file;size=3; abc.txt\r\ntype=dir; sub'
+    }
+
+    @Test
+    void testAppend_NoFacts() {
+        formatter = new MachineListingFormatter('', userAccount)
+        formatter.append(file, 'abc.txt', true)
+        assert formatter.contents == ' abc.txt'
+    }
+
+    @Test
+    void testAppend_Unique_SameAfterRename() {
+        formatter = new MachineListingFormatter('unique;', userAccount)
+        formatter.append(file, 'abc.txt', true)
+        def before = formatter.contents
+
+        formatter.reset()
+        formatter.append(file.cloneWithNewPath('/dir/renamed.txt'), 'abc.txt', true)
+        assert formatter.contents == before
+
+        formatter.reset()
+        formatter.append(new FileEntry(path: FILE), 'abc.txt', true)
+        assert formatter.contents != before
+    }
+
+    @Test
+    void testAppend_Unique_OtherEntryClass() {
+        def entry = [isDirectory: { false }, getPath: { FILE }, getSize: { 3L }, getLastModified: { null },
+                getOwner: { null }, getPermissions: { null }] as FileSystemEntry
+        formatter.append(entry, 'abc.txt', true)
+        assert formatter.contents == 'type=file;size=3;perm=adfrw; abc.txt'
+    }
+
+    @Test
+    void testAppend_NoLastModified() {
+        file.lastModified = null
+        formatter.append(file, 'abc.txt', true)
+        assert !formatter.contents.contains('modify=')
+    }
+
+    @Test
+    void testAppend_NonAsciiPathname() {
+        def pathname = 'café € 😀 \ud83d.txt'
+        formatter = new MachineListingFormatter('', userAccount)
+        formatter.append(file, pathname, true)
+        def bytes = Arrays.copyOf(formatter.buffer, formatter.length)
+        assert bytes == (' ' + pathname).getBytes(StandardCharsets.UTF_8)
+    }
+
+    @Test
+    void testAppend_BufferGrows() {
+        def expected = new StringBuilder()
+        1000.times { index ->
+            def name = 'file' + index + ''.padRight(100, 'x')
+            formatter.append(file, name, true)
+            formatter.appendEndOfLine()
+            expected << "type=file;size=3;modify=20260315143005;perm=adfrw;unique=${unique(file)}; $name\r\n"
+        }
+        assert formatter.length > 100000
+        assert formatter.contents == expected.toString()
+    }
+
+    @Test
+    void testReset_And_Release() {
+        formatter.append(file, 'abc.txt', true)
+        def buffer = formatter.buffer
+        formatter.reset()
+        assert formatter.length == 0
+        assert formatter.contents == ''
+        formatter.append(file, 'abc.txt', true)
+        assert formatter.buffer.is(buffer)
+
+        formatter.release()
+        assert formatter.buffer == null
+        assert formatter.length == 0
+    }
+
+    @Test
+    void testSelectFacts() {
+        assert MachineListingFormatter.selectFacts(null) == 'type;size;modify;perm;unique;'
+        assert MachineListingFormatter.selectFacts('Size;type;other') == 'type;size;'
+        assert MachineListingFormatter.selectFacts('') == ''
+    }
+
+    @Test
+    void testFeatureFacts() {
+        assert MachineListingFormatter.featureFacts(null) == 'type*;size*;modify*;perm*;unique*;'
+        assert MachineListingFormatter.featureFacts('type;size;') == 'type*;size*;modify;perm;unique;'
+        assert MachineListingFormatter.featureFacts('') == 'type;size;modify;perm;unique;'
+    }
+
+    @Test
+    void testConstructor_NullUserAccount() {
+        shouldFail(AssertFailedException) { new MachineListingFormatter(null, null) }
+    }
+
+    @AfterEach
+    void tearDown() {
+        formatter.release()
+    }
+
+    private static String unique(AbstractFileSystemEntry entry) {
+        Long.toHexString(entry.id)
+    }
+
+}
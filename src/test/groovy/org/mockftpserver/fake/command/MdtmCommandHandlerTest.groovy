@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.fake.filesystem.Permissions
+
+/**
+ * Tests for MdtmCommandHandler
+ */
+class MdtmCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+    private static final String DIR = '/usr'
+    private static final String NAME = 'abc.txt'
+    private static final String FILE = p(DIR, NAME)
+    private static final Date LAST_MODIFIED = new Date(1773585005000L)     // 2026-03-15 14:30:05 UTC
+
+    @Test
+    void testHandleCommand() {
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.MDTM_OK, ['mdtm', '20260315143005'])
+    }
+
+    @Test
+    void testHandleCommand_RelativePath() {
+        setCurrentDirectory(DIR)
+        handleCommand([NAME])
+        assertSessionReply(ReplyCodes.MDTM_OK, ['mdtm', '20260315143005'])
+    }
+
+    @Test
+    void testHandleCommand_PathDoesNotExist() {
+        def path = '/path/DoesNotExist.txt'
+        handleCommand([path])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotAFile', path])
+    }
+
+    @Test
+    void testHandleCommand_IsADirectory() {
+        handleCommand([DIR])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotAFile', DIR])
+    }
+
+    @Test
+    void testHandleCommand_LastModifiedNotSet() {
+        fileSystem.getEntry(FILE).lastModified = null
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.lastModifiedNotSet', FILE])
+    }
+
+    @Test
+    void testHandleCommand_NoReadAccessToFile() {
+        fileSystem.getEntry(FILE).permissions = Permissions.NONE
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.cannotRead', FILE])
+    }
+
+    @Test
+    void testHandleCommand_MissingPathParameter() {
+        testHandleCommand_MissingRequiredParameter([])
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new MdtmCommandHandler()
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.MDTM, [FILE])
+    }
+
+    @BeforeEach
+    void setUp() {
+        createDirectory(DIR)
+        createFile(FILE)
+        fileSystem.getEntry(FILE).lastModified = LAST_MODIFIED
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.fake.filesystem.Permissions
+
+/**
+ * Tests for MfmtCommandHandler
+ */
+class MfmtCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+    private static final String DIR = '/usr'
+    private static final String NAME = 'abc def.txt'
+    private static final String FILE = p(DIR, NAME)
+    private static final String TIME = '20260315143005'
+    private static final Date LAST_MODIFIED = new Date(1773585005000L)     // 2026-03-15 14:30:05 UTC
+
+    @Test
+    void testHandleCommand() {
+        handleCommand(["$TIME $FILE".toString()])
+        assertSessionReply(ReplyCodes.MFMT_OK, ['mfmt', TIME, FILE])
+        assert fileSystem.getEntry(FILE).lastModified == LAST_MODIFIED
+    }
+
+    @Test
+    void testHandleCommand_RelativePathAndFractionalSeconds() {
+        setCurrentDirectory(DIR)
+        handleCommand(["${TIME}.5 $NAME".toString()])
+        assertSessionReply(ReplyCodes.MFMT_OK, ['mfmt', TIME, NAME])
+        assert fileSystem.getEntry(FILE).lastModified == new Date(LAST_MODIFIED.time + 500)
+    }
+
+    @Test
+    void testHandleCommand_InvalidTime() {
+        handleCommand(["2026031514300x $FILE".toString()])
+        assertSessionReply(ReplyCodes.COMMAND_SYNTAX_ERROR)
+        handleCommand([TIME])
+        assertSessionReply(1, ReplyCodes.COMMAND_SYNTAX_ERROR)
+    }
+
+    @Test
+    void testHandleCommand_PathDoesNotExist() {
+        def path = '/path/DoesNotExist.txt'
+        handleCommand(["$TIME $path".toString()])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotAFile', path])
+    }
+
+    @Test
+    void testHandleCommand_NoWriteAccessToFile() {
+        fileSystem.getEntry(FILE).permissions = Permissions.NONE
+        handleCommand(["$TIME $FILE".toString()])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.cannotWrite', FILE])
+        assert fileSystem.getEntry(FILE).lastModified != LAST_MODIFIED
+    }
+
+    @Test
+    void testHandleCommand_MissingParameter() {
+        testHandleCommand_MissingRequiredParameter([])
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new MfmtCommandHandler()
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.MFMT, ["$TIME $FILE".toString()])
+    }
+
+    @BeforeEach
+    void setUp() {
+        createDirectory(DIR)
+        createFile(FILE)
+    }
+}
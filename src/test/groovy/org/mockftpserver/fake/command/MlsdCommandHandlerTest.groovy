@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.fake.filesystem.DirectoryEntry
+import org.mockftpserver.fake.filesystem.FileEntry
+import org.mockftpserver.fake.filesystem.FileSystemException
+import org.mockftpserver.fake.filesystem.Permissions
+
+import java.util.zip.InflaterInputStream
+
+/**
+ * Tests for MlsdCommandHandler
+ */
+class MlsdCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+
+    private static final String DIR = '/usr'
+    private static final long MILLIS = 1773585005000L       // 2026-03-15 14:30:05 UTC
+
+    @Test
+    void testHandleCommand() {
+        handleCommandAndVerifySendDataReplies([DIR])
+        assertListing(session.sentData[0])
+    }
+
+    @Test
+    void testHandleCommand_CurrentDirectory() {
+        setCurrentDirectory(DIR)
+        handleCommandAndVerifySendDataReplies([])
+        assertListing(session.sentData[0])
+    }
+
+    @Test
+    void testHandleCommand_SelectedFacts() {
+        session.state.mlstFacts = 'type;'
+        handleCommandAndVerifySendDataReplies([DIR])
+        assert session.sentData[0].readLines().sort() == ['type=dir; sub', 'type=file; abc.txt']
+    }
+
+    @Test
+    void testHandleCommand_DirectoryNotWritable() {
+        fileSystem.getEntry(DIR).permissions = Permissions.valueOf('r-xr-xr-x')
+        session.state.mlstFacts = 'perm;'
+        handleCommandAndVerifySendDataReplies([DIR])
+        assert session.sentData[0].readLines().sort() == ['perm=arw; abc.txt', 'perm=celmp; sub']
+    }
+
+    @Test
+    void testHandleCommand_EmptyDirectory() {
+        createDirectory('/empty')
+        handleCommandAndVerifySendDataReplies(['/empty'])
+        assertSessionData('')
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode() {
+        session.state.deflateLevel = 1
+        handleCommandAndVerifySendDataReplies([DIR])
+        assertListing(new InflaterInputStream(new ByteArrayInputStream(session.sentDataBytes[0])).text)
+    }
+
+    @Test
+    void testHandleCommand_ClearsRestartMarker() {
+        session.state.restartMarker = 2L
+        handleCommandAndVerifySendDataReplies([DIR])
+        assert session.state.restartMarker == null
+    }
+
+    @Test
+    void testHandleCommand_PathIsAFile() {
+        handleCommand([p(DIR, 'abc.txt')])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotADirectory'])
+    }
+
+    @Test
+    void testHandleCommand_PathDoesNotExist() {
+        handleCommand(['/no/such/dir'])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.isNotADirectory'])
+    }
+
+    @Test
+    void testHandleCommand_NoReadAccessToDirectory() {
+        fileSystem.getEntry(DIR).permissions = Permissions.valueOf('-wx-wx-wx')
+        handleCommand([DIR])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.cannotRead'])
+    }
+
+    @Test
+    void testHandleCommand_IterateFilesThrowsException() {
+        fileSystem.iterateFilesMethodException = new FileSystemException("bad", ERROR_MESSAGE_KEY)
+        handleCommand([DIR])
+        assertSessionReply(0, ReplyCodes.SYSTEM_ERROR, ERROR_MESSAGE_KEY)
+    }
+
+    @Test
+    void testHandleCommand_ThrowsExceptionPartWayThroughListing() {
+        fileSystem.iterateFilesNextException = new FileSystemException("bad", ERROR_MESSAGE_KEY)
+        handleCommand([DIR])
+        assertSessionReply(0, ReplyCodes.TRANSFER_DATA_INITIAL_OK)
+        assertSessionReply(1, ReplyCodes.SYSTEM_ERROR, ERROR_MESSAGE_KEY)
+        assert !session.dataConnectionOpen
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new MlsdCommandHandler()
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.MLSD, [DIR])
+    }
+
+    @BeforeEach
+    void setUp() {
+        fileSystem.add(new DirectoryEntry(path: DIR, lastModified: new Date(MILLIS)))
+        fileSystem.add(new FileEntry(path: p(DIR, 'abc.txt'), contents: 'abc', lastModified: new Date(MILLIS)))
+        fileSystem.add(new DirectoryEntry(path: p(DIR, 'sub'), lastModified: new Date(MILLIS)))
+    }
+
+    private void assertListing(String listing) {
+        def fileLine = 'type=file;size=3;modify=20260315143005;perm=adfrw;unique=' + unique('/usr/abc.txt') + '; abc.txt\r\n'
+        def dirLine = 'type=dir;modify=20260315143005;perm=cdeflmp;unique=' + unique('/usr/sub') + '; sub\r\n'
+        assert listing.length() == fileLine.length() + dirLine.length()
+        assert listing.contains(fileLine)
+        assert listing.contains(dirLine)
+    }
+
+    private String unique(String path) {
+        Long.toHexString(fileSystem.getEntry(path).id)
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.fake.filesystem.DirectoryEntry
+import org.mockftpserver.fake.filesystem.FileEntry
+import org.mockftpserver.fake.filesystem.Permissions
+
+/**
+ * Tests for MlstCommandHandler
+ */
+class MlstCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+
+    private static final String DIR = '/usr'
+    private static final String FILE = '/usr/abc.txt'
+    private static final long MILLIS = 1773585005000L       // 2026-03-15 14:30:05 UTC
+
+    @Test
+    void testHandleCommand_File() {
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.MLST_OK, "Listing $FILE\r\n type=file;size=3;modify=20260315143005;perm=adfrw;unique=${unique(FILE)}; $FILE\r\nEnd")
+    }
+
+    @Test
+    void testHandleCommand_RelativePath() {
+        setCurrentDirectory(DIR)
+        session.state.mlstFacts = 'type;size;'
+        handleCommand(['abc.txt'])
+        assertSessionReply(ReplyCodes.MLST_OK, "Listing $FILE\r\n type=file;size=3; $FILE\r\nEnd")
+    }
+
+    @Test
+    void testHandleCommand_CurrentDirectory() {
+        setCurrentDirectory(DIR)
+        session.state.mlstFacts = 'type;perm;'
+        handleCommand([])
+        assertSessionReply(ReplyCodes.MLST_OK, "Listing $DIR\r\n type=dir;perm=cdeflmp; $DIR\r\nEnd")
+    }
+
+    @Test
+    void testHandleCommand_ParentDirectoryNotWritable() {
+        fileSystem.getEntry(DIR).permissions = Permissions.valueOf('r-xr-xr-x')
+        session.state.mlstFacts = 'perm;'
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.MLST_OK, " perm=arw; $FILE\r\n")
+    }
+
+    @Test
+    void testHandleCommand_PathDoesNotExist() {
+        handleCommand(['/usr/other.txt'])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.doesNotExist'])
+    }
+
+    @Test
+    void testHandleCommand_NoExecuteAccessToParentDirectory() {
+        fileSystem.getEntry(DIR).permissions = Permissions.valueOf('rw-rw-rw-')
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ['filesystem.cannotExecute'])
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new MlstCommandHandler()
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.MLST, [FILE])
+    }
+
+    @BeforeEach
+    void setUp() {
+        fileSystem.add(new DirectoryEntry(path: DIR, lastModified: new Date(MILLIS)))
+        fileSystem.add(new FileEntry(path: FILE, contents: 'abc', lastModified: new Date(MILLIS)))
+        replyTextBundle.put('mlst', 'Listing {0}{1}End')
+    }
+
+    private String unique(String path) {
+        Long.toHexString(fileSystem.getEntry(path).id)
+    }
+
+}
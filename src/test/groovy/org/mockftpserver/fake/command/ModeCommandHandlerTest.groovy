@@ -20,6 +20,9 @@ import org.mockftpserver.core.command.Command
 import org.mockftpserver.core.command.CommandHandler
 import org.mockftpserver.core.command.CommandNames
 import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.core.util.AssertFailedException
+
+import java.util.zip.Deflater
 
 /**
  * Tests for ModeCommandHandler
@@ -32,6 +35,31 @@ class ModeCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
     void testHandleCommand() {
         handleCommand([])
         assertSessionReply(ReplyCodes.MODE_OK, 'mode')
+        assert session.state.deflateLevel == null
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode() {
+        handleCommand(['Z'])
+        assertSessionReply(ReplyCodes.MODE_OK, 'mode')
+        assert session.state.deflateLevel == Deflater.DEFAULT_COMPRESSION
+
+        handleCommand(['S'])
+        assertSessionReply(1, ReplyCodes.MODE_OK, 'mode')
+        assert session.state.deflateLevel == null
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode_CompressionLevel() {
+        commandHandler.compressionLevel = 9
+        handleCommand(['z'])
+        assert session.state.deflateLevel == 9
+    }
+
+    @Test
+    void testSetCompressionLevel_Invalid() {
+        shouldFail(AssertFailedException) { commandHandler.compressionLevel = 10 }
+        shouldFail(AssertFailedException) { commandHandler.compressionLevel = -2 }
     }
 
     //-------------------------------------------------------------------------
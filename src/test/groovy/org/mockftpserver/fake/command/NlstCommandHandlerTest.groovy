@@ -25,6 +25,8 @@ import org.mockftpserver.core.session.SessionKeys
 import org.mockftpserver.fake.filesystem.FileSystemException
 import org.mockftpserver.fake.filesystem.Permissions
 
+import java.util.zip.InflaterInputStream
+
 /**
  * Tests for NlstCommandHandler
  *
@@ -56,6 +58,23 @@ class NlstCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
         assertSessionDataEndsWithEndOfLine()
     }
 
+    @Test
+    void testHandleCommand_Utf8Names() {
+        createFile("/usr/caf\u00e9.txt")
+        session.state.utf8 = true
+        handleCommandAndVerifySendDataReplies([DIR])
+        assert session.sentDataBytes[0] == "caf\u00e9.txt\r\n".getBytes('UTF-8')
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode() {
+        createFile("/usr/f1.txt")
+        session.state.deflateLevel = 1
+        handleCommandAndVerifySendDataReplies([DIR])
+        def listing = new InflaterInputStream(new ByteArrayInputStream(session.sentDataBytes[0])).text
+        assert listing == "f1.txt" + endOfLine()
+    }
+
     @Test
     void testHandleCommand_NoPath_UseCurrentDirectory() {
         createFile("/usr/f1.txt")
@@ -92,13 +111,23 @@ class NlstCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
     }
 
     @Test
-    void testHandleCommand_ListNamesThrowsException() {
-        fileSystem.listNamesMethodException = new FileSystemException("bad", ERROR_MESSAGE_KEY)
+    void testHandleCommand_IterateFilesThrowsException() {
+        fileSystem.iterateFilesMethodException = new FileSystemException("bad", ERROR_MESSAGE_KEY)
         handleCommand([DIR])
 //        assertSessionReply(0, ReplyCodes.TRANSFER_DATA_INITIAL_OK)
         assertSessionReply(0, ReplyCodes.SYSTEM_ERROR, ERROR_MESSAGE_KEY)
     }
 
+    @Test
+    void testHandleCommand_ThrowsExceptionPartWayThroughListing() {
+        createFile("/usr/f1.txt")
+        fileSystem.iterateFilesNextException = new FileSystemException("bad", ERROR_MESSAGE_KEY)
+        handleCommand([DIR])
+        assertSessionReply(0, ReplyCodes.TRANSFER_DATA_INITIAL_OK)
+        assertSessionReply(1, ReplyCodes.SYSTEM_ERROR, ERROR_MESSAGE_KEY)
+        assert !session.dataConnectionOpen
+    }
+
     //-------------------------------------------------------------------------
     // Helper Methods
     //-------------------------------------------------------------------------
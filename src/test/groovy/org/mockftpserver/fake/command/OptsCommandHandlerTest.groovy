@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.command.Command
+import org.mockftpserver.core.command.CommandHandler
+import org.mockftpserver.core.command.CommandNames
+import org.mockftpserver.core.command.ReplyCodes
+
+/**
+ * Tests for OptsCommandHandler
+ */
+class OptsCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
+
+    boolean testNotLoggedIn = false
+
+    @Test
+    void testHandleCommand_Utf8() {
+        handleCommand(['UTF8 ON'])
+        assertSessionReply(0, ReplyCodes.OPTS_OK, ['opts.utf8', 'ON'])
+        assert session.state.utf8 == Boolean.TRUE
+
+        handleCommand(['utf8 off'])
+        assertSessionReply(1, ReplyCodes.OPTS_OK, ['opts.utf8', 'OFF'])
+        assert session.state.utf8 == Boolean.FALSE
+    }
+
+    @Test
+    void testHandleCommand_Utf8_InvalidValue() {
+        handleCommand(['UTF8 MAYBE'])
+        assertSessionReply(ReplyCodes.COMMAND_SYNTAX_ERROR, ['opts.unsupportedOption', 'UTF8 MAYBE'])
+        assert session.state.utf8 == null
+    }
+
+    @Test
+    void testHandleCommand_Hash() {
+        handleCommand(['HASH sha-256'])
+        assertSessionReply(ReplyCodes.OPTS_OK, ['opts.hash', 'SHA-256'])
+        assert session.state.hashAlgorithm == 'SHA-256'
+    }
+
+    @Test
+    void testHandleCommand_Hash_NoAlgorithm() {
+        handleCommand(['HASH'])
+        assertSessionReply(0, ReplyCodes.OPTS_OK, ['opts.hash', HashCommandHandler.DEFAULT_ALGORITHM])
+
+        session.state.hashAlgorithm = 'MD5'
+        handleCommand(['HASH'])
+        assertSessionReply(1, ReplyCodes.OPTS_OK, ['opts.hash', 'MD5'])
+    }
+
+    @Test
+    void testHandleCommand_Hash_UnsupportedAlgorithm() {
+        handleCommand(['HASH SHA-3'])
+        assertSessionReply(ReplyCodes.PARAMETER_NOT_SUPPORTED, ['opts.hash.unsupportedAlgorithm', 'SHA-3'])
+        assert session.state.hashAlgorithm == null
+    }
+
+    @Test
+    void testHandleCommand_Mlst() {
+        handleCommand(['MLST size;Type;other;'])
+        assertSessionReply(0, ReplyCodes.OPTS_OK, ['opts.mlst', 'type;size;'])
+        assert session.state.mlstFacts == 'type;size;'
+
+        handleCommand(['MLST'])
+        assertSessionReply(1, ReplyCodes.OPTS_OK, 'opts.mlst')
+        assert session.state.mlstFacts == ''
+    }
+
+    @Test
+    void testHandleCommand_UnsupportedOption() {
+        handleCommand(['XYZ 123'])
+        assertSessionReply(ReplyCodes.COMMAND_SYNTAX_ERROR, ['opts.unsupportedOption', 'XYZ 123'])
+    }
+
+    @Test
+    void testHandleCommand_MissingOptionParameter() {
+        testHandleCommand_MissingRequiredParameter([])
+    }
+
+    //-------------------------------------------------------------------------
+    // Helper Methods
+    //-------------------------------------------------------------------------
+
+    CommandHandler createCommandHandler() {
+        new OptsCommandHandler()
+    }
+
+    Command createValidCommand() {
+        return new Command(CommandNames.OPTS, ['UTF8 ON'])
+    }
+
+}
@@ -152,6 +152,7 @@ class PassCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
     private void assertUserAccountInSession(boolean isUserAccountInSession) {
         def expectedValue = isUserAccountInSession ? userAccount : null
         assert session.getAttribute(SessionKeys.USER_ACCOUNT) == expectedValue
+        assert session.getAttribute(SessionKeys.USER_BANDWIDTH_LIMITER) == expectedValue?.bandwidthLimiter
     }
 
     /**
@@ -38,10 +38,12 @@ class ReinCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
     @Test
     void testHandleCommand_AlreadyLoggedIn() {
         session.setAttribute(SessionKeys.USER_ACCOUNT, userAccount)
+        session.setAttribute(SessionKeys.USER_BANDWIDTH_LIMITER, userAccount.bandwidthLimiter)
         assert isLoggedIn()
         handleCommand([])
         assertSessionReply(ReplyCodes.REIN_OK, 'rein')
         assert !isLoggedIn()
+        assert session.getAttribute(SessionKeys.USER_BANDWIDTH_LIMITER) == null
     }
 
     @Test
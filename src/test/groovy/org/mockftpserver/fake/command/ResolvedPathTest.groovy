@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.command
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.fake.filesystem.DirectoryEntry
+import org.mockftpserver.fake.filesystem.FileEntry
+import org.mockftpserver.fake.filesystem.FileSystemEntry
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for ResolvedPath
+ */
+class ResolvedPathTest extends AbstractGroovyTestCase {
+
+    private static final String DIR = '/dir'
+    private static final String FILE = '/dir/file.txt'
+
+    private CountingFileSystem fileSystem
+
+    @Test
+    void testFile() {
+        def path = new ResolvedPath(fileSystem, FILE)
+        assert path.path == FILE
+        assert path.exists()
+        assert path.isFile()
+        assert !path.isDirectory()
+        assert path.entry.path == FILE
+        assert path.parentPath == DIR
+        assert path.parent.isDirectory()
+    }
+
+    @Test
+    void testDoesNotExist() {
+        def path = new ResolvedPath(fileSystem, '/dir/other.txt')
+        assert !path.exists()
+        assert !path.isFile()
+        assert !path.isDirectory()
+        assert path.entry == null
+        assert path.parent.exists()
+    }
+
+    @Test
+    void testRoot_HasNoParent() {
+        def path = new ResolvedPath(fileSystem, '/')
+        assert path.isDirectory()
+        assert path.parent == null
+        assert path.parentPath == null
+    }
+
+    @Test
+    void testEntryAndParentLookedUpOnlyOnce() {
+        def path = new ResolvedPath(fileSystem, FILE)
+        fileSystem.numberOfLookups = 0
+        path.exists()
+        path.isFile()
+        path.entry
+        path.parent.isDirectory()
+        path.parent.exists()
+        assert fileSystem.numberOfLookups == 2
+        assert path.parent.is(path.parent)
+    }
+
+    @Test
+    void testConstructor_Null() {
+        shouldFail(AssertFailedException) { new ResolvedPath(null, FILE) }
+        shouldFail(AssertFailedException) { new ResolvedPath(fileSystem, null) }
+    }
+
+    @BeforeEach
+    void setUp() {
+        fileSystem = new CountingFileSystem()
+        fileSystem.createParentDirectoriesAutomatically = true
+        fileSystem.add(new DirectoryEntry(DIR))
+        fileSystem.add(new FileEntry(FILE))
+    }
+
+    private static class CountingFileSystem extends UnixFakeFileSystem {
+        int numberOfLookups
+
+        FileSystemEntry getEntry(String path) {
+            numberOfLookups++
+            return super.getEntry(path)
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import org.mockftpserver.core.command.Command
 import org.mockftpserver.core.command.CommandHandler
 import org.mockftpserver.core.command.CommandNames
 import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.core.session.SessionKeys
 
 /**
  * Tests for RestCommandHandler
@@ -30,8 +31,33 @@ class RestCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
 
     @Test
     void testHandleCommand() {
-        handleCommand([])
+        handleCommand(['100'])
         assertSessionReply(ReplyCodes.REST_OK, 'rest')
+        assert session.state.restartMarker == 100L
+        assert session.getAttribute(SessionKeys.RESTART_MARKER) == 100L
+    }
+
+    @Test
+    void testHandleCommand_Zero() {
+        session.state.restartMarker = 100L
+        handleCommand(['0'])
+        assertSessionReply(ReplyCodes.REST_OK, 'rest')
+        assert session.state.restartMarker == 0L
+    }
+
+    @Test
+    void testHandleCommand_MissingMarkerParameter() {
+        testHandleCommand_MissingRequiredParameter([])
+        assert session.state.restartMarker == null
+    }
+
+    @Test
+    void testHandleCommand_InvalidMarker() {
+        handleCommand(['abc'])
+        assertSessionReply(ReplyCodes.COMMAND_SYNTAX_ERROR)
+        handleCommand(['-1'])
+        assertSessionReply(1, ReplyCodes.COMMAND_SYNTAX_ERROR)
+        assert session.state.restartMarker == null
     }
 
     //-------------------------------------------------------------------------
@@ -43,7 +69,7 @@ class RestCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
     }
 
     Command createValidCommand() {
-        return new Command(CommandNames.REST, [])
+        return new Command(CommandNames.REST, ['100'])
     }
 
 }
\ No newline at end of file
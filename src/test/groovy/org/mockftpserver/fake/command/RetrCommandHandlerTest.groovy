@@ -17,15 +17,20 @@ package org.mockftpserver.fake.command
 
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.mockftpserver.core.DataConnectionException
 import org.mockftpserver.core.command.Command
 import org.mockftpserver.core.command.CommandHandler
 import org.mockftpserver.core.command.CommandNames
 import org.mockftpserver.core.command.ReplyCodes
 import org.mockftpserver.core.session.SessionKeys
+import org.mockftpserver.core.session.StubSession
 import org.mockftpserver.fake.filesystem.FileEntry
 import org.mockftpserver.fake.filesystem.FileSystemException
+import org.mockftpserver.fake.filesystem.GeneratedFileEntry
 import org.mockftpserver.fake.filesystem.Permissions
 
+import java.util.zip.InflaterInputStream
+
 /**
  * Tests for RetrCommandHandler
  *
@@ -57,6 +62,14 @@ class RetrCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
         assertSessionData(CONTENTS)
     }
 
+    @Test
+    void testHandleCommand_DataConnectionFails() {
+        session.sendDataException = new DataConnectionException(new SocketException('Connection reset'))
+        handleCommand([FILE])
+        assertSessionReplies([ReplyCodes.TRANSFER_DATA_INITIAL_OK, ReplyCodes.TRANSFER_ABORTED])
+        assert !session.dataConnectionOpen
+    }
+
     @Test
     void testHandleCommand_RelativePath() {
         setCurrentDirectory(DIR)
@@ -64,6 +77,96 @@ class RetrCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
         assertSessionData(CONTENTS_ASCII)
     }
 
+    @Test
+    void testHandleCommand_LargeGeneratedFile() {
+        final int SIZE = 64 * 1024 * 3 + 1
+        final String PATTERN = 'a\r\n'      // CRLF sometimes split across buffers
+        fileSystem.delete(FILE)
+        fileSystem.add(new GeneratedFileEntry(FILE, SIZE, PATTERN.bytes))
+
+        handleCommandAndVerifySendDataReplies([FILE])
+        assert session.sentData.join() == (PATTERN * (SIZE.intdiv(3) + 1)).substring(0, SIZE)
+    }
+
+    @Test
+    void testHandleCommand_CacheCrLfContents() {
+        FileEntry fileEntry = fileSystem.getEntry(FILE)
+        fileEntry.cacheCrLfContents = true
+        handleCommandAndVerifySendDataReplies([FILE])
+        assertSessionData(CONTENTS_ASCII)
+
+        fileEntry.setContents('x\ny')
+        session = new StubSession()
+        session.setAttribute(SessionKeys.USER_ACCOUNT, userAccount)
+        handleCommandAndVerifySendDataReplies([FILE])
+        assertSessionData('x\r\ny')
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker() {
+        session.state.asciiType = false
+        session.state.restartMarker = 4L
+        handleCommandAndVerifySendDataReplies([FILE])
+        assertSessionData(CONTENTS.substring(4))
+        assert session.state.restartMarker == null
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_AsciiMode() {
+        session.state.restartMarker = 5L
+        handleCommandAndVerifySendDataReplies([FILE])
+        assertSessionData(CONTENTS_ASCII.substring(5))
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_LargeGeneratedFile() {
+        session.state.asciiType = false
+        final int SIZE = 1000000
+        fileSystem.delete(FILE)
+        fileSystem.add(new GeneratedFileEntry(FILE, SIZE, 'abcdefghij'.bytes))
+        session.state.restartMarker = SIZE - 13L
+        handleCommandAndVerifySendDataReplies([FILE])
+        assertSessionData('hijabcdefghij')
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_BeyondEndOfFile() {
+        session.state.asciiType = false
+        session.state.restartMarker = CONTENTS.length() + 1L
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.RESTART_MARKER_NOT_VALID)
+        assert !session.dataConnectionOpen
+        assert session.sentData.empty
+        assert session.state.restartMarker == null
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_AtEndOfFile() {
+        session.state.asciiType = false
+        session.state.restartMarker = (long) CONTENTS.length()
+        handleCommandAndVerifySendDataReplies([FILE])
+        assertSessionData('')
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_AsciiMode_BeyondEndOfFile() {
+        // The restart marker is checked against the size of the data sent, with each LF converted to CRLF
+        session.state.restartMarker = (long) CONTENTS_ASCII.length()
+        handleCommandAndVerifySendDataReplies([FILE])
+        assertSessionData('')
+
+        session.state.restartMarker = CONTENTS_ASCII.length() + 1L
+        handleCommand([FILE])
+        assertSessionReply(2, ReplyCodes.RESTART_MARKER_NOT_VALID)
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode() {
+        session.state.deflateLevel = 9
+        handleCommandAndVerifySendDataReplies([FILE])
+        assert new InflaterInputStream(new ByteArrayInputStream(session.sentDataBytes[0])).text == CONTENTS_ASCII
+    }
+
     @Test
     void testHandleCommand_PathSpecifiesAnExistingDirectory() {
         handleCommand([DIR])
@@ -97,9 +200,10 @@ class RetrCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
         def fileEntry = new BadFileEntry(FILE)
         fileSystem.add(fileEntry)
 
+        // The file is opened before the initial reply, so that a restart marker can be checked
         handleCommand([FILE])
-        assertSessionReply(0, ReplyCodes.TRANSFER_DATA_INITIAL_OK)
-        assertSessionReply(1, ReplyCodes.READ_FILE_ERROR, ERROR_MESSAGE_KEY)
+        assertSessionReply(ReplyCodes.READ_FILE_ERROR, ERROR_MESSAGE_KEY)
+        assert !session.dataConnectionOpen
     }
 
     @Test
@@ -37,6 +37,13 @@ class StatCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
         assertSessionReply(ReplyCodes.STAT_SYSTEM_OK, ['12345'])
     }
 
+    @Test
+    void testHandleCommand_DataTransferInProgress() {
+        session.bytesTransferred = 12345678
+        handleCommand([])
+        assertSessionReply(ReplyCodes.STAT_SYSTEM_OK, ['stat.transfer', '12345678'])
+    }
+
     //-------------------------------------------------------------------------
     // Helper Methods
     //-------------------------------------------------------------------------
@@ -20,6 +20,11 @@ import org.mockftpserver.core.command.Command
 import org.mockftpserver.core.command.CommandHandler
 import org.mockftpserver.core.command.CommandNames
 import org.mockftpserver.core.command.ReplyCodes
+import org.mockftpserver.fake.filesystem.FileEntry
+
+import java.security.MessageDigest
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
 
 /**
  * Tests for StorCommandHandler
@@ -44,6 +49,112 @@ class StorCommandHandlerTest extends AbstractStoreFileCommandHandlerTestCase {
         testHandleCommand([FILENAME], 'stor', CONTENTS)
     }
 
+    @Test
+    void testHandleCommand_AsciiMode_ConvertsCrLfToLf() {
+        session.dataToRead = 'abc\r\ndef\r\n'.bytes
+        handleCommand([FILE])
+        assertSessionReply(1, ReplyCodes.TRANSFER_DATA_FINAL_OK, 'stor')
+        assert fileSystem.getEntry(FILE).createInputStream().text == 'abc\ndef\n'
+    }
+
+    @Test
+    void testHandleCommand_BinaryMode_StoresDataUnchanged() {
+        session.state.asciiType = false
+        session.dataToRead = 'abc\r\ndef\r\n'.bytes
+        handleCommand([FILE])
+        assertSessionReply(1, ReplyCodes.TRANSFER_DATA_FINAL_OK, 'stor')
+        assert fileSystem.getEntry(FILE).createInputStream().text == 'abc\r\ndef\r\n'
+    }
+
+    @Test
+    void testHandleCommand_ComputesHashWhileStoring() {
+        session.state.hashAlgorithm = 'SHA-256'
+        session.state.asciiType = false
+        session.dataToRead = CONTENTS.bytes
+        handleCommand([FILE])
+        assertSessionReply(1, ReplyCodes.TRANSFER_DATA_FINAL_OK, 'stor')
+
+        // The digest is already cached for the new contents, so HASH does not read them again
+        FileEntry entry = (FileEntry) fileSystem.getEntry(FILE)
+        assert entry.digests.version == entry.contentsVersion
+        assert entry.digests.digests.keySet() == ['SHA-256'] as Set
+        assert entry.getDigest('SHA-256') == MessageDigest.getInstance('SHA-256').digest(CONTENTS.bytes)
+    }
+
+    @Test
+    void testHandleCommand_ComputesDefaultHashWhileStoring() {
+        session.dataToRead = CONTENTS.bytes
+        handleCommand([FILE])
+        FileEntry entry = (FileEntry) fileSystem.getEntry(FILE)
+        assert entry.digests.version == entry.contentsVersion
+        assert entry.digests.digests.keySet() == [HashCommandHandler.DEFAULT_ALGORITHM] as Set
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker() {
+        fileSystem.add(new FileEntry(FILE, 'abcdefghij'))
+        session.state.asciiType = false
+        session.state.restartMarker = 4L
+        session.dataToRead = 'XYZ'.bytes
+        handleCommand([FILE])
+        assertSessionReply(1, ReplyCodes.TRANSFER_DATA_FINAL_OK, 'stor')
+        assert fileSystem.getEntry(FILE).createInputStream().text == 'abcdXYZ'
+        assert session.state.restartMarker == null
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_AtEndOfFile() {
+        fileSystem.add(new FileEntry(FILE, 'abc'))
+        session.state.restartMarker = 3L
+        session.dataToRead = 'def'.bytes
+        handleCommand([FILE])
+        assertSessionReply(1, ReplyCodes.TRANSFER_DATA_FINAL_OK, 'stor')
+        assert fileSystem.getEntry(FILE).createInputStream().text == 'abcdef'
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_BeyondEndOfFile() {
+        fileSystem.add(new FileEntry(FILE, 'abc'))
+        session.state.restartMarker = 4L
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.RESTART_MARKER_NOT_VALID)
+        assert fileSystem.getEntry(FILE).createInputStream().text == 'abc'
+        assert session.state.restartMarker == null
+    }
+
+    @Test
+    void testHandleCommand_RestartMarker_NewFile() {
+        session.state.restartMarker = 1L
+        handleCommand([FILE])
+        assertSessionReply(ReplyCodes.RESTART_MARKER_NOT_VALID)
+        assert !fileSystem.exists(FILE)
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode() {
+        session.state.deflateLevel = Deflater.DEFAULT_COMPRESSION
+        def compressed = new ByteArrayOutputStream()
+        def deflater = new DeflaterOutputStream(compressed)
+        deflater.write(('abc\r\n' * 1000).bytes)
+        deflater.close()
+        session.dataToRead = compressed.toByteArray()
+
+        handleCommand([FILE])
+        assertSessionReply(1, ReplyCodes.TRANSFER_DATA_FINAL_OK, 'stor')
+        assert fileSystem.getEntry(FILE).createInputStream().text == 'abc\n' * 1000
+    }
+
+    @Test
+    void testHandleCommand_DeflateMode_InvalidCompressedData() {
+        session.state.deflateLevel = Deflater.DEFAULT_COMPRESSION
+        session.dataToRead = 'not compressed'.bytes
+
+        handleCommand([FILE])
+        assertSessionReply(1, ReplyCodes.TRANSFER_ABORTED)
+        assert !session.dataConnectionOpen
+        assert !fileSystem.exists(FILE)
+    }
+
     @Test
     void testHandleCommand_PathSpecifiesAnExistingDirectory() {
         createDirectory(FILE)
@@ -36,6 +36,13 @@ class TypeCommandHandlerTest extends AbstractFakeCommandHandlerTestCase {
         assert session.getAttribute(SessionKeys.ASCII_TYPE) == true
     }
 
+    @Test
+    void testHandleCommand_Ascii_NotInterned() {
+        handleCommand([new String('a')])
+        assertSessionReply(ReplyCodes.TYPE_OK, 'type')
+        assert session.getAttribute(SessionKeys.ASCII_TYPE) == true
+    }
+
     @Test
     void testHandleCommand_NonAscii() {
         handleCommand(['I'])
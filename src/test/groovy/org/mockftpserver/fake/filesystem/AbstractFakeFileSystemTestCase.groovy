@@ -91,6 +91,45 @@ abstract class AbstractFakeFileSystemTestCase extends AbstractFileSystemTestCase
         assert fileSystem.exists(NEW_FILE)
     }
 
+    @Test
+    void testAdd_ContentStore_SharesIdenticalContents() {
+        def store = new ContentStore()
+        fileSystem.contentStore = store
+        byte[] bytes = new byte[ContentStore.BLOCK_SIZE * 3 + 100]
+        new Random(1).nextBytes(bytes)
+
+        10.times { fileSystem.add(new FileEntry(path: fileSystem.path(EXISTING_DIR, "file$it"), contents: bytes)) }
+        assert store.numberOfBlocks == 4
+
+        def file0 = fileSystem.getEntry(fileSystem.path(EXISTING_DIR, "file0"))
+        def file1 = fileSystem.getEntry(fileSystem.path(EXISTING_DIR, "file1"))
+        assert file1.createInputStream().bytes == bytes
+
+        // Copy-on-write: writing to one file does not affect the others
+        file0.createOutputStream(true).write('abc'.bytes)
+        assert file0.size == bytes.length + 3
+        assert file1.createInputStream().bytes == bytes
+    }
+
+    @Test
+    void testAdd_CompressionThreshold() {
+        fileSystem.compressionThreshold = 1000
+        final String CONTENTS = 'abcdefghij' * 10000
+        fileSystem.add(new FileEntry(NEW_FILE, CONTENTS))
+
+        def entry = fileSystem.getEntry(NEW_FILE)
+        assert entry.size == CONTENTS.length()
+        assert entry.createInputStream().text == CONTENTS
+        assert fileSystem.formatDirectoryListing(entry).contains(CONTENTS.length() as String)
+    }
+
+    @Test
+    void testAdd_NoContentStore() {
+        assert fileSystem.contentStore == null
+        fileSystem.add(new FileEntry(NEW_FILE, 'abc'))
+        assert fileSystem.getEntry(NEW_FILE).createInputStream().text == 'abc'
+    }
+
     @Test
     void testToString() {
         String toString = fileSystem.toString()
@@ -78,6 +78,59 @@ public abstract class AbstractFileSystemEntryTestCase extends AbstractGroovyTest
         assert entry.permissions == new Permissions(PERM)
     }
 
+    @Test
+    void testLastModified() {
+        def entry = createFileSystemEntry('abc')
+        assert entry.lastModified == null
+
+        def date = new Date(123456789L)
+        entry.lastModified = date
+        date.time = 0L
+        assert entry.lastModified == new Date(123456789L)
+
+        entry.lastModified = null
+        assert entry.lastModified == null
+    }
+
+    @Test
+    void testOwnerAndGroup_Interned() {
+        def entry = createFileSystemEntry('abc')
+        entry.owner = new String(USER)
+        entry.group = new String(GROUP)
+        assert entry.owner.is(USER)
+        assert entry.group.is(GROUP)
+
+        entry.owner = null
+        entry.group = null
+        assert entry.owner == null
+        assert entry.group == null
+    }
+
+    @Test
+    void testPermissions_SharedInstances() {
+        def entry1 = createFileSystemEntry('abc')
+        def entry2 = createFileSystemEntry('def')
+        entry1.setPermissionsFromString('rw-r-----')
+        entry2.setPermissionsFromString('rw-r-----')
+        assert entry1.permissions == new Permissions('rw-r-----')
+        assert entry1.permissions.is(entry2.permissions)
+
+        entry1.permissions = null
+        assert entry1.permissions == null
+    }
+
+    @Test
+    void testGetId() {
+        def entry1 = createFileSystemEntry('abc')
+        def entry2 = createFileSystemEntry('abc')
+        assert entry1.id > 0
+        assert entry1.id != entry2.id
+
+        entry1.setPath('def')
+        assert entry1.id != entry2.id
+        assert entry1.cloneWithNewPath('ghi').id == entry1.id
+    }
+
     protected AbstractFileSystemEntry createFileSystemEntry(String path) {
         def entry = (AbstractFileSystemEntry) getImplementationClass().newInstance()
         entry.setPath(path)
@@ -228,6 +228,56 @@ abstract class AbstractFileSystemTestCase extends AbstractGroovyTestCase {
         assert fileSystem.listFiles(p(NEW_DIR, 'd?f.*')) as Set == [fileEntry2] as Set
     }
 
+    @Test
+    void testIterateFiles() {
+        fileSystem.add(new DirectoryEntry(NEW_DIR))
+        assert !fileSystem.iterateFiles(NEW_DIR).hasNext()
+
+        def fileEntry1 = new FileEntry(p(NEW_DIR, FILENAME1))
+        def fileEntry2 = new FileEntry(p(NEW_DIR, FILENAME2))
+        def dirEntry3 = new DirectoryEntry(p(NEW_DIR, DIR1))
+        fileSystem.add(fileEntry1)
+        fileSystem.add(fileEntry2)
+        fileSystem.add(dirEntry3)
+        fileSystem.add(new FileEntry(p(NEW_DIR, DIR1, "abc.def")))
+
+        assert fileSystem.iterateFiles(NEW_DIR).collect() as Set == [fileEntry1, fileEntry2, dirEntry3] as Set
+        assert fileSystem.iterateFiles(NEW_DIR).collect() == fileSystem.listFiles(NEW_DIR)
+
+        // Specify a filename instead of a directory name
+        assert fileSystem.iterateFiles(p(NEW_DIR, FILENAME1)).collect() == [fileEntry1]
+
+        assert !fileSystem.iterateFiles(NO_SUCH_DIR).hasNext()
+
+        shouldFailWithMessageContaining("path") { fileSystem.iterateFiles(null) }
+    }
+
+    @Test
+    void testIterateFiles_Wildcards() {
+        def fileEntry1 = new FileEntry(p(NEW_DIR, 'abc.txt'))
+        def fileEntry2 = new FileEntry(p(NEW_DIR, 'def.txt'))
+        fileSystem.add(new DirectoryEntry(NEW_DIR))
+        fileSystem.add(fileEntry1)
+        fileSystem.add(fileEntry2)
+        fileSystem.add(new FileEntry(p(NEW_DIR, 'def.exe')))
+
+        assert fileSystem.iterateFiles(p(NEW_DIR, '*.txt')).collect() as Set == [fileEntry1, fileEntry2] as Set
+        assert fileSystem.iterateFiles(p(NEW_DIR, 'a?c.*')).collect() == [fileEntry1]
+        assert !fileSystem.iterateFiles(p(NO_SUCH_DIR, '*')).hasNext()
+    }
+
+    @Test
+    void testIterateFiles_NextWithoutHasNext() {
+        def fileEntry1 = new FileEntry(p(NEW_DIR, FILENAME1))
+        fileSystem.add(new DirectoryEntry(NEW_DIR))
+        fileSystem.add(fileEntry1)
+
+        def iterator = fileSystem.iterateFiles(NEW_DIR)
+        assert iterator.next() == fileEntry1
+        assert !iterator.hasNext()
+        shouldFail(NoSuchElementException) { iterator.next() }
+    }
+
     @Test
     void testDelete() {
         fileSystem.add(new FileEntry(NEW_FILE))
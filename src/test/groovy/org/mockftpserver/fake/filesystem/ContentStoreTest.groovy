@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for ContentStore
+ */
+class ContentStoreTest extends AbstractGroovyTestCase {
+
+    private ContentStore store = new ContentStore()
+
+    @Test
+    void testIntern() {
+        byte[] bytes1 = 'abc'.bytes
+        byte[] bytes2 = 'abc'.bytes
+        byte[] bytes3 = 'xyz'.bytes
+
+        assert store.intern(bytes1).is(bytes1)
+        assert store.intern(bytes2).is(bytes1)
+        assert store.intern(bytes3).is(bytes3)
+        assert store.numberOfBlocks == 2
+    }
+
+    @Test
+    void testIntern_Null() {
+        shouldFail(AssertFailedException) { store.intern(null) }
+    }
+
+    @Test
+    void testFileEntry_DeduplicateContents() {
+        byte[] bytes = new byte[ContentStore.BLOCK_SIZE + 10]
+        new Random(7).nextBytes(bytes)
+        def entry1 = new FileEntry('/file1')
+        entry1.setContents(bytes)
+        def entry2 = new FileEntry('/file2')
+        def out = entry2.createPendingOutputStream(false)
+        bytes.each { out.write(it) }        // many small segments
+        out.close()
+        def version = entry2.contentsVersion
+
+        entry1.compactContents(store, 0)
+        entry2.compactContents(store, 0)
+
+        assert store.numberOfBlocks == 2
+        assert entry2.createInputStream().bytes == bytes
+        assert entry2.size == bytes.length
+        assert entry2.contentsVersion == version
+    }
+
+    @Test
+    void testFileEntry_DeduplicateContents_GeneratedPrefix() {
+        def entry = new GeneratedFileEntry('/file', 5, 'ab'.bytes)
+        def out = entry.createPendingOutputStream(true)
+        out.write('XYZ'.bytes)
+        out.close()
+
+        entry.compactContents(store, 0)
+        assert entry.createInputStream().text == 'ababaXYZ'
+        assert store.numberOfBlocks == 1
+    }
+
+}
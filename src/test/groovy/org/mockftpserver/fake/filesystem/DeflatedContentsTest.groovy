@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+/**
+ * Tests for DeflatedContents
+ */
+class DeflatedContentsTest extends AbstractGroovyTestCase {
+
+    private static final int BLOCK_SIZE = DeflatedContents.BLOCK_SIZE
+    private static final byte[] TEXT = createText(BLOCK_SIZE * 3 + 1234)
+
+    @Test
+    void testDeflate() {
+        def deflated = deflate(TEXT)
+        assert deflated.compressedSize() < TEXT.length / 2
+        assert deflated.get().bytes == TEXT
+        assert deflated.get().bytes == TEXT        // each InputStream starts at the beginning
+    }
+
+    @Test
+    void testDeflate_Incompressible() {
+        byte[] bytes = new byte[BLOCK_SIZE * 2]
+        new Random(3).nextBytes(bytes)
+        assert deflate(bytes) == null
+    }
+
+    @Test
+    void testDeflate_ContentStore_SharesIdenticalBlocks() {
+        def store = new ContentStore()
+        byte[] bytes = ('x' * (BLOCK_SIZE * 4)).bytes
+        DeflatedContents.deflate(new ByteArrayInputStream(bytes), bytes.length, store)
+        assert store.numberOfBlocks == 1
+    }
+
+    @Test
+    void testInputStream_Skip() {
+        [0, 1, 100, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, BLOCK_SIZE * 3, TEXT.length - 1].each { offset ->
+            def input = deflate(TEXT).get()
+            assert input.skip(offset) == offset
+            assert input.bytes == Arrays.copyOfRange(TEXT, offset, TEXT.length)
+        }
+    }
+
+    @Test
+    void testInputStream_Skip_PastEnd() {
+        def input = deflate(TEXT).get()
+        assert input.skip(TEXT.length + 100) == TEXT.length
+        assert input.read() == -1
+    }
+
+    @Test
+    void testInputStream_ReadSingleBytes() {
+        def input = deflate(TEXT).get()
+        def out = new ByteArrayOutputStream()
+        int b
+        while ((b = input.read()) != -1) {
+            out.write(b)
+        }
+        assert out.toByteArray() == TEXT
+    }
+
+    @Test
+    void testFileEntry_CompactContents_Compressed() {
+        def entry = new FileEntry('/file')
+        entry.setContents(TEXT)
+        def version = entry.contentsVersion
+
+        entry.compactContents(null, 1000)
+        assert entry.@contents.@generator instanceof DeflatedContents
+        assert entry.size == TEXT.length
+        assert entry.contentsVersion == version
+        assert entry.createInputStream().bytes == TEXT
+
+        // Appending follows the compressed contents
+        entry.createOutputStream(true).write('!!'.bytes)
+        assert entry.size == TEXT.length + 2
+        assert new String(entry.createInputStream().bytes).endsWith('!!')
+    }
+
+    @Test
+    void testFileEntry_CompactContents_BelowThreshold() {
+        def entry = new FileEntry('/file')
+        entry.setContents(TEXT)
+        entry.compactContents(null, TEXT.length + 1)
+        assert entry.@contents.@generator == null
+    }
+
+    private static DeflatedContents deflate(byte[] bytes) {
+        return DeflatedContents.deflate(new ByteArrayInputStream(bytes), bytes.length, null)
+    }
+
+    private static byte[] createText(int size) {
+        def text = new StringBuilder()
+        int row = 0
+        while (text.length() < size) {
+            text << "${row},ACME-${row % 17},2026-10-${(row % 28) + 1},${row * 31 % 1000}.00\r\n"
+            row++
+        }
+        return text.substring(0, size).bytes
+    }
+
+}
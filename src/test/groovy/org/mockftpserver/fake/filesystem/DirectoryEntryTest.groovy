@@ -41,6 +41,7 @@ class DirectoryEntryTest extends AbstractFileSystemEntryTestCase {
         assert clone.owner == USER
         assert clone.group == GROUP
         assert clone.permissions == PERMISSIONS
+        assert clone.id == entry.id
         assert clone.size == 0
         assert clone.directory
     }
@@ -17,8 +17,11 @@ package org.mockftpserver.fake.filesystem
 
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
 import org.mockftpserver.core.util.IoUtil
 
+import java.security.MessageDigest
+
 /**
  * Tests for FileEntry
  *
@@ -122,6 +125,269 @@ class FileEntryTest extends AbstractFileSystemEntryTestCase {
         verifyContents(NEW_CONTENTS + CONTENTS + CONTENTS + NEW_CONTENTS)
     }
 
+    @Test
+    void testCreateOutputStream_AppendManySmallWrites() {
+        final byte[] BYTES = new byte[300000]
+        new Random(99).nextBytes(BYTES)
+        OutputStream out = entry.createOutputStream(false)
+        for (int i = 0; i < BYTES.length; i += 1000) {
+            out.write(BYTES, i, Math.min(1000, BYTES.length - i))
+            assert entry.size == Math.min(i + 1000, BYTES.length)
+        }
+        verifyContents(BYTES)
+    }
+
+    @Test
+    void testCreateOutputStream_Append_AfterSetContents() {
+        entry.setContents(CONTENTS)
+        OutputStream out = entry.createOutputStream(true)
+        out.write('!'.bytes)
+        out.write((int) '#')
+        verifyContents(CONTENTS + '!#')
+    }
+
+    @Test
+    void testCreateInputStream_Skip() {
+        entry.setContents(CONTENTS)
+        entry.createOutputStream(true).write(CONTENTS.bytes)
+        def input = entry.createInputStream()
+        assert input.skip(CONTENTS.length() + 4) == CONTENTS.length() + 4
+        assert input.text == CONTENTS.substring(4)
+    }
+
+    @Test
+    void testCreateInputStream_NotAffectedBySubsequentWrites() {
+        OutputStream out = entry.createOutputStream(false)
+        out.write(CONTENTS.bytes)
+        def input = entry.createInputStream()
+        out.write(CONTENTS.bytes)
+        assert input.text == CONTENTS
+        verifyContents(CONTENTS + CONTENTS)
+    }
+
+    @Test
+    void testCreatePendingOutputStream() {
+        entry.setContents(CONTENTS)
+        OutputStream out = entry.createPendingOutputStream(false)
+        out.write('123'.bytes)
+        verifyContents(CONTENTS)
+
+        out.close()
+        verifyContents('123')
+        shouldFail(IOException) { out.write('x'.bytes) }
+    }
+
+    @Test
+    void testCreatePendingOutputStream_Append() {
+        entry.setContents(CONTENTS)
+        OutputStream out = entry.createPendingOutputStream(true)
+        out.write('123'.bytes)
+
+        // Appends to the contents that are current when the OutputStream is closed
+        entry.setContents('xyz')
+        out.close()
+        verifyContents('xyz123')
+    }
+
+    @Test
+    void testCreatePendingOutputStream_InputStreamOpenedBeforeClose() {
+        entry.setContents(CONTENTS)
+        def input = entry.createInputStream()
+        OutputStream out = entry.createPendingOutputStream(false)
+        out.write('123'.bytes)
+        out.close()
+        assert input.text == CONTENTS
+    }
+
+    @Test
+    void testCreatePendingOutputStream_Position() {
+        entry.setContents('abcdefghij')
+        def input = entry.createInputStream()
+        OutputStream out = entry.createPendingOutputStream(4L)
+        out.write('XYZ'.bytes)
+        assert entry.createInputStream().text == 'abcdefghij'
+        out.close()
+        assert entry.createInputStream().text == 'abcdXYZ'
+        assert entry.size == 7
+        assert input.text == 'abcdefghij'
+    }
+
+    @Test
+    void testCreatePendingOutputStream_Position_SegmentsAndGeneratedPrefix() {
+        entry.setGeneratedContents({ new ByteArrayInputStream('0123456789'.bytes) }, 10)
+        def out = entry.createOutputStream(true)
+        out.write(('a' * 1000).bytes)
+        out.write(('b' * 1000).bytes)
+
+        def pending = entry.createPendingOutputStream(1500L)
+        pending.write('XYZ'.bytes)
+        pending.close()
+        assert entry.createInputStream().text == '0123456789' + ('a' * 1000) + ('b' * 490) + 'XYZ'
+
+        pending = entry.createPendingOutputStream(5L)
+        pending.write('XYZ'.bytes)
+        pending.close()
+        assert entry.createInputStream().text == '01234XYZ'
+
+        pending = entry.createPendingOutputStream(100L)     // beyond the end, so append
+        pending.write('!'.bytes)
+        pending.close()
+        assert entry.createInputStream().text == '01234XYZ!'
+    }
+
+    @Test
+    void testCreatePendingOutputStream_NegativePosition() {
+        shouldFail(AssertFailedException) { entry.createPendingOutputStream(-1L) }
+    }
+
+    @Test
+    void testGetContentsVersion() {
+        def version = entry.contentsVersion
+        entry.setContents(CONTENTS)
+        assert entry.contentsVersion == version + 1
+
+        OutputStream out = entry.createOutputStream(true)
+        out.write('1'.bytes)
+        out.write('2'.bytes)
+        assert entry.contentsVersion == version + 3
+
+        OutputStream pending = entry.createPendingOutputStream(false)
+        pending.write('1'.bytes)
+        assert entry.contentsVersion == version + 3
+        pending.close()
+        assert entry.contentsVersion == version + 4
+
+        assert entry.cloneWithNewPath(NEW_PATH).contentsVersion == entry.contentsVersion
+    }
+
+    @Test
+    void testCreateCrLfInputStream() {
+        entry.setContents('abc\ndef\r\n')
+        assert !entry.cacheCrLfContents
+        assert entry.createCrLfInputStream().text == 'abc\r\ndef\r\n'
+        assert entry.createCrLfInputStream().text == 'abc\r\ndef\r\n'
+    }
+
+    @Test
+    void testCreateCrLfInputStream_Cached() {
+        entry.cacheCrLfContents = true
+        entry.setContents('abc\ndef')
+        def input = entry.createCrLfInputStream()
+        assert entry.createCrLfInputStream().text == 'abc\r\ndef'
+        assert entry.crLfContents.version() == entry.contentsVersion
+        def cached = entry.crLfContents
+        assert entry.createCrLfInputStream().text == 'abc\r\ndef'
+        assert entry.crLfContents.is(cached)
+
+        // Invalidated by writes
+        entry.createOutputStream(true).write('\nghi'.bytes)
+        assert entry.createCrLfInputStream().text == 'abc\r\ndef\r\nghi'
+        entry.setContents('x\n')
+        assert entry.createCrLfInputStream().text == 'x\r\n'
+        assert input.text == 'abc\r\ndef'
+
+        entry.cacheCrLfContents = false
+        assert entry.crLfContents == null
+    }
+
+    @Test
+    void testGetDigest() {
+        entry.setContents('abc')
+        assert entry.getDigest('MD5') == md5('abc')
+        assert entry.getDigest(FileEntry.CRC32) == [0x35, 0x24, 0x41, (byte) 0xC2] as byte[]
+        assert entry.digests.digests.keySet() == ['MD5', FileEntry.CRC32] as Set
+        assert entry.digestAlgorithms == ['MD5', FileEntry.CRC32] as Set
+
+        // Invalidated by changes to the contents
+        entry.setContents('xyz')
+        assert entry.getDigest('MD5') == md5('xyz')
+    }
+
+    @Test
+    void testGetDigest_ReturnsCopy() {
+        entry.setContents('abc')
+        entry.getDigest('MD5')[0] = 0
+        assert entry.getDigest('MD5') == md5('abc')
+    }
+
+    @Test
+    void testGetDigest_ComputedWhileWritingPendingOutputStream() {
+        entry.digestAlgorithms = ['MD5', 'SHA-256']
+        def out = entry.createPendingOutputStream(false)
+        out.write('abc'.bytes)
+        out.write((int) 'd')
+        out.close()
+        assert entry.digests.version == entry.contentsVersion
+        assert entry.digests.digests.keySet() == ['MD5', 'SHA-256'] as Set
+        assert entry.getDigest('MD5') == md5('abcd')
+        assert entry.getDigest('SHA-256') == MessageDigest.getInstance('SHA-256').digest('abcd'.bytes)
+    }
+
+    @Test
+    void testGetDigest_ComputedWhileWritingOutputStream() {
+        entry.digestAlgorithms = ['MD5']
+        def out = entry.createOutputStream(false)
+        out.write('ab'.bytes)
+        assert entry.getDigest('MD5') == md5('ab')
+        out.write('cd'.bytes)
+        assert entry.getDigest('MD5') == md5('abcd')
+        assert entry.getDigest('SHA-1') == MessageDigest.getInstance('SHA-1').digest('abcd'.bytes)
+    }
+
+    @Test
+    void testGetDigest_AppendAndRestart() {
+        entry.setContents('abc')
+        entry.digestAlgorithms = ['MD5']
+        def out = entry.createPendingOutputStream(true)
+        out.write('def'.bytes)
+        out.close()
+        assert entry.getDigest('MD5') == md5('abcdef')
+
+        out = entry.createPendingOutputStream(2L)
+        out.write('XY'.bytes)
+        out.close()
+        assert entry.getDigest('MD5') == md5('abXY')
+    }
+
+    @Test
+    void testGetDigest_UnsupportedAlgorithm() {
+        shouldFail(AssertFailedException) { entry.getDigest('NoSuchAlgorithm') }
+        shouldFail(AssertFailedException) { entry.getDigest(null) }
+        shouldFail(AssertFailedException) { entry.digestAlgorithms = ['NoSuchAlgorithm'] }
+    }
+
+    @Test
+    void testConcurrentReadersAndWriter() {
+        final String OLD = 'a' * 10000
+        final String NEW = 'b' * 20000
+        entry.setContents(OLD)
+        def errors = Collections.synchronizedList([])
+        def done = false
+
+        def readers = (1..4).collect {
+            Thread.start {
+                while (!done) {
+                    def text = entry.createInputStream().text
+                    if (text != OLD && text != NEW) {
+                        errors << text.length()
+                    }
+                }
+            }
+        }
+
+        50.times {
+            OutputStream out = entry.createPendingOutputStream(false)
+            def bytes = (it % 2 == 0 ? NEW : OLD).bytes
+            for (int i = 0; i < bytes.length; i += 100) {
+                out.write(bytes, i, 100)
+            }
+            out.close()
+        }
+        done = true
+        readers*.join()
+        assert errors.empty
+    }
+
     @Test
     void testCreateInputStream_NullContents() {
         verifyContents("")
@@ -142,6 +408,7 @@ class FileEntryTest extends AbstractFileSystemEntryTestCase {
         assert clone.owner == USER
         assert clone.group == GROUP
         assert clone.permissions == PERMISSIONS
+        assert clone.id == entry.id
         assert clone.createInputStream().text == 'abc'
         assert !clone.directory
     }
@@ -154,10 +421,24 @@ class FileEntryTest extends AbstractFileSystemEntryTestCase {
 
         assert !clone.is(entry)
         assert clone.path == NEW_PATH
-        assert clone.createInputStream().text == 'ABCDEF' 
+        assert clone.createInputStream().text == 'ABCDEF'
         assert !clone.directory
     }
 
+    @Test
+    void testCloneWithNewPath_AppendToOriginalAndClone() {
+        def out = entry.createOutputStream(false)
+        out.write('ABC'.bytes)
+        def clone = entry.cloneWithNewPath(NEW_PATH)
+
+        out.write('123'.bytes)
+        clone.createOutputStream(true).write('xyz'.bytes)
+
+        assert entry.createInputStream().text == 'ABC123'
+        assert clone.createInputStream().text == 'ABCxyz'
+        assert clone.size == 6
+    }
+
 //    void testEquals() {
 //        assert entry.equals(entry)
 //        assert entry.equals(new FileEntry(path:PATH, lastModified:LAST_MODIFIED))
@@ -230,4 +511,8 @@ class FileEntryTest extends AbstractFileSystemEntryTestCase {
         assert entry.getSize() == expectedContents.length
     }
 
+    private static byte[] md5(String contents) {
+        return MessageDigest.getInstance('MD5').digest(contents.bytes)
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem
+
+import org.junit.jupiter.api.Test
+import org.mockftpserver.core.util.AssertFailedException
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+import java.util.function.Supplier
+
+/**
+ * Tests for GeneratedFileEntry
+ */
+class GeneratedFileEntryTest extends AbstractGroovyTestCase {
+
+    private static final String PATH = "/dir/file.dat"
+    private static final long HUGE_SIZE = 100L * 1024 * 1024 * 1024
+
+    @Test
+    void testConstructor_Pattern() {
+        def entry = new GeneratedFileEntry(PATH, 10, 'abc'.bytes)
+        assert entry.path == PATH
+        assert entry.size == 10
+        assert !entry.directory
+        assert entry.createInputStream().text == 'abcabcabca'
+    }
+
+    @Test
+    void testConstructor_Pattern_Empty() {
+        shouldFail(AssertFailedException) { new GeneratedFileEntry(PATH, 10, new byte[0]) }
+    }
+
+    @Test
+    void testConstructor_Random_SameSeedGivesSameBytes() {
+        def bytes1 = new GeneratedFileEntry(PATH, 1000, 123L).createInputStream().bytes
+        def bytes2 = new GeneratedFileEntry(PATH, 1000, 123L).createInputStream().bytes
+        def bytes3 = new GeneratedFileEntry(PATH, 1000, 456L).createInputStream().bytes
+        assert bytes1.length == 1000
+        assert bytes1 == bytes2
+        assert bytes1 != bytes3
+    }
+
+    @Test
+    void testConstructor_Random_SingleByteReadsMatchBulkReads() {
+        def entry = new GeneratedFileEntry(PATH, 100, 99L)
+        def input = entry.createInputStream()
+        def bytes = (0..<100).collect { (byte) input.read() } as byte[]
+        assert input.read() == -1
+        assert bytes == entry.createInputStream().bytes
+    }
+
+    @Test
+    void testConstructor_Supplier() {
+        def entry = new GeneratedFileEntry(PATH, 6, { new ByteArrayInputStream('abcdefghi'.bytes) } as Supplier)
+        assert entry.createInputStream().text == 'abcdef'
+    }
+
+    @Test
+    void testConstructor_Supplier_InputStreamEndsEarly_PaddedWithZeros() {
+        def entry = new GeneratedFileEntry(PATH, 5, { new ByteArrayInputStream('ab'.bytes) } as Supplier)
+        assert entry.createInputStream().bytes == [97, 98, 0, 0, 0] as byte[]
+    }
+
+    @Test
+    void testConstructor_NegativeSize() {
+        shouldFail(AssertFailedException) { new GeneratedFileEntry(PATH, -1, 'abc'.bytes) }
+    }
+
+    @Test
+    void testHugeFile_SizeAndSkipWithoutMaterializing() {
+        def entry = new GeneratedFileEntry(PATH, HUGE_SIZE, 'abcd'.bytes)
+        assert entry.size == HUGE_SIZE
+
+        def input = entry.createInputStream()
+        assert input.skip(HUGE_SIZE - 3) == HUGE_SIZE - 3
+        assert input.text == 'bcd'
+    }
+
+    @Test
+    void testHugeFile_Random_Skip() {
+        def entry = new GeneratedFileEntry(PATH, HUGE_SIZE, 7L)
+        def input = entry.createInputStream()
+        assert input.skip(HUGE_SIZE - 10) == HUGE_SIZE - 10
+        assert input.bytes.length == 10
+    }
+
+    @Test
+    void testAppend_FollowsGeneratedContents() {
+        def entry = new GeneratedFileEntry(PATH, 4, 'ab'.bytes)
+        def version = entry.contentsVersion
+        def out = entry.createOutputStream(true)
+        out.write('XYZ'.bytes)
+        assert entry.size == 7
+        assert entry.createInputStream().text == 'ababXYZ'
+        assert entry.contentsVersion > version
+    }
+
+    @Test
+    void testOverwrite_ReplacesGeneratedContents() {
+        def entry = new GeneratedFileEntry(PATH, HUGE_SIZE, 'ab'.bytes)
+        def out = entry.createPendingOutputStream(false)
+        out.write('XYZ'.bytes)
+        out.close()
+        assert entry.size == 3
+        assert entry.createInputStream().text == 'XYZ'
+    }
+
+    @Test
+    void testCloneWithNewPath() {
+        def entry = new GeneratedFileEntry(PATH, HUGE_SIZE, 'ab'.bytes)
+        def clone = entry.cloneWithNewPath('/other')
+        assert clone.path == '/other'
+        assert clone.size == HUGE_SIZE
+        assert clone.createInputStream().read() == (int) 'a'
+    }
+
+    @Test
+    void testCreateInputStream_CreatesNewGeneratorInputStreamEachTime() {
+        int count = 0
+        def entry = new GeneratedFileEntry(PATH, 3, { count++; new ByteArrayInputStream('abc'.bytes) } as Supplier)
+        assert entry.createInputStream().text == 'abc'
+        assert entry.createInputStream().text == 'abc'
+        assert count == 2
+    }
+
+}
@@ -70,6 +70,34 @@ class PermissionsTest extends AbstractGroovyTestCase {
         assert !Permissions.NONE.equals(123)
     }
 
+    @Test
+    void testToMaskAndFromMask() {
+        assert new Permissions('rwxrwxrwx').toMask() == 0777
+        assert new Permissions('rw-r-----').toMask() == 0640
+        assert new Permissions('---------').toMask() == 0
+        assert Permissions.fromMask(0777).is(Permissions.ALL)
+        assert Permissions.fromMask(0).is(Permissions.NONE)
+        assert Permissions.fromMask(0640).asRwxString() == 'rw-r-----'
+        assert Permissions.fromMask(0640).is(Permissions.fromMask(0640))
+        (0..511).each { mask -> assert Permissions.fromMask(mask).toMask() == mask }
+    }
+
+    @Test
+    void testValueOf() {
+        assert Permissions.valueOf('rwxrwxrwx').is(Permissions.ALL)
+        assert Permissions.valueOf('---------').is(Permissions.NONE)
+        assert Permissions.valueOf('rw-r-----').is(Permissions.valueOf('rw-r-----'))
+        assert Permissions.valueOf('rw-r-----') == new Permissions('rw-r-----')
+        assert Permissions.valueOf('rw-r-----').asRwxString() == 'rw-r-----'
+    }
+
+    @Test
+    void testValueOf_InvalidString() {
+        shouldFail { Permissions.valueOf('rwxrwxrw') }
+        shouldFail { Permissions.valueOf('rwxrZxrwx') }
+        shouldFail { Permissions.valueOf('xwrxwrxwr') }
+    }
+
     //--------------------------------------------------------------------------
     // Helper Methods
     //--------------------------------------------------------------------------
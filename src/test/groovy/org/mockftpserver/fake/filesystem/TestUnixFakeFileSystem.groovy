@@ -26,6 +26,8 @@ class TestUnixFakeFileSystem extends UnixFakeFileSystem {
     Throwable renameMethodException
     Throwable listNamesMethodException
     Throwable listFilesMethodException
+    Throwable iterateFilesMethodException
+    Throwable iterateFilesNextException
     Throwable deleteMethodException
 
     void add(FileSystemEntry entry) {
@@ -56,6 +58,26 @@ class TestUnixFakeFileSystem extends UnixFakeFileSystem {
         super.listFiles(path)
     }
 
+    Iterator iterateFiles(String path) {
+        if (iterateFilesMethodException) {
+            throw iterateFilesMethodException
+        }
+        Iterator iterator = super.iterateFiles(path)
+        if (iterateFilesNextException) {
+            // Return the first entry, and then fail part way through the listing
+            def exception = iterateFilesNextException
+            boolean first = true
+            return [hasNext: { true }, next: {
+                if (!first) {
+                    throw exception
+                }
+                first = false
+                iterator.next()
+            }] as Iterator
+        }
+        iterator
+    }
+
     boolean delete(String path) {
         if (deleteMethodException) {
             throw deleteMethodException
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem
+
+import groovy.transform.CompileDynamic
+import groovy.transform.CompileStatic
+import org.slf4j.LoggerFactory
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.locks.ReentrantLock
+
+/**
+ * Contention benchmark for add/delete/rename in UnixFakeFileSystem. It is not a test, and is not part of the
+ * test run; run it with "gradlew contentionBenchmark".
+ *
+ * <p>Each thread adds, renames and deletes files within its own directory. The same operations are timed with
+ * the striped locks of the file system alone ("striped"), and with every operation also holding one lock shared
+ * by all threads ("global"), which is how the file system behaved with a single global lock. With 1 thread the
+ * two are about the same; with N threads the striped locks should allow several times the throughput.
+ *
+ * <p>Optional arguments: the number of threads (default: the number of processors, at least 4) and the number of
+ * add/rename/delete operations for each thread (default: 200000).
+ */
+@CompileStatic
+class UnixFakeFileSystem_ContentionBenchmark {
+
+    private static final int NUM_ROUNDS = 3
+
+    private final int numThreads
+    private final int numOperations
+
+    UnixFakeFileSystem_ContentionBenchmark(int numThreads, int numOperations) {
+        this.numThreads = numThreads
+        this.numOperations = numOperations
+    }
+
+    static void main(String[] args) {
+        int numThreads = args.length > 0 ? args[0] as int : Math.max(4, Runtime.runtime.availableProcessors())
+        int numOperations = args.length > 1 ? args[1] as int : 200000
+        logFileSystemWarningsOnly()
+        new UnixFakeFileSystem_ContentionBenchmark(numThreads, numOperations).run()
+    }
+
+    void run() {
+        // Warm up
+        timeOperations(numThreads, true)
+        timeOperations(numThreads, false)
+
+        println "add/rename/delete operations per second ($numOperations per thread; best of $NUM_ROUNDS rounds)"
+        println String.format('%-10s %15s %15s', 'locks', '1 thread', "$numThreads threads")
+        for (String locks : ['global', 'striped']) {
+            boolean global = locks == 'global'
+            long single = bestOperationsPerSecond(1, global)
+            long multi = bestOperationsPerSecond(numThreads, global)
+            println String.format('%-10s %15d %15d   (x%.1f)', locks, single, multi, multi / (double) single)
+        }
+    }
+
+    private long bestOperationsPerSecond(int threads, boolean global) {
+        long best = 0
+        NUM_ROUNDS.times {
+            best = Math.max(best, timeOperations(threads, global))
+        }
+        return best
+    }
+
+    /**
+     * Perform numOperations add/rename/delete operations in each of the specified number of threads, each
+     * within its own directory
+     * @return the number of operations performed per second
+     */
+    private long timeOperations(int threads, boolean global) {
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem()
+        fileSystem.createParentDirectoriesAutomatically = false
+        fileSystem.add(new DirectoryEntry('/'))
+        threads.times { int threadIndex -> fileSystem.add(new DirectoryEntry("/dir$threadIndex")) }
+        ReentrantLock globalLock = global ? new ReentrantLock() : null
+
+        CountDownLatch startSignal = new CountDownLatch(1)
+        List<Thread> workers = (0..<threads).collect { int threadIndex ->
+            Thread.start {
+                startSignal.await()
+                String dir = "/dir$threadIndex/"
+                for (int i = 0; i < numOperations; i++) {
+                    String path = dir + 'file' + (i % 100)
+                    String newPath = path + '.renamed'
+                    withLock(globalLock) { fileSystem.add(new FileEntry(path)) }
+                    withLock(globalLock) { fileSystem.rename(path, newPath) }
+                    withLock(globalLock) { fileSystem.delete(newPath) }
+                }
+            }
+        }
+        long start = System.nanoTime()
+        startSignal.countDown()
+        workers.each { Thread thread -> thread.join() }
+        long elapsed = System.nanoTime() - start
+        return (long) (3L * numOperations * threads * 1000000000L / elapsed)
+    }
+
+    /**
+     * The file system logs every rename at INFO level, which would otherwise dominate the timings
+     */
+    @CompileDynamic
+    private static void logFileSystemWarningsOnly() {
+        def logger = LoggerFactory.getLogger(AbstractFakeFileSystem)
+        if (logger.metaClass.respondsTo(logger, 'setLevel')) {     // Logback, as for the tests
+            logger.level = Class.forName('ch.qos.logback.classic.Level').WARN
+        }
+    }
+
+    private static void withLock(ReentrantLock lock, Closure operation) {
+        if (lock == null) {
+            operation.call()
+            return
+        }
+        lock.lock()
+        try {
+            operation.call()
+        }
+        finally {
+            lock.unlock()
+        }
+    }
+
+}
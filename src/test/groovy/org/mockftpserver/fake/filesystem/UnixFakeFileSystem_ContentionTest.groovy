@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.fake.filesystem
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockftpserver.test.AbstractGroovyTestCase
+
+import java.util.concurrent.CountDownLatch
+
+/**
+ * Concurrency tests for add/delete/rename in UnixFakeFileSystem.
+ */
+class UnixFakeFileSystem_ContentionTest extends AbstractGroovyTestCase {
+
+    private static final int NUM_THREADS = 8
+    private static final int NUM_OPERATIONS = 500
+
+    private UnixFakeFileSystem fileSystem
+
+    //--------------------------------------------------------------------------
+    // Tests
+    //--------------------------------------------------------------------------
+
+    @Test
+    void testConcurrentAdd_CreatingSameParentDirectories() {
+        fileSystem.createParentDirectoriesAutomatically = true
+
+        runThreads { threadIndex ->
+            NUM_OPERATIONS.times { i ->
+                fileSystem.add(new FileEntry("/a/b/c/d${i % 10}/file-$threadIndex-$i"))
+            }
+        }
+
+        assert fileSystem.listFiles('/a/b/c').size() == 10
+        assert fileSystem.listFiles('/a/b/c/d0').size() == NUM_THREADS * NUM_OPERATIONS / 10
+        verifyEveryEntryHasParentDirectory()
+    }
+
+    @Test
+    void testConcurrentAddAndDeleteOfParentDirectory() {
+        fileSystem.createParentDirectoriesAutomatically = false
+        def added = Collections.synchronizedList([])
+
+        runThreads { threadIndex ->
+            NUM_OPERATIONS.times { i ->
+                if (threadIndex == 0) {
+                    fileSystem.delete('/dir')
+                    addIgnoringFileSystemException(new DirectoryEntry('/dir'))
+                }
+                else if (addIgnoringFileSystemException(new FileEntry("/dir/file-$threadIndex-$i"))) {
+                    added << "/dir/file-$threadIndex-$i"
+                }
+            }
+        }
+
+        // A file that was added cannot have been lost by deleting (and re-creating) its directory
+        added.each { assert fileSystem.exists(it) }
+        verifyEveryEntryHasParentDirectory()
+    }
+
+    @Test
+    void testConcurrentRenames_NoFilesLostOrDuplicated() {
+        final int NUM_FILES = NUM_THREADS * 4
+        fileSystem.add(new DirectoryEntry('/dir'))
+        NUM_FILES.times { fileSystem.add(new FileEntry("/dir/$it", "contents $it")) }
+
+        runThreads { threadIndex ->
+            def random = new Random(threadIndex)
+            NUM_OPERATIONS.times {
+                def from = "/dir/${random.nextInt(NUM_FILES * 2)}"
+                def to = "/dir/${random.nextInt(NUM_FILES * 2)}"
+                try {
+                    fileSystem.rename(from, to)
+                }
+                catch (FileSystemException expected) {
+                    // FROM does not exist, or TO already exists
+                }
+            }
+        }
+
+        def files = fileSystem.listFiles('/dir')
+        assert files.size() == NUM_FILES
+        assert files.collect { it.createInputStream().text }.sort() == (0..<NUM_FILES).collect { "contents $it" }.sort()
+        verifyEveryEntryHasParentDirectory()
+    }
+
+    @Test
+    void testConcurrentDirectoryAndFileRenames() {
+        fileSystem.createParentDirectoriesAutomatically = false
+        fileSystem.add(new DirectoryEntry('/x'))
+        NUM_THREADS.times { fileSystem.add(new FileEntry("/x/file$it")) }
+
+        runThreads { threadIndex ->
+            NUM_OPERATIONS.times {
+                if (threadIndex == 0) {
+                    renameIgnoringFileSystemException('/x', '/y')
+                    renameIgnoringFileSystemException('/y', '/x')
+                }
+                else {
+                    ['/x', '/y'].each { dir ->
+                        renameIgnoringFileSystemException("$dir/file$threadIndex", "$dir/renamed$threadIndex")
+                        renameIgnoringFileSystemException("$dir/renamed$threadIndex", "$dir/file$threadIndex")
+                    }
+                }
+            }
+        }
+
+        def dir = fileSystem.exists('/x') ? '/x' : '/y'
+        assert fileSystem.listFiles(dir).size() == NUM_THREADS
+        verifyEveryEntryHasParentDirectory()
+    }
+
+    @Test
+    void testConcurrentAddRenameDelete_SeparateDirectories() {
+        fileSystem.createParentDirectoriesAutomatically = true
+
+        runThreads { threadIndex ->
+            NUM_OPERATIONS.times { i ->
+                def path = "/dir$threadIndex/${i % 10}/file$i"
+                fileSystem.add(new FileEntry(path))
+                fileSystem.rename(path, path + '.renamed')
+                assert !fileSystem.exists(path)
+                assert fileSystem.delete(path + '.renamed')
+            }
+        }
+
+        NUM_THREADS.times { threadIndex ->
+            assert fileSystem.listFiles("/dir$threadIndex").size() == 10
+            10.times { assert fileSystem.listFiles("/dir$threadIndex/$it").empty }
+        }
+        verifyEveryEntryHasParentDirectory()
+    }
+
+    //--------------------------------------------------------------------------
+    // Setup and helper methods
+    //--------------------------------------------------------------------------
+
+    @BeforeEach
+    void setUp() {
+        fileSystem = new UnixFakeFileSystem()
+        fileSystem.add(new DirectoryEntry('/'))
+    }
+
+    private void runThreads(Closure closure) {
+        def errors = Collections.synchronizedList([])
+        def startSignal = new CountDownLatch(1)
+        def threads = (0..<NUM_THREADS).collect { threadIndex ->
+            Thread.start {
+                startSignal.await()
+                try {
+                    closure(threadIndex)
+                }
+                catch (Throwable t) {
+                    errors << t
+                }
+            }
+        }
+        startSignal.countDown()
+        threads*.join()
+        assert errors.empty, "errors=$errors"
+    }
+
+    private boolean addIgnoringFileSystemException(FileSystemEntry entry) {
+        try {
+            fileSystem.add(entry)
+            return true
+        }
+        catch (FileSystemException expected) {
+            return false
+        }
+    }
+
+    private void renameIgnoringFileSystemException(String fromPath, String toPath) {
+        try {
+            fileSystem.rename(fromPath, toPath)
+        }
+        catch (FileSystemException expected) {
+            // FROM does not exist, or TO already exists
+        }
+    }
+
+    private void verifyEveryEntryHasParentDirectory() {
+        def entriesField = AbstractFakeFileSystem.getDeclaredField('entries')
+        entriesField.accessible = true
+        entriesField.get(fileSystem).values().each { entry ->
+            def parent = fileSystem.getParent(entry.path)
+            assert parent == null || fileSystem.getEntry(parent)?.directory, "No parent directory for ${entry.path}"
+        }
+    }
+
+}
@@ -158,6 +158,15 @@ class WindowsFakeFileSystemTest extends AbstractFakeFileSystemTestCase {
         assert fileEntry == fileSystem.getEntry(EXISTING_FILE.toLowerCase())
     }
 
+    @Test
+    void testListFiles_CaseInsensitive() {
+        def fileEntry = new FileEntry(p(NEW_DIR, FILENAME1))
+        fileSystem.add(new DirectoryEntry(NEW_DIR))
+        fileSystem.add(fileEntry)
+        assert fileSystem.listFiles(NEW_DIR.toUpperCase()) == [fileEntry]
+        assert fileSystem.listFiles(p(NEW_DIR.toUpperCase(), 'File1.*')) == [fileEntry]
+    }
+
     @Test
     void getSystemName() {
         assert fileSystem.getSystemName() == 'WINDOWS'
@@ -21,7 +21,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.mockftpserver.core.MockFtpServerException;
+import org.mockftpserver.core.DataConnectionException;
 import org.mockftpserver.core.command.Command;
 import org.mockftpserver.core.socket.StubServerSocket;
 import org.mockftpserver.core.socket.StubServerSocketFactory;
@@ -133,7 +133,12 @@ class DefaultSessionTest extends AbstractTestCase {
 
         session.switchToPassiveMode();
 
-        assertThrows(MockFtpServerException.class, () -> session.openDataConnection());
+        assertThrows(DataConnectionException.class, () -> session.openDataConnection());
+    }
+
+    @Test
+    void testCloseDataConnection_NotOpened() {
+        session.closeDataConnection();
     }
 
     @Test
@@ -168,7 +173,7 @@ class DefaultSessionTest extends AbstractTestCase {
     }
 
     @ParameterizedTest
-    @ValueSource(ints = {1, 5, 15})
+    @ValueSource(ints = {0, 1, 5, 15})
     void testReadData_NumBytes(int numBytes) {
         final String EXPECTED_DATA = DATA.substring(0, numBytes);
         StubSocket stubSocket = createTestSocket(DATA);
@@ -200,6 +205,25 @@ class DefaultSessionTest extends AbstractTestCase {
         assertEquals(NUM_BYTES, data.length);
     }
 
+    @Test
+    void testReadData_OutputStream() {
+        StubSocket stubSocket = createTestSocket(DATA);
+        session.socketFactory = new StubSocketFactory(stubSocket);
+        session.setClientDataHost(clientHost);
+        session.setDataBufferSize(4);       // several chunks
+
+        session.openDataConnection();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long numBytes = session.readData(output);
+        assertEquals(DATA.length(), numBytes);
+        assertArrayEquals(DATA.getBytes(), output.toByteArray());
+    }
+
+    @Test
+    void testReadData_NullOutputStream() {
+        assertThrows(AssertFailedException.class, () -> session.readData((OutputStream) null));
+    }
+
     @Test
     void testReadData_NumBytes_AskForMoreBytesThanThereAre() {
         StubSocket stubSocket = createTestSocket(DATA);
@@ -313,6 +337,104 @@ class DefaultSessionTest extends AbstractTestCase {
         assertEquals(DATA, outputStream.toString());
     }
 
+    @Test
+    void testSendData_InputStream() {
+        StubSocket stubSocket = createTestSocket("");
+        session.socketFactory = new StubSocketFactory(stubSocket);
+        session.setDataBufferSize(4);       // several chunks
+
+        session.setClientDataHost(clientHost);
+        session.openDataConnection();
+        long numBytes = session.sendData(new ByteArrayInputStream(DATA.getBytes()));
+        assertEquals(DATA.length(), numBytes);
+        assertEquals(DATA, outputStream.toString());
+    }
+
+    @Test
+    void testSendData_InputStream_Throttled() {
+        StubSocket stubSocket = createTestSocket("");
+        session.socketFactory = new StubSocketFactory(stubSocket);
+        session.setMaxBytesPerSecond(100);      // chunks of 10 bytes
+
+        session.setClientDataHost(clientHost);
+        session.openDataConnection();
+        Instant start = Instant.now();
+        long numBytes = session.sendData(new ByteArrayInputStream(DATA.getBytes()));
+        assertEquals(DATA.length(), numBytes);
+        assertEquals(DATA, outputStream.toString());
+        // The first chunk is within the burst size; the remaining 5 bytes take 50ms
+        assertTrue(Duration.between(start, Instant.now()).toMillis() >= 40);
+    }
+
+    @Test
+    void testReadData_Throttled_SharedServerLimiter() {
+        byte[] data = DATA.getBytes();
+        session.socketFactory = new StubSocketFactory(createTestSocket(data));
+        BandwidthLimiter serverBandwidthLimiter = new BandwidthLimiter(100);
+        session.setServerBandwidthLimiter(serverBandwidthLimiter);
+
+        session.setClientDataHost(clientHost);
+        session.openDataConnection();
+        Instant start = Instant.now();
+        assertArrayEquals(data, session.readData());
+        assertTrue(Duration.between(start, Instant.now()).toMillis() >= 40);
+    }
+
+    @Test
+    void testSetMaxBytesPerSecond() {
+        assertEquals(0, session.getMaxBytesPerSecond());
+        session.setMaxBytesPerSecond(1000);
+        assertEquals(1000, session.getMaxBytesPerSecond());
+        assertThrows(AssertFailedException.class, () -> session.setMaxBytesPerSecond(-1));
+        assertThrows(AssertFailedException.class, () -> session.setServerBandwidthLimiter(null));
+    }
+
+    @Test
+    void testAbortDataTransfer_NoDataTransferInProgress() {
+        assertFalse(session.abortDataTransfer());
+        assertEquals(-1, session.getBytesTransferred());
+    }
+
+    @Test
+    void testSendData_FileInputStream() throws IOException {
+        StubSocket stubSocket = createTestSocket("");
+        session.socketFactory = new StubSocketFactory(stubSocket);
+        session.setClientDataHost(clientHost);
+        session.openDataConnection();
+
+        File file = File.createTempFile("DefaultSessionTest", ".txt");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            out.write(DATA.getBytes());
+            out.close();
+
+            FileInputStream input = new FileInputStream(file);
+            try {
+                input.skip(2);      // only the remaining contents are sent
+                long numBytes = session.sendData(input);
+                assertEquals(DATA.length() - 2, numBytes);
+                assertEquals(DATA.substring(2), outputStream.toString());
+                assertEquals(-1, input.read());
+            }
+            finally {
+                input.close();
+            }
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void testSendData_NullInputStream() {
+        assertThrows(AssertFailedException.class, () -> session.sendData((InputStream) null));
+    }
+
+    @Test
+    void testSetDataBufferSize_NotPositive() {
+        assertThrows(AssertFailedException.class, () -> session.setDataBufferSize(0));
+    }
+
     @Test
     void testSendData_Null() {
         assertThrows(AssertFailedException.class, () -> session.sendData(null, 1));
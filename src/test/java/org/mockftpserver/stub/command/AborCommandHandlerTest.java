@@ -39,6 +39,7 @@ class AborCommandHandlerTest extends AbstractCommandHandlerTestCase {
 
         commandHandler.handleCommand(COMMAND, session);
 
+        verify(session).abortDataTransfer();
         verify(session).sendReply(ReplyCodes.ABOR_OK, replyTextFor(ReplyCodes.ABOR_OK));
         verifyNumberOfInvocations(commandHandler, 1);
         verifyNoDataElements(commandHandler.getInvocation(0));
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.AbstractCommandHandlerTestCase;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.util.AssertFailedException;
+import org.mockftpserver.stub.StubFtpServer;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for the FeatCommandHandler class
+ */
+class FeatCommandHandlerTest extends AbstractCommandHandlerTestCase {
+
+    private static final Command COMMAND = new Command(CommandNames.FEAT, EMPTY);
+
+    private FeatCommandHandler commandHandler;
+
+    @Test
+    void testHandleCommand() throws Exception {
+        Map commandHandlers = new HashMap();
+        commandHandlers.put(CommandNames.MDTM, new MdtmCommandHandler());
+        commandHandlers.put(CommandNames.USER, new UserCommandHandler());
+        commandHandler.setCommandHandlers(commandHandlers);
+        commandHandler.handleCommand(COMMAND, session);
+        verify(session).sendReply(ReplyCodes.FEAT_OK, formattedReplyTextFor(ReplyCodes.FEAT_OK, "\r\n MDTM\r\n"));
+
+        verifyNumberOfInvocations(commandHandler, 1);
+        verifyNoDataElements(commandHandler.getInvocation(0));
+    }
+
+    @Test
+    void testHandleCommand_StubModeAndRest_ExtensionsNotAdvertised() throws Exception {
+        Map commandHandlers = new HashMap();
+        commandHandlers.put(CommandNames.MODE, new ModeCommandHandler());
+        commandHandlers.put(CommandNames.REST, new RestCommandHandler());
+        commandHandlers.put(CommandNames.MDTM, new MdtmCommandHandler());
+        commandHandler.setCommandHandlers(commandHandlers);
+        commandHandler.handleCommand(COMMAND, session);
+        verify(session).sendReply(ReplyCodes.FEAT_OK, formattedReplyTextFor(ReplyCodes.FEAT_OK, "\r\n MDTM\r\n"));
+    }
+
+    @Test
+    void testHandleCommand_StubFtpServerDefaults() throws Exception {
+        StubFtpServer stubFtpServer = new StubFtpServer();
+        stubFtpServer.getCommandHandler(CommandNames.FEAT).handleCommand(COMMAND, session);
+
+        ArgumentCaptor replyText = ArgumentCaptor.forClass(String.class);
+        verify(session).sendReply(eq(ReplyCodes.FEAT_OK), (String) replyText.capture());
+        String features = (String) replyText.getValue();
+        assertTrue(features.contains(" MDTM\r\n"), features);
+        assertFalse(features.contains("MODE Z"), features);
+        assertFalse(features.contains("REST STREAM"), features);
+    }
+
+    @Test
+    void testHandleCommand_CustomFeatures() throws Exception {
+        commandHandler.setCommandHandlers(new HashMap());
+        commandHandler.setFeatures(Arrays.asList(new String[]{"MLST type*;size*;", "TVFS"}));
+        commandHandler.handleCommand(COMMAND, session);
+        verify(session).sendReply(ReplyCodes.FEAT_OK, formattedReplyTextFor(ReplyCodes.FEAT_OK, "\r\n MLST type*;size*;\r\n TVFS\r\n"));
+    }
+
+    @Test
+    void testSetFeatures_Null() {
+        assertThrows(AssertFailedException.class, () -> commandHandler.setFeatures(null));
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commandHandler = new FeatCommandHandler();
+        commandHandler.setReplyTextBundle(replyTextBundle);
+        commandHandler.setReplyMessageKey(Integer.toString(ReplyCodes.FEAT_OK));
+    }
+
+}
@@ -27,7 +27,9 @@ import org.mockftpserver.core.command.CommandNames;
 import org.mockftpserver.core.command.ReplyCodes;
 import org.mockftpserver.core.util.AssertFailedException;
 
-import java.util.Arrays;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
 
 /**
  * Tests for the FileRetrCommandHandler class
@@ -36,8 +38,7 @@ import java.util.Arrays;
  */
 class FileRetrCommandHandlerTest extends AbstractCommandHandlerTestCase {
 
-    private static final byte BYTE1 = (byte) 7;
-    private static final byte BYTE2 = (byte) 21;
+    private static final int SAMPLE_FILE_LENGTH = 5 * 512 + 3;
 
     private FileRetrCommandHandler commandHandler;
 
@@ -53,8 +54,18 @@ class FileRetrCommandHandlerTest extends AbstractCommandHandlerTestCase {
 
     @Test
     void testHandleCommand() throws Exception {
-        final byte[] BUFFER = new byte[FileRetrCommandHandler.BUFFER_SIZE];
-        Arrays.fill(BUFFER, BYTE1);
+        final ByteArrayOutputStream sentBytes = new ByteArrayOutputStream();
+        when(session.sendData(any(InputStream.class))).thenAnswer(invocation -> {
+            InputStream input = invocation.getArgument(0);
+            assertTrue(input instanceof FileInputStream, "input is a FileInputStream");
+            int numBytes = 0;
+            int b;
+            while ((b = input.read()) != -1) {
+                sentBytes.write(b);
+                numBytes++;
+            }
+            return (long) numBytes;
+        });
 
         session.sendReply(ReplyCodes.TRANSFER_DATA_INITIAL_OK, replyTextFor(ReplyCodes.TRANSFER_DATA_INITIAL_OK));
         session.openDataConnection();
@@ -63,8 +74,8 @@ class FileRetrCommandHandlerTest extends AbstractCommandHandlerTestCase {
         Command command = new Command(CommandNames.RETR, array(FILENAME1));
         commandHandler.handleCommand(command, session);
 
-        verify(session, times(5)).sendData(any(), eq(512));
-        verify(session).sendData(any(), eq(3));
+        verify(session).sendData(any(InputStream.class));
+        assertEquals(SAMPLE_FILE_LENGTH, sentBytes.size());
         verify(session).closeDataConnection();
         verify(session).sendReply(ReplyCodes.TRANSFER_DATA_FINAL_OK, replyTextFor(ReplyCodes.TRANSFER_DATA_FINAL_OK));
 
@@ -94,15 +105,15 @@ class FileRetrCommandHandlerTest extends AbstractCommandHandlerTestCase {
 //     */
 //    private void createSampleFile() {
 //        final String FILE_PATH = "test/org.mockftpserver/command/Sample.jpg";
-//        final byte[] BUFFER = new byte[FileRetrCommandHandler.BUFFER_SIZE];
-//        Arrays.fill(BUFFER, BYTE1);
+//        final byte[] BUFFER = new byte[512];
+//        Arrays.fill(BUFFER, (byte) 7);
 //
 //        File file = new File(FILE_PATH);
 //        FileOutputStream out = new FileOutputStream(file);
 //        for (int i = 0; i < 5; i++) {
 //            out.write(BUFFER);
 //        }
-//        Arrays.fill(BUFFER, BYTE2);
+//        Arrays.fill(BUFFER, (byte) 21);
 //        out.write(BUFFER, 0, 3);
 //        out.close();
 //        LOG.info("Created temporary file [" + FILE_PATH + "]: length=" + file.length());
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.AbstractCommandHandlerTestCase;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.ReplyCodes;
+
+import java.util.Date;
+
+/**
+ * Tests for the MdtmCommandHandler class
+ */
+class MdtmCommandHandlerTest extends AbstractCommandHandlerTestCase {
+
+    private static final Date LAST_MODIFIED = new Date(1773585005000L);     // 2026-03-15 14:30:05 UTC
+    private static final String TIME = "20260315143005";
+
+    private MdtmCommandHandler commandHandler;
+    private Command command1;
+    private Command command2;
+
+    @Test
+    void testHandleCommand() throws Exception {
+        commandHandler.setLastModified(LAST_MODIFIED);
+        commandHandler.handleCommand(command1, session);
+        commandHandler.handleCommand(command2, session);
+        verify(session, times(2)).sendReply(ReplyCodes.MDTM_OK, formattedReplyTextFor(ReplyCodes.MDTM_OK, TIME));
+
+        verifyNumberOfInvocations(commandHandler, 2);
+        verifyOneDataElement(commandHandler.getInvocation(0), MdtmCommandHandler.PATHNAME_KEY, FILENAME1);
+        verifyOneDataElement(commandHandler.getInvocation(1), MdtmCommandHandler.PATHNAME_KEY, FILENAME2);
+    }
+
+    @Test
+    void testHandleCommand_MissingPathnameParameter() throws Exception {
+        testHandleCommand_InvalidParameters(commandHandler, CommandNames.MDTM, EMPTY);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commandHandler = new MdtmCommandHandler();
+        commandHandler.setReplyTextBundle(replyTextBundle);
+        commandHandler.setReplyMessageKey(Integer.toString(ReplyCodes.MDTM_OK));
+        command1 = new Command(CommandNames.MDTM, array(FILENAME1));
+        command2 = new Command(CommandNames.MDTM, array(FILENAME2));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.AbstractCommandHandlerTestCase;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.ReplyCodes;
+
+import java.util.Date;
+
+/**
+ * Tests for the MfmtCommandHandler class
+ */
+class MfmtCommandHandlerTest extends AbstractCommandHandlerTestCase {
+
+    private static final Date LAST_MODIFIED = new Date(1773585005000L);     // 2026-03-15 14:30:05 UTC
+    private static final String TIME = "20260315143005";
+
+    private MfmtCommandHandler commandHandler;
+
+    @Test
+    void testHandleCommand() throws Exception {
+        Command command = new Command(CommandNames.MFMT, array(TIME + " " + FILENAME1));
+        commandHandler.handleCommand(command, session);
+        verify(session).sendReply(ReplyCodes.MFMT_OK, formattedReplyTextFor(ReplyCodes.MFMT_OK, TIME));
+
+        verifyNumberOfInvocations(commandHandler, 1);
+        verifyTwoDataElements(commandHandler.getInvocation(0), MfmtCommandHandler.PATHNAME_KEY, FILENAME1,
+                MfmtCommandHandler.LAST_MODIFIED_KEY, LAST_MODIFIED);
+    }
+
+    @Test
+    void testHandleCommand_InvalidTime() throws Exception {
+        testHandleCommand_InvalidParameters(commandHandler, CommandNames.MFMT, array("2026xx " + FILENAME1));
+    }
+
+    @Test
+    void testHandleCommand_MissingParameter() throws Exception {
+        testHandleCommand_InvalidParameters(commandHandler, CommandNames.MFMT, EMPTY);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commandHandler = new MfmtCommandHandler();
+        commandHandler.setReplyTextBundle(replyTextBundle);
+        commandHandler.setReplyMessageKey(Integer.toString(ReplyCodes.MFMT_OK));
+    }
+}
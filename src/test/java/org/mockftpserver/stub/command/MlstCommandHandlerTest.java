@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.AbstractCommandHandlerTestCase;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.ReplyCodes;
+import org.mockftpserver.core.util.AssertFailedException;
+
+/**
+ * Tests for the MlstCommandHandler class
+ */
+class MlstCommandHandlerTest extends AbstractCommandHandlerTestCase {
+
+    private MlstCommandHandler commandHandler;
+
+    @Test
+    void testHandleCommand() throws Exception {
+        commandHandler.setFacts("type=file;size=3;");
+        Command command = new Command(CommandNames.MLST, array(FILENAME1));
+        commandHandler.handleCommand(command, session);
+        verify(session).sendReply(ReplyCodes.MLST_OK, replyTextFor(ReplyCodes.MLST_OK));
+
+        verifyNumberOfInvocations(commandHandler, 1);
+        verifyOneDataElement(commandHandler.getInvocation(0), MlstCommandHandler.PATHNAME_KEY, FILENAME1);
+    }
+
+    @Test
+    void testHandleCommand_NoPathname() throws Exception {
+        Command command = new Command(CommandNames.MLST, EMPTY);
+        commandHandler.handleCommand(command, session);
+        verify(session).sendReply(ReplyCodes.MLST_OK, replyTextFor(ReplyCodes.MLST_OK));
+
+        verifyNumberOfInvocations(commandHandler, 1);
+        verifyOneDataElement(commandHandler.getInvocation(0), MlstCommandHandler.PATHNAME_KEY, null);
+    }
+
+    @Test
+    void testSetFacts_Null() {
+        assertThrows(AssertFailedException.class, () -> commandHandler.setFacts(null));
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commandHandler = new MlstCommandHandler();
+        commandHandler.setReplyTextBundle(replyTextBundle);
+        commandHandler.setReplyMessageKey(Integer.toString(ReplyCodes.MLST_OK));
+    }
+
+}
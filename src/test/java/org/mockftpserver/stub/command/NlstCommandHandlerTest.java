@@ -56,6 +56,17 @@ class NlstCommandHandlerTest extends AbstractCommandHandlerTestCase {
         verifyOneDataElement(commandHandler.getInvocation(1), NlstCommandHandler.PATHNAME_KEY, null);
     }
 
+    @Test
+    void testHandleCommand_NonAsciiDirectoryListing() throws Exception {
+        final String DIR_LISTING = "caf\u00e9.txt\nna\u00efve.log";
+        commandHandler.setDirectoryListing(DIR_LISTING);
+
+        commandHandler.handleCommand(new Command(CommandNames.NLST, EMPTY), session);
+
+        byte[] bytes = DIR_LISTING.getBytes();
+        verify(session).sendData(bytes, bytes.length);
+    }
+
     @BeforeEach
     void setUp() throws Exception {
         commandHandler = new NlstCommandHandler();
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mockftpserver.stub.command;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.AbstractCommandHandlerTestCase;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.ReplyCodes;
+
+/**
+ * Tests for the OptsCommandHandler class
+ */
+class OptsCommandHandlerTest extends AbstractCommandHandlerTestCase {
+
+    private OptsCommandHandler commandHandler;
+
+    @Test
+    void testHandleCommand() throws Exception {
+        Command command = new Command(CommandNames.OPTS, array("UTF8 ON"));
+        commandHandler.handleCommand(command, session);
+        verify(session).sendReply(ReplyCodes.OPTS_OK, replyTextFor(ReplyCodes.OPTS_OK));
+
+        verifyNumberOfInvocations(commandHandler, 1);
+        verifyOneDataElement(commandHandler.getInvocation(0), OptsCommandHandler.OPTION_KEY, "UTF8 ON");
+    }
+
+    @Test
+    void testHandleCommand_MissingParameter() throws Exception {
+        testHandleCommand_InvalidParameters(commandHandler, CommandNames.OPTS, EMPTY);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commandHandler = new OptsCommandHandler();
+        commandHandler.setReplyTextBundle(replyTextBundle);
+        commandHandler.setReplyMessageKey(Integer.toString(ReplyCodes.OPTS_OK));
+    }
+
+}